@@ -1,10 +1,20 @@
 package com.acme.decision.application.port;
 
 import com.acme.decision.domain.model.Rule;
+import com.acme.decision.domain.model.RuleCacheStats;
 import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.ScoreResult;
+import com.acme.decision.domain.model.backtest.BacktestReport;
+import com.acme.decision.domain.model.explain.ScoreExplanation;
+import com.acme.decision.domain.model.metrics.EvaluationMetrics;
+import com.acme.decision.domain.model.scoring.ModelInfo;
+import com.acme.decision.domain.model.shadow.ShadowStats;
 
+import java.util.BitSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Porta de entrada (Driving Port) para o motor de decisão.
@@ -16,9 +26,29 @@ public interface DecisionEnginePort {
      * Calcula o score de risco baseado nos dados da transação.
      * 
      * @param calculationData dados para cálculo do score
-     * @return score calculado
+     * @return score calculado e versão das regras usada
      */
-    int calculateScore(ScoreCalculationData calculationData);
+    ScoreResult calculateScore(ScoreCalculationData calculationData);
+    
+    /**
+     * Calcula o score de risco de um lote de transações, usando as mesmas regras para todo o lote.
+     * Itens inválidos ou com erro recebem o score padrão de erro, sem afetar os demais.
+     * 
+     * @param batch dados para cálculo, um item por transação (itens nulos são tratados como inválidos)
+     * @return scores calculados, na mesma ordem do lote
+     */
+    ScoreResult[] calculateScores(List<ScoreCalculationData> batch);
+    
+    /**
+     * Decodifica a máscara de regras aplicadas retornada por um cálculo com explicação.
+     * 
+     * @param ruleSetVersion versão das regras usada no cálculo
+     * @param txType tipo da transação calculada
+     * @param firedRules posições das regras aplicadas no conjunto do tipo de transação
+     * @return regras aplicadas com nomes e pontos, ou vazio se a versão não estiver mais disponível
+     * @throws IllegalArgumentException se a máscara não corresponder ao conjunto de regras
+     */
+    Optional<ScoreExplanation> explain(long ruleSetVersion, String txType, BitSet firedRules);
     
     /**
      * Cria uma nova regra.
@@ -59,5 +89,73 @@ public interface DecisionEnginePort {
      * @return true se excluída, false se não encontrada
      */
     boolean deleteRule(Long id);
+    
+    /**
+     * Retorna as estatísticas do cache de regras ativas.
+     * 
+     * @return estatísticas do cache
+     */
+    RuleCacheStats getRuleCacheStats();
+    
+    /**
+     * Retorna as métricas de avaliação por tipo de transação e por regra.
+     * 
+     * @return métricas desde o último reset
+     */
+    EvaluationMetrics getEvaluationMetrics();
+    
+    /**
+     * Zera as métricas de avaliação.
+     */
+    void resetEvaluationMetrics();
+    
+    /**
+     * Reprocessa transações históricas com as regras ativas e com um conjunto candidato, sem publicá-lo.
+     * 
+     * @param candidateRules conjunto candidato completo (substitui todas as regras ativas)
+     * @param transactions linhas de transações, lidas em streaming
+     * @param parser converte uma linha em dados de cálculo; linhas inválidas resultam em nulo
+     * @param threshold limiar de decisão, ou nulo para o padrão configurado
+     * @return comparação agregada entre os dois conjuntos
+     * @throws IllegalArgumentException se alguma regra candidata for inválida
+     */
+    BacktestReport backtest(List<Rule> candidateRules, Iterator<String> transactions,
+                            Function<String, ScoreCalculationData> parser, Integer threshold);
+    
+    /**
+     * Ativa a avaliação sombra de um conjunto candidato sobre o tráfego real, substituindo o candidato anterior.
+     * 
+     * @param candidateRules conjunto candidato completo (substitui todas as regras ativas)
+     * @return contadores zerados da nova avaliação
+     * @throws IllegalArgumentException se alguma regra candidata for inválida
+     */
+    ShadowStats startShadow(List<Rule> candidateRules);
+    
+    /**
+     * Desativa a avaliação sombra.
+     */
+    void stopShadow();
+    
+    /**
+     * Retorna os contadores da avaliação sombra.
+     * 
+     * @return contadores desde a ativação do candidato atual
+     */
+    ShadowStats getShadowStats();
+    
+    /**
+     * Lista os modelos de score carregados.
+     * 
+     * @return estado de cada modelo
+     */
+    List<ModelInfo> getModels();
+    
+    /**
+     * Recarrega o arquivo de um modelo de score, sem reiniciar o serviço nem recompilar as regras que o usam.
+     * 
+     * @param name nome do modelo
+     * @return estado do modelo após a recarga
+     * @throws IllegalArgumentException se o arquivo estiver ausente ou inválido (a versão anterior é mantida)
+     */
+    ModelInfo reloadModel(String name);
 }
-
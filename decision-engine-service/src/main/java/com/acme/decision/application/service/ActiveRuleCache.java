@@ -0,0 +1,293 @@
+package com.acme.decision.application.service;
+
+import com.acme.decision.application.port.RuleRepositoryPort;
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.CompiledRuleSet;
+import com.acme.decision.domain.model.Rule;
+import com.acme.decision.domain.model.RuleCacheStats;
+import com.acme.decision.domain.model.RuleSnapshot;
+import com.acme.decision.domain.service.RuleEngine;
+import com.acme.decision.domain.service.VelocityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Cache em memória das regras ativas, publicado como {@link RuleSnapshot} versionado.
+ * <p>
+ * Leitores obtêm o snapshot atual de uma única {@link AtomicReference}, sem bloqueio, e usam
+ * a mesma versão durante todo o cálculo. Escritores são serializados entre si, da gravação no
+ * repositório à publicação, e montam um novo snapshot por cópia: apenas os conjuntos dos tipos de
+ * transação afetados pela alteração são recompilados, os demais são reaproveitados do snapshot anterior.
+ * <p>
+ * As últimas versões publicadas são mantidas, para decodificar explicações de scores calculados
+ * sobre elas depois que uma nova versão foi publicada.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActiveRuleCache {
+
+    private static final Comparator<CompiledRule> BY_ID = Comparator.comparing(CompiledRule::getId);
+
+    private final RuleRepositoryPort ruleRepositoryPort;
+    private final RuleEngine ruleEngine;
+    private final VelocityService velocityService;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder publishes = new LongAdder();
+    private final LongAdder fullRebuilds = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private volatile Instant lastRefreshFailure;
+
+    private final AtomicReference<RuleSnapshot> snapshot = new AtomicReference<>();
+    private final Object writeLock = new Object();
+    private final Map<Long, RuleSnapshot> history = new ConcurrentHashMap<>();
+
+    @Value("${decision-engine.rules.snapshot-history:32}")
+    private int snapshotHistory;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        refresh();
+    }
+
+    /**
+     * Retorna o snapshot atual das regras, para resolver várias consultas sobre a mesma versão.
+     * <p>
+     * Nunca consulta o repositório: antes do carregamento inicial, ou enquanto ele falhar, o
+     * snapshot é vazio e cabe ao chamador responder com o score padrão de erro.
+     *
+     * @return regras ativas compiladas, ou vazio se ainda não carregadas
+     */
+    public Optional<RuleSnapshot> getSnapshot() {
+        RuleSnapshot current = snapshot.get();
+
+        if (current == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(current);
+    }
+
+    /**
+     * Retorna um snapshot publicado recentemente, pela versão.
+     *
+     * @param version versão das regras
+     * @return snapshot da versão, ou vazio se desconhecida ou já descartada do histórico
+     */
+    public Optional<RuleSnapshot> getSnapshot(long version) {
+        RuleSnapshot current = snapshot.get();
+        if (current != null && current.getVersion() == version) {
+            return Optional.of(current);
+        }
+        return Optional.ofNullable(history.get(version));
+    }
+
+    /**
+     * Reconstrói o snapshot a partir das regras ativas persistidas.
+     * Em caso de falha, o snapshot anterior é mantido e a falha é contada nas estatísticas.
+     */
+    public void refresh() {
+        synchronized (writeLock) {
+            try {
+                publish(build(nextVersion(), compileActive(ruleRepositoryPort.findAll())));
+            } catch (Exception e) {
+                refreshFailures.increment();
+                lastRefreshFailure = Instant.now();
+                log.error("Erro ao reconstruir cache de regras, mantendo conteúdo anterior (versão {})",
+                        snapshot.get() != null ? snapshot.get().getVersion() : 0, e);
+            }
+        }
+    }
+
+    /**
+     * Grava a regra criada ou atualizada e publica uma nova versão contendo-a, com o lock de escrita,
+     * de forma que as versões seguem a ordem das gravações. Regras inativas são removidas do snapshot.
+     *
+     * @param rule regra a gravar
+     * @return regra persistida
+     */
+    public Rule saveAndPublish(Rule rule) {
+        synchronized (writeLock) {
+            Rule savedRule = ruleRepositoryPort.save(rule);
+            try {
+                RuleSnapshot previous = currentForWrite();
+
+                List<CompiledRule> activeRules = withoutRule(previous, savedRule.getId());
+                if (savedRule.isActive()) {
+                    activeRules.addAll(ruleEngine.compileRules(List.of(savedRule)));
+                    activeRules.sort(BY_ID);
+                }
+
+                Set<String> affectedTxTypes = affectedTxTypes(previous, savedRule.getId());
+                affectedTxTypes.add(savedRule.getTxType());
+
+                publish(derive(previous, activeRules, affectedTxTypes));
+            } catch (Exception e) {
+                log.error("Erro ao publicar regra ID {}, reconstruindo cache", savedRule.getId(), e);
+                refresh();
+            }
+            return savedRule;
+        }
+    }
+
+    /**
+     * Exclui a regra e publica uma nova versão sem ela, com o lock de escrita.
+     *
+     * @param id ID da regra
+     * @return false se a regra não existe
+     */
+    public boolean deleteAndPublish(Long id) {
+        synchronized (writeLock) {
+            if (!ruleRepositoryPort.existsById(id)) {
+                return false;
+            }
+            ruleRepositoryPort.deleteById(id);
+
+            try {
+                RuleSnapshot previous = currentForWrite();
+                Set<String> affectedTxTypes = affectedTxTypes(previous, id);
+
+                if (!affectedTxTypes.isEmpty()) {
+                    publish(derive(previous, withoutRule(previous, id), affectedTxTypes));
+                }
+                // Sem tipos afetados a regra era inativa: as regras ativas não mudam
+            } catch (Exception e) {
+                log.error("Erro ao publicar exclusão da regra ID {}, reconstruindo cache", id, e);
+                refresh();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Retorna as estatísticas de uso do cache.
+     *
+     * @return estatísticas do cache
+     */
+    public RuleCacheStats getStats() {
+        RuleSnapshot current = snapshot.get();
+        return new RuleCacheStats(
+                hits.sum(),
+                misses.sum(),
+                publishes.sum(),
+                fullRebuilds.sum(),
+                current != null ? current.getVersion() : 0,
+                current != null ? current.getRuleSetsByTxType().size() : 0,
+                current != null ? current.getActiveRules().size() : 0,
+                current != null ? current.getBuiltAt() : null,
+                refreshFailures.sum(),
+                lastRefreshFailure
+        );
+    }
+
+    /**
+     * Chamado com o lock de escrita: uma alteração de regra anterior ao carregamento inicial carrega
+     * as regras persistidas antes de derivar a nova versão.
+     */
+    private RuleSnapshot currentForWrite() {
+        RuleSnapshot current = snapshot.get();
+        if (current == null) {
+            publish(build(nextVersion(), compileActive(ruleRepositoryPort.findAll())));
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    private long nextVersion() {
+        RuleSnapshot current = snapshot.get();
+        return current != null ? current.getVersion() + 1 : 1;
+    }
+
+    private void publish(RuleSnapshot next) {
+        velocityService.useActiveRules(next.getActiveRules());
+        snapshot.set(next);
+        history.put(next.getVersion(), next);
+        history.remove(next.getVersion() - Math.max(1, snapshotHistory));
+        publishes.increment();
+
+        log.info("Regras publicadas na versão {}: {} regras ativas, {} tipos de transação",
+                next.getVersion(), next.getActiveRules().size(), next.getRuleSetsByTxType().size());
+    }
+
+    private List<CompiledRule> compileActive(List<Rule> rules) {
+        List<CompiledRule> compiledRules = ruleEngine.compileRules(rules.stream()
+                .filter(Rule::isActive)
+                .collect(Collectors.toList()));
+        compiledRules.sort(BY_ID);
+        return compiledRules;
+    }
+
+    private List<CompiledRule> withoutRule(RuleSnapshot previous, Long id) {
+        List<CompiledRule> rules = new ArrayList<>(previous.getActiveRules());
+        rules.removeIf(rule -> rule.getId().equals(id));
+        return rules;
+    }
+
+    private Set<String> affectedTxTypes(RuleSnapshot previous, Long id) {
+        Set<String> txTypes = new LinkedHashSet<>();
+        for (CompiledRule rule : previous.getActiveRules()) {
+            if (rule.getId().equals(id)) {
+                txTypes.add(rule.getTxType());
+            }
+        }
+        return txTypes;
+    }
+
+    /**
+     * Monta a versão seguinte reaproveitando os conjuntos dos tipos não afetados.
+     * Alterações em regras DEFAULT afetam todos os tipos.
+     */
+    private RuleSnapshot derive(RuleSnapshot previous, List<CompiledRule> activeRules, Set<String> affectedTxTypes) {
+        if (affectedTxTypes.contains(RuleSnapshot.DEFAULT_TX_TYPE)) {
+            return build(previous.getVersion() + 1, activeRules);
+        }
+
+        Set<String> txTypes = new LinkedHashSet<>();
+        txTypes.add(RuleSnapshot.DEFAULT_TX_TYPE);
+        activeRules.forEach(rule -> txTypes.add(rule.getTxType()));
+
+        Map<String, CompiledRuleSet> byTxType = new HashMap<>();
+        for (String txType : txTypes) {
+            CompiledRuleSet reusable = previous.getRuleSetsByTxType().get(txType);
+            byTxType.put(txType, affectedTxTypes.contains(txType) || reusable == null
+                    ? ruleEngine.compileRuleSetFor(txType, activeRules)
+                    : reusable);
+        }
+
+        return new RuleSnapshot(previous.getVersion() + 1, Collections.unmodifiableList(activeRules),
+                Collections.unmodifiableMap(byTxType), Instant.now());
+    }
+
+    /**
+     * Versão com os conjuntos de todos os tipos recompilados.
+     */
+    private RuleSnapshot build(long version, List<CompiledRule> activeRules) {
+        RuleSnapshot next = new RuleSnapshot(version, Collections.unmodifiableList(activeRules),
+                Collections.unmodifiableMap(ruleEngine.compileRuleSets(activeRules)), Instant.now());
+        fullRebuilds.increment();
+        return next;
+    }
+}
@@ -0,0 +1,88 @@
+package com.acme.decision.application.service;
+
+/**
+ * Totais parciais de um backtest. Cada tarefa acumula em uma instância própria, sem sincronização,
+ * e os parciais são combinados com {@link #merge}.
+ */
+final class BacktestAccumulator {
+
+    static final int BUCKET_WIDTH = 100;
+    static final int BUCKETS = 21; // [0, 100), [100, 200), ... [1900, 2000), [2000, ∞)
+
+    long rows;
+    long invalidRows;
+    long activeDenied;
+    long candidateDenied;
+    long approvedToDenied;
+    long deniedToApproved;
+    long scoreIncreased;
+    long scoreDecreased;
+    long activeScoreSum;
+    long candidateScoreSum;
+
+    final long[] activeHistogram = new long[BUCKETS];
+    final long[] candidateHistogram = new long[BUCKETS];
+    final long[] activeFires;
+    final long[] candidateFires;
+
+    BacktestAccumulator(int activeRules, int candidateRules) {
+        this.activeFires = new long[activeRules];
+        this.candidateFires = new long[candidateRules];
+    }
+
+    void record(int activeScore, int candidateScore, int threshold) {
+        rows++;
+        activeScoreSum += activeScore;
+        candidateScoreSum += candidateScore;
+        activeHistogram[bucketOf(activeScore)]++;
+        candidateHistogram[bucketOf(candidateScore)]++;
+
+        if (candidateScore > activeScore) {
+            scoreIncreased++;
+        } else if (candidateScore < activeScore) {
+            scoreDecreased++;
+        }
+
+        boolean activeDeny = activeScore > threshold;
+        boolean candidateDeny = candidateScore > threshold;
+        if (activeDeny) {
+            activeDenied++;
+        }
+        if (candidateDeny) {
+            candidateDenied++;
+        }
+        if (!activeDeny && candidateDeny) {
+            approvedToDenied++;
+        } else if (activeDeny && !candidateDeny) {
+            deniedToApproved++;
+        }
+    }
+
+    BacktestAccumulator merge(BacktestAccumulator other) {
+        rows += other.rows;
+        invalidRows += other.invalidRows;
+        activeDenied += other.activeDenied;
+        candidateDenied += other.candidateDenied;
+        approvedToDenied += other.approvedToDenied;
+        deniedToApproved += other.deniedToApproved;
+        scoreIncreased += other.scoreIncreased;
+        scoreDecreased += other.scoreDecreased;
+        activeScoreSum += other.activeScoreSum;
+        candidateScoreSum += other.candidateScoreSum;
+        add(activeHistogram, other.activeHistogram);
+        add(candidateHistogram, other.candidateHistogram);
+        add(activeFires, other.activeFires);
+        add(candidateFires, other.candidateFires);
+        return this;
+    }
+
+    private static int bucketOf(int score) {
+        return Math.min(Math.max(score, 0) / BUCKET_WIDTH, BUCKETS - 1);
+    }
+
+    private static void add(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.acme.decision.application.service;
+
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.CompiledRuleSet;
+import com.acme.decision.domain.model.Rule;
+import com.acme.decision.domain.model.RuleSnapshot;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.backtest.BacktestReport;
+import com.acme.decision.domain.model.backtest.RuleFireCount;
+import com.acme.decision.domain.model.backtest.ScoreBucket;
+import com.acme.decision.domain.service.RuleEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Reprocessa transações históricas com as regras ativas e com um conjunto candidato, antes da publicação.
+ * <p>
+ * As linhas são lidas em blocos de tamanho fixo. Cada bloco é avaliado por um {@link RecursiveTask} no
+ * pool fork-join enquanto o bloco seguinte é lido, de forma que no máximo dois blocos ficam em memória,
+ * independentemente do tamanho do arquivo. Cada tarefa acumula totais próprios, combinados ao final.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BacktestService {
+
+    // Abaixo deste tamanho a tarefa avalia as linhas sem dividir
+    private static final int LEAF_ROWS = 256;
+
+    private final RuleEngine ruleEngine;
+    private final ActiveRuleCache activeRuleCache;
+    private final CandidateSnapshotCompiler candidateSnapshotCompiler;
+
+    @Value("${decision-engine.backtest.chunk-size:8192}")
+    private int chunkSize;
+
+    @Value("${decision-engine.backtest.decision-threshold:699}")
+    private int defaultDecisionThreshold;
+
+    /**
+     * Executa o backtest.
+     *
+     * @param candidateRules conjunto candidato completo (substitui todas as regras ativas)
+     * @param transactions linhas NDJSON de transações
+     * @param parser converte uma linha em dados de cálculo; linhas inválidas resultam em nulo
+     * @param threshold limiar de decisão, ou nulo para o padrão configurado
+     * @return comparação agregada
+     * @throws IllegalArgumentException se alguma regra candidata for inválida
+     */
+    public BacktestReport run(List<Rule> candidateRules, Iterator<String> transactions,
+                              Function<String, ScoreCalculationData> parser, Integer threshold) {
+        int decisionThreshold = threshold != null ? threshold : defaultDecisionThreshold;
+
+        ReplaySide active = new ReplaySide(activeRuleCache.getSnapshot()
+                .orElseThrow(() -> new IllegalStateException("Regras ativas ainda não carregadas")));
+        ReplaySide candidate = new ReplaySide(candidateSnapshotCompiler.compile(candidateRules));
+        log.info("Iniciando backtest: {} regras ativas (versão {}) contra {} regras candidatas, limiar {}",
+                active.rules.size(), active.snapshot.getVersion(), candidate.rules.size(), decisionThreshold);
+        if (active.snapshot.readsState() || candidate.snapshot.readsState()) {
+            log.warn("Backtest com regras de velocidade, soma ou cardinalidade: elas leem o estado atual do "
+                    + "tráfego real, não o do momento de cada transação");
+        }
+
+        long start = System.nanoTime();
+        BacktestAccumulator total = new BacktestAccumulator(active.rules.size(), candidate.rules.size());
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        ForkJoinTask<BacktestAccumulator> pending = null;
+
+        while (transactions.hasNext()) {
+            List<String> chunk = new ArrayList<>(chunkSize);
+            while (chunk.size() < chunkSize && transactions.hasNext()) {
+                String line = transactions.next();
+                if (!line.isBlank()) {
+                    chunk.add(line);
+                }
+            }
+
+            // Avalia o bloco atual enquanto o próximo é lido
+            ForkJoinTask<BacktestAccumulator> submitted = pool.submit(
+                    new ReplayTask(chunk, 0, chunk.size(), parser, active, candidate, decisionThreshold));
+            if (pending != null) {
+                total.merge(pending.join());
+            }
+            pending = submitted;
+        }
+        if (pending != null) {
+            total.merge(pending.join());
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        BacktestReport report = toReport(total, active, candidate, decisionThreshold, elapsedNanos);
+        log.info("Backtest concluído: {} linhas ({} inválidas) em {} ms, {} linhas/s; {} aprovadas passam a negadas, {} negadas passam a aprovadas",
+                report.getRows(), report.getInvalidRows(), report.getElapsedMillis(), Math.round(report.getRowsPerSecond()),
+                report.getApprovedToDenied(), report.getDeniedToApproved());
+        return report;
+    }
+
+    private BacktestReport toReport(BacktestAccumulator total, ReplaySide active, ReplaySide candidate,
+                                    int decisionThreshold, long elapsedNanos) {
+        List<ScoreBucket> distribution = new ArrayList<>(BacktestAccumulator.BUCKETS);
+        for (int i = 0; i < BacktestAccumulator.BUCKETS; i++) {
+            int minScore = i * BacktestAccumulator.BUCKET_WIDTH;
+            Integer maxScore = i == BacktestAccumulator.BUCKETS - 1 ? null : minScore + BacktestAccumulator.BUCKET_WIDTH - 1;
+            distribution.add(new ScoreBucket(minScore, maxScore, total.activeHistogram[i], total.candidateHistogram[i]));
+        }
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long rows = total.rows + total.invalidRows;
+
+        return new BacktestReport(
+                total.rows,
+                total.invalidRows,
+                elapsedNanos / 1_000_000,
+                seconds > 0 ? rows / seconds : 0,
+                decisionThreshold,
+                active.snapshot.getVersion(),
+                total.activeDenied,
+                total.candidateDenied,
+                total.approvedToDenied,
+                total.deniedToApproved,
+                total.scoreIncreased,
+                total.scoreDecreased,
+                total.rows - total.scoreIncreased - total.scoreDecreased,
+                total.rows > 0 ? (double) total.activeScoreSum / total.rows : 0,
+                total.rows > 0 ? (double) total.candidateScoreSum / total.rows : 0,
+                distribution,
+                fireCounts(active.rules, total.activeFires),
+                fireCounts(candidate.rules, total.candidateFires)
+        );
+    }
+
+    private List<RuleFireCount> fireCounts(List<CompiledRule> rules, long[] fires) {
+        List<RuleFireCount> counts = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            CompiledRule rule = rules.get(i);
+            counts.add(new RuleFireCount(rule.getId(), rule.getName(), rule.getTxType(), fires[i],
+                    rule.getCondition().readsState()));
+        }
+        return counts;
+    }
+
+    /**
+     * Snapshot avaliado, com a posição de cada regra de cada conjunto na lista de regras ativas,
+     * para contar as aplicações por regra em arrays.
+     */
+    private static final class ReplaySide {
+
+        private final RuleSnapshot snapshot;
+        private final List<CompiledRule> rules;
+        private final Map<CompiledRuleSet, int[]> ruleIndexes = new IdentityHashMap<>();
+
+        private ReplaySide(RuleSnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.rules = snapshot.getActiveRules();
+
+            Map<CompiledRule, Integer> indexOf = new IdentityHashMap<>();
+            for (int i = 0; i < rules.size(); i++) {
+                indexOf.put(rules.get(i), i);
+            }
+
+            for (CompiledRuleSet ruleSet : snapshot.getRuleSetsByTxType().values()) {
+                ruleIndexes.put(ruleSet, ruleSet.getRules().stream().mapToInt(indexOf::get).toArray());
+            }
+        }
+    }
+
+    private final class ReplayTask extends RecursiveTask<BacktestAccumulator> {
+
+        private final List<String> lines;
+        private final int from;
+        private final int to;
+        private final Function<String, ScoreCalculationData> parser;
+        private final ReplaySide active;
+        private final ReplaySide candidate;
+        private final int threshold;
+
+        private ReplayTask(List<String> lines, int from, int to, Function<String, ScoreCalculationData> parser,
+                           ReplaySide active, ReplaySide candidate, int threshold) {
+            this.lines = lines;
+            this.from = from;
+            this.to = to;
+            this.parser = parser;
+            this.active = active;
+            this.candidate = candidate;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected BacktestAccumulator compute() {
+            if (to - from <= LEAF_ROWS) {
+                return replay();
+            }
+
+            int middle = (from + to) >>> 1;
+            ReplayTask left = new ReplayTask(lines, from, middle, parser, active, candidate, threshold);
+            ReplayTask right = new ReplayTask(lines, middle, to, parser, active, candidate, threshold);
+            left.fork();
+            BacktestAccumulator result = right.compute();
+            return result.merge(left.join());
+        }
+
+        private BacktestAccumulator replay() {
+            BacktestAccumulator accumulator = new BacktestAccumulator(active.rules.size(), candidate.rules.size());
+
+            for (int i = from; i < to; i++) {
+                ScoreCalculationData data = parse(lines.get(i));
+                if (data == null) {
+                    accumulator.invalidRows++;
+                    continue;
+                }
+
+                int activeScore = score(data, active, accumulator.activeFires);
+                int candidateScore = score(data, candidate, accumulator.candidateFires);
+                accumulator.record(activeScore, candidateScore, threshold);
+            }
+
+            return accumulator;
+        }
+
+        private ScoreCalculationData parse(String line) {
+            try {
+                ScoreCalculationData data = parser.apply(line);
+                if (data != null) {
+                    ruleEngine.validateCalculationData(data);
+                }
+                return data;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private int score(ScoreCalculationData data, ReplaySide side, long[] fires) {
+            CompiledRuleSet ruleSet = side.snapshot.ruleSetFor(data.getTxType());
+            int[] indexes = side.ruleIndexes.get(ruleSet);
+            return ruleEngine.replayScore(data, ruleSet, position -> fires[indexes[position]]++);
+        }
+    }
+}
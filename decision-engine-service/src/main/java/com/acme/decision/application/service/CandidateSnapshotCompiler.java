@@ -0,0 +1,49 @@
+package com.acme.decision.application.service;
+
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.Rule;
+import com.acme.decision.domain.model.RuleSnapshot;
+import com.acme.decision.domain.service.RuleEngine;
+import com.acme.decision.domain.service.RuleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compila um conjunto candidato de regras em um {@link RuleSnapshot} avulso, que nunca é publicado.
+ * Usado para comparar candidatos com as regras ativas (backtest e avaliação sombra).
+ */
+@Component
+@RequiredArgsConstructor
+public class CandidateSnapshotCompiler {
+
+    private final RuleEngine ruleEngine;
+    private final RuleService ruleService;
+
+    /**
+     * @param candidateRules conjunto candidato completo (substitui todas as regras ativas)
+     * @return snapshot com versão 0
+     * @throws IllegalArgumentException se alguma regra candidata for inválida
+     */
+    public RuleSnapshot compile(List<Rule> candidateRules) {
+        List<Rule> activeCandidates = new ArrayList<>();
+        for (int i = 0; i < candidateRules.size(); i++) {
+            Rule rule = candidateRules.get(i);
+            ruleService.validateRule(rule);
+
+            if (rule.isActive()) {
+                // Regras candidatas ainda não têm ID: identificadas pela posição no conjunto
+                activeCandidates.add(new Rule((long) i + 1, rule.getName(), rule.getDescription(),
+                        rule.getTxType(), rule.getCondition(), rule.getPoints(), true));
+            }
+        }
+
+        List<CompiledRule> compiledRules = ruleEngine.compileRules(activeCandidates);
+        return new RuleSnapshot(0, Collections.unmodifiableList(compiledRules),
+                Collections.unmodifiableMap(ruleEngine.compileRuleSets(compiledRules)), Instant.now());
+    }
+}
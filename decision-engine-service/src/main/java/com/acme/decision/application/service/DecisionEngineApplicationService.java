@@ -2,17 +2,38 @@ package com.acme.decision.application.service;
 
 import com.acme.decision.application.port.DecisionEnginePort;
 import com.acme.decision.application.port.RuleRepositoryPort;
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.CompiledRuleSet;
+import com.acme.decision.domain.model.Money;
 import com.acme.decision.domain.model.Rule;
+import com.acme.decision.domain.model.RuleCacheStats;
+import com.acme.decision.domain.model.RuleSnapshot;
 import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.ScoreResult;
+import com.acme.decision.domain.model.ThresholdScore;
+import com.acme.decision.domain.model.backtest.BacktestReport;
+import com.acme.decision.domain.model.explain.FiredRule;
+import com.acme.decision.domain.model.explain.ScoreExplanation;
+import com.acme.decision.domain.model.metrics.EvaluationMetrics;
+import com.acme.decision.domain.model.scoring.ModelInfo;
+import com.acme.decision.domain.model.shadow.ShadowStats;
+import com.acme.decision.domain.service.ModelRegistry;
 import com.acme.decision.domain.service.RuleEngine;
 import com.acme.decision.domain.service.RuleService;
+import com.acme.decision.domain.service.VelocityService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 /**
  * Serviço de aplicação que implementa a porta de entrada DecisionEnginePort.
@@ -26,34 +47,163 @@ public class DecisionEngineApplicationService implements DecisionEnginePort {
     private final RuleEngine ruleEngine;
     private final RuleService ruleService;
     private final RuleRepositoryPort ruleRepositoryPort;
+    private final ActiveRuleCache activeRuleCache;
+    private final RuleMetricsRegistry ruleMetricsRegistry;
+    private final BacktestService backtestService;
+    private final CandidateSnapshotCompiler candidateSnapshotCompiler;
+    private final ShadowEvaluator shadowEvaluator;
+    private final VelocityService velocityService;
+    private final ModelRegistry modelRegistry;
+
+    @Value("${decision-engine.batch.parallel-threshold:256}")
+    private int batchParallelThreshold;
+
+    @Override
+    public ScoreResult calculateScore(ScoreCalculationData calculationData) {
+        Optional<RuleSnapshot> snapshot = activeRuleCache.getSnapshot();
+        if (snapshot.isEmpty()) {
+            log.warn("Regras ainda não carregadas, retornando score padrão");
+            return ScoreResult.fallback();
+        }
+        return calculateScore(calculationData, snapshot.get());
+    }
 
     @Override
-    public int calculateScore(ScoreCalculationData calculationData) {
-        log.info("Calculando score para transação tipo: {}, valor: {}", 
-                calculationData.getTxType(), calculationData.getTxValue());
+    public ScoreResult[] calculateScores(List<ScoreCalculationData> batch) {
+        log.info("Calculando score em lote para {} transações", batch.size());
+
+        // Regras resolvidas uma única vez para todo o lote
+        Optional<RuleSnapshot> loaded = activeRuleCache.getSnapshot();
+        ScoreResult[] scores = new ScoreResult[batch.size()];
+        if (loaded.isEmpty()) {
+            log.warn("Regras ainda não carregadas, retornando score padrão para o lote");
+            Arrays.fill(scores, ScoreResult.fallback());
+            return scores;
+        }
+        RuleSnapshot snapshot = loaded.get();
+
+        IntStream indexes = IntStream.range(0, batch.size());
+        if (batch.size() >= batchParallelThreshold) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> scores[i] = calculateScore(batch.get(i), snapshot));
+
+        log.info("Lote de {} transações calculado com sucesso", batch.size());
+        return scores;
+    }
+
+    private ScoreResult calculateScore(ScoreCalculationData calculationData, RuleSnapshot snapshot) {
+        CompiledRuleSet ruleSet = null;
+        RuleMetricsRegistry.Sample sample = ruleMetricsRegistry.sample();
+        long start = sample == RuleMetricsRegistry.Sample.LATENCY ? System.nanoTime() : 0;
 
         try {
             // 1. Validar dados de entrada
             ruleEngine.validateCalculationData(calculationData);
 
-            // 2. Buscar regras aplicáveis (DEFAULT + específicas do tipo)
-            List<Rule> applicableRules = ruleRepositoryPort.findByTxTypeInAndActiveTrue(
-                    Arrays.asList("DEFAULT", calculationData.getTxType())
-            );
+            log.debug("Calculando score para transação tipo: {}, valor: {}", 
+                    calculationData.getTxType(), Money.fromCents(calculationData.getTxValueCents()));
+
+            // Registrada antes da avaliação, para que as condições de velocidade incluam esta transação
+            velocityService.record(calculationData);
 
-            log.info("Encontradas {} regras aplicáveis", applicableRules.size());
+            // 2. Buscar regras aplicáveis (DEFAULT + específicas do tipo) no cache
+            ruleSet = snapshot.ruleSetFor(calculationData.getTxType());
+
+            log.debug("Encontradas {} regras aplicáveis", ruleSet.getRules().size());
 
             // 3. Calcular score usando o motor de regras
-            int score = ruleEngine.calculateScore(calculationData, applicableRules);
+            if (calculationData.isExplain()) {
+                // Todas as regras avaliadas, sem interrupção pelo limiar, para registrar as aplicadas
+                BitSet firedRules = new BitSet(ruleSet.getRules().size());
+                int score = ruleEngine.replayScore(calculationData, ruleSet, firedRules::set);
+                recordMetrics(ruleSet, sample, start);
+                shadowEvaluator.submit(calculationData, score);
+
+                log.debug("Score calculado com sucesso: {} (regras versão {}, {} regras aplicadas)",
+                        score, snapshot.getVersion(), firedRules.cardinality());
+                return new ScoreResult(score, snapshot.getVersion(), false, firedRules);
+            }
+
+            if (sample.isPerRule()) {
+                // Amostra por regra: o score vem da avaliação individual, sem interrupção pelo limiar
+                int score = ruleEngine.evaluateEachRule(calculationData, ruleSet, ruleMetricsRegistry);
+                recordMetrics(ruleSet, sample, start);
+                shadowEvaluator.submit(calculationData, score);
 
-            log.info("Score calculado com sucesso: {}", score);
-            return score;
+                log.debug("Score calculado com sucesso: {} (regras versão {}, amostra por regra)",
+                        score, snapshot.getVersion());
+                return new ScoreResult(score, snapshot.getVersion(), false, null);
+            }
+
+            if (calculationData.getDecisionThreshold() != null) {
+                ThresholdScore thresholdScore = ruleEngine.calculateScore(
+                        calculationData, ruleSet, calculationData.getDecisionThreshold());
+                recordMetrics(ruleSet, sample, start);
+                if (!thresholdScore.isShortCircuited()) {
+                    shadowEvaluator.submit(calculationData, thresholdScore.getScore());
+                }
+
+                log.debug("Score calculado com sucesso: {} (regras versão {}, interrompido: {})",
+                        thresholdScore.getScore(), snapshot.getVersion(), thresholdScore.isShortCircuited());
+                return new ScoreResult(thresholdScore.getScore(), snapshot.getVersion(),
+                        thresholdScore.isShortCircuited(), null);
+            }
+
+            int score = ruleEngine.calculateScore(calculationData, ruleSet);
+            recordMetrics(ruleSet, sample, start);
+            shadowEvaluator.submit(calculationData, score);
+
+            log.debug("Score calculado com sucesso: {} (regras versão {})", score, snapshot.getVersion());
+            return new ScoreResult(score, snapshot.getVersion(), false, null);
 
         } catch (Exception e) {
+            if (ruleSet != null) {
+                ruleMetricsRegistry.recordScoreError(ruleSet.getTxType());
+            }
             log.error("Erro ao calcular score", e);
             // Retorna score padrão em caso de erro (score alto para negar por segurança)
-            return 500;
+            return ScoreResult.fallback();
+        }
+    }
+
+    @Override
+    public Optional<ScoreExplanation> explain(long ruleSetVersion, String txType, BitSet firedRules) {
+        Optional<RuleSnapshot> snapshot = activeRuleCache.getSnapshot(ruleSetVersion);
+        if (snapshot.isEmpty()) {
+            log.warn("Versão de regras {} indisponível para explicação", ruleSetVersion);
+            return Optional.empty();
+        }
+
+        CompiledRuleSet ruleSet = snapshot.get().ruleSetFor(txType);
+        List<CompiledRule> rules = ruleSet.getRules();
+        if (firedRules.length() > rules.size()) {
+            throw new IllegalArgumentException("Máscara de regras incompatível com as " + rules.size()
+                    + " regras do tipo " + ruleSet.getTxType() + " na versão " + ruleSetVersion);
+        }
+
+        List<FiredRule> fired = new ArrayList<>(firedRules.cardinality());
+        int rawScore = 0;
+        for (int i = firedRules.nextSetBit(0); i >= 0; i = firedRules.nextSetBit(i + 1)) {
+            CompiledRule rule = rules.get(i);
+            fired.add(new FiredRule(i, rule.getId(), rule.getName(), rule.getPoints()));
+            rawScore += rule.getPoints();
+        }
+
+        return Optional.of(new ScoreExplanation(ruleSetVersion, ruleSet.getTxType(), fired,
+                rawScore, Math.max(1, rawScore)));
+    }
+
+    /**
+     * Contagens em toda requisição; latência só nas amostradas para cronometragem.
+     */
+    private void recordMetrics(CompiledRuleSet ruleSet, RuleMetricsRegistry.Sample sample, long start) {
+        if (!sample.isTimed()) {
+            ruleMetricsRegistry.recordScore(ruleSet.getTxType());
+            return;
         }
+
+        ruleMetricsRegistry.recordScore(ruleSet.getTxType(), System.nanoTime() - start);
     }
 
     @Override
@@ -62,7 +212,7 @@ public class DecisionEngineApplicationService implements DecisionEnginePort {
 
         try {
             Rule preparedRule = ruleService.prepareRuleForCreation(rule);
-            Rule savedRule = ruleRepositoryPort.save(preparedRule);
+            Rule savedRule = activeRuleCache.saveAndPublish(preparedRule);
             
             log.info("Regra criada com sucesso. ID: {}", savedRule.getId());
             return savedRule;
@@ -95,7 +245,7 @@ public class DecisionEngineApplicationService implements DecisionEnginePort {
             if (existingRuleOpt.isPresent()) {
                 Rule existingRule = existingRuleOpt.get();
                 Rule preparedRule = ruleService.prepareRuleForUpdate(existingRule, rule);
-                Rule savedRule = ruleRepositoryPort.save(preparedRule);
+                Rule savedRule = activeRuleCache.saveAndPublish(preparedRule);
                 
                 log.info("Regra atualizada com sucesso. ID: {}", savedRule.getId());
                 return Optional.of(savedRule);
@@ -115,19 +265,71 @@ public class DecisionEngineApplicationService implements DecisionEnginePort {
         log.info("Excluindo regra ID: {}", id);
 
         try {
-            if (ruleRepositoryPort.existsById(id)) {
-                ruleRepositoryPort.deleteById(id);
-                log.info("Regra excluída com sucesso. ID: {}", id);
-                return true;
-            } else {
+            if (!activeRuleCache.deleteAndPublish(id)) {
                 log.warn("Regra não encontrada para exclusão. ID: {}", id);
                 return false;
             }
+            ruleMetricsRegistry.removeRule(id);
+
+            log.info("Regra excluída com sucesso. ID: {}", id);
+            return true;
 
         } catch (Exception e) {
             log.error("Erro ao excluir regra", e);
             throw e;
         }
     }
-}
 
+    @Override
+    public RuleCacheStats getRuleCacheStats() {
+        return activeRuleCache.getStats();
+    }
+
+    @Override
+    public EvaluationMetrics getEvaluationMetrics() {
+        return ruleMetricsRegistry.getMetrics();
+    }
+
+    @Override
+    public void resetEvaluationMetrics() {
+        ruleMetricsRegistry.reset();
+    }
+
+    @Override
+    public BacktestReport backtest(List<Rule> candidateRules, Iterator<String> transactions,
+                                   Function<String, ScoreCalculationData> parser, Integer threshold) {
+        return backtestService.run(candidateRules, transactions, parser, threshold);
+    }
+
+    @Override
+    public ShadowStats startShadow(List<Rule> candidateRules) {
+        log.info("Ativando avaliação sombra com {} regras candidatas", candidateRules.size());
+        shadowEvaluator.activate(candidateSnapshotCompiler.compile(candidateRules));
+        return shadowEvaluator.getStats();
+    }
+
+    @Override
+    public void stopShadow() {
+        shadowEvaluator.deactivate();
+    }
+
+    @Override
+    public ShadowStats getShadowStats() {
+        return shadowEvaluator.getStats();
+    }
+
+    @Override
+    public List<ModelInfo> getModels() {
+        return modelRegistry.getModels();
+    }
+
+    @Override
+    public ModelInfo reloadModel(String name) {
+        ModelInfo model = modelRegistry.reload(name);
+        if (model.getVersion() == 1) {
+            // Primeiro carregamento: regras que referenciam o modelo podem ter sido ignoradas na compilação
+            activeRuleCache.refresh();
+        }
+        return model;
+    }
+}
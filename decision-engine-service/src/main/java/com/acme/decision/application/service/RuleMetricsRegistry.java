@@ -0,0 +1,211 @@
+package com.acme.decision.application.service;
+
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.metrics.EvaluationCounters;
+import com.acme.decision.domain.model.metrics.EvaluationMetrics;
+import com.acme.decision.domain.model.metrics.RuleEvaluationListener;
+import com.acme.decision.domain.model.metrics.RuleMetrics;
+import com.acme.decision.domain.model.metrics.TxTypeMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Registro das métricas de avaliação por tipo de transação e por regra.
+ * <p>
+ * Todo cálculo de score incrementa as contagens de avaliações e erros do conjunto de regras usado.
+ * Latência e métricas por regra vêm de amostras independentes, cada uma de uma a cada {@code sample-rate}
+ * requisições: cronometrar toda requisição, ou cada regra no caminho rápido da tabela de decisão ou da
+ * função gerada, custaria mais que a própria avaliação. Na amostra por regra o score é calculado pela
+ * própria avaliação individual das regras, de forma que cada requisição avalia as regras uma única vez;
+ * as contagens por regra são portanto amostrais, não o total de avaliações, e o total é estimado
+ * multiplicando-as pela taxa de amostragem. Com {@code sample-rate} 1 toda requisição é cronometrada e
+ * avaliada regra a regra, e as contagens são exatas. Os contadores são {@code LongAdder}, sem bloqueio
+ * entre threads.
+ */
+@Component
+@Slf4j
+public class RuleMetricsRegistry implements RuleEvaluationListener {
+
+    private final Map<String, EvaluationCounters> byTxType = new ConcurrentHashMap<>();
+    private final Map<Long, RuleEntry> byRule = new ConcurrentHashMap<>();
+
+    @Value("${decision-engine.metrics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${decision-engine.metrics.sample-rate:256}")
+    private int sampleRate;
+
+    private volatile Instant since = Instant.now();
+
+    /**
+     * Sorteia a amostra da requisição.
+     *
+     * @return {@link Sample#LATENCY} para cronometrar a requisição, {@link Sample#RULES} para avaliar cada
+     * regra individualmente, {@link Sample#ALL} para ambos quando toda requisição é amostrada, ou
+     * {@link Sample#NONE}
+     */
+    public Sample sample() {
+        if (!enabled) {
+            return Sample.NONE;
+        }
+        if (sampleRate <= 1) {
+            return Sample.ALL;
+        }
+
+        int draw = ThreadLocalRandom.current().nextInt(sampleRate);
+        return draw == 0 ? Sample.LATENCY : draw == 1 ? Sample.RULES : Sample.NONE;
+    }
+
+    public void recordScore(String txType) {
+        if (enabled) {
+            txTypeCounters(txType).recordEvaluation(false);
+        }
+    }
+
+    public void recordScore(String txType, long nanos) {
+        if (enabled) {
+            EvaluationCounters counters = txTypeCounters(txType);
+            counters.recordEvaluation(false);
+            counters.recordLatency(nanos);
+        }
+    }
+
+    public void recordScoreError(String txType) {
+        if (enabled) {
+            txTypeCounters(txType).recordError();
+        }
+    }
+
+    @Override
+    public void onEvaluation(CompiledRule rule, boolean matched, long nanos) {
+        EvaluationCounters counters = ruleEntry(rule).counters;
+        counters.recordEvaluation(matched);
+        counters.recordLatency(nanos);
+    }
+
+    @Override
+    public void onError(CompiledRule rule, long nanos, RuntimeException error) {
+        log.warn("Erro ao avaliar regra '{}': {}", rule.getName(), error.getMessage());
+        EvaluationCounters counters = ruleEntry(rule).counters;
+        counters.recordError();
+        counters.recordLatency(nanos);
+    }
+
+    /**
+     * Retorna as métricas acumuladas desde o último reset.
+     *
+     * @return métricas por tipo de transação e por regra
+     */
+    public EvaluationMetrics getMetrics() {
+        List<TxTypeMetrics> txTypes = byTxType.entrySet().stream()
+                .map(entry -> new TxTypeMetrics(
+                        entry.getKey(),
+                        entry.getValue().getEvaluations(),
+                        entry.getValue().getErrors(),
+                        entry.getValue().latencySummary()))
+                .sorted(Comparator.comparing(TxTypeMetrics::getTxType))
+                .collect(Collectors.toList());
+
+        int rate = Math.max(1, sampleRate);
+        List<RuleMetrics> rules = byRule.entrySet().stream()
+                .map(entry -> new RuleMetrics(
+                        entry.getKey(),
+                        entry.getValue().rule.getName(),
+                        entry.getValue().rule.getTxType(),
+                        entry.getValue().counters.getEvaluations(),  // amostrais
+                        entry.getValue().counters.getMatches(),
+                        entry.getValue().counters.getErrors(),
+                        entry.getValue().counters.getEvaluations() * rate,
+                        entry.getValue().counters.getMatches() * rate,
+                        entry.getValue().counters.latencySummary()))
+                .sorted(Comparator.comparing(RuleMetrics::getRuleId))
+                .collect(Collectors.toList());
+
+        return new EvaluationMetrics(since, rate, txTypes, rules);
+    }
+
+    /**
+     * Descarta as métricas de uma regra excluída.
+     *
+     * @param ruleId ID da regra
+     */
+    public void removeRule(Long ruleId) {
+        byRule.remove(ruleId);
+    }
+
+    /**
+     * Zera todas as métricas. Registros concorrentes ao reset podem ser descartados.
+     */
+    public void reset() {
+        byTxType.clear();
+        byRule.clear();
+        since = Instant.now();
+        log.info("Métricas de avaliação de regras zeradas");
+    }
+
+    private EvaluationCounters txTypeCounters(String txType) {
+        EvaluationCounters counters = byTxType.get(txType);
+        return counters != null ? counters : byTxType.computeIfAbsent(txType, key -> new EvaluationCounters());
+    }
+
+    private RuleEntry ruleEntry(CompiledRule rule) {
+        RuleEntry entry = byRule.get(rule.getId());
+        if (entry == null) {
+            entry = byRule.computeIfAbsent(rule.getId(), id -> new RuleEntry(rule));
+        }
+        // Mantém nome e tipo da versão mais recente da regra
+        entry.rule = rule;
+        return entry;
+    }
+
+    /**
+     * Amostra sorteada para uma requisição.
+     */
+    public enum Sample {
+        NONE(false, false),
+        LATENCY(true, false),
+        RULES(false, true),
+        ALL(true, true);
+
+        private final boolean timed;
+        private final boolean perRule;
+
+        Sample(boolean timed, boolean perRule) {
+            this.timed = timed;
+            this.perRule = perRule;
+        }
+
+        /**
+         * @return true se a latência da requisição deve ser registrada
+         */
+        public boolean isTimed() {
+            return timed;
+        }
+
+        /**
+         * @return true se o score deve ser calculado avaliando cada regra individualmente
+         */
+        public boolean isPerRule() {
+            return perRule;
+        }
+    }
+
+    private static final class RuleEntry {
+
+        private final EvaluationCounters counters = new EvaluationCounters();
+        private volatile CompiledRule rule;
+
+        private RuleEntry(CompiledRule rule) {
+            this.rule = rule;
+        }
+    }
+}
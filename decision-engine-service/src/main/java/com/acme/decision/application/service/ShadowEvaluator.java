@@ -0,0 +1,235 @@
+package com.acme.decision.application.service;
+
+import com.acme.decision.domain.model.RuleSnapshot;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.shadow.ShadowStats;
+import com.acme.decision.domain.service.RuleEngine;
+import com.acme.decision.domain.service.VelocityService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Avaliação sombra: compara, fora da thread da requisição, o score das regras ativas com o de um
+ * conjunto candidato, sobre o tráfego real.
+ * <p>
+ * A requisição apenas publica o item em uma fila limitada e sem bloqueio ({@link ConcurrentLinkedQueue}
+ * com contador de ocupação): com a fila cheia o item é descartado e contado, nunca aguardado. Uma única
+ * thread de fundo consome a fila, avalia o candidato e agrega as divergências em contadores, registrando
+ * em log uma amostra delas. Com a fila vazia a thread fica suspensa até a próxima publicação, que a acorda
+ * apenas se ela estiver de fato aguardando. A resposta da requisição não depende do candidato.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ShadowEvaluator {
+
+    private final RuleEngine ruleEngine;
+    private final VelocityService velocityService;
+
+    private final Queue<ShadowItem> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder evaluated = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder scoreMismatches = new LongAdder();
+    private final LongAdder approvedToDenied = new LongAdder();
+    private final LongAdder deniedToApproved = new LongAdder();
+    private final AtomicLong mismatchLogCounter = new AtomicLong();
+    private final AtomicBoolean workerWaiting = new AtomicBoolean();
+
+    @Value("${decision-engine.shadow.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${decision-engine.shadow.decision-threshold:699}")
+    private int decisionThreshold;
+
+    @Value("${decision-engine.shadow.log-sample-rate:100}")
+    private int logSampleRate;
+
+    private volatile RuleSnapshot candidate;
+    private volatile Instant since = Instant.now();
+    private volatile boolean running = true;
+    private Thread worker;
+
+    @PostConstruct
+    public void start() {
+        worker = new Thread(this::consume, "shadow-evaluator");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * Ativa a avaliação sombra com um novo candidato, zerando os contadores.
+     *
+     * @param candidateSnapshot conjunto candidato compilado
+     */
+    public void activate(RuleSnapshot candidateSnapshot) {
+        resetCounters();
+        since = Instant.now();
+        velocityService.useShadowRules(candidateSnapshot.getActiveRules());
+        candidate = candidateSnapshot;
+        wakeWorker();
+        log.info("Avaliação sombra ativada com {} regras candidatas", candidateSnapshot.getActiveRules().size());
+        if (candidateSnapshot.readsState()) {
+            log.warn("Regras candidatas {} leem o estado do tráfego no momento da avaliação sombra, não no da requisição",
+                    candidateSnapshot.stateReadingRuleIds());
+        }
+    }
+
+    /**
+     * Desativa a avaliação sombra. Itens ainda na fila são descartados pela thread de fundo.
+     */
+    public void deactivate() {
+        candidate = null;
+        velocityService.useShadowRules(List.of());
+        log.info("Avaliação sombra desativada");
+    }
+
+    /**
+     * Publica o resultado de uma requisição para avaliação sombra, sem bloquear.
+     *
+     * @param calculationData dados da requisição
+     * @param activeScore score retornado com as regras ativas
+     */
+    public void submit(ScoreCalculationData calculationData, int activeScore) {
+        if (candidate == null) {
+            return;
+        }
+
+        if (queueSize.incrementAndGet() > queueCapacity) {
+            queueSize.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+
+        queue.offer(new ShadowItem(calculationData, activeScore));
+        submitted.increment();
+        wakeWorker();
+    }
+
+    /**
+     * @return contadores da avaliação sombra
+     */
+    public ShadowStats getStats() {
+        RuleSnapshot current = candidate;
+        return new ShadowStats(
+                current != null,
+                current != null ? current.getActiveRules().size() : 0,
+                current != null ? current.stateReadingRuleIds() : List.of(),
+                since,
+                decisionThreshold,
+                submitted.sum(),
+                dropped.sum(),
+                evaluated.sum(),
+                errors.sum(),
+                queueSize.get(),
+                queueCapacity,
+                scoreMismatches.sum(),
+                approvedToDenied.sum(),
+                deniedToApproved.sum()
+        );
+    }
+
+    private void consume() {
+        while (running) {
+            ShadowItem item = queue.poll();
+            if (item == null) {
+                // Sinaliza a espera antes de conferir a fila de novo: uma publicação posterior à conferência
+                // encontra a sinalização e acorda a thread, ou deixa a permissão para o park retornar logo
+                workerWaiting.set(true);
+                if (queue.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+                workerWaiting.set(false);
+                continue;
+            }
+
+            queueSize.decrementAndGet();
+            RuleSnapshot current = candidate;
+            if (current != null) {
+                evaluate(item, current);
+            }
+        }
+    }
+
+    private void evaluate(ShadowItem item, RuleSnapshot current) {
+        try {
+            ScoreCalculationData data = item.calculationData;
+            int shadowScore = ruleEngine.replayScore(data, current.ruleSetFor(data.getTxType()), position -> { });
+            evaluated.increment();
+
+            if (shadowScore == item.activeScore) {
+                return;
+            }
+
+            scoreMismatches.increment();
+            boolean activeDeny = item.activeScore > decisionThreshold;
+            boolean shadowDeny = shadowScore > decisionThreshold;
+            if (!activeDeny && shadowDeny) {
+                approvedToDenied.increment();
+            } else if (activeDeny && !shadowDeny) {
+                deniedToApproved.increment();
+            }
+
+            if (logSampleRate <= 1 || mismatchLogCounter.incrementAndGet() % logSampleRate == 1) {
+                log.info("Divergência na avaliação sombra: tipo {}, score ativo {}, score candidato {}, decisão {} -> {}",
+                        data.getTxType(), item.activeScore, shadowScore,
+                        activeDeny ? "Negada" : "Aprovada", shadowDeny ? "Negada" : "Aprovada");
+            }
+
+        } catch (Exception e) {
+            errors.increment();
+            log.warn("Erro na avaliação sombra: {}", e.getMessage());
+        }
+    }
+
+    private void resetCounters() {
+        submitted.reset();
+        dropped.reset();
+        evaluated.reset();
+        errors.reset();
+        scoreMismatches.reset();
+        approvedToDenied.reset();
+        deniedToApproved.reset();
+        mismatchLogCounter.set(0);
+    }
+
+    private void wakeWorker() {
+        if (workerWaiting.get() && workerWaiting.compareAndSet(true, false)) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private static final class ShadowItem {
+
+        private final ScoreCalculationData calculationData;
+        private final int activeScore;
+
+        private ShadowItem(ScoreCalculationData calculationData, int activeScore) {
+            this.calculationData = calculationData;
+            this.activeScore = activeScore;
+        }
+    }
+}
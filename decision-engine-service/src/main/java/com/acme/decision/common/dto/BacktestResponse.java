@@ -0,0 +1,28 @@
+package com.acme.decision.common.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BacktestResponse {
+    
+    private long rows;
+    private long invalidRows;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private int decisionThreshold;
+    private long activeRuleSetVersion;
+    private long activeDenied;
+    private long candidateDenied;
+    private long approvedToDenied;
+    private long deniedToApproved;
+    private long scoreIncreased;
+    private long scoreDecreased;
+    private long scoreUnchanged;
+    private double averageActiveScore;
+    private double averageCandidateScore;
+    private List<ScoreBucketResponse> scoreDistribution;
+    private List<RuleFireCountResponse> activeRuleFires;
+    private List<RuleFireCountResponse> candidateRuleFires;
+}
@@ -0,0 +1,15 @@
+package com.acme.decision.common.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class EvaluationMetricsResponse {
+    
+    private Instant since;
+    private int sampleRate;
+    private List<TxTypeMetricsResponse> txTypes;
+    private List<RuleMetricsResponse> rules;
+}
@@ -0,0 +1,12 @@
+package com.acme.decision.common.dto;
+
+import lombok.Data;
+
+@Data
+public class FiredRuleResponse {
+    
+    private int position;
+    private Long ruleId;
+    private String ruleName;
+    private int points;
+}
@@ -0,0 +1,17 @@
+package com.acme.decision.common.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class ModelInfoResponse {
+    
+    private String name;
+    private String type;
+    private int featureCount;
+    private int treeCount;
+    private int nodeCount;
+    private long version;
+    private Instant loadedAt;
+}
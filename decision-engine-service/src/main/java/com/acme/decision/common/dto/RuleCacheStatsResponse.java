@@ -0,0 +1,20 @@
+package com.acme.decision.common.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class RuleCacheStatsResponse {
+    
+    private long hits;
+    private long misses;
+    private long publishes;
+    private long fullRebuilds;
+    private long version;
+    private int txTypes;
+    private int activeRules;
+    private Instant lastPublish;
+    private long refreshFailures;
+    private Instant lastRefreshFailure;
+}
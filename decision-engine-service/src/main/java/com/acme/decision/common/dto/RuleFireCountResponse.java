@@ -0,0 +1,13 @@
+package com.acme.decision.common.dto;
+
+import lombok.Data;
+
+@Data
+public class RuleFireCountResponse {
+    
+    private Long ruleId;
+    private String ruleName;
+    private String txType;
+    private long fires;
+    private boolean readsState;
+}
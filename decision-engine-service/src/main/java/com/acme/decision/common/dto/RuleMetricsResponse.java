@@ -0,0 +1,21 @@
+package com.acme.decision.common.dto;
+
+import lombok.Data;
+
+@Data
+public class RuleMetricsResponse {
+    
+    private Long ruleId;
+    private String ruleName;
+    private String txType;
+    private long sampledEvaluations;
+    private long sampledMatches;
+    private long sampledErrors;
+    private long estimatedEvaluations;
+    private long estimatedMatches;
+    private long totalNanos;
+    private long p50Nanos;
+    private long p90Nanos;
+    private long p99Nanos;
+    private long maxNanos;
+}
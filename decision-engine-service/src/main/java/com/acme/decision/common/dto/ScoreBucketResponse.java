@@ -0,0 +1,12 @@
+package com.acme.decision.common.dto;
+
+import lombok.Data;
+
+@Data
+public class ScoreBucketResponse {
+    
+    private int minScore;
+    private Integer maxScore;
+    private long activeCount;
+    private long candidateCount;
+}
@@ -16,5 +16,7 @@ public class ScoreCalculationRequest {
     private boolean cpfInRestrictiveList;
     private boolean ipInRestrictiveList;
     private boolean deviceIdInRestrictiveList;
+    private Integer threshold;
+    private boolean explain;
 }
 
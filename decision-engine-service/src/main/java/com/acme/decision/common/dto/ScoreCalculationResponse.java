@@ -1,5 +1,6 @@
 package com.acme.decision.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -8,5 +9,9 @@ import lombok.Data;
 public class ScoreCalculationResponse {
     
     private int score;
+    private Long ruleSetVersion;
+    private boolean shortCircuited;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String firedRules; // máscara das regras aplicadas, em Base64 URL; apenas com explain
 }
 
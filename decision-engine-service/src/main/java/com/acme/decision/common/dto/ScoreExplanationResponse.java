@@ -0,0 +1,15 @@
+package com.acme.decision.common.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ScoreExplanationResponse {
+    
+    private long ruleSetVersion;
+    private String txType;
+    private int rawScore;
+    private int score;
+    private List<FiredRuleResponse> rules;
+}
@@ -0,0 +1,25 @@
+package com.acme.decision.common.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class ShadowStatsResponse {
+    
+    private boolean active;
+    private int candidateRules;
+    private List<Long> stateReadingRuleIds;
+    private Instant since;
+    private int decisionThreshold;
+    private long submitted;
+    private long dropped;
+    private long evaluated;
+    private long errors;
+    private int queueSize;
+    private int queueCapacity;
+    private long scoreMismatches;
+    private long approvedToDenied;
+    private long deniedToApproved;
+}
@@ -0,0 +1,17 @@
+package com.acme.decision.common.dto;
+
+import lombok.Data;
+
+@Data
+public class TxTypeMetricsResponse {
+    
+    private String txType;
+    private long evaluations;
+    private long errors;
+    private long sampledEvaluations;
+    private long totalNanos;
+    private long p50Nanos;
+    private long p90Nanos;
+    private long p99Nanos;
+    private long maxNanos;
+}
@@ -0,0 +1,17 @@
+package com.acme.decision.domain.model;
+
+import com.acme.decision.domain.model.condition.Condition;
+import lombok.Value;
+
+/**
+ * Regra pronta para avaliação, com a condição já compilada.
+ */
+@Value
+public class CompiledRule {
+
+    Long id;
+    String name;
+    String txType;
+    int points;
+    Condition condition;
+}
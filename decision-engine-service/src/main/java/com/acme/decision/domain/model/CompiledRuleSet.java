@@ -0,0 +1,40 @@
+package com.acme.decision.domain.model;
+
+import com.acme.decision.domain.model.adaptive.AdaptiveRuleOrder;
+import com.acme.decision.domain.model.index.DecisionTable;
+import com.acme.decision.domain.model.index.KeyedRuleIndex;
+import com.acme.decision.domain.model.index.ValueRangeIndex;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Conjunto de regras ativas de um tipo de transação, pronto para avaliação.
+ * As regras {@code value_range} ficam no índice de intervalos, as regras por CPF, dispositivo ou IP no
+ * {@link KeyedRuleIndex} e as demais são avaliadas em sequência.
+ * Quando todas as demais regras são de faixa ou de lista, o conjunto também é compilado em uma
+ * {@link DecisionTable}, que substitui a avaliação sequencial.
+ * A {@link ScoreFunction} é a forma de avaliação escolhida na compilação do conjunto.
+ * Com a avaliação adaptativa habilitada, o conjunto também mantém uma {@link AdaptiveRuleOrder}
+ * para os cálculos com limiar de decisão.
+ */
+@Value
+public class CompiledRuleSet {
+
+    String txType;
+    List<CompiledRule> rules;
+    ValueRangeIndex valueRangeIndex;
+    KeyedRuleIndex keyedRuleIndex;
+    List<CompiledRule> sequentialRules;
+    DecisionTable decisionTable;
+    ScoreFunction scoreFunction;
+    AdaptiveRuleOrder adaptiveOrder;
+
+    public boolean hasDecisionTable() {
+        return decisionTable != null;
+    }
+
+    public boolean hasAdaptiveOrder() {
+        return adaptiveOrder != null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.acme.decision.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversões de valores monetários para a representação interna em centavos ({@code long}).
+ * Valores que não podem ser representados exatamente em centavos são rejeitados.
+ */
+public final class Money {
+
+    private static final int CENTS_SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Converte um valor em reais para centavos.
+     *
+     * @param value valor em reais
+     * @return valor em centavos
+     * @throws IllegalArgumentException se o valor for nulo, tiver mais de duas casas decimais
+     *                                  significativas ou não couber em um {@code long}
+     */
+    public static long toCents(BigDecimal value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Valor monetário é obrigatório");
+        }
+
+        try {
+            // setScale sem arredondamento falha se houver casas decimais além dos centavos
+            return value.setScale(CENTS_SCALE).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Valor monetário não representável em centavos: " + value.toPlainString());
+        }
+    }
+
+    /**
+     * Converte um valor em reais, informado como texto, para centavos.
+     *
+     * @param value valor em reais
+     * @return valor em centavos
+     * @throws IllegalArgumentException se o texto não for numérico ou o valor não for representável
+     */
+    public static long toCents(String value) {
+        try {
+            return toCents(new BigDecimal(value));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor monetário inválido: " + value);
+        }
+    }
+
+    /**
+     * Converte um valor em centavos para reais, para exibição.
+     *
+     * @param cents valor em centavos
+     * @return valor em reais
+     */
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, CENTS_SCALE);
+    }
+}
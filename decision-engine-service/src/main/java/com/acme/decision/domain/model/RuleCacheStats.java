@@ -0,0 +1,23 @@
+package com.acme.decision.domain.model;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Estatísticas do cache de regras ativas.
+ */
+@Value
+public class RuleCacheStats {
+
+    long hits;
+    long misses;
+    long publishes; // versões publicadas, incrementais ou completas
+    long fullRebuilds; // versões com todos os tipos de transação recompilados
+    long version;
+    int txTypes;
+    int activeRules;
+    Instant lastPublish;
+    long refreshFailures; // reconstruções que falharam e mantiveram o snapshot anterior
+    Instant lastRefreshFailure;
+}
@@ -0,0 +1,61 @@
+package com.acme.decision.domain.model;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versão imutável das regras ativas, compiladas por tipo de transação.
+ * Cada conjunto já combina as regras DEFAULT com as específicas do tipo.
+ * Alterações de regras nunca modificam um snapshot: geram um novo, com a versão seguinte.
+ */
+@Value
+public class RuleSnapshot {
+
+    public static final String DEFAULT_TX_TYPE = "DEFAULT";
+
+    long version;
+    List<CompiledRule> activeRules; // ordenadas por ID
+    Map<String, CompiledRuleSet> ruleSetsByTxType;
+    Instant builtAt;
+
+    /**
+     * Retorna o conjunto de regras aplicável ao tipo de transação.
+     * Tipos sem regras específicas usam apenas as regras DEFAULT.
+     *
+     * @param txType tipo da transação
+     * @return conjunto de regras aplicável
+     */
+    public CompiledRuleSet ruleSetFor(String txType) {
+        CompiledRuleSet ruleSet = ruleSetsByTxType.get(txType);
+        return ruleSet != null ? ruleSet : ruleSetsByTxType.get(DEFAULT_TX_TYPE);
+    }
+
+    /**
+     * @return IDs das regras cujas condições leem o estado do tráfego (velocidade, soma ou cardinalidade)
+     */
+    public List<Long> stateReadingRuleIds() {
+        List<Long> ids = new ArrayList<>();
+        for (CompiledRule rule : activeRules) {
+            if (rule.getCondition().readsState()) {
+                ids.add(rule.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return se alguma regra lê o estado do tráfego
+     */
+    public boolean readsState() {
+        for (CompiledRule rule : activeRules) {
+            if (rule.getCondition().readsState()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -3,8 +3,6 @@ package com.acme.decision.domain.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
-import java.math.BigDecimal;
-
 @Data
 @AllArgsConstructor
 public class ScoreCalculationData {
@@ -13,10 +11,12 @@ public class ScoreCalculationData {
     private String ip;
     private String deviceId;
     private String txType;
-    private BigDecimal txValue;
+    private long txValueCents; // valor da transação em centavos
     private boolean cpfInPermissiveList;
     private boolean cpfInRestrictiveList;
     private boolean ipInRestrictiveList;
     private boolean deviceIdInRestrictiveList;
+    private Integer decisionThreshold; // opcional: score acima do limiar nega a transação
+    private boolean explain; // opcional: retorna a máscara das regras aplicadas
 }
 
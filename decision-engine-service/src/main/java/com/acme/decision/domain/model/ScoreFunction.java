@@ -0,0 +1,17 @@
+package com.acme.decision.domain.model;
+
+/**
+ * Função de score de um conjunto de regras.
+ * Pode ser interpretada (regra a regra) ou gerada em bytecode pelo ScoreFunctionGenerator.
+ */
+@FunctionalInterface
+public interface ScoreFunction {
+
+    /**
+     * Calcula a soma dos pontos das regras aplicáveis.
+     *
+     * @param data dados da transação
+     * @return soma dos pontos, sem o piso de score
+     */
+    int rawScore(ScoreCalculationData data);
+}
@@ -0,0 +1,26 @@
+package com.acme.decision.domain.model;
+
+import lombok.Value;
+
+import java.util.BitSet;
+
+/**
+ * Resultado do cálculo de score, vinculado à versão das regras usada.
+ */
+@Value
+public class ScoreResult {
+
+    /**
+     * Score retornado em caso de erro (score alto para negar por segurança).
+     */
+    public static final int FALLBACK_SCORE = 500;
+
+    int score;
+    Long ruleSetVersion; // nulo quando o score é o padrão de erro
+    boolean shortCircuited; // avaliação interrompida ao atingir o limiar de decisão
+    BitSet firedRules; // posições das regras aplicadas no conjunto do tipo de transação; nulo se não solicitado
+
+    public static ScoreResult fallback() {
+        return new ScoreResult(FALLBACK_SCORE, null, false, null);
+    }
+}
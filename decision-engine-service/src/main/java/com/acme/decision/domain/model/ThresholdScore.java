@@ -0,0 +1,15 @@
+package com.acme.decision.domain.model;
+
+import lombok.Value;
+
+/**
+ * Resultado da avaliação com limiar de decisão.
+ * Quando a avaliação é interrompida, o score é o limite do intervalo possível mais próximo do limiar,
+ * que fica sempre do mesmo lado do limiar que o score completo.
+ */
+@Value
+public class ThresholdScore {
+
+    int score;
+    boolean shortCircuited;
+}
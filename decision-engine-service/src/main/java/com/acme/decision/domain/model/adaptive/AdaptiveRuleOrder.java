@@ -0,0 +1,155 @@
+package com.acme.decision.domain.model.adaptive;
+
+import com.acme.decision.domain.model.CompiledRule;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Ordem adaptativa de avaliação das regras sequenciais de um conjunto.
+ * <p>
+ * Cada regra acumula taxa de aplicação e custo amostrado em {@link RuleStats}. Periodicamente a ordem
+ * é recalculada para avaliar primeiro as regras que mais reduzem a incerteza do score por nanossegundo:
+ * avaliar uma regra fixa a sua contribuição, estreitando o intervalo possível do score em |pontos|.
+ * A ordem vigente fica em um {@link EvaluationPlan} imutável, trocado atomicamente, com as somas dos
+ * pontos positivos e negativos ainda pendentes a partir de cada posição.
+ */
+public final class AdaptiveRuleOrder {
+
+    // Em média, uma a cada N avaliações recalcula a ordem
+    private static final int REORDER_INTERVAL = 1024;
+
+    // Em média, uma a cada N avaliações mede o custo de cada regra
+    private static final int COST_SAMPLE_INTERVAL = 64;
+
+    private final List<CompiledRule> rules;
+    private final RuleStats[] stats;
+    private final AtomicBoolean reordering = new AtomicBoolean();
+
+    private volatile EvaluationPlan plan;
+
+    public AdaptiveRuleOrder(List<CompiledRule> rules) {
+        this.rules = List.copyOf(rules);
+        this.stats = new RuleStats[rules.size()];
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = new RuleStats();
+        }
+        this.plan = EvaluationPlan.of(this.rules, IntStream.range(0, stats.length).toArray());
+    }
+
+    /**
+     * Retorna a ordem vigente, recalculando-a de tempos em tempos a partir das estatísticas.
+     *
+     * @return plano de avaliação
+     */
+    public EvaluationPlan currentPlan() {
+        if (ThreadLocalRandom.current().nextInt(REORDER_INTERVAL) == 0) {
+            reorder();
+        }
+        return plan;
+    }
+
+    /**
+     * @return se esta avaliação deve medir o custo das regras
+     */
+    public boolean sampleCost() {
+        return ThreadLocalRandom.current().nextInt(COST_SAMPLE_INTERVAL) == 0;
+    }
+
+    public RuleStats statsOf(int ruleIndex) {
+        return stats[ruleIndex];
+    }
+
+    private void reorder() {
+        // Apenas uma thread recalcula; as demais seguem com o plano atual
+        if (!reordering.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            double[] rank = new double[stats.length];
+            double[] matchRate = new double[stats.length];
+            for (int i = 0; i < stats.length; i++) {
+                rank[i] = Math.abs(rules.get(i).getPoints()) / stats[i].averageCostNanos();
+                matchRate[i] = stats[i].matchRate();
+            }
+
+            // Maior redução de incerteza por custo primeiro; no empate, as regras mais seletivas
+            Integer[] order = IntStream.range(0, stats.length).boxed().toArray(Integer[]::new);
+            Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> -rank[i])
+                    .thenComparingDouble(i -> matchRate[i])
+                    .thenComparingInt(i -> i));
+
+            plan = EvaluationPlan.of(rules, Arrays.stream(order).mapToInt(Integer::intValue).toArray());
+        } finally {
+            reordering.set(false);
+        }
+    }
+
+    /**
+     * Ordem de avaliação imutável com os limites dos pontos ainda pendentes.
+     */
+    public static final class EvaluationPlan {
+
+        private final CompiledRule[] rules;
+        private final int[] ruleIndexes;
+        private final int[] maxRemaining;
+        private final int[] minRemaining;
+
+        private EvaluationPlan(CompiledRule[] rules, int[] ruleIndexes, int[] maxRemaining, int[] minRemaining) {
+            this.rules = rules;
+            this.ruleIndexes = ruleIndexes;
+            this.maxRemaining = maxRemaining;
+            this.minRemaining = minRemaining;
+        }
+
+        static EvaluationPlan of(List<CompiledRule> rules, int[] order) {
+            int n = order.length;
+            CompiledRule[] ordered = new CompiledRule[n];
+            int[] maxRemaining = new int[n + 1];
+            int[] minRemaining = new int[n + 1];
+
+            for (int k = n - 1; k >= 0; k--) {
+                ordered[k] = rules.get(order[k]);
+                int points = ordered[k].getPoints();
+                maxRemaining[k] = maxRemaining[k + 1] + Math.max(points, 0);
+                minRemaining[k] = minRemaining[k + 1] + Math.min(points, 0);
+            }
+
+            return new EvaluationPlan(ordered, order, maxRemaining, minRemaining);
+        }
+
+        public int size() {
+            return rules.length;
+        }
+
+        public CompiledRule ruleAt(int position) {
+            return rules[position];
+        }
+
+        /**
+         * @return índice da regra na posição, na lista original do conjunto
+         */
+        public int ruleIndexAt(int position) {
+            return ruleIndexes[position];
+        }
+
+        /**
+         * @return maior soma possível das regras a partir da posição
+         */
+        public int maxRemainingFrom(int position) {
+            return maxRemaining[position];
+        }
+
+        /**
+         * @return menor soma possível das regras a partir da posição
+         */
+        public int minRemainingFrom(int position) {
+            return minRemaining[position];
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.acme.decision.domain.model.adaptive;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estatísticas de execução de uma regra: taxa de aplicação e custo médio amostrado.
+ * Os contadores usam {@link LongAdder} para não disputar a mesma linha de cache entre threads.
+ */
+public final class RuleStats {
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+    private final LongAdder sampledNanos = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+
+    public void record(boolean matched) {
+        evaluations.increment();
+        if (matched) {
+            matches.increment();
+        }
+    }
+
+    public void recordCost(long nanos) {
+        sampledNanos.add(nanos);
+        samples.increment();
+    }
+
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    public long getMatches() {
+        return matches.sum();
+    }
+
+    /**
+     * @return fração das avaliações em que a regra se aplicou (0 sem avaliações)
+     */
+    public double matchRate() {
+        long total = evaluations.sum();
+        return total == 0 ? 0 : (double) matches.sum() / total;
+    }
+
+    /**
+     * @return custo médio por avaliação em nanossegundos (1 sem amostras, para não favorecer regras desconhecidas)
+     */
+    public double averageCostNanos() {
+        long count = samples.sum();
+        return count == 0 ? 1 : Math.max(1, (double) sampledNanos.sum() / count);
+    }
+}
@@ -0,0 +1,35 @@
+package com.acme.decision.domain.model.backtest;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Comparação agregada entre as regras ativas e um conjunto candidato sobre transações históricas.
+ * Uma transação é negada quando o score fica acima do limiar de decisão.
+ */
+@Value
+public class BacktestReport {
+
+    long rows;
+    long invalidRows;
+    long elapsedMillis;
+    double rowsPerSecond;
+    int decisionThreshold;
+    long activeRuleSetVersion;
+
+    long activeDenied;
+    long candidateDenied;
+    long approvedToDenied;
+    long deniedToApproved;
+
+    long scoreIncreased;
+    long scoreDecreased;
+    long scoreUnchanged;
+    double averageActiveScore;
+    double averageCandidateScore;
+    List<ScoreBucket> scoreDistribution;
+
+    List<RuleFireCount> activeRuleFires;
+    List<RuleFireCount> candidateRuleFires;
+}
@@ -0,0 +1,18 @@
+package com.acme.decision.domain.model.backtest;
+
+import lombok.Value;
+
+/**
+ * Quantidade de transações em que uma regra se aplicou. Regras com {@code readsState} usam condições de
+ * velocidade, soma ou cardinalidade, avaliadas com o estado atual do tráfego real e não com o do momento
+ * de cada transação: as aplicações delas no backtest são apenas indicativas.
+ */
+@Value
+public class RuleFireCount {
+
+    Long ruleId;
+    String ruleName;
+    String txType;
+    long fires;
+    boolean readsState;
+}
@@ -0,0 +1,15 @@
+package com.acme.decision.domain.model.backtest;
+
+import lombok.Value;
+
+/**
+ * Faixa da distribuição de scores, com a contagem de transações em cada conjunto de regras.
+ */
+@Value
+public class ScoreBucket {
+
+    int minScore;
+    Integer maxScore; // nulo na última faixa (sem limite superior)
+    long activeCount;
+    long candidateCount;
+}
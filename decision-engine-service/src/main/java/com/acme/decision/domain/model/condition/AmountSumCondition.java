@@ -0,0 +1,41 @@
+package com.acme.decision.domain.model.condition;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.velocity.AmountAccumulators;
+import com.acme.decision.domain.model.velocity.VelocityPlan;
+import lombok.Value;
+
+/**
+ * Condição de valor acumulado ({@code amount_sum}): soma dos valores, em centavos, das transações da mesma
+ * chave (CPF, dispositivo ou IP) na janela deslizante, incluindo a transação atual, entre limites inclusivos.
+ */
+@Value
+public class AmountSumCondition implements Condition {
+
+    TextField field;
+    int windowBuckets;
+    long minCents;
+    long maxCents;
+    AmountAccumulators accumulators;
+
+    @Override
+    public boolean matches(ScoreCalculationData data) {
+        long sum = accumulators.sum(field.valueOf(data), System.currentTimeMillis(), windowBuckets);
+        return sum >= minCents && sum <= maxCents;
+    }
+
+    @Override
+    public int cost() {
+        return 16;
+    }
+
+    @Override
+    public boolean readsState() {
+        return true;
+    }
+
+    @Override
+    public void collectState(VelocityPlan.Builder plan) {
+        plan.amount(field, accumulators);
+    }
+}
@@ -0,0 +1,49 @@
+package com.acme.decision.domain.model.condition;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.velocity.VelocityPlan;
+
+/**
+ * Condição compilada de uma regra.
+ * Instâncias são imutáveis e construídas uma única vez a partir do JSON da regra,
+ * de forma que a avaliação não faz parsing nem comparação de strings.
+ */
+public interface Condition {
+
+    /**
+     * Avalia a condição para os dados da transação.
+     *
+     * @param data dados para avaliação
+     * @return true se a condição é satisfeita, false caso contrário
+     */
+    boolean matches(ScoreCalculationData data);
+
+    /**
+     * Custo relativo estimado da avaliação, usado para ordenar operandos de condições compostas.
+     *
+     * @return custo estimado (leitura de uma flag ou comparação numérica = 1)
+     */
+    default int cost() {
+        return 1;
+    }
+
+    /**
+     * Indica se a condição lê o estado acumulado do tráfego real (contadores de velocidade, somas e
+     * sketches), no instante da avaliação. O resultado dessas condições no backtest e na avaliação sombra
+     * reflete esse estado atual, e não o do momento da transação.
+     *
+     * @return true se a condição depende do estado do tráfego
+     */
+    default boolean readsState() {
+        return false;
+    }
+
+    /**
+     * Inclui no plano os contadores lidos pela condição, para que o registro de cada transação atualize
+     * apenas eles.
+     *
+     * @param plan plano em montagem
+     */
+    default void collectState(VelocityPlan.Builder plan) {
+    }
+}
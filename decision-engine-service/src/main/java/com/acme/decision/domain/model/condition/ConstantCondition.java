@@ -0,0 +1,34 @@
+package com.acme.decision.domain.model.condition;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+
+/**
+ * Condição constante, resultado do constant folding de condições compostas.
+ */
+public enum ConstantCondition implements Condition {
+
+    TRUE,
+    FALSE;
+
+    public static ConstantCondition of(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    public boolean value() {
+        return this == TRUE;
+    }
+
+    public ConstantCondition negate() {
+        return of(!value());
+    }
+
+    @Override
+    public boolean matches(ScoreCalculationData data) {
+        return this == TRUE;
+    }
+
+    @Override
+    public int cost() {
+        return 0;
+    }
+}
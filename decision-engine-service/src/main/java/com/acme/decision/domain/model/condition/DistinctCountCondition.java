@@ -0,0 +1,41 @@
+package com.acme.decision.domain.model.condition;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.velocity.DistinctCounters;
+import com.acme.decision.domain.model.velocity.VelocityPlan;
+import lombok.Value;
+
+/**
+ * Condição de cardinalidade ({@code distinct_count}): quantidade aproximada de CPFs distintos que usaram a
+ * mesma chave (dispositivo ou IP) na janela deslizante, incluindo a transação atual, entre limites inclusivos.
+ */
+@Value
+public class DistinctCountCondition implements Condition {
+
+    TextField field;
+    int windowBuckets;
+    long minCount;
+    long maxCount;
+    DistinctCounters counters;
+
+    @Override
+    public boolean matches(ScoreCalculationData data) {
+        long count = counters.estimate(field.valueOf(data), System.currentTimeMillis(), windowBuckets);
+        return count >= minCount && count <= maxCount;
+    }
+
+    @Override
+    public int cost() {
+        return 64;
+    }
+
+    @Override
+    public boolean readsState() {
+        return true;
+    }
+
+    @Override
+    public void collectState(VelocityPlan.Builder plan) {
+        plan.distinct(field, counters);
+    }
+}
@@ -0,0 +1,27 @@
+package com.acme.decision.domain.model.condition;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Condição de igualdade de um campo textual com um conjunto de valores ({@code eq} / {@code in}).
+ */
+@Value
+public class FieldInCondition implements Condition {
+
+    TextField field;
+    Set<String> values; // imutável
+
+    @Override
+    public boolean matches(ScoreCalculationData data) {
+        String value = field.valueOf(data);
+        return value != null && values.contains(value);
+    }
+
+    @Override
+    public int cost() {
+        return 4;
+    }
+}
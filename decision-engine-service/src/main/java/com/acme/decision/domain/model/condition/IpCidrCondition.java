@@ -0,0 +1,25 @@
+package com.acme.decision.domain.model.condition;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.network.CidrBlocks;
+import lombok.Value;
+
+/**
+ * Condição de bloco de IPs ({@code ip_cidr}): o IP da transação pertence a algum dos blocos CIDR ou
+ * intervalos, IPv4 ou IPv6, da regra.
+ */
+@Value
+public class IpCidrCondition implements Condition {
+
+    CidrBlocks blocks;
+
+    @Override
+    public boolean matches(ScoreCalculationData data) {
+        return blocks.contains(data.getIp());
+    }
+
+    @Override
+    public int cost() {
+        return 8;
+    }
+}
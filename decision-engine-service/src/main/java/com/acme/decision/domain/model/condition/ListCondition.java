@@ -0,0 +1,88 @@
+package com.acme.decision.domain.model.condition;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+
+import java.util.Optional;
+
+/**
+ * Condições baseadas no resultado da verificação de listas.
+ */
+public enum ListCondition implements Condition {
+
+    CPF_PERMISSIVE_LIST("cpf_permissive_list") {
+        @Override
+        public boolean matches(ScoreCalculationData data) {
+            return data.isCpfInPermissiveList();
+        }
+    },
+    CPF_RESTRICTIVE_LIST("cpf_restrictive_list") {
+        @Override
+        public boolean matches(ScoreCalculationData data) {
+            return data.isCpfInRestrictiveList();
+        }
+    },
+    IP_RESTRICTIVE_LIST("ip_restrictive_list") {
+        @Override
+        public boolean matches(ScoreCalculationData data) {
+            return data.isIpInRestrictiveList();
+        }
+    },
+    DEVICE_RESTRICTIVE_LIST("device_restrictive_list") {
+        @Override
+        public boolean matches(ScoreCalculationData data) {
+            return data.isDeviceIdInRestrictiveList();
+        }
+    };
+
+    /**
+     * Quantidade de combinações possíveis das flags de lista.
+     */
+    public static final int MASK_COUNT = 1 << 4;
+
+    private final String type;
+
+    ListCondition(String type) {
+        this.type = type;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Bit desta condição na máscara de flags de lista.
+     *
+     * @return bit da condição
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Monta a máscara com as flags de lista dos dados da transação.
+     *
+     * @param data dados da transação
+     * @return máscara de 4 bits, um por condição de lista
+     */
+    public static int maskOf(ScoreCalculationData data) {
+        return (data.isCpfInPermissiveList() ? 1 : 0)
+                | (data.isCpfInRestrictiveList() ? 1 << 1 : 0)
+                | (data.isIpInRestrictiveList() ? 1 << 2 : 0)
+                | (data.isDeviceIdInRestrictiveList() ? 1 << 3 : 0);
+    }
+
+    /**
+     * Busca a condição de lista correspondente ao tipo informado no JSON.
+     *
+     * @param type tipo da condição
+     * @return condição encontrada ou vazio
+     */
+    public static Optional<ListCondition> fromType(String type) {
+        for (ListCondition condition : values()) {
+            if (condition.type.equals(type)) {
+                return Optional.of(condition);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,28 @@
+package com.acme.decision.domain.model.condition;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.scoring.ModelHandle;
+import lombok.Value;
+
+/**
+ * Condição de modelo ({@code model}): saída do modelo treinado entre limites inclusivos.
+ * O modelo é lido do {@link ModelHandle} a cada avaliação, de forma que a recarga vale sem recompilar a regra.
+ */
+@Value
+public class ModelScoreCondition implements Condition {
+
+    ModelHandle model;
+    double min;
+    double max;
+
+    @Override
+    public boolean matches(ScoreCalculationData data) {
+        double output = model.getModel().predict(data);
+        return output >= min && output <= max;
+    }
+
+    @Override
+    public int cost() {
+        return 128;
+    }
+}
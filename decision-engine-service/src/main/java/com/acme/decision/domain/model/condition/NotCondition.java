@@ -0,0 +1,34 @@
+package com.acme.decision.domain.model.condition;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.velocity.VelocityPlan;
+import lombok.Value;
+
+/**
+ * Negação de uma condição.
+ */
+@Value
+public class NotCondition implements Condition {
+
+    Condition condition;
+
+    @Override
+    public boolean matches(ScoreCalculationData data) {
+        return !condition.matches(data);
+    }
+
+    @Override
+    public int cost() {
+        return condition.cost();
+    }
+
+    @Override
+    public boolean readsState() {
+        return condition.readsState();
+    }
+
+    @Override
+    public void collectState(VelocityPlan.Builder plan) {
+        condition.collectState(plan);
+    }
+}
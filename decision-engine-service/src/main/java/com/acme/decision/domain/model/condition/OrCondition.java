@@ -0,0 +1,51 @@
+package com.acme.decision.domain.model.condition;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.velocity.VelocityPlan;
+import lombok.Value;
+
+/**
+ * Disjunção de condições, avaliada na ordem do array e interrompida no primeiro operando verdadeiro.
+ * O compilador ordena os operandos do mais barato ao mais caro.
+ */
+@Value
+public class OrCondition implements Condition {
+
+    Condition[] conditions;
+
+    @Override
+    public boolean matches(ScoreCalculationData data) {
+        for (Condition condition : conditions) {
+            if (condition.matches(data)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int cost() {
+        int cost = 0;
+        for (Condition condition : conditions) {
+            cost += condition.cost();
+        }
+        return cost;
+    }
+
+    @Override
+    public boolean readsState() {
+        for (Condition condition : conditions) {
+            if (condition.readsState()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void collectState(VelocityPlan.Builder plan) {
+        for (Condition condition : conditions) {
+            condition.collectState(plan);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.acme.decision.domain.model.condition;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Campos textuais de {@link ScoreCalculationData} que podem ser comparados em condições compostas.
+ */
+public enum TextField {
+
+    CPF("cpf") {
+        @Override
+        public String valueOf(ScoreCalculationData data) {
+            return data.getCpf();
+        }
+    },
+    IP("ip") {
+        @Override
+        public String valueOf(ScoreCalculationData data) {
+            return data.getIp();
+        }
+    },
+    DEVICE_ID("deviceId") {
+        @Override
+        public String valueOf(ScoreCalculationData data) {
+            return data.getDeviceId();
+        }
+    },
+    TX_TYPE("txType") {
+        @Override
+        public String valueOf(ScoreCalculationData data) {
+            return data.getTxType();
+        }
+    };
+
+    private final String fieldName;
+
+    TextField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public abstract String valueOf(ScoreCalculationData data);
+
+    public static Optional<TextField> fromFieldName(String fieldName) {
+        return Arrays.stream(values())
+                .filter(field -> field.fieldName.equals(fieldName))
+                .findFirst();
+    }
+}
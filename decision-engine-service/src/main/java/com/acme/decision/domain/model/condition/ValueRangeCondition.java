@@ -0,0 +1,20 @@
+package com.acme.decision.domain.model.condition;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+import lombok.Value;
+
+/**
+ * Condição de faixa de valor ({@code value_range}), com limites inclusivos em centavos.
+ */
+@Value
+public class ValueRangeCondition implements Condition {
+
+    long minCents;
+    long maxCents;
+
+    @Override
+    public boolean matches(ScoreCalculationData data) {
+        long txValueCents = data.getTxValueCents();
+        return txValueCents >= minCents && txValueCents <= maxCents;
+    }
+}
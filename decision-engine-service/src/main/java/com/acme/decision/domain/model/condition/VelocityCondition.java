@@ -0,0 +1,41 @@
+package com.acme.decision.domain.model.condition;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.velocity.VelocityCounters;
+import com.acme.decision.domain.model.velocity.VelocityPlan;
+import lombok.Value;
+
+/**
+ * Condição de velocidade ({@code velocity}): quantidade de transações da mesma chave (CPF, dispositivo ou IP)
+ * na janela deslizante, incluindo a transação atual, entre limites inclusivos.
+ */
+@Value
+public class VelocityCondition implements Condition {
+
+    TextField field;
+    int windowBuckets;
+    long minCount;
+    long maxCount;
+    VelocityCounters counters;
+
+    @Override
+    public boolean matches(ScoreCalculationData data) {
+        long count = counters.count(field.valueOf(data), System.currentTimeMillis(), windowBuckets);
+        return count >= minCount && count <= maxCount;
+    }
+
+    @Override
+    public int cost() {
+        return 16;
+    }
+
+    @Override
+    public boolean readsState() {
+        return true;
+    }
+
+    @Override
+    public void collectState(VelocityPlan.Builder plan) {
+        plan.count(field, counters);
+    }
+}
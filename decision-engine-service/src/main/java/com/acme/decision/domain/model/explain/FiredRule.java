@@ -0,0 +1,15 @@
+package com.acme.decision.domain.model.explain;
+
+import lombok.Value;
+
+/**
+ * Regra aplicada em um cálculo de score, com a sua posição no conjunto de regras do tipo de transação.
+ */
+@Value
+public class FiredRule {
+
+    int position;
+    Long ruleId;
+    String ruleName;
+    int points;
+}
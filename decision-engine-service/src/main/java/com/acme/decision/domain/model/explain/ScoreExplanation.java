@@ -0,0 +1,19 @@
+package com.acme.decision.domain.model.explain;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Explicação de um score: as regras aplicadas, decodificadas a partir da máscara retornada no cálculo,
+ * sobre o conjunto de regras da versão e do tipo de transação usados.
+ */
+@Value
+public class ScoreExplanation {
+
+    long ruleSetVersion;
+    String txType;
+    List<FiredRule> rules;
+    int rawScore; // soma dos pontos das regras aplicadas
+    int score; // score resultante, com o piso de 1
+}
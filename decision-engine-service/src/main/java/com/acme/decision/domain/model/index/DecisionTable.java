@@ -0,0 +1,84 @@
+package com.acme.decision.domain.model.index;
+
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.condition.ListCondition;
+
+import java.util.List;
+
+/**
+ * Tabela de decisão pré-calculada de um conjunto de regras.
+ * <p>
+ * Quando todas as regras são de faixa de valor ou de lista, o score depende apenas do segmento
+ * do {@link ValueRangeIndex} em que o valor cai e da máscara de 4 bits das flags de lista.
+ * A tabela guarda a soma bruta dos pontos para cada par (segmento, máscara), de forma que o
+ * cálculo se resume a uma busca binária e uma leitura de array.
+ */
+public final class DecisionTable {
+
+    private static final int MASK_BITS = Integer.numberOfTrailingZeros(ListCondition.MASK_COUNT);
+
+    private final ValueRangeIndex valueRangeIndex;
+
+    // Soma bruta dos pontos, indexada por (segmento << MASK_BITS) | máscara
+    private final int[] rawScores;
+
+    private DecisionTable(ValueRangeIndex valueRangeIndex, int[] rawScores) {
+        this.valueRangeIndex = valueRangeIndex;
+        this.rawScores = rawScores;
+    }
+
+    /**
+     * Constrói a tabela a partir do índice de faixas e das regras de lista.
+     *
+     * @param valueRangeIndex índice das regras de faixa de valor
+     * @param listRules regras cuja condição é {@link ListCondition}
+     * @return tabela construída
+     */
+    public static DecisionTable build(ValueRangeIndex valueRangeIndex, List<CompiledRule> listRules) {
+        int[] maskPoints = new int[ListCondition.MASK_COUNT];
+        for (int mask = 0; mask < ListCondition.MASK_COUNT; mask++) {
+            for (CompiledRule rule : listRules) {
+                ListCondition condition = (ListCondition) rule.getCondition();
+                if ((mask & condition.bit()) != 0) {
+                    maskPoints[mask] += rule.getPoints();
+                }
+            }
+        }
+
+        int[] rawScores = new int[valueRangeIndex.segmentCount() << MASK_BITS];
+        for (int segment = 0; segment < valueRangeIndex.segmentCount(); segment++) {
+            int rangePoints = valueRangeIndex.pointsForSegment(segment);
+            for (int mask = 0; mask < ListCondition.MASK_COUNT; mask++) {
+                rawScores[(segment << MASK_BITS) | mask] = rangePoints + maskPoints[mask];
+            }
+        }
+
+        return new DecisionTable(valueRangeIndex, rawScores);
+    }
+
+    /**
+     * Retorna a soma bruta dos pontos das regras aplicáveis à transação.
+     *
+     * @param data dados da transação
+     * @return soma dos pontos, sem o piso de score
+     */
+    public int rawScore(ScoreCalculationData data) {
+        return rawScore(valueRangeIndex.segmentOf(data.getTxValueCents()), ListCondition.maskOf(data));
+    }
+
+    /**
+     * Retorna a soma bruta dos pontos para um segmento e uma máscara de flags.
+     *
+     * @param segment índice do segmento
+     * @param mask máscara de flags de lista
+     * @return soma dos pontos, sem o piso de score
+     */
+    public int rawScore(int segment, int mask) {
+        return rawScores[(segment << MASK_BITS) | mask];
+    }
+
+    public ValueRangeIndex getValueRangeIndex() {
+        return valueRangeIndex;
+    }
+}
@@ -0,0 +1,168 @@
+package com.acme.decision.domain.model.index;
+
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.condition.FieldInCondition;
+import com.acme.decision.domain.model.condition.TextField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Índice das regras por chave: regras cuja condição é a igualdade de CPF, dispositivo ou IP com um
+ * conjunto de valores ({@link FieldInCondition}).
+ * <p>
+ * Cada valor é mapeado, por campo, para a soma dos pontos das regras que o contêm e para as posições
+ * dessas regras no conjunto. O cálculo faz no máximo uma busca em hash por campo indexado, qualquer que
+ * seja a quantidade de regras por chave.
+ */
+public final class KeyedRuleIndex {
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    // Campos com regras indexadas e, na mesma ordem, os mapas valor -> entrada
+    private final TextField[] fields;
+    private final List<Map<String, Entry>> entries;
+    private final int ruleCount;
+
+    // Posições, no conjunto, das regras que não são por chave
+    private final int[] unindexedPositions;
+
+    private KeyedRuleIndex(TextField[] fields, List<Map<String, Entry>> entries, int ruleCount,
+                           int[] unindexedPositions) {
+        this.fields = fields;
+        this.entries = entries;
+        this.ruleCount = ruleCount;
+        this.unindexedPositions = unindexedPositions;
+    }
+
+    /**
+     * Indica se a regra pode ser indexada por chave.
+     *
+     * @param rule regra compilada
+     * @return true se a condição é a igualdade de CPF, dispositivo ou IP com um conjunto de valores
+     */
+    public static boolean isKeyed(CompiledRule rule) {
+        if (!(rule.getCondition() instanceof FieldInCondition condition)) {
+            return false;
+        }
+        TextField field = condition.getField();
+        return field == TextField.CPF || field == TextField.DEVICE_ID || field == TextField.IP;
+    }
+
+    /**
+     * Constrói o índice.
+     *
+     * @param rules regras do conjunto, na ordem de {@code CompiledRuleSet#getRules()}
+     * @return índice das regras por chave
+     */
+    public static KeyedRuleIndex build(List<CompiledRule> rules) {
+        Map<TextField, Map<String, Entry>> byField = new EnumMap<>(TextField.class);
+        int ruleCount = 0;
+        int[] unindexedPositions = new int[rules.size()];
+        int unindexedCount = 0;
+
+        for (int position = 0; position < rules.size(); position++) {
+            CompiledRule rule = rules.get(position);
+            if (!isKeyed(rule)) {
+                unindexedPositions[unindexedCount++] = position;
+                continue;
+            }
+            ruleCount++;
+
+            FieldInCondition condition = (FieldInCondition) rule.getCondition();
+            Map<String, Entry> fieldEntries = byField.computeIfAbsent(condition.getField(), f -> new HashMap<>());
+            for (String value : condition.getValues()) {
+                fieldEntries.computeIfAbsent(value, v -> new Entry()).add(rule.getPoints(), position);
+            }
+        }
+
+        return new KeyedRuleIndex(byField.keySet().toArray(new TextField[0]),
+                new ArrayList<>(byField.values()), ruleCount, Arrays.copyOf(unindexedPositions, unindexedCount));
+    }
+
+    /**
+     * Soma os pontos das regras por chave aplicáveis à transação.
+     *
+     * @param data dados da transação
+     * @return soma dos pontos
+     */
+    public int pointsFor(ScoreCalculationData data) {
+        int total = 0;
+        for (int i = 0; i < fields.length; i++) {
+            Entry entry = find(i, data);
+            if (entry != null) {
+                total += entry.points;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Informa a posição de cada regra por chave aplicável à transação.
+     *
+     * @param data dados da transação
+     * @param onMatch recebe a posição da regra no conjunto
+     * @return soma dos pontos das regras aplicáveis
+     */
+    public int forEachMatch(ScoreCalculationData data, IntConsumer onMatch) {
+        int total = 0;
+        for (int i = 0; i < fields.length; i++) {
+            Entry entry = find(i, data);
+            if (entry != null) {
+                total += entry.points;
+                for (int position : entry.positions) {
+                    onMatch.accept(position);
+                }
+            }
+        }
+        return total;
+    }
+
+    private Entry find(int fieldIndex, ScoreCalculationData data) {
+        String value = fields[fieldIndex].valueOf(data);
+        return value == null ? null : entries.get(fieldIndex).get(value);
+    }
+
+    /**
+     * @return quantidade de regras do conjunto avaliadas fora do índice
+     */
+    public int unindexedCount() {
+        return unindexedPositions.length;
+    }
+
+    /**
+     * @param i índice entre 0 e {@link #unindexedCount()} - 1
+     * @return posição, no conjunto, da i-ésima regra avaliada fora do índice, em ordem crescente
+     */
+    public int unindexedPositionAt(int i) {
+        return unindexedPositions[i];
+    }
+
+    public boolean isEmpty() {
+        return fields.length == 0;
+    }
+
+    public int ruleCount() {
+        return ruleCount;
+    }
+
+    private static final class Entry {
+
+        private int points;
+        private int[] positions = NO_POSITIONS;
+
+        private void add(int rulePoints, int position) {
+            points += rulePoints;
+            int[] grown = new int[positions.length + 1];
+            System.arraycopy(positions, 0, grown, 0, positions.length);
+            grown[positions.length] = position;
+            positions = grown;
+        }
+    }
+}
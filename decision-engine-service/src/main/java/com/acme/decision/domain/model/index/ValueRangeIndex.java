@@ -0,0 +1,152 @@
+package com.acme.decision.domain.model.index;
+
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.condition.ValueRangeCondition;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Índice de intervalos para regras {@code value_range}.
+ * <p>
+ * Os limites de todas as faixas, em centavos, formam um array ordenado de fronteiras distintas, que divide
+ * a reta em segmentos: cada fronteira é um segmento e cada intervalo aberto entre fronteiras
+ * consecutivas (além dos extremos) é outro. A soma dos pontos das faixas que cobrem cada
+ * segmento é pré-calculada, de forma que uma busca binária sobre o valor da transação
+ * retorna o total de todas as faixas aplicáveis, inclusive quando elas se sobrepõem.
+ */
+public final class ValueRangeIndex {
+
+    private static final ValueRangeIndex EMPTY = new ValueRangeIndex(new long[0], new int[1]);
+
+    // Fronteiras distintas em ordem crescente
+    private final long[] boundaries;
+
+    // Segmento 2i = intervalo antes de boundaries[i]; 2i + 1 = boundaries[i]; 2n = após a última
+    private final int[] segmentPoints;
+
+    private ValueRangeIndex(long[] boundaries, int[] segmentPoints) {
+        this.boundaries = boundaries;
+        this.segmentPoints = segmentPoints;
+    }
+
+    /**
+     * Constrói o índice a partir das regras de faixa de valor.
+     *
+     * @param rangeRules regras cuja condição é {@link ValueRangeCondition}
+     * @return índice construído
+     */
+    public static ValueRangeIndex build(List<CompiledRule> rangeRules) {
+        if (rangeRules.isEmpty()) {
+            return EMPTY;
+        }
+
+        long[] boundaries = rangeRules.stream()
+                .map(rule -> (ValueRangeCondition) rule.getCondition())
+                .flatMapToLong(range -> LongStream.of(range.getMinCents(), range.getMaxCents()))
+                .sorted()
+                .distinct()
+                .toArray();
+
+        // Array de diferenças sobre os segmentos, acumulado em seguida
+        int[] segmentPoints = new int[2 * boundaries.length + 1];
+        int[] diff = new int[segmentPoints.length + 1];
+        for (CompiledRule rule : rangeRules) {
+            ValueRangeCondition range = (ValueRangeCondition) rule.getCondition();
+            int first = 2 * Arrays.binarySearch(boundaries, range.getMinCents()) + 1;
+            int last = 2 * Arrays.binarySearch(boundaries, range.getMaxCents()) + 1;
+            diff[first] += rule.getPoints();
+            diff[last + 1] -= rule.getPoints();
+        }
+
+        int running = 0;
+        for (int segment = 0; segment < segmentPoints.length; segment++) {
+            running += diff[segment];
+            segmentPoints[segment] = running;
+        }
+
+        return new ValueRangeIndex(boundaries, segmentPoints);
+    }
+
+    /**
+     * Retorna a soma dos pontos de todas as faixas que contêm o valor.
+     *
+     * @param valueCents valor da transação em centavos
+     * @return soma dos pontos das faixas aplicáveis
+     */
+    public int pointsFor(long valueCents) {
+        return segmentPoints[segmentOf(valueCents)];
+    }
+
+    /**
+     * Localiza o segmento que contém o valor.
+     *
+     * @param valueCents valor da transação em centavos
+     * @return índice do segmento, entre 0 e {@link #segmentCount()} - 1
+     */
+    public int segmentOf(long valueCents) {
+        int position = Arrays.binarySearch(boundaries, valueCents);
+        return position >= 0 ? 2 * position + 1 : 2 * (-position - 1);
+    }
+
+    /**
+     * Retorna a soma dos pontos das faixas que cobrem o segmento.
+     *
+     * @param segment índice do segmento
+     * @return soma dos pontos
+     */
+    public int pointsForSegment(int segment) {
+        return segmentPoints[segment];
+    }
+
+    /**
+     * Indica se o segmento não contém nenhum valor em centavos, o que ocorre no intervalo entre duas
+     * fronteiras consecutivas e nos extremos quando a fronteira é o menor ou o maior {@code long}.
+     *
+     * @param segment índice do segmento
+     * @return true se o segmento é vazio
+     */
+    boolean isEmptySegment(int segment) {
+        if (segment % 2 == 1 || boundaries.length == 0) {
+            return false;
+        }
+
+        int next = segment / 2;
+        if (next == 0) {
+            return boundaries[0] == Long.MIN_VALUE;
+        }
+        if (next == boundaries.length) {
+            return boundaries[next - 1] == Long.MAX_VALUE;
+        }
+        return boundaries[next - 1] + 1 >= boundaries[next];
+    }
+
+    /**
+     * Retorna um valor pertencente ao segmento, usado nos testes para verificar estruturas derivadas do índice.
+     *
+     * @param segment índice do segmento, não vazio
+     * @return valor em centavos contido no segmento
+     */
+    long representativeOf(int segment) {
+        if (boundaries.length == 0) {
+            return 1;
+        }
+        if (segment % 2 == 1) {
+            return boundaries[segment / 2];
+        }
+
+        int next = segment / 2;
+        if (next == 0) {
+            return boundaries[0] - 1;
+        }
+        if (next == boundaries.length) {
+            return boundaries[next - 1] + 1;
+        }
+        return boundaries[next - 1] + ((boundaries[next] - boundaries[next - 1]) >>> 1);
+    }
+
+    public int segmentCount() {
+        return segmentPoints.length;
+    }
+}
@@ -0,0 +1,46 @@
+package com.acme.decision.domain.model.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de avaliação (avaliações, aplicações, erros e latência), seguros para escrita concorrente.
+ */
+public final class EvaluationCounters {
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public void recordEvaluation(boolean matched) {
+        evaluations.increment();
+        if (matched) {
+            matches.increment();
+        }
+    }
+
+    public void recordError() {
+        evaluations.increment();
+        errors.increment();
+    }
+
+    public void recordLatency(long nanos) {
+        latency.record(nanos);
+    }
+
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    public long getMatches() {
+        return matches.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public LatencySummary latencySummary() {
+        return latency.summary();
+    }
+}
@@ -0,0 +1,22 @@
+package com.acme.decision.domain.model.metrics;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Métricas de avaliação desde o último reset.
+ * As contagens por tipo de transação cobrem todas as requisições; latências e métricas por regra são
+ * amostradas: uma a cada {@code sampleRate} requisições é cronometrada e, em outra amostra do mesmo
+ * tamanho, o score é calculado avaliando cada regra individualmente, com o mesmo resultado. Com
+ * {@code sampleRate} 1 as duas amostras cobrem todas as requisições.
+ */
+@Value
+public class EvaluationMetrics {
+
+    Instant since;
+    int sampleRate;
+    List<TxTypeMetrics> txTypes;
+    List<RuleMetrics> rules;
+}
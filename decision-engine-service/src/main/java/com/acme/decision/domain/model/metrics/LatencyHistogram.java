@@ -0,0 +1,74 @@
+package com.acme.decision.domain.model.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências em nanossegundos, com baldes em potências de 2.
+ * <p>
+ * O balde i contém as latências em [2^(i-1), 2^i): o registro custa um {@code numberOfLeadingZeros}
+ * e um incremento de {@link LongAdder}, sem bloqueio nem alocação. Os percentis são estimados
+ * pelo limite superior do balde, com precisão de fator 2.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 65;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    /**
+     * Resume o histograma. Registros concorrentes podem ou não estar incluídos.
+     *
+     * @return contagem, total, percentis e máximo
+     */
+    public LatencySummary summary() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+
+        long max = maxNanos.get();
+        return new LatencySummary(
+                count,
+                totalNanos.sum(),
+                percentile(counts, count, 0.50, max),
+                percentile(counts, count, 0.90, max),
+                percentile(counts, count, 0.99, max),
+                max
+        );
+    }
+
+    private static long percentile(long[] counts, long count, double quantile, long max) {
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long upperBound = i == 0 ? 0 : i >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+                return Math.min(upperBound, max);
+            }
+        }
+        return max;
+    }
+}
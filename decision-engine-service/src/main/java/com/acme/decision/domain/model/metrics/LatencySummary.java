@@ -0,0 +1,17 @@
+package com.acme.decision.domain.model.metrics;
+
+import lombok.Value;
+
+/**
+ * Resumo de um {@link LatencyHistogram}, em nanossegundos.
+ */
+@Value
+public class LatencySummary {
+
+    long count;
+    long totalNanos;
+    long p50Nanos;
+    long p90Nanos;
+    long p99Nanos;
+    long maxNanos;
+}
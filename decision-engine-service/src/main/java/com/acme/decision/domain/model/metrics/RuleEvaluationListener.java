@@ -0,0 +1,13 @@
+package com.acme.decision.domain.model.metrics;
+
+import com.acme.decision.domain.model.CompiledRule;
+
+/**
+ * Recebe o resultado da avaliação individual de cada regra, para coleta de métricas.
+ */
+public interface RuleEvaluationListener {
+
+    void onEvaluation(CompiledRule rule, boolean matched, long nanos);
+
+    void onError(CompiledRule rule, long nanos, RuntimeException error);
+}
@@ -0,0 +1,22 @@
+package com.acme.decision.domain.model.metrics;
+
+import lombok.Value;
+
+/**
+ * Métricas de uma regra, coletadas nas avaliações amostradas: as contagens cobrem apenas as requisições
+ * da amostra por regra (uma a cada {@code sampleRate}), não o total de avaliações. As estimativas do total
+ * são as contagens amostrais multiplicadas pela taxa de amostragem.
+ */
+@Value
+public class RuleMetrics {
+
+    Long ruleId;
+    String ruleName;
+    String txType;
+    long sampledEvaluations;
+    long sampledMatches;
+    long sampledErrors;
+    long estimatedEvaluations;
+    long estimatedMatches;
+    LatencySummary latency;
+}
@@ -0,0 +1,16 @@
+package com.acme.decision.domain.model.metrics;
+
+import lombok.Value;
+
+/**
+ * Métricas do cálculo de score de um conjunto de regras (tipo de transação).
+ * As contagens cobrem todas as requisições e a latência, as amostradas.
+ */
+@Value
+public class TxTypeMetrics {
+
+    String txType;
+    long evaluations;
+    long errors;
+    LatencySummary latency;
+}
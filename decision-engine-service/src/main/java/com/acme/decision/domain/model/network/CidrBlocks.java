@@ -0,0 +1,221 @@
+package com.acme.decision.domain.model.network;
+
+import java.util.List;
+
+/**
+ * Conjunto de blocos de endereços IPv4 e IPv6, com uma {@link CidrTrie} por família.
+ * <p>
+ * Aceita blocos CIDR ({@code 10.0.0.0/8}, {@code 2001:db8::/32}), endereços isolados e intervalos
+ * ({@code 10.0.0.5-10.0.0.20}), decompostos na menor quantidade de blocos CIDR equivalente. Endereços
+ * IPv6 mapeados de IPv4 ({@code ::ffff:a.b.c.d}) são buscados entre os blocos IPv4, e por isso blocos e
+ * intervalos escritos nessa forma ({@code ::ffff:10.0.0.0/104}) também são guardados entre eles.
+ */
+public final class CidrBlocks {
+
+    private static final int IPV4_BITS = 32;
+    private static final int IPV6_BITS = 128;
+
+    // Endereços IPv6 mapeados de IPv4: ::ffff:0:0/96, com o endereço IPv4 nos 32 bits baixos
+    private static final long MAPPED_LO = 0xffffL << 32;
+    private static final int MAPPED_PREFIX_BITS = 96;
+
+    private static final ThreadLocal<long[]> IPV6_SCRATCH = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final CidrTrie ipv4;
+    private final CidrTrie ipv6;
+    private final List<String> blocks;
+
+    private CidrBlocks(CidrTrie ipv4, CidrTrie ipv6, List<String> blocks) {
+        this.ipv4 = ipv4;
+        this.ipv6 = ipv6;
+        this.blocks = blocks;
+    }
+
+    /**
+     * Compila os blocos informados.
+     *
+     * @param blocks blocos CIDR, endereços ou intervalos
+     * @return conjunto compilado
+     * @throws IllegalArgumentException se algum bloco for inválido
+     */
+    public static CidrBlocks parse(List<String> blocks) {
+        CidrTrie.Builder ipv4 = new CidrTrie.Builder(IPV4_BITS);
+        CidrTrie.Builder ipv6 = new CidrTrie.Builder(IPV6_BITS);
+        for (String block : blocks) {
+            add(block.trim(), ipv4, ipv6);
+        }
+        return new CidrBlocks(ipv4.build(), ipv6.build(), List.copyOf(blocks));
+    }
+
+    /**
+     * Verifica se o endereço pertence a algum bloco. Endereços inválidos não pertencem a nenhum.
+     *
+     * @param ip endereço textual
+     * @return true se algum bloco contém o endereço
+     */
+    public boolean contains(String ip) {
+        if (ip == null) {
+            return false;
+        }
+
+        long address = IpAddresses.parseIpv4(ip);
+        if (address >= 0) {
+            return ipv4.contains(address << 32, 0);
+        }
+
+        long[] ipv6Address = IPV6_SCRATCH.get();
+        if (!IpAddresses.parseIpv6(ip, ipv6Address)) {
+            return false;
+        }
+        if (ipv6Address[0] == 0 && (ipv6Address[1] >>> 32) == 0xffffL) {
+            return ipv4.contains(ipv6Address[1] << 32, 0);
+        }
+        return ipv6.contains(ipv6Address[0], ipv6Address[1]);
+    }
+
+    public List<String> getBlocks() {
+        return blocks;
+    }
+
+    public int nodeCount() {
+        return ipv4.nodeCount() + ipv6.nodeCount();
+    }
+
+    private static void add(String block, CidrTrie.Builder ipv4, CidrTrie.Builder ipv6) {
+        int dash = block.indexOf('-');
+        if (dash >= 0) {
+            addRange(block, block.substring(0, dash).trim(), block.substring(dash + 1).trim(), ipv4, ipv6);
+            return;
+        }
+
+        int slash = block.indexOf('/');
+        String address = slash >= 0 ? block.substring(0, slash) : block;
+        long ipv4Address = IpAddresses.parseIpv4(address);
+        long[] ipv6Address = new long[2];
+        int maxBits;
+        if (ipv4Address >= 0) {
+            maxBits = IPV4_BITS;
+        } else if (IpAddresses.parseIpv6(address, ipv6Address)) {
+            maxBits = IPV6_BITS;
+        } else {
+            throw new IllegalArgumentException("Endereço IP inválido: " + block);
+        }
+
+        int length = maxBits;
+        if (slash >= 0) {
+            try {
+                length = Integer.parseInt(block.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Prefixo CIDR inválido: " + block);
+            }
+            if (length < 0 || length > maxBits) {
+                throw new IllegalArgumentException("Prefixo CIDR fora do intervalo 0-" + maxBits + ": " + block);
+            }
+        }
+
+        if (maxBits == IPV4_BITS) {
+            ipv4.add(ipv4Address << 32, 0, length);
+        } else if (length >= MAPPED_PREFIX_BITS && isMapped(ipv6Address[0], ipv6Address[1])) {
+            // Bloco de endereços mapeados: guardado entre os blocos IPv4, onde esses endereços são buscados
+            ipv4.add(ipv6Address[1] << 32, 0, length - MAPPED_PREFIX_BITS);
+        } else {
+            ipv6.add(ipv6Address[0], ipv6Address[1], length);
+            if (coversMapped(ipv6Address[0], ipv6Address[1], length)) {
+                ipv4.add(0, 0, 0);
+            }
+        }
+    }
+
+    private static void addRange(String block, String first, String last,
+                                 CidrTrie.Builder ipv4, CidrTrie.Builder ipv6) {
+        long ipv4First = IpAddresses.parseIpv4(first);
+        long ipv4Last = IpAddresses.parseIpv4(last);
+        if (ipv4First >= 0 && ipv4Last >= 0) {
+            if (ipv4First > ipv4Last) {
+                throw new IllegalArgumentException("Intervalo de IPs invertido: " + block);
+            }
+            // Expressos nos 64 bits altos, o intervalo usa a mesma decomposição do IPv6
+            addRange(ipv4, ipv4First << 32, 0, ipv4Last << 32 | 0xffffffffL, -1L);
+            return;
+        }
+
+        long[] firstAddress = new long[2];
+        long[] lastAddress = new long[2];
+        if (!IpAddresses.parseIpv6(first, firstAddress) || !IpAddresses.parseIpv6(last, lastAddress)) {
+            throw new IllegalArgumentException("Intervalo de IPs inválido: " + block);
+        }
+        if (compare(firstAddress[0], firstAddress[1], lastAddress[0], lastAddress[1]) > 0) {
+            throw new IllegalArgumentException("Intervalo de IPs invertido: " + block);
+        }
+
+        // A parte do intervalo entre os endereços mapeados vai para os blocos IPv4, onde esses endereços são buscados
+        boolean startsMapped = isMapped(firstAddress[0], firstAddress[1]);
+        boolean endsMapped = isMapped(lastAddress[0], lastAddress[1]);
+        long mappedFirst = startsMapped ? firstAddress[1] << 32 : 0;
+        long mappedLast = endsMapped ? lastAddress[1] << 32 : 0xffffffffL << 32;
+        if (startsMapped || endsMapped || (compare(firstAddress[0], firstAddress[1], 0, MAPPED_LO) < 0
+                && compare(lastAddress[0], lastAddress[1], 0, MAPPED_LO | 0xffffffffL) > 0)) {
+            addRange(ipv4, mappedFirst, 0, mappedLast | 0xffffffffL, -1L);
+        }
+        if (!startsMapped || !endsMapped) {
+            addRange(ipv6, firstAddress[0], firstAddress[1], lastAddress[0], lastAddress[1]);
+        }
+    }
+
+    /**
+     * Decompõe o intervalo de 128 bits {@code [first, last]} nos maiores blocos alinhados possíveis.
+     */
+    private static void addRange(CidrTrie.Builder builder, long firstHi, long firstLo, long lastHi, long lastLo) {
+        long hi = firstHi;
+        long lo = firstLo;
+        while (true) {
+            int alignment = lo != 0 ? Long.numberOfTrailingZeros(lo)
+                    : hi != 0 ? 64 + Long.numberOfTrailingZeros(hi) : 128;
+
+            // span = last - atual + 1; zero indica o espaço inteiro de 128 bits
+            long spanLo = lastLo - lo;
+            long spanHi = lastHi - hi - (Long.compareUnsigned(lastLo, lo) < 0 ? 1 : 0);
+            spanLo++;
+            if (spanLo == 0) {
+                spanHi++;
+            }
+            int spanBits = spanHi != 0 ? 127 - Long.numberOfLeadingZeros(spanHi)
+                    : spanLo != 0 ? 63 - Long.numberOfLeadingZeros(spanLo) : 128;
+
+            int size = Math.min(alignment, spanBits);
+            builder.add(hi, lo, 128 - size);
+
+            if (size >= 128) {
+                return;
+            }
+            long nextLo = size < 64 ? lo + (1L << size) : lo;
+            long nextHi = size < 64 ? hi + (Long.compareUnsigned(nextLo, lo) < 0 ? 1 : 0) : hi + (1L << (size - 64));
+            if (compare(nextHi, nextLo, hi, lo) <= 0 || compare(nextHi, nextLo, lastHi, lastLo) > 0) {
+                return;
+            }
+            hi = nextHi;
+            lo = nextLo;
+        }
+    }
+
+    private static boolean isMapped(long hi, long lo) {
+        return hi == 0 && (lo >>> 32) == 0xffffL;
+    }
+
+    /**
+     * Verifica se um bloco IPv6 mais curto que /96 contém todos os endereços mapeados de IPv4.
+     */
+    private static boolean coversMapped(long hi, long lo, int length) {
+        if (length >= MAPPED_PREFIX_BITS) {
+            return false;
+        }
+        long hiMask = length >= 64 ? -1L : length == 0 ? 0 : -1L << (64 - length);
+        long loMask = length <= 64 ? 0 : -1L << (128 - length);
+        return (hi & hiMask) == 0 && ((lo ^ MAPPED_LO) & loMask) == 0;
+    }
+
+    private static int compare(long hi1, long lo1, long hi2, long lo2) {
+        int hiComparison = Long.compareUnsigned(hi1, hi2);
+        return hiComparison != 0 ? hiComparison : Long.compareUnsigned(lo1, lo2);
+    }
+}
@@ -0,0 +1,192 @@
+package com.acme.decision.domain.model.network;
+
+/**
+ * Conversão de endereços IP textuais para a forma inteira, sem alocação.
+ * <p>
+ * Endereços IPv6 são representados por dois {@code long} (64 bits altos e baixos); endereços IPv4 por um
+ * {@code long} com os 32 bits do endereço, ou -1 quando inválidos.
+ * <p>
+ * Idêntica à classe de mesmo nome do {@code lists-service}, que não compartilha módulo com este serviço.
+ */
+public final class IpAddresses {
+
+    private IpAddresses() {
+    }
+
+    /**
+     * Converte um endereço IPv4 em notação decimal pontuada.
+     *
+     * @param ip endereço
+     * @return os 32 bits do endereço, ou -1 se o texto não for um IPv4 válido
+     */
+    public static long parseIpv4(String ip) {
+        return parseIpv4(ip, 0, ip.length());
+    }
+
+    static long parseIpv4(String ip, int from, int to) {
+        long address = 0;
+        int octets = 0;
+        int value = -1;
+        for (int i = from; i < to; i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value < 0 ? c - '0' : value * 10 + (c - '0');
+                if (value > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && value >= 0 && octets < 3) {
+                address = (address << 8) | value;
+                octets++;
+                value = -1;
+            } else {
+                return -1;
+            }
+        }
+        if (value < 0 || octets != 3) {
+            return -1;
+        }
+        return (address << 8) | value;
+    }
+
+    /**
+     * Converte um endereço IPv6, inclusive com {@code ::} e IPv4 embutido nos últimos 32 bits.
+     *
+     * @param ip endereço
+     * @param out array de duas posições que recebe os 64 bits altos e baixos
+     * @return true se o texto for um IPv6 válido
+     */
+    public static boolean parseIpv6(String ip, long[] out) {
+        int length = ip.length();
+        if (length < 2) {
+            return false;
+        }
+
+        long hi = 0;
+        long lo = 0;
+        int groups = 0;
+        int compressedAt = -1;
+        int i = 0;
+        if (ip.charAt(0) == ':') {
+            if (ip.charAt(1) != ':') {
+                return false;
+            }
+            compressedAt = 0;
+            i = 2;
+        }
+
+        while (i < length) {
+            int start = i;
+            int value = 0;
+            while (i < length && i - start < 5) {
+                int digit = Character.digit(ip.charAt(i), 16);
+                if (digit < 0) {
+                    break;
+                }
+                value = (value << 4) | digit;
+                i++;
+            }
+
+            if (i < length && ip.charAt(i) == '.') {
+                // IPv4 embutido ocupa os dois últimos grupos
+                long ipv4 = parseIpv4(ip, start, length);
+                if (ipv4 < 0 || groups > 6) {
+                    return false;
+                }
+                hi = (hi << 32) | (lo >>> 32);
+                lo = (lo << 32) | ipv4;
+                groups += 2;
+                i = length;
+                break;
+            }
+
+            if (i == start || i - start > 4 || groups == 8) {
+                return false;
+            }
+            hi = (hi << 16) | (lo >>> 48);
+            lo = (lo << 16) | value;
+            groups++;
+
+            if (i == length) {
+                break;
+            }
+            if (ip.charAt(i) != ':') {
+                return false;
+            }
+            i++;
+            if (i < length && ip.charAt(i) == ':') {
+                if (compressedAt >= 0) {
+                    return false;
+                }
+                compressedAt = groups;
+                i++;
+            } else if (i == length) {
+                return false;
+            }
+        }
+
+        if (compressedAt < 0) {
+            if (groups != 8) {
+                return false;
+            }
+        } else {
+            if (groups > 7) {
+                return false;
+            }
+            // Desloca os grupos após o "::" para o fim, preenchendo a lacuna com zeros
+            int tailBits = (groups - compressedAt) * 16;
+            int gapBits = (8 - groups) * 16;
+            long tailHi = tailBits > 64 ? hi & lowMask(tailBits - 64) : 0;
+            long tailLo = tailBits >= 64 ? lo : lo & lowMask(tailBits);
+            long headHi = shiftLeftHi(hi, lo, -tailBits);
+            long headLo = shiftLeftLo(hi, lo, -tailBits);
+            long shiftedHeadHi = shiftLeftHi(headHi, headLo, tailBits + gapBits);
+            long shiftedHeadLo = shiftLeftLo(headHi, headLo, tailBits + gapBits);
+            hi = shiftedHeadHi | tailHi;
+            lo = shiftedHeadLo | tailLo;
+        }
+
+        out[0] = hi;
+        out[1] = lo;
+        return true;
+    }
+
+    private static long lowMask(int bits) {
+        return bits >= 64 ? -1L : (1L << bits) - 1;
+    }
+
+    // Deslocamento de 128 bits: positivo para a esquerda, negativo para a direita (lógico)
+    private static long shiftLeftHi(long hi, long lo, int shift) {
+        if (shift >= 128 || shift <= -128) {
+            return 0;
+        }
+        if (shift >= 64) {
+            return lo << (shift - 64);
+        }
+        if (shift > 0) {
+            return (hi << shift) | (lo >>> (64 - shift));
+        }
+        if (shift == 0) {
+            return hi;
+        }
+        return -shift >= 64 ? 0 : hi >>> -shift;
+    }
+
+    private static long shiftLeftLo(long hi, long lo, int shift) {
+        if (shift >= 128 || shift <= -128) {
+            return 0;
+        }
+        if (shift >= 64) {
+            return 0;
+        }
+        if (shift > 0) {
+            return lo << shift;
+        }
+        if (shift == 0) {
+            return lo;
+        }
+        if (-shift >= 64) {
+            return hi >>> (-shift - 64);
+        }
+        return (lo >>> -shift) | (hi << (64 + shift));
+    }
+}
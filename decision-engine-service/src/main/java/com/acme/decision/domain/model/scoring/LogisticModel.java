@@ -0,0 +1,50 @@
+package com.acme.decision.domain.model.scoring;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+
+/**
+ * Regressão logística: probabilidade {@code 1 / (1 + e^-(intercept + w·x))}.
+ */
+public final class LogisticModel implements ScoringModel {
+
+    public static final String TYPE = "logistic";
+
+    private final ModelFeature[] features;
+    private final float[] weights;
+    private final float intercept;
+
+    LogisticModel(ModelFeature[] features, float[] weights, float intercept) {
+        this.features = features;
+        this.weights = weights;
+        this.intercept = intercept;
+    }
+
+    @Override
+    public double predict(ScoreCalculationData data) {
+        double z = intercept;
+        for (int i = 0; i < weights.length; i++) {
+            z += weights[i] * features[i].valueOf(data);
+        }
+        return 1 / (1 + Math.exp(-z));
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public ModelFeature[] getFeatures() {
+        return features.clone();
+    }
+
+    @Override
+    public int getTreeCount() {
+        return 1;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return weights.length;
+    }
+}
@@ -0,0 +1,62 @@
+package com.acme.decision.domain.model.scoring;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Atributos de {@link ScoreCalculationData} disponíveis como entrada dos modelos de score.
+ * Flags de lista valem 1 ou 0; o valor da transação é informado em reais.
+ */
+public enum ModelFeature {
+
+    TX_VALUE("txValue") {
+        @Override
+        public float valueOf(ScoreCalculationData data) {
+            return data.getTxValueCents() / 100f;
+        }
+    },
+    CPF_IN_PERMISSIVE_LIST("cpfInPermissiveList") {
+        @Override
+        public float valueOf(ScoreCalculationData data) {
+            return data.isCpfInPermissiveList() ? 1f : 0f;
+        }
+    },
+    CPF_IN_RESTRICTIVE_LIST("cpfInRestrictiveList") {
+        @Override
+        public float valueOf(ScoreCalculationData data) {
+            return data.isCpfInRestrictiveList() ? 1f : 0f;
+        }
+    },
+    IP_IN_RESTRICTIVE_LIST("ipInRestrictiveList") {
+        @Override
+        public float valueOf(ScoreCalculationData data) {
+            return data.isIpInRestrictiveList() ? 1f : 0f;
+        }
+    },
+    DEVICE_ID_IN_RESTRICTIVE_LIST("deviceIdInRestrictiveList") {
+        @Override
+        public float valueOf(ScoreCalculationData data) {
+            return data.isDeviceIdInRestrictiveList() ? 1f : 0f;
+        }
+    };
+
+    private final String featureName;
+
+    ModelFeature(String featureName) {
+        this.featureName = featureName;
+    }
+
+    public String getFeatureName() {
+        return featureName;
+    }
+
+    public abstract float valueOf(ScoreCalculationData data);
+
+    public static Optional<ModelFeature> fromFeatureName(String featureName) {
+        return Arrays.stream(values())
+                .filter(feature -> feature.featureName.equals(featureName))
+                .findFirst();
+    }
+}
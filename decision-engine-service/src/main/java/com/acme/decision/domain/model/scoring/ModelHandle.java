@@ -0,0 +1,61 @@
+package com.acme.decision.domain.model.scoring;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Referência estável a um modelo nomeado, compartilhada pelas condições que o usam.
+ * A recarga troca o modelo atomicamente: as regras não são recompiladas e cada avaliação
+ * usa por inteiro a versão anterior ou a nova.
+ */
+public final class ModelHandle {
+
+    private final String name;
+    private final AtomicReference<Loaded> current;
+
+    public ModelHandle(String name, ScoringModel model) {
+        this.name = name;
+        this.current = new AtomicReference<>(new Loaded(model, 1, Instant.now()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ScoringModel getModel() {
+        return current.get().model;
+    }
+
+    /**
+     * @return quantidade de carregamentos do modelo, incluindo o inicial
+     */
+    public long getVersion() {
+        return current.get().version;
+    }
+
+    public Instant getLoadedAt() {
+        return current.get().loadedAt;
+    }
+
+    /**
+     * Publica uma nova versão do modelo.
+     *
+     * @param model modelo carregado
+     */
+    public void swap(ScoringModel model) {
+        current.updateAndGet(previous -> new Loaded(model, previous.version + 1, Instant.now()));
+    }
+
+    private static final class Loaded {
+
+        private final ScoringModel model;
+        private final long version;
+        private final Instant loadedAt;
+
+        private Loaded(ScoringModel model, long version, Instant loadedAt) {
+            this.model = model;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
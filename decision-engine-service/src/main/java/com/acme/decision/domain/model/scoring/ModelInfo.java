@@ -0,0 +1,26 @@
+package com.acme.decision.domain.model.scoring;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Estado de um modelo carregado.
+ */
+@Value
+public class ModelInfo {
+
+    String name;
+    String type;
+    int featureCount;
+    int treeCount;
+    int nodeCount;
+    long version; // quantidade de carregamentos, incluindo o inicial
+    Instant loadedAt;
+
+    public static ModelInfo of(ModelHandle handle) {
+        ScoringModel model = handle.getModel();
+        return new ModelInfo(handle.getName(), model.getType(), model.getFeatures().length,
+                model.getTreeCount(), model.getNodeCount(), handle.getVersion(), handle.getLoadedAt());
+    }
+}
@@ -0,0 +1,38 @@
+package com.acme.decision.domain.model.scoring;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+
+/**
+ * Modelo treinado avaliado pelas condições {@code model}.
+ * Instâncias são imutáveis: um modelo atualizado é carregado como nova instância.
+ */
+public interface ScoringModel {
+
+    /**
+     * Calcula a saída do modelo para a transação.
+     *
+     * @param data dados da transação
+     * @return saída do modelo (probabilidade, para modelos com saída logística)
+     */
+    double predict(ScoreCalculationData data);
+
+    /**
+     * @return tipo do modelo, como informado no arquivo
+     */
+    String getType();
+
+    /**
+     * @return atributos de entrada, na ordem referenciada pelo modelo
+     */
+    ModelFeature[] getFeatures();
+
+    /**
+     * @return quantidade de árvores (1 para modelos lineares)
+     */
+    int getTreeCount();
+
+    /**
+     * @return quantidade total de nós (coeficientes, para modelos lineares)
+     */
+    int getNodeCount();
+}
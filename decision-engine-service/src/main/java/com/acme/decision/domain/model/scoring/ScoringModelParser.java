@@ -0,0 +1,213 @@
+package com.acme.decision.domain.model.scoring;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Arrays;
+
+/**
+ * Converte a definição JSON de um modelo em {@link ScoringModel}, validando a estrutura por inteiro
+ * antes de publicá-lo. Formatos aceitos:
+ * <ul>
+ *     <li>{@code {"type":"tree_ensemble","features":[...],"output":"raw"|"logistic","baseScore":0.0,
+ *     "trees":[{"left":[...],"right":[...],"feature":[...],"threshold":[...],"value":[...]}]}}, com os
+ *     arrays de cada árvore no formato de {@code tree_} do scikit-learn: folhas com {@code left = -1}
+ *     e filhos sempre em posições posteriores ao pai</li>
+ *     <li>{@code {"type":"logistic","features":[...],"weights":[...],"intercept":0.0}}</li>
+ * </ul>
+ */
+public final class ScoringModelParser {
+
+    private ScoringModelParser() {
+    }
+
+    /**
+     * @param node definição do modelo
+     * @return modelo pronto para avaliação
+     * @throws IllegalArgumentException se a definição for inválida
+     */
+    public static ScoringModel parse(JsonNode node) {
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Modelo deve ser um objeto JSON");
+        }
+
+        String type = node.path("type").asText("");
+        ModelFeature[] features = parseFeatures(node.get("features"));
+        switch (type) {
+            case TreeEnsembleModel.TYPE:
+                return parseTreeEnsemble(node, features);
+            case LogisticModel.TYPE:
+                return parseLogistic(node, features);
+            default:
+                throw new IllegalArgumentException("Tipo de modelo desconhecido: '" + type + "'");
+        }
+    }
+
+    private static ModelFeature[] parseFeatures(JsonNode featuresNode) {
+        if (featuresNode == null || !featuresNode.isArray() || featuresNode.isEmpty()) {
+            throw new IllegalArgumentException("Modelo deve informar uma lista não vazia em 'features'");
+        }
+
+        ModelFeature[] features = new ModelFeature[featuresNode.size()];
+        for (int i = 0; i < features.length; i++) {
+            String name = featuresNode.get(i).asText();
+            features[i] = ModelFeature.fromFeatureName(name)
+                    .orElseThrow(() -> new IllegalArgumentException("Atributo desconhecido no modelo: " + name));
+        }
+        return features;
+    }
+
+    private static TreeEnsembleModel parseTreeEnsemble(JsonNode node, ModelFeature[] features) {
+        JsonNode treesNode = node.get("trees");
+        if (treesNode == null || !treesNode.isArray() || treesNode.isEmpty()) {
+            throw new IllegalArgumentException("Modelo tree_ensemble deve informar uma lista não vazia em 'trees'");
+        }
+
+        boolean logistic;
+        switch (node.path("output").asText("raw")) {
+            case "raw":
+                logistic = false;
+                break;
+            case "logistic":
+                logistic = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Saída inválida no modelo: " + node.get("output").asText());
+        }
+
+        int totalNodes = 0;
+        for (JsonNode treeNode : treesNode) {
+            totalNodes += intArray(treeNode, "left").length;
+        }
+
+        int[] roots = new int[treesNode.size()];
+        int[] depths = new int[roots.length];
+        int[] feature = new int[totalNodes];
+        float[] threshold = new float[totalNodes];
+        int[] child = new int[totalNodes];
+        int[] order = new int[0];
+        int[] level = new int[0];
+
+        int offset = 0;
+        for (int t = 0; t < roots.length; t++) {
+            JsonNode treeNode = treesNode.get(t);
+            int[] treeLeft = intArray(treeNode, "left");
+            int[] treeRight = intArray(treeNode, "right");
+            int[] treeFeature = intArray(treeNode, "feature");
+            float[] treeThreshold = floatArray(treeNode, "threshold");
+            float[] treeValue = floatArray(treeNode, "value");
+
+            int size = treeLeft.length;
+            if (size == 0 || treeRight.length != size || treeFeature.length != size
+                    || treeThreshold.length != size || treeValue.length != size) {
+                throw new IllegalArgumentException("Árvore " + t + " deve ter arrays não vazios de mesmo tamanho");
+            }
+
+            for (int n = 0; n < size; n++) {
+                if (treeLeft[n] < 0) {
+                    continue;
+                }
+                // Filhos após o pai garantem que toda descida termina em uma folha
+                if (treeLeft[n] <= n || treeLeft[n] >= size || treeRight[n] <= n || treeRight[n] >= size
+                        || treeLeft[n] == treeRight[n]) {
+                    throw new IllegalArgumentException("Árvore " + t + ", nó " + n + ": filhos inválidos");
+                }
+                if (treeFeature[n] < 0 || treeFeature[n] >= features.length) {
+                    throw new IllegalArgumentException("Árvore " + t + ", nó " + n + ": atributo inválido");
+                }
+            }
+
+            // Reordena em largura, com os dois filhos de cada nó em posições consecutivas.
+            // Nós não alcançáveis a partir da raiz são descartados.
+            if (order.length < size) {
+                order = new int[size];
+                level = new int[size];
+            }
+            roots[t] = offset;
+            order[0] = 0;
+            level[0] = 0;
+            int head = 0;
+            int tail = 1;
+            while (head < tail) {
+                int n = order[head];
+                int at = offset + head;
+                if (treeLeft[n] < 0) {
+                    // Folha absorvente: o atributo extra vale NaN e a descida permanece no próprio nó
+                    feature[at] = features.length;
+                    threshold[at] = treeValue[n];
+                    child[at] = at;
+                    depths[t] = Math.max(depths[t], level[head++]);
+                    continue;
+                }
+                if (tail + 2 > size) {
+                    throw new IllegalArgumentException("Árvore " + t + ": nós compartilhados entre ramos");
+                }
+                feature[at] = treeFeature[n];
+                threshold[at] = treeThreshold[n];
+                child[at] = offset + tail;
+                level[tail] = level[head] + 1;
+                order[tail++] = treeLeft[n];
+                level[tail] = level[head] + 1;
+                order[tail++] = treeRight[n];
+                head++;
+            }
+            offset += tail;
+        }
+
+        if (offset < totalNodes) {
+            feature = Arrays.copyOf(feature, offset);
+            threshold = Arrays.copyOf(threshold, offset);
+            child = Arrays.copyOf(child, offset);
+        }
+        return new TreeEnsembleModel(features, roots, depths, feature, threshold, child,
+                (float) finite(node.path("baseScore").asDouble(0), "baseScore"), logistic);
+    }
+
+    private static LogisticModel parseLogistic(JsonNode node, ModelFeature[] features) {
+        float[] weights = floatArray(node, "weights");
+        if (weights.length != features.length) {
+            throw new IllegalArgumentException("Modelo logistic deve informar um peso por atributo");
+        }
+        return new LogisticModel(features, weights, (float) finite(node.path("intercept").asDouble(0), "intercept"));
+    }
+
+    private static int[] intArray(JsonNode node, String field) {
+        JsonNode arrayNode = requiredArray(node, field);
+        int[] values = new int[arrayNode.size()];
+        for (int i = 0; i < values.length; i++) {
+            JsonNode element = arrayNode.get(i);
+            if (!element.canConvertToInt()) {
+                throw new IllegalArgumentException("Campo '" + field + "' do modelo deve conter inteiros");
+            }
+            values[i] = element.intValue();
+        }
+        return values;
+    }
+
+    private static float[] floatArray(JsonNode node, String field) {
+        JsonNode arrayNode = requiredArray(node, field);
+        float[] values = new float[arrayNode.size()];
+        for (int i = 0; i < values.length; i++) {
+            JsonNode element = arrayNode.get(i);
+            if (!element.isNumber()) {
+                throw new IllegalArgumentException("Campo '" + field + "' do modelo deve conter números");
+            }
+            values[i] = (float) finite(element.doubleValue(), field);
+        }
+        return values;
+    }
+
+    private static JsonNode requiredArray(JsonNode node, String field) {
+        JsonNode arrayNode = node == null ? null : node.get(field);
+        if (arrayNode == null || !arrayNode.isArray()) {
+            throw new IllegalArgumentException("Modelo deve informar o array '" + field + "'");
+        }
+        return arrayNode;
+    }
+
+    private static double finite(double value, String field) {
+        if (!Double.isFinite((float) value)) {
+            throw new IllegalArgumentException("Campo '" + field + "' do modelo deve conter valores finitos");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,107 @@
+package com.acme.decision.domain.model.scoring;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+
+/**
+ * Conjunto de árvores de decisão (gradient boosting ou floresta) em arrays primitivos paralelos.
+ * <p>
+ * Os nós de todas as árvores ficam nos mesmos arrays, indexados a partir da raiz de cada árvore:
+ * {@code feature[n]} é a posição do atributo comparado; {@code threshold[n]} é o limiar de divisão ou,
+ * nas folhas, o valor da folha; {@code child[n]} é o filho esquerdo, e o direito fica na posição seguinte.
+ * A transação segue para a esquerda quando {@code x <= threshold}, como no scikit-learn e no XGBoost.
+ * <p>
+ * Com os irmãos adjacentes, a descida escolhe o filho por soma, sem desvio condicional dependente dos dados.
+ * As folhas são absorventes (comparam um atributo extra que vale NaN e apontam para si mesmas), então cada
+ * árvore é descida pela sua profundidade máxima e quatro árvores são descidas intercaladas, sobrepondo as
+ * leituras de memória de cada nível.
+ * A saída é a soma das folhas mais o {@code baseScore}, opcionalmente passada pela função logística.
+ * <p>
+ * O vetor de atributos é reaproveitado por thread, então a avaliação não aloca.
+ */
+public final class TreeEnsembleModel implements ScoringModel {
+
+    public static final String TYPE = "tree_ensemble";
+
+    private final ModelFeature[] features;
+    private final int[] roots;
+    private final int[] depths;
+    private final int[] feature;
+    private final float[] threshold;
+    private final int[] child;
+    private final float baseScore;
+    private final boolean logistic;
+    private final ThreadLocal<float[]> scratch;
+
+    /**
+     * Os arrays são usados diretamente, sem cópia; a validação é feita pelo {@link ScoringModelParser}.
+     */
+    TreeEnsembleModel(ModelFeature[] features, int[] roots, int[] depths, int[] feature, float[] threshold,
+                      int[] child, float baseScore, boolean logistic) {
+        this.features = features;
+        this.roots = roots;
+        this.depths = depths;
+        this.feature = feature;
+        this.threshold = threshold;
+        this.child = child;
+        this.baseScore = baseScore;
+        this.logistic = logistic;
+        this.scratch = ThreadLocal.withInitial(() -> {
+            float[] x = new float[features.length + 1];
+            x[features.length] = Float.NaN;
+            return x;
+        });
+    }
+
+    @Override
+    public double predict(ScoreCalculationData data) {
+        float[] x = scratch.get();
+        for (int i = 0; i < features.length; i++) {
+            x[i] = features[i].valueOf(data);
+        }
+
+        double sum = baseScore;
+        int t = 0;
+        for (; t + 4 <= roots.length; t += 4) {
+            int a = roots[t];
+            int b = roots[t + 1];
+            int c = roots[t + 2];
+            int d = roots[t + 3];
+            int depth = Math.max(Math.max(depths[t], depths[t + 1]), Math.max(depths[t + 2], depths[t + 3]));
+            for (int level = 0; level < depth; level++) {
+                a = child[a] + (x[feature[a]] > threshold[a] ? 1 : 0);
+                b = child[b] + (x[feature[b]] > threshold[b] ? 1 : 0);
+                c = child[c] + (x[feature[c]] > threshold[c] ? 1 : 0);
+                d = child[d] + (x[feature[d]] > threshold[d] ? 1 : 0);
+            }
+            sum += threshold[a] + threshold[b] + threshold[c] + threshold[d];
+        }
+        for (; t < roots.length; t++) {
+            int node = roots[t];
+            for (int level = 0; level < depths[t]; level++) {
+                node = child[node] + (x[feature[node]] > threshold[node] ? 1 : 0);
+            }
+            sum += threshold[node];
+        }
+        return logistic ? 1 / (1 + Math.exp(-sum)) : sum;
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public ModelFeature[] getFeatures() {
+        return features.clone();
+    }
+
+    @Override
+    public int getTreeCount() {
+        return roots.length;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return feature.length;
+    }
+}
@@ -0,0 +1,34 @@
+package com.acme.decision.domain.model.shadow;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Contadores da avaliação sombra de um conjunto candidato desde a sua ativação.
+ * Uma transação é negada quando o score fica acima do limiar de decisão.
+ * O candidato é avaliado depois da requisição: as regras em {@code stateReadingRuleIds} (velocidade, soma
+ * ou cardinalidade) leem o estado do tráfego nesse momento, que já inclui transações posteriores, então as
+ * divergências que elas causam são apenas indicativas.
+ */
+@Value
+public class ShadowStats {
+
+    boolean active;
+    int candidateRules;
+    List<Long> stateReadingRuleIds;
+    Instant since;
+    int decisionThreshold;
+
+    long submitted;
+    long dropped;
+    long evaluated;
+    long errors;
+    int queueSize;
+    int queueCapacity;
+
+    long scoreMismatches;
+    long approvedToDenied;
+    long deniedToApproved;
+}
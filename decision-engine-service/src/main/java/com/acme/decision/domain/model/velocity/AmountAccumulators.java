@@ -0,0 +1,45 @@
+package com.acme.decision.domain.model.velocity;
+
+/**
+ * Somas de valores, em centavos, em janela deslizante por chave (CPF, dispositivo ou IP).
+ */
+public final class AmountAccumulators {
+
+    private final WindowStore<AmountWindow> store;
+
+    public AmountAccumulators(String name, long bucketMillis, int bucketCount, int maxKeys) {
+        this.store = new WindowStore<>(name, bucketMillis, bucketCount, maxKeys, AmountWindow::new);
+    }
+
+    /**
+     * Acumula o valor de uma transação da chave no instante informado.
+     *
+     * @param key chave (ignorada se nula)
+     * @param cents valor em centavos
+     * @param nowMillis instante em milissegundos
+     */
+    public void record(String key, long cents, long nowMillis) {
+        long bucket = store.bucketOf(nowMillis);
+        AmountWindow window = store.windowForRecord(key, bucket);
+        if (window != null) {
+            window.add(bucket, cents);
+        }
+    }
+
+    /**
+     * Soma os valores da chave na janela que termina no instante informado.
+     *
+     * @param key chave
+     * @param nowMillis instante em milissegundos
+     * @param windowBuckets tamanho da janela em baldes
+     * @return soma em centavos, zero para chave desconhecida
+     */
+    public long sum(String key, long nowMillis, int windowBuckets) {
+        AmountWindow window = store.find(key);
+        return window == null ? 0 : window.sum(store.bucketOf(nowMillis), windowBuckets);
+    }
+
+    public WindowStore<AmountWindow> getStore() {
+        return store;
+    }
+}
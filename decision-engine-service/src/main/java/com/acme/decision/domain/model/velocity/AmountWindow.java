@@ -0,0 +1,56 @@
+package com.acme.decision.domain.model.velocity;
+
+/**
+ * Janela deslizante da soma de valores, em centavos, de uma chave, em um anel fixo de baldes de tempo.
+ * <p>
+ * Cada balde guarda o seu número e a soma em arrays primitivos. Como reiniciar um balde reaproveitado exige
+ * alterar os dois campos juntos, registro e leitura sincronizam na própria janela: o bloqueio é por chave,
+ * quase sempre sem disputa, e nenhuma operação aloca.
+ */
+public final class AmountWindow extends KeyWindow {
+
+    private final long[] bucketIds;
+    private final long[] sums;
+
+    public AmountWindow(int bucketCount, long createdBucket) {
+        super(createdBucket);
+        this.bucketIds = new long[bucketCount];
+        this.sums = new long[bucketCount];
+    }
+
+    /**
+     * Soma um valor ao balde informado.
+     *
+     * @param bucket número do balde atual
+     * @param cents valor em centavos
+     */
+    public synchronized void add(long bucket, long cents) {
+        int slot = (int) (bucket % bucketIds.length);
+        if (bucketIds[slot] != bucket) {
+            if (bucketIds[slot] > bucket) {
+                return; // balde já reaproveitado por um instante posterior
+            }
+            bucketIds[slot] = bucket;
+            sums[slot] = 0;
+        }
+        sums[slot] += cents;
+    }
+
+    /**
+     * Soma os valores dos baldes da janela que termina no balde atual.
+     *
+     * @param bucket número do balde atual
+     * @param windowBuckets tamanho da janela em baldes, no máximo a capacidade do anel
+     * @return soma em centavos na janela
+     */
+    public synchronized long sum(long bucket, int windowBuckets) {
+        long total = 0;
+        for (long b = bucket; b > bucket - windowBuckets; b--) {
+            int slot = (int) (b % bucketIds.length);
+            if (bucketIds[slot] == b) {
+                total += sums[slot];
+            }
+        }
+        return total;
+    }
+}
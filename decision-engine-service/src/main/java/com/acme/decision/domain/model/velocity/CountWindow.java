@@ -0,0 +1,69 @@
+package com.acme.decision.domain.model.velocity;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Janela deslizante de contagem de uma chave, em um anel fixo de baldes de tempo.
+ * <p>
+ * Cada balde é um único {@code long} que empacota o número do balde (tempo / granularidade) nos bits altos
+ * e a contagem nos 24 bits baixos, de forma que incrementar e reiniciar um balde reaproveitado é um único
+ * compare-and-set, sem bloqueio nem alocação. A leitura percorre apenas os baldes da janela consultada,
+ * ignorando os que ainda guardam um instante anterior.
+ */
+public final class CountWindow extends KeyWindow {
+
+    static final int COUNT_BITS = 24;
+    static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray buckets;
+
+    public CountWindow(int bucketCount, long createdBucket) {
+        super(createdBucket);
+        this.buckets = new AtomicLongArray(bucketCount);
+    }
+
+    /**
+     * Conta uma ocorrência no balde informado.
+     *
+     * @param bucket número do balde atual
+     */
+    public void increment(long bucket) {
+        int slot = (int) (bucket % buckets.length());
+        while (true) {
+            long current = buckets.get(slot);
+            long currentBucket = current >>> COUNT_BITS;
+            long next;
+            if (currentBucket == bucket) {
+                if ((current & COUNT_MASK) == COUNT_MASK) {
+                    break; // contagem saturada
+                }
+                next = current + 1;
+            } else if (currentBucket < bucket) {
+                next = (bucket << COUNT_BITS) | 1;
+            } else {
+                break; // balde já reaproveitado por um instante posterior
+            }
+            if (buckets.compareAndSet(slot, current, next)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Soma as ocorrências dos baldes da janela que termina no balde atual.
+     *
+     * @param bucket número do balde atual
+     * @param windowBuckets tamanho da janela em baldes, no máximo a capacidade do anel
+     * @return contagem na janela
+     */
+    public long count(long bucket, int windowBuckets) {
+        long total = 0;
+        for (long b = bucket; b > bucket - windowBuckets; b--) {
+            long value = buckets.get((int) (b % buckets.length()));
+            if (value >>> COUNT_BITS == b) {
+                total += value & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,49 @@
+package com.acme.decision.domain.model.velocity;
+
+/**
+ * Cardinalidade aproximada, em janela deslizante, de valores distintos (CPFs) por chave (dispositivo ou IP).
+ */
+public final class DistinctCounters {
+
+    private final WindowStore<DistinctWindow> store;
+
+    public DistinctCounters(String name, long bucketMillis, int bucketCount, int precision, int maxKeys) {
+        this.store = new WindowStore<>(name, bucketMillis, bucketCount, maxKeys,
+                (count, createdBucket) -> new DistinctWindow(count, precision, createdBucket));
+    }
+
+    /**
+     * Registra um valor para a chave no instante informado.
+     *
+     * @param key chave (ignorada se nula)
+     * @param value valor contado (ignorado se nulo)
+     * @param nowMillis instante em milissegundos
+     */
+    public void record(String key, String value, long nowMillis) {
+        if (value == null) {
+            return;
+        }
+        long bucket = store.bucketOf(nowMillis);
+        DistinctWindow window = store.windowForRecord(key, bucket);
+        if (window != null) {
+            window.add(bucket, DistinctWindow.hash(value));
+        }
+    }
+
+    /**
+     * Estima os valores distintos da chave na janela que termina no instante informado.
+     *
+     * @param key chave
+     * @param nowMillis instante em milissegundos
+     * @param windowBuckets tamanho da janela em baldes
+     * @return cardinalidade estimada, zero para chave desconhecida
+     */
+    public long estimate(String key, long nowMillis, int windowBuckets) {
+        DistinctWindow window = store.find(key);
+        return window == null ? 0 : window.estimate(store.bucketOf(nowMillis), windowBuckets);
+    }
+
+    public WindowStore<DistinctWindow> getStore() {
+        return store;
+    }
+}
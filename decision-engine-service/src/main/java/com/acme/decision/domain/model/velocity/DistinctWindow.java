@@ -0,0 +1,137 @@
+package com.acme.decision.domain.model.velocity;
+
+import java.util.Arrays;
+
+/**
+ * Janela deslizante de cardinalidade aproximada (HyperLogLog) de uma chave, em um anel fixo de baldes de tempo.
+ * <p>
+ * Cada balde é um sketch HyperLogLog com {@code 2^precision} registradores de um byte, guardados em um único
+ * array; a estimativa da janela une os sketches dos baldes (máximo por registrador) em um array de trabalho
+ * da própria janela, sem alocar. O erro padrão relativo é {@code 1.04 / sqrt(2^precision)}: 6,5% com
+ * precisão 8 e 3,25% com precisão 10. Até {@code 2,5 * 2^precision} valores é usada contagem linear, mais precisa.
+ * Registro e leitura sincronizam na própria janela, como em {@link AmountWindow}.
+ */
+public final class DistinctWindow extends KeyWindow {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // 2^-r para cada valor possível de registrador
+    private static final double[] INVERSE_POWERS_OF_TWO = new double[66];
+
+    static {
+        for (int r = 0; r < INVERSE_POWERS_OF_TWO.length; r++) {
+            INVERSE_POWERS_OF_TWO[r] = Math.scalb(1.0, -r);
+        }
+    }
+
+    private final int precision;
+    private final int registerCount;
+    private final long[] bucketIds;
+    private final byte[] registers; // registerCount registradores por balde
+    private final byte[] merged; // união dos baldes da janela, reaproveitada a cada estimativa
+
+    public DistinctWindow(int bucketCount, int precision, long createdBucket) {
+        super(createdBucket);
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.bucketIds = new long[bucketCount];
+        this.registers = new byte[bucketCount * registerCount];
+        this.merged = new byte[registerCount];
+    }
+
+    /**
+     * Registra um valor no balde informado.
+     *
+     * @param bucket número do balde atual
+     * @param valueHash hash de 64 bits do valor, de {@link #hash(String)}
+     */
+    public synchronized void add(long bucket, long valueHash) {
+        int slot = (int) (bucket % bucketIds.length);
+        int offset = slot * registerCount;
+        if (bucketIds[slot] != bucket) {
+            if (bucketIds[slot] > bucket) {
+                return; // balde já reaproveitado por um instante posterior
+            }
+            bucketIds[slot] = bucket;
+            Arrays.fill(registers, offset, offset + registerCount, (byte) 0);
+        }
+
+        int index = (int) (valueHash >>> (64 - precision));
+        // Posição do primeiro bit 1 nos bits restantes; o bit sentinela limita o valor a 64 - precision + 1
+        byte rank = (byte) (Long.numberOfLeadingZeros((valueHash << precision) | (1L << (precision - 1))) + 1);
+        if (registers[offset + index] < rank) {
+            registers[offset + index] = rank;
+        }
+    }
+
+    /**
+     * Estima a quantidade de valores distintos nos baldes da janela que termina no balde atual.
+     *
+     * @param bucket número do balde atual
+     * @param windowBuckets tamanho da janela em baldes, no máximo a capacidade do anel
+     * @return cardinalidade estimada
+     */
+    public synchronized long estimate(long bucket, int windowBuckets) {
+        Arrays.fill(merged, (byte) 0);
+        for (long b = bucket; b > bucket - windowBuckets; b--) {
+            int slot = (int) (b % bucketIds.length);
+            if (bucketIds[slot] == b) {
+                int offset = slot * registerCount;
+                for (int i = 0; i < registerCount; i++) {
+                    if (registers[offset + i] > merged[i]) {
+                        merged[i] = registers[offset + i];
+                    }
+                }
+            }
+        }
+
+        double harmonicSum = 0;
+        int zeros = 0;
+        for (int i = 0; i < registerCount; i++) {
+            if (merged[i] == 0) {
+                zeros++;
+            }
+            harmonicSum += INVERSE_POWERS_OF_TWO[merged[i]];
+        }
+
+        double m = registerCount;
+        double estimate = alpha(registerCount) * m * m / harmonicSum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log(m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Hash de 64 bits do valor (FNV-1a seguido do finalizador do MurmurHash3), sem alocação.
+     *
+     * @param value valor
+     * @return hash de 64 bits
+     */
+    public static long hash(String value) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+}
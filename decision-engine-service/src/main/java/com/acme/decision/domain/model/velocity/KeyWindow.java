@@ -0,0 +1,73 @@
+package com.acme.decision.domain.model.velocity;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Janela de uma chave em um {@link WindowStore}.
+ * <p>
+ * Guarda o último balde em que a chave recebeu uma transação, lido pela varredura de chaves ociosas. O registro
+ * avança o balde e a varredura retira a janela ociosa com compare-and-set sobre o mesmo campo: uma janela
+ * entregue para registro não é mais considerada ociosa, e uma janela retirada não aceita novos registros.
+ */
+public abstract class KeyWindow {
+
+    // Último balde da janela retirada pela varredura
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    private static final VarHandle LAST_BUCKET;
+
+    static {
+        try {
+            LAST_BUCKET = MethodHandles.lookup().findVarHandle(KeyWindow.class, "lastBucket", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Último balde em que a chave recebeu uma transação, ou o de criação da janela
+    private volatile long lastBucket;
+
+    protected KeyWindow(long createdBucket) {
+        this.lastBucket = createdBucket;
+    }
+
+    /**
+     * @return último balde em que a chave recebeu uma transação, ou o de criação da janela
+     */
+    public long getLastBucket() {
+        return lastBucket;
+    }
+
+    /**
+     * Marca o balde do registro que está para ser feito na janela.
+     *
+     * @param bucket balde atual
+     * @return false se a janela já foi retirada pela varredura
+     */
+    boolean touch(long bucket) {
+        while (true) {
+            long current = lastBucket;
+            if (current == RETIRED) {
+                return false;
+            }
+            if (current >= bucket || LAST_BUCKET.compareAndSet(this, current, bucket)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Retira a janela se ela não recebe transações dentro do alcance do anel, de forma atômica com
+     * {@link #touch}.
+     *
+     * @param bucket balde atual
+     * @param bucketCount baldes do anel
+     * @return true se a janela foi retirada
+     */
+    boolean retireIfIdle(long bucket, int bucketCount) {
+        long current = lastBucket;
+        return current != RETIRED && bucket - current >= bucketCount
+                && LAST_BUCKET.compareAndSet(this, current, RETIRED);
+    }
+}
@@ -0,0 +1,44 @@
+package com.acme.decision.domain.model.velocity;
+
+/**
+ * Contadores de transações em janela deslizante por chave (CPF, dispositivo ou IP).
+ */
+public final class VelocityCounters {
+
+    private final WindowStore<CountWindow> store;
+
+    public VelocityCounters(String name, long bucketMillis, int bucketCount, int maxKeys) {
+        this.store = new WindowStore<>(name, bucketMillis, bucketCount, maxKeys, CountWindow::new);
+    }
+
+    /**
+     * Registra uma transação da chave no instante informado.
+     *
+     * @param key chave (ignorada se nula)
+     * @param nowMillis instante em milissegundos
+     */
+    public void record(String key, long nowMillis) {
+        long bucket = store.bucketOf(nowMillis);
+        CountWindow window = store.windowForRecord(key, bucket);
+        if (window != null) {
+            window.increment(bucket);
+        }
+    }
+
+    /**
+     * Conta as transações da chave na janela que termina no instante informado.
+     *
+     * @param key chave
+     * @param nowMillis instante em milissegundos
+     * @param windowBuckets tamanho da janela em baldes
+     * @return contagem na janela, zero para chave desconhecida
+     */
+    public long count(String key, long nowMillis, int windowBuckets) {
+        CountWindow window = store.find(key);
+        return window == null ? 0 : window.count(store.bucketOf(nowMillis), windowBuckets);
+    }
+
+    public WindowStore<CountWindow> getStore() {
+        return store;
+    }
+}
@@ -0,0 +1,138 @@
+package com.acme.decision.domain.model.velocity;
+
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.condition.TextField;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contadores, somas e sketches atualizados a cada transação: apenas os lidos por alguma regra.
+ * <p>
+ * Montado uma vez por publicação de regras, a partir das condições {@code velocity}, {@code amount_sum} e
+ * {@code distinct_count}; o registro percorre arrays, sem consultar mapas. Sem nenhuma dessas condições o
+ * plano é vazio e o registro não faz nada.
+ */
+public final class VelocityPlan {
+
+    public static final VelocityPlan EMPTY = new Builder().build();
+
+    private final TextField[] countFields;
+    private final VelocityCounters[] counters;
+    private final TextField[] amountFields;
+    private final AmountAccumulators[] accumulators;
+    private final TextField[] distinctFields;
+    private final DistinctCounters[] distinctCounters;
+
+    private VelocityPlan(Builder builder) {
+        this.countFields = builder.counters.keySet().toArray(new TextField[0]);
+        this.counters = builder.counters.values().toArray(new VelocityCounters[0]);
+        this.amountFields = builder.accumulators.keySet().toArray(new TextField[0]);
+        this.accumulators = builder.accumulators.values().toArray(new AmountAccumulators[0]);
+        this.distinctFields = builder.distinctCounters.keySet().toArray(new TextField[0]);
+        this.distinctCounters = builder.distinctCounters.values().toArray(new DistinctCounters[0]);
+    }
+
+    /**
+     * @param rules regras ativas
+     * @return plano com os contadores lidos pelas condições das regras
+     */
+    public static VelocityPlan of(List<CompiledRule> rules) {
+        Builder builder = new Builder();
+        for (CompiledRule rule : rules) {
+            rule.getCondition().collectState(builder);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Registra a transação nos contadores do plano.
+     *
+     * @param data dados da transação
+     * @param nowMillis instante em milissegundos
+     */
+    public void record(ScoreCalculationData data, long nowMillis) {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i].record(countFields[i].valueOf(data), nowMillis);
+        }
+        long cents = data.getTxValueCents();
+        for (int i = 0; i < accumulators.length; i++) {
+            accumulators[i].record(amountFields[i].valueOf(data), cents, nowMillis);
+        }
+        for (int i = 0; i < distinctCounters.length; i++) {
+            distinctCounters[i].record(distinctFields[i].valueOf(data), data.getCpf(), nowMillis);
+        }
+    }
+
+    /**
+     * @return se o plano não registra nada
+     */
+    public boolean isEmpty() {
+        return counters.length == 0 && accumulators.length == 0 && distinctCounters.length == 0;
+    }
+
+    /**
+     * @param other outro plano
+     * @return plano que registra o que este ou o outro registram
+     */
+    public VelocityPlan union(VelocityPlan other) {
+        Builder builder = new Builder();
+        for (VelocityPlan plan : new VelocityPlan[]{this, other}) {
+            for (int i = 0; i < plan.counters.length; i++) {
+                builder.count(plan.countFields[i], plan.counters[i]);
+            }
+            for (int i = 0; i < plan.accumulators.length; i++) {
+                builder.amount(plan.amountFields[i], plan.accumulators[i]);
+            }
+            for (int i = 0; i < plan.distinctCounters.length; i++) {
+                builder.distinct(plan.distinctFields[i], plan.distinctCounters[i]);
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        return "contagem " + fieldNames(countFields) + ", soma " + fieldNames(amountFields)
+                + ", CPFs distintos " + fieldNames(distinctFields);
+    }
+
+    private static String fieldNames(TextField[] fields) {
+        StringBuilder names = new StringBuilder("[");
+        for (int i = 0; i < fields.length; i++) {
+            names.append(i > 0 ? ", " : "").append(fields[i].getFieldName());
+        }
+        return names.append(']').toString();
+    }
+
+    /**
+     * Acumula os contadores lidos pelas condições, um por campo e tipo.
+     */
+    public static final class Builder {
+
+        private final Map<TextField, VelocityCounters> counters = new EnumMap<>(TextField.class);
+        private final Map<TextField, AmountAccumulators> accumulators = new EnumMap<>(TextField.class);
+        private final Map<TextField, DistinctCounters> distinctCounters = new EnumMap<>(TextField.class);
+
+        public Builder count(TextField field, VelocityCounters fieldCounters) {
+            counters.put(field, fieldCounters);
+            return this;
+        }
+
+        public Builder amount(TextField field, AmountAccumulators fieldAccumulators) {
+            accumulators.put(field, fieldAccumulators);
+            return this;
+        }
+
+        public Builder distinct(TextField field, DistinctCounters fieldCounters) {
+            distinctCounters.put(field, fieldCounters);
+            return this;
+        }
+
+        public VelocityPlan build() {
+            return new VelocityPlan(this);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.acme.decision.domain.model.velocity;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Janelas deslizantes por chave (CPF, dispositivo ou IP), com memória limitada.
+ * <p>
+ * Cada chave ocupa uma janela de tamanho fixo, com um anel de {@code bucketCount} baldes de tempo, e o número
+ * de chaves tem teto. Chaves sem transações há mais tempo que o anel cobre são removidas por uma varredura
+ * amortizada, feita por uma única thread por vez, em média a cada {@code SWEEP_INTERVAL} registros ou quando
+ * o teto é atingido. Com o teto atingido, a varredura é tentada no máximo uma vez por balde, já que as chaves
+ * só ficam ociosas na virada de um balde; entre uma tentativa e outra, e se a varredura não liberar espaço,
+ * chaves novas são recusadas sem percorrer o mapa e contadas em {@link #getRejectedKeys()}.
+ * <p>
+ * A janela nasce com o balde de criação como último balde, para que uma varredura concorrente não a
+ * remova antes do primeiro registro. A janela entregue para registro já tem o balde atual marcado, e a
+ * varredura retira a ociosa com compare-and-set sobre esse mesmo balde ({@link KeyWindow}): uma janela
+ * buscada para registro não é removida antes do incremento, e o registro que encontra uma janela já
+ * retirada busca ou cria a que a substitui.
+ *
+ * @param <W> tipo da janela
+ */
+@Slf4j
+public final class WindowStore<W extends KeyWindow> {
+
+    // Em média, um a cada N registros remove as chaves ociosas
+    private static final int SWEEP_INTERVAL = 1 << 16;
+
+    private final String name;
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final int maxKeys;
+    private final WindowFactory<W> windowFactory;
+
+    private final Map<String, W> windows = new ConcurrentHashMap<>();
+    private final LongAdder rejectedKeys = new LongAdder();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    // Balde da última varredura tentada com o teto atingido
+    private volatile long fullSweepBucket = Long.MIN_VALUE;
+
+    public WindowStore(String name, long bucketMillis, int bucketCount, int maxKeys, WindowFactory<W> windowFactory) {
+        this.name = name;
+        this.bucketMillis = bucketMillis;
+        this.bucketCount = bucketCount;
+        this.maxKeys = maxKeys;
+        this.windowFactory = windowFactory;
+    }
+
+    /**
+     * @param nowMillis instante em milissegundos
+     * @return número do balde que contém o instante
+     */
+    public long bucketOf(long nowMillis) {
+        return nowMillis / bucketMillis;
+    }
+
+    /**
+     * Retorna a janela da chave para registro, criando-a se necessário.
+     *
+     * @param key chave
+     * @param bucket balde atual
+     * @return janela da chave, ou null se a chave é nula ou o teto de chaves foi atingido
+     */
+    public W windowForRecord(String key, long bucket) {
+        if (key == null) {
+            return null;
+        }
+
+        W window = windows.get(key);
+        while (true) {
+            if (window == null) {
+                window = createWindow(key, bucket);
+                if (window == null) {
+                    return null;
+                }
+            }
+            if (window.touch(bucket)) {
+                break;
+            }
+            // Retirada pela varredura entre a busca e o registro: a remoção do mapa pode estar pendente
+            windows.remove(key, window);
+            window = windows.get(key);
+        }
+
+        if (ThreadLocalRandom.current().nextInt(SWEEP_INTERVAL) == 0) {
+            evictIdle(bucket);
+        }
+        return window;
+    }
+
+    /**
+     * @param key chave
+     * @return janela da chave, ou null se a chave não é rastreada
+     */
+    public W find(String key) {
+        return key == null ? null : windows.get(key);
+    }
+
+    private W createWindow(String key, long bucket) {
+        if (windows.size() >= maxKeys) {
+            if (fullSweepBucket != bucket) {
+                fullSweepBucket = bucket;
+                evictIdle(bucket);
+            }
+            if (windows.size() >= maxKeys) {
+                rejectedKeys.increment();
+                return null;
+            }
+        }
+        return windows.computeIfAbsent(key, k -> windowFactory.create(bucketCount, bucket));
+    }
+
+    /**
+     * Remove as chaves sem transações dentro do alcance do anel. Apenas uma thread varre por vez.
+     */
+    private void evictIdle(long bucket) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int before = windows.size();
+            windows.values().removeIf(window -> window.retireIfIdle(bucket, bucketCount));
+            log.debug("Janelas por {}: {} chaves ociosas removidas", name, before - windows.size());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    public int getKeyCount() {
+        return windows.size();
+    }
+
+    public long getRejectedKeys() {
+        return rejectedKeys.sum();
+    }
+
+    /**
+     * Cria a janela de uma chave nova.
+     *
+     * @param <W> tipo da janela
+     */
+    @FunctionalInterface
+    public interface WindowFactory<W extends KeyWindow> {
+
+        /**
+         * @param bucketCount baldes do anel
+         * @param createdBucket balde atual, o último balde da janela até o primeiro registro
+         * @return janela vazia
+         */
+        W create(int bucketCount, long createdBucket);
+    }
+}
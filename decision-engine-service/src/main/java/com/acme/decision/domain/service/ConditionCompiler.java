@@ -0,0 +1,444 @@
+package com.acme.decision.domain.service;
+
+import com.acme.decision.domain.model.Money;
+import com.acme.decision.domain.model.network.CidrBlocks;
+import com.acme.decision.domain.model.condition.AmountSumCondition;
+import com.acme.decision.domain.model.condition.AndCondition;
+import com.acme.decision.domain.model.condition.Condition;
+import com.acme.decision.domain.model.condition.ConstantCondition;
+import com.acme.decision.domain.model.condition.DistinctCountCondition;
+import com.acme.decision.domain.model.condition.FieldInCondition;
+import com.acme.decision.domain.model.condition.IpCidrCondition;
+import com.acme.decision.domain.model.condition.ListCondition;
+import com.acme.decision.domain.model.condition.ModelScoreCondition;
+import com.acme.decision.domain.model.condition.NotCondition;
+import com.acme.decision.domain.model.condition.OrCondition;
+import com.acme.decision.domain.model.condition.TextField;
+import com.acme.decision.domain.model.condition.ValueRangeCondition;
+import com.acme.decision.domain.model.condition.VelocityCondition;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serviço de domínio responsável por compilar o JSON de condição das regras
+ * em objetos {@link Condition} tipados e imutáveis.
+ * <p>
+ * Além das condições simples ({@code value_range} e listas), aceita condições compostas:
+ * <ul>
+ *     <li>{@code {"type":"and"|"or","conditions":[...]}}</li>
+ *     <li>{@code {"type":"not","condition":{...}}}</li>
+ *     <li>{@code {"type":"constant","value":true|false}}</li>
+ *     <li>{@code {"type":"compare","field":"txValue","op":"gt","value":5000}}</li>
+ *     <li>{@code {"type":"velocity","field":"cpf","windowSeconds":600,"op":"gt","value":5}}</li>
+ *     <li>{@code {"type":"amount_sum","field":"cpf","windowSeconds":86400,"op":"gt","value":10000.00}}</li>
+ *     <li>{@code {"type":"distinct_count","field":"deviceId","windowSeconds":3600,"op":"gt","value":3}}</li>
+ *     <li>{@code {"type":"ip_cidr","cidrs":["10.0.0.0/8","2001:db8::/32","192.168.0.10-192.168.0.20"]}}</li>
+ *     <li>{@code {"type":"model","model":"fraud-gbt","op":"gt","value":0.8}}</li>
+ * </ul>
+ * A árvore resultante é otimizada uma única vez por {@link ConditionOptimizer}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConditionCompiler {
+
+    private static final String VALUE_RANGE = "value_range";
+    private static final String AND = "and";
+    private static final String OR = "or";
+    private static final String NOT = "not";
+    private static final String CONSTANT = "constant";
+    private static final String COMPARE = "compare";
+    private static final String VELOCITY = "velocity";
+    private static final String AMOUNT_SUM = "amount_sum";
+    private static final String DISTINCT_COUNT = "distinct_count";
+    private static final String IP_CIDR = "ip_cidr";
+    private static final String MODEL = "model";
+
+    private static final String TX_VALUE_FIELD = "txValue";
+
+    // Profundidade máxima de aninhamento das condições compostas
+    private static final int MAX_DEPTH = 32;
+
+    private static final Map<String, ListCondition> FLAG_FIELDS = Map.of(
+            "cpfInPermissiveList", ListCondition.CPF_PERMISSIVE_LIST,
+            "cpfInRestrictiveList", ListCondition.CPF_RESTRICTIVE_LIST,
+            "ipInRestrictiveList", ListCondition.IP_RESTRICTIVE_LIST,
+            "deviceIdInRestrictiveList", ListCondition.DEVICE_RESTRICTIVE_LIST
+    );
+
+    private final VelocityService velocityService;
+    private final ModelRegistry modelRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Compila a condição de uma regra.
+     *
+     * @param conditionJson JSON da condição
+     * @return condição compilada
+     * @throws IllegalArgumentException se o JSON for inválido ou o tipo desconhecido
+     */
+    public Condition compile(String conditionJson) {
+        if (conditionJson == null || conditionJson.trim().isEmpty()) {
+            throw new IllegalArgumentException("Condição da regra é obrigatória");
+        }
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(conditionJson);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Condição não é um JSON válido: " + e.getOriginalMessage());
+        }
+
+        return new ConditionOptimizer().optimize(parse(node, 1));
+    }
+
+    private Condition parse(JsonNode node, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Condição excede a profundidade máxima de " + MAX_DEPTH + " níveis");
+        }
+
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Condição deve ser um objeto JSON");
+        }
+
+        JsonNode typeNode = node.get("type");
+        if (typeNode == null || !typeNode.isTextual()) {
+            throw new IllegalArgumentException("Condição deve informar o campo 'type'");
+        }
+
+        String type = typeNode.asText();
+        switch (type) {
+            case VALUE_RANGE:
+                return parseValueRange(node);
+            case AND:
+                return new AndCondition(parseOperands(node, depth));
+            case OR:
+                return new OrCondition(parseOperands(node, depth));
+            case NOT:
+                return new NotCondition(parse(node.get("condition"), depth + 1));
+            case CONSTANT:
+                return parseConstant(node);
+            case COMPARE:
+                return parseCompare(node);
+            case VELOCITY:
+                return parseVelocity(node);
+            case AMOUNT_SUM:
+                return parseAmountSum(node);
+            case DISTINCT_COUNT:
+                return parseDistinctCount(node);
+            case IP_CIDR:
+                return parseIpCidr(node);
+            case MODEL:
+                return parseModel(node);
+            default:
+                return ListCondition.fromType(type)
+                        .orElseThrow(() -> new IllegalArgumentException("Tipo de condição desconhecido: " + type));
+        }
+    }
+
+    private Condition[] parseOperands(JsonNode node, int depth) {
+        JsonNode conditionsNode = node.get("conditions");
+        if (conditionsNode == null || !conditionsNode.isArray() || conditionsNode.isEmpty()) {
+            throw new IllegalArgumentException("Condição " + node.get("type").asText()
+                    + " deve informar uma lista não vazia em 'conditions'");
+        }
+
+        Condition[] operands = new Condition[conditionsNode.size()];
+        for (int i = 0; i < operands.length; i++) {
+            operands[i] = parse(conditionsNode.get(i), depth + 1);
+        }
+        return operands;
+    }
+
+    private ConstantCondition parseConstant(JsonNode node) {
+        JsonNode valueNode = node.get("value");
+        if (valueNode == null || !valueNode.isBoolean()) {
+            throw new IllegalArgumentException("Condição constant deve informar 'value' booleano");
+        }
+        return ConstantCondition.of(valueNode.booleanValue());
+    }
+
+    private Condition parseCompare(JsonNode node) {
+        String field = requiredText(node, "field");
+        String op = requiredText(node, "op");
+        JsonNode valueNode = node.get("value");
+        if (valueNode == null || valueNode.isNull()) {
+            throw new IllegalArgumentException("Condição compare deve informar o campo 'value'");
+        }
+
+        if (TX_VALUE_FIELD.equals(field)) {
+            return compareTxValue(op, valueNode);
+        }
+
+        ListCondition flag = FLAG_FIELDS.get(field);
+        if (flag != null) {
+            return compareFlag(field, flag, op, valueNode);
+        }
+
+        TextField textField = TextField.fromFieldName(field)
+                .orElseThrow(() -> new IllegalArgumentException("Campo desconhecido na condição compare: " + field));
+        return compareText(textField, op, valueNode);
+    }
+
+    private Condition compareTxValue(String op, JsonNode valueNode) {
+        long value;
+        try {
+            value = Money.toCents(valueNode.asText());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor inválido para 'value': " + e.getMessage());
+        }
+
+        switch (op) {
+            case "eq":
+                return new ValueRangeCondition(value, value);
+            case "ne":
+                return new NotCondition(new ValueRangeCondition(value, value));
+            case "gt":
+                return value == Long.MAX_VALUE ? ConstantCondition.FALSE
+                        : new ValueRangeCondition(value + 1, Long.MAX_VALUE);
+            case "gte":
+                return new ValueRangeCondition(value, Long.MAX_VALUE);
+            case "lt":
+                return value == Long.MIN_VALUE ? ConstantCondition.FALSE
+                        : new ValueRangeCondition(Long.MIN_VALUE, value - 1);
+            case "lte":
+                return new ValueRangeCondition(Long.MIN_VALUE, value);
+            default:
+                throw new IllegalArgumentException("Operador inválido para o campo " + TX_VALUE_FIELD + ": " + op);
+        }
+    }
+
+    private Condition parseVelocity(JsonNode node) {
+        TextField field = windowField(node);
+        String op = requiredText(node, "op");
+        int windowBuckets = velocityService.windowBuckets(windowSeconds(node));
+
+        JsonNode valueNode = node.get("value");
+        if (valueNode == null || !valueNode.canConvertToLong() || valueNode.longValue() < 0) {
+            throw new IllegalArgumentException("Condição velocity deve informar 'value' inteiro não negativo");
+        }
+
+        long[] bounds = aggregateBounds(VELOCITY, op, valueNode.longValue());
+        return bounds == null ? ConstantCondition.FALSE
+                : new VelocityCondition(field, windowBuckets, bounds[0], bounds[1], velocityService.countersFor(field));
+    }
+
+    private Condition parseAmountSum(JsonNode node) {
+        TextField field = windowField(node);
+        String op = requiredText(node, "op");
+        int windowBuckets = velocityService.amountWindowBuckets(windowSeconds(node));
+
+        JsonNode valueNode = node.get("value");
+        if (valueNode == null || valueNode.isNull()) {
+            throw new IllegalArgumentException("Condição amount_sum deve informar o campo 'value'");
+        }
+        long cents;
+        try {
+            cents = Money.toCents(valueNode.asText());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor inválido para 'value': " + e.getMessage());
+        }
+        if (cents < 0) {
+            throw new IllegalArgumentException("Condição amount_sum deve informar 'value' não negativo");
+        }
+
+        long[] bounds = aggregateBounds(AMOUNT_SUM, op, cents);
+        return bounds == null ? ConstantCondition.FALSE
+                : new AmountSumCondition(field, windowBuckets, bounds[0], bounds[1], velocityService.accumulatorsFor(field));
+    }
+
+    private Condition parseDistinctCount(JsonNode node) {
+        TextField field = windowField(node);
+        String op = requiredText(node, "op");
+        int windowBuckets = velocityService.distinctWindowBuckets(windowSeconds(node));
+
+        JsonNode valueNode = node.get("value");
+        if (valueNode == null || !valueNode.canConvertToLong() || valueNode.longValue() < 0) {
+            throw new IllegalArgumentException("Condição distinct_count deve informar 'value' inteiro não negativo");
+        }
+
+        long[] bounds = aggregateBounds(DISTINCT_COUNT, op, valueNode.longValue());
+        return bounds == null ? ConstantCondition.FALSE
+                : new DistinctCountCondition(field, windowBuckets, bounds[0], bounds[1],
+                velocityService.distinctCpfsFor(field));
+    }
+
+    private IpCidrCondition parseIpCidr(JsonNode node) {
+        JsonNode cidrsNode = node.get("cidrs");
+        if (cidrsNode == null || !cidrsNode.isArray() || cidrsNode.isEmpty()) {
+            throw new IllegalArgumentException("Condição ip_cidr deve informar uma lista não vazia em 'cidrs'");
+        }
+
+        List<String> cidrs = new ArrayList<>(cidrsNode.size());
+        for (JsonNode cidrNode : cidrsNode) {
+            if (!cidrNode.isTextual()) {
+                throw new IllegalArgumentException("Condição ip_cidr deve informar os blocos como texto");
+            }
+            cidrs.add(cidrNode.asText());
+        }
+        return new IpCidrCondition(CidrBlocks.parse(cidrs));
+    }
+
+    private Condition parseModel(JsonNode node) {
+        String op = requiredText(node, "op");
+        JsonNode valueNode = node.get("value");
+        if (valueNode == null || !valueNode.isNumber() || !Double.isFinite(valueNode.doubleValue())) {
+            throw new IllegalArgumentException("Condição model deve informar 'value' numérico");
+        }
+        double value = valueNode.doubleValue();
+
+        double min = Double.NEGATIVE_INFINITY;
+        double max = Double.POSITIVE_INFINITY;
+        switch (op) {
+            case "gt":
+                min = Math.nextUp(value);
+                break;
+            case "gte":
+                min = value;
+                break;
+            case "lt":
+                max = Math.nextDown(value);
+                break;
+            case "lte":
+                max = value;
+                break;
+            default:
+                throw new IllegalArgumentException("Operador inválido para a condição " + MODEL + ": " + op);
+        }
+        return new ModelScoreCondition(modelRegistry.handleFor(requiredText(node, "model")), min, max);
+    }
+
+    private TextField windowField(JsonNode node) {
+        String fieldName = requiredText(node, "field");
+        return TextField.fromFieldName(fieldName)
+                .orElseThrow(() -> new IllegalArgumentException("Campo desconhecido na condição "
+                        + node.get("type").asText() + ": " + fieldName));
+    }
+
+    private long windowSeconds(JsonNode node) {
+        JsonNode windowNode = node.get("windowSeconds");
+        if (windowNode == null || !windowNode.canConvertToLong()) {
+            throw new IllegalArgumentException("Condição " + node.get("type").asText()
+                    + " deve informar 'windowSeconds' inteiro");
+        }
+        return windowNode.longValue();
+    }
+
+    /**
+     * Limites inclusivos {@code [min, max]} de um agregado não negativo (contagem ou soma) para o operador.
+     *
+     * @return limites, ou null se nenhum valor satisfaz a comparação
+     */
+    private long[] aggregateBounds(String type, String op, long value) {
+        switch (op) {
+            case "eq":
+                return new long[]{value, value};
+            case "gt":
+                return value == Long.MAX_VALUE ? null : new long[]{value + 1, Long.MAX_VALUE};
+            case "gte":
+                return new long[]{value, Long.MAX_VALUE};
+            case "lt":
+                return value == 0 ? null : new long[]{0, value - 1};
+            case "lte":
+                return new long[]{0, value};
+            default:
+                throw new IllegalArgumentException("Operador inválido para a condição " + type + ": " + op);
+        }
+    }
+
+    private Condition compareFlag(String field, ListCondition flag, String op, JsonNode valueNode) {
+        if (!valueNode.isBoolean()) {
+            throw new IllegalArgumentException("Campo " + field + " deve ser comparado com valor booleano");
+        }
+
+        boolean expected;
+        switch (op) {
+            case "eq":
+                expected = valueNode.booleanValue();
+                break;
+            case "ne":
+                expected = !valueNode.booleanValue();
+                break;
+            default:
+                throw new IllegalArgumentException("Operador inválido para o campo " + field + ": " + op);
+        }
+        return expected ? flag : new NotCondition(flag);
+    }
+
+    private Condition compareText(TextField field, String op, JsonNode valueNode) {
+        switch (op) {
+            case "eq":
+                return new FieldInCondition(field, Set.of(textValue(field, valueNode)));
+            case "ne":
+                return new NotCondition(new FieldInCondition(field, Set.of(textValue(field, valueNode))));
+            case "in":
+                return new FieldInCondition(field, textValues(field, valueNode));
+            case "not_in":
+                return new NotCondition(new FieldInCondition(field, textValues(field, valueNode)));
+            default:
+                throw new IllegalArgumentException("Operador inválido para o campo " + field.getFieldName() + ": " + op);
+        }
+    }
+
+    private Set<String> textValues(TextField field, JsonNode valueNode) {
+        if (!valueNode.isArray() || valueNode.isEmpty()) {
+            throw new IllegalArgumentException("Campo " + field.getFieldName()
+                    + " deve ser comparado com uma lista não vazia de valores");
+        }
+
+        Set<String> values = new HashSet<>();
+        for (JsonNode element : valueNode) {
+            values.add(textValue(field, element));
+        }
+        return Set.copyOf(values);
+    }
+
+    private String textValue(TextField field, JsonNode valueNode) {
+        if (!valueNode.isTextual()) {
+            throw new IllegalArgumentException("Campo " + field.getFieldName() + " deve ser comparado com texto");
+        }
+        return valueNode.asText();
+    }
+
+    private String requiredText(JsonNode node, String field) {
+        JsonNode valueNode = node.get(field);
+        if (valueNode == null || !valueNode.isTextual()) {
+            throw new IllegalArgumentException("Condição " + node.get("type").asText()
+                    + " deve informar o campo '" + field + "'");
+        }
+        return valueNode.asText();
+    }
+
+    private ValueRangeCondition parseValueRange(JsonNode node) {
+        long min = parseBound(node, "min");
+        long max = parseBound(node, "max");
+
+        if (min > max) {
+            throw new IllegalArgumentException("Faixa de valor inválida: min maior que max");
+        }
+
+        return new ValueRangeCondition(min, max);
+    }
+
+    private long parseBound(JsonNode node, String field) {
+        JsonNode boundNode = node.get(field);
+        if (boundNode == null || boundNode.isNull()) {
+            throw new IllegalArgumentException("Condição value_range deve informar o campo '" + field + "'");
+        }
+
+        try {
+            return Money.toCents(boundNode.asText());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor inválido para '" + field + "': " + e.getMessage());
+        }
+    }
+}
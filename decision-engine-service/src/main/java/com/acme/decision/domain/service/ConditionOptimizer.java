@@ -0,0 +1,209 @@
+package com.acme.decision.domain.service;
+
+import com.acme.decision.domain.model.condition.AndCondition;
+import com.acme.decision.domain.model.condition.Condition;
+import com.acme.decision.domain.model.condition.ConstantCondition;
+import com.acme.decision.domain.model.condition.FieldInCondition;
+import com.acme.decision.domain.model.condition.NotCondition;
+import com.acme.decision.domain.model.condition.OrCondition;
+import com.acme.decision.domain.model.condition.TextField;
+import com.acme.decision.domain.model.condition.ValueRangeCondition;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Otimiza a árvore de uma condição composta, de baixo para cima:
+ * <ul>
+ *     <li>constant folding: operandos neutros são removidos, operandos absorventes e contradições
+ *     ({@code x and not x}) reduzem o nó a uma constante, e dupla negação é eliminada;</li>
+ *     <li>conjunções e disjunções aninhadas do mesmo tipo são achatadas, e faixas de valor e
+ *     conjuntos de valores do mesmo campo são combinados (interseção ou união);</li>
+ *     <li>subexpressões estruturalmente iguais passam a ser a mesma instância, e operandos repetidos
+ *     são avaliados uma única vez;</li>
+ *     <li>os operandos são ordenados do mais barato ao mais caro, para que o curto-circuito evite as
+ *     avaliações caras.</li>
+ * </ul>
+ * Um nó com um único operando é substituído pelo próprio operando, de forma que, por exemplo, uma condição
+ * composta equivalente a uma faixa de valor continua indexável.
+ * Cada instância atende a uma única compilação.
+ */
+final class ConditionOptimizer {
+
+    private static final Comparator<Condition> BY_COST = Comparator.comparingInt(Condition::cost);
+
+    private final Map<Condition, Condition> interned = new HashMap<>();
+
+    Condition optimize(Condition condition) {
+        if (condition instanceof AndCondition and) {
+            return intern(optimizeJunction(and.getConditions(), true));
+        }
+        if (condition instanceof OrCondition or) {
+            return intern(optimizeJunction(or.getConditions(), false));
+        }
+        if (condition instanceof NotCondition not) {
+            return intern(negate(optimize(not.getCondition())));
+        }
+        return intern(condition);
+    }
+
+    private Condition negate(Condition condition) {
+        if (condition instanceof ConstantCondition constant) {
+            return constant.negate();
+        }
+        if (condition instanceof NotCondition not) {
+            return not.getCondition();
+        }
+        return new NotCondition(condition);
+    }
+
+    private Condition optimizeJunction(Condition[] children, boolean conjunction) {
+        ConstantCondition absorbing = ConstantCondition.of(!conjunction);
+        ConstantCondition neutral = ConstantCondition.of(conjunction);
+
+        Set<Condition> operands = new LinkedHashSet<>();
+        for (Condition child : children) {
+            Condition optimized = optimize(child);
+            if (optimized == absorbing) {
+                return absorbing;
+            }
+            if (optimized == neutral) {
+                continue;
+            }
+            // Achata nós do mesmo tipo; seus operandos já estão otimizados
+            if (conjunction && optimized instanceof AndCondition and) {
+                operands.addAll(List.of(and.getConditions()));
+            } else if (!conjunction && optimized instanceof OrCondition or) {
+                operands.addAll(List.of(or.getConditions()));
+            } else {
+                operands.add(optimized);
+            }
+        }
+
+        for (Condition operand : operands) {
+            if (operand instanceof NotCondition not && operands.contains(not.getCondition())) {
+                return absorbing;
+            }
+        }
+
+        List<Condition> merged = new ArrayList<>();
+        if (!mergeRanges(operands, conjunction, merged) || !mergeFieldSets(operands, conjunction, merged)) {
+            return absorbing;
+        }
+        for (Condition operand : operands) {
+            merged.add(intern(operand));
+        }
+        merged.removeIf(operand -> operand == neutral);
+        if (merged.contains(absorbing)) {
+            return absorbing;
+        }
+
+        if (merged.isEmpty()) {
+            return neutral;
+        }
+        if (merged.size() == 1) {
+            return merged.get(0);
+        }
+
+        merged.sort(BY_COST);
+        Condition[] array = merged.toArray(new Condition[0]);
+        return conjunction ? new AndCondition(array) : new OrCondition(array);
+    }
+
+    /**
+     * Combina as faixas de valor: interseção na conjunção, união de faixas sobrepostas ou adjacentes na disjunção.
+     *
+     * @return false se a conjunção ficou vazia (condição sempre falsa)
+     */
+    private boolean mergeRanges(Set<Condition> operands, boolean conjunction, List<Condition> merged) {
+        List<ValueRangeCondition> ranges = new ArrayList<>();
+        for (Iterator<Condition> it = operands.iterator(); it.hasNext(); ) {
+            if (it.next() instanceof ValueRangeCondition range) {
+                ranges.add(range);
+                it.remove();
+            }
+        }
+        if (ranges.isEmpty()) {
+            return true;
+        }
+
+        if (conjunction) {
+            long min = Long.MIN_VALUE;
+            long max = Long.MAX_VALUE;
+            for (ValueRangeCondition range : ranges) {
+                min = Math.max(min, range.getMinCents());
+                max = Math.min(max, range.getMaxCents());
+            }
+            if (min > max) {
+                return false;
+            }
+            merged.add(rangeOrConstant(min, max));
+            return true;
+        }
+
+        ranges.sort(Comparator.comparingLong(ValueRangeCondition::getMinCents));
+        long min = ranges.get(0).getMinCents();
+        long max = ranges.get(0).getMaxCents();
+        for (ValueRangeCondition range : ranges.subList(1, ranges.size())) {
+            if (max == Long.MAX_VALUE || range.getMinCents() <= max + 1) {
+                max = Math.max(max, range.getMaxCents());
+            } else {
+                merged.add(rangeOrConstant(min, max));
+                min = range.getMinCents();
+                max = range.getMaxCents();
+            }
+        }
+        merged.add(rangeOrConstant(min, max));
+        return true;
+    }
+
+    private Condition rangeOrConstant(long min, long max) {
+        if (min == Long.MIN_VALUE && max == Long.MAX_VALUE) {
+            return ConstantCondition.TRUE;
+        }
+        return intern(new ValueRangeCondition(min, max));
+    }
+
+    /**
+     * Combina os conjuntos de valores do mesmo campo: interseção na conjunção, união na disjunção.
+     *
+     * @return false se a conjunção ficou vazia (condição sempre falsa)
+     */
+    private boolean mergeFieldSets(Set<Condition> operands, boolean conjunction, List<Condition> merged) {
+        Map<TextField, Set<String>> byField = new EnumMap<>(TextField.class);
+        for (Iterator<Condition> it = operands.iterator(); it.hasNext(); ) {
+            if (it.next() instanceof FieldInCondition fieldIn) {
+                Set<String> values = byField.get(fieldIn.getField());
+                if (values == null) {
+                    byField.put(fieldIn.getField(), new HashSet<>(fieldIn.getValues()));
+                } else if (conjunction) {
+                    values.retainAll(fieldIn.getValues());
+                } else {
+                    values.addAll(fieldIn.getValues());
+                }
+                it.remove();
+            }
+        }
+
+        for (Map.Entry<TextField, Set<String>> entry : byField.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                return false;
+            }
+            merged.add(intern(new FieldInCondition(entry.getKey(), Set.copyOf(entry.getValue()))));
+        }
+        return true;
+    }
+
+    private Condition intern(Condition condition) {
+        Condition existing = interned.putIfAbsent(condition, condition);
+        return existing != null ? existing : condition;
+    }
+}
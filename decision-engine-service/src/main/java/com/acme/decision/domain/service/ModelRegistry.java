@@ -0,0 +1,111 @@
+package com.acme.decision.domain.service;
+
+import com.acme.decision.domain.model.scoring.ModelHandle;
+import com.acme.decision.domain.model.scoring.ModelInfo;
+import com.acme.decision.domain.model.scoring.ScoringModel;
+import com.acme.decision.domain.model.scoring.ScoringModelParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço de domínio que carrega os modelos de score usados pelas condições {@code model}.
+ * <p>
+ * Cada modelo é lido do arquivo {@code <nome>.json} no diretório configurado na primeira regra que o
+ * referencia, e recarregado sob demanda. A recarga valida o arquivo por inteiro antes de trocar o modelo;
+ * em caso de erro, a versão anterior continua em uso.
+ */
+@Service
+@Slf4j
+public class ModelRegistry {
+
+    private static final Pattern MODEL_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    @Value("${decision-engine.models.directory:models}")
+    private String directory;
+
+    private final Map<String, ModelHandle> models = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Retorna o modelo nomeado, carregando-o na primeira referência.
+     *
+     * @param name nome do modelo
+     * @return referência ao modelo, compartilhada por todas as regras que o usam
+     * @throws IllegalArgumentException se o nome for inválido ou o arquivo ausente ou inválido
+     */
+    public ModelHandle handleFor(String name) {
+        ModelHandle handle = models.get(name);
+        if (handle != null) {
+            return handle;
+        }
+
+        synchronized (models) {
+            return models.computeIfAbsent(name, key -> {
+                ModelHandle loaded = new ModelHandle(key, load(key));
+                log.info("Modelo '{}' carregado", key);
+                return loaded;
+            });
+        }
+    }
+
+    /**
+     * Relê o arquivo do modelo e troca a versão em uso. Modelos ainda não carregados são carregados.
+     *
+     * @param name nome do modelo
+     * @return estado do modelo após a recarga
+     * @throws IllegalArgumentException se o nome for inválido ou o arquivo ausente ou inválido
+     */
+    public ModelInfo reload(String name) {
+        synchronized (models) {
+            ModelHandle handle = models.get(name);
+            if (handle == null) {
+                return ModelInfo.of(handleFor(name));
+            }
+
+            handle.swap(load(name));
+            log.info("Modelo '{}' recarregado na versão {}", name, handle.getVersion());
+            return ModelInfo.of(handle);
+        }
+    }
+
+    /**
+     * @return estado dos modelos carregados, por nome
+     */
+    public List<ModelInfo> getModels() {
+        return models.values().stream()
+                .map(ModelInfo::of)
+                .sorted(Comparator.comparing(ModelInfo::getName))
+                .collect(Collectors.toList());
+    }
+
+    private ScoringModel load(String name) {
+        if (name == null || !MODEL_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Nome de modelo inválido: " + name);
+        }
+
+        Path file = Paths.get(directory, name + ".json");
+        try {
+            return ScoringModelParser.parse(objectMapper.readTree(Files.readAllBytes(file)));
+        } catch (NoSuchFileException e) {
+            throw new IllegalArgumentException("Modelo '" + name + "' não encontrado em " + file.toAbsolutePath());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Erro ao ler o modelo '" + name + "': " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Modelo '" + name + "' inválido: " + e.getMessage());
+        }
+    }
+}
@@ -1,99 +1,361 @@
 package com.acme.decision.domain.service;
 
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.CompiledRuleSet;
 import com.acme.decision.domain.model.Rule;
+import com.acme.decision.domain.model.RuleSnapshot;
 import com.acme.decision.domain.model.ScoreCalculationData;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.acme.decision.domain.model.ScoreFunction;
+import com.acme.decision.domain.model.ThresholdScore;
+import com.acme.decision.domain.model.adaptive.AdaptiveRuleOrder;
+import com.acme.decision.domain.model.adaptive.AdaptiveRuleOrder.EvaluationPlan;
+import com.acme.decision.domain.model.condition.ListCondition;
+import com.acme.decision.domain.model.condition.ValueRangeCondition;
+import com.acme.decision.domain.model.index.DecisionTable;
+import com.acme.decision.domain.model.index.KeyedRuleIndex;
+import com.acme.decision.domain.model.index.ValueRangeIndex;
+import com.acme.decision.domain.model.metrics.RuleEvaluationListener;
+import com.acme.decision.domain.service.compiler.EvaluationMode;
+import com.acme.decision.domain.service.compiler.ScoreFunctionGenerator;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
 
 /**
  * Serviço de domínio responsável pela avaliação de regras e cálculo de score.
  * Contém a lógica central do motor de regras.
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class RuleEngine {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConditionCompiler conditionCompiler;
+    private final ScoreFunctionGenerator scoreFunctionGenerator;
+
+    @Value("${decision-engine.rules.evaluation-mode:INTERPRETED}")
+    private EvaluationMode evaluationMode;
+
+    @Value("${decision-engine.rules.decision-table-enabled:true}")
+    private boolean decisionTableEnabled;
+
+    @Value("${decision-engine.rules.adaptive-evaluation-enabled:false}")
+    private boolean adaptiveEvaluationEnabled;
+
+    /**
+     * Compila as regras para avaliação.
+     * Regras com condição inválida são descartadas, pois nunca seriam aplicadas.
+     * 
+     * @param rules regras a serem compiladas
+     * @return regras compiladas
+     */
+    public List<CompiledRule> compileRules(List<Rule> rules) {
+        List<CompiledRule> compiledRules = new ArrayList<>(rules.size());
+
+        for (Rule rule : rules) {
+            try {
+                compiledRules.add(new CompiledRule(
+                        rule.getId(),
+                        rule.getName(),
+                        rule.getTxType(),
+                        rule.getPoints(),
+                        conditionCompiler.compile(rule.getCondition())
+                ));
+            } catch (IllegalArgumentException e) {
+                log.error("Regra '{}' ignorada, condição inválida: {}", rule.getName(), e.getMessage());
+            }
+        }
+
+        return compiledRules;
+    }
+
+    /**
+     * Monta os conjuntos de regras de todos os tipos de transação presentes nas regras ativas,
+     * além do conjunto DEFAULT.
+     *
+     * @param activeRules regras ativas compiladas
+     * @return conjuntos por tipo de transação
+     */
+    public Map<String, CompiledRuleSet> compileRuleSets(List<CompiledRule> activeRules) {
+        Set<String> txTypes = new LinkedHashSet<>();
+        txTypes.add(RuleSnapshot.DEFAULT_TX_TYPE);
+        activeRules.forEach(rule -> txTypes.add(rule.getTxType()));
+
+        Map<String, CompiledRuleSet> byTxType = new HashMap<>();
+        for (String txType : txTypes) {
+            byTxType.put(txType, compileRuleSetFor(txType, activeRules));
+        }
+        return byTxType;
+    }
+
+    /**
+     * Monta o conjunto de um tipo de transação a partir de todas as regras ativas (DEFAULT + específicas).
+     *
+     * @param txType tipo da transação
+     * @param activeRules regras ativas compiladas, de todos os tipos
+     * @return conjunto de regras pronto para avaliação
+     */
+    public CompiledRuleSet compileRuleSetFor(String txType, List<CompiledRule> activeRules) {
+        List<CompiledRule> applicable = new ArrayList<>();
+        for (CompiledRule rule : activeRules) {
+            if (RuleSnapshot.DEFAULT_TX_TYPE.equals(rule.getTxType()) || txType.equals(rule.getTxType())) {
+                applicable.add(rule);
+            }
+        }
+        return compileRuleSet(txType, applicable);
+    }
+
+    /**
+     * Monta o conjunto de regras de um tipo de transação.
+     * As regras de faixa de valor são indexadas em um {@link ValueRangeIndex} e as regras por CPF,
+     * dispositivo ou IP em um {@link KeyedRuleIndex}. Se todas as demais forem de lista, o conjunto é
+     * compilado em uma {@link DecisionTable}. Caso contrário, a avaliação segue o modo configurado,
+     * com o modo interpretado como alternativa.
+     * Sem tabela de decisão e com a avaliação adaptativa habilitada, o conjunto recebe uma
+     * {@link AdaptiveRuleOrder} para os cálculos com limiar. Com tabela, o score completo já custa uma busca
+     * binária e uma leitura de array e não há o que interromper: conjuntos só de faixas de valor e listas,
+     * como as regras iniciais, não usam a ordem adaptativa.
+     * 
+     * @param txType tipo da transação
+     * @param rules regras compiladas aplicáveis ao tipo
+     * @return conjunto de regras pronto para avaliação
+     */
+    public CompiledRuleSet compileRuleSet(String txType, List<CompiledRule> rules) {
+        List<CompiledRule> rangeRules = new ArrayList<>();
+        List<CompiledRule> sequentialRules = new ArrayList<>();
+
+        for (CompiledRule rule : rules) {
+            if (KeyedRuleIndex.isKeyed(rule)) {
+                continue;
+            }
+            if (rule.getCondition() instanceof ValueRangeCondition) {
+                rangeRules.add(rule);
+            } else {
+                sequentialRules.add(rule);
+            }
+        }
+
+        ValueRangeIndex valueRangeIndex = ValueRangeIndex.build(rangeRules);
+        KeyedRuleIndex keyedRuleIndex = KeyedRuleIndex.build(rules);
+
+        DecisionTable decisionTable = null;
+        if (decisionTableEnabled
+                && sequentialRules.stream().allMatch(rule -> rule.getCondition() instanceof ListCondition)) {
+            decisionTable = DecisionTable.build(valueRangeIndex, sequentialRules);
+        }
+
+        ScoreFunction scoreFunction = decisionTable != null
+                ? decisionTable::rawScore
+                : createScoreFunction(txType, valueRangeIndex, sequentialRules);
+        if (!keyedRuleIndex.isEmpty()) {
+            ScoreFunction unkeyedScore = scoreFunction;
+            scoreFunction = data -> unkeyedScore.rawScore(data) + keyedRuleIndex.pointsFor(data);
+        }
+
+        AdaptiveRuleOrder adaptiveOrder = adaptiveEvaluationEnabled && decisionTable == null
+                ? new AdaptiveRuleOrder(sequentialRules)
+                : null;
+
+        return new CompiledRuleSet(
+                txType,
+                Collections.unmodifiableList(new ArrayList<>(rules)),
+                valueRangeIndex,
+                keyedRuleIndex,
+                Collections.unmodifiableList(sequentialRules),
+                decisionTable,
+                scoreFunction,
+                adaptiveOrder
+        );
+    }
+
+    private ScoreFunction createScoreFunction(String txType, ValueRangeIndex valueRangeIndex,
+                                              List<CompiledRule> sequentialRules) {
+        if (evaluationMode == EvaluationMode.GENERATED) {
+            try {
+                return scoreFunctionGenerator.generate(valueRangeIndex, sequentialRules);
+            } catch (Exception e) {
+                log.error("Erro ao gerar função de score para tipo {}, usando modo interpretado", txType, e);
+            }
+        }
+
+        return data -> evaluateSequentially(data, valueRangeIndex, sequentialRules);
+    }
 
     /**
      * Calcula o score baseado nas regras aplicáveis.
      * 
      * @param calculationData dados para cálculo
-     * @param rules regras a serem aplicadas
+     * @param ruleSet conjunto de regras a ser aplicado
      * @return score calculado
      */
-    public int calculateScore(ScoreCalculationData calculationData, List<Rule> rules) {
-        int totalScore = 0;
+    public int calculateScore(ScoreCalculationData calculationData, CompiledRuleSet ruleSet) {
+        log.debug("Iniciando cálculo de score para {} regras", ruleSet.getRules().size());
 
-        log.info("Iniciando cálculo de score para {} regras", rules.size());
+        int totalScore = ruleSet.getScoreFunction().rawScore(calculationData);
 
-        for (Rule rule : rules) {
+        // Garantir que o score seja sempre positivo
+        totalScore = Math.max(1, totalScore);
+
+        log.debug("Score final calculado: {}", totalScore);
+        return totalScore;
+    }
+
+    /**
+     * Calcula o score com um limiar de decisão informado pelo chamador (score acima do limiar nega).
+     * Com ordem adaptativa, as regras são avaliadas pela ordem aprendida e a avaliação é interrompida
+     * assim que os pontos acumulados e os pendentes já decidem o lado do limiar. Sem ordem adaptativa,
+     * o score é o da avaliação completa.
+     *
+     * @param calculationData dados para cálculo
+     * @param ruleSet conjunto de regras a ser aplicado
+     * @param threshold limiar de decisão
+     * @return score calculado, exato ou interrompido
+     */
+    public ThresholdScore calculateScore(ScoreCalculationData calculationData, CompiledRuleSet ruleSet, int threshold) {
+        if (!ruleSet.hasAdaptiveOrder()) {
+            return new ThresholdScore(calculateScore(calculationData, ruleSet), false);
+        }
+
+        AdaptiveRuleOrder adaptiveOrder = ruleSet.getAdaptiveOrder();
+        EvaluationPlan plan = adaptiveOrder.currentPlan();
+        boolean sampleCost = adaptiveOrder.sampleCost();
+
+        // Faixas de valor e regras por chave primeiro: uma busca binária e uma busca em hash por campo
+        int totalScore = ruleSet.getValueRangeIndex().pointsFor(calculationData.getTxValueCents())
+                + ruleSet.getKeyedRuleIndex().pointsFor(calculationData);
+
+        for (int position = 0; position < plan.size(); position++) {
+            int lowest = Math.max(1, totalScore + plan.minRemainingFrom(position));
+            int highest = Math.max(1, totalScore + plan.maxRemainingFrom(position));
+
+            if (lowest > threshold || highest <= threshold) {
+                int score = lowest > threshold ? lowest : highest;
+                log.debug("Avaliação interrompida após {} de {} regras: score {} já decidido para o limiar {}",
+                        position, plan.size(), score, threshold);
+                return new ThresholdScore(score, true);
+            }
+
+            CompiledRule rule = plan.ruleAt(position);
+            long start = sampleCost ? System.nanoTime() : 0;
+            boolean matched = matches(rule, calculationData);
+            if (sampleCost) {
+                adaptiveOrder.statsOf(plan.ruleIndexAt(position)).recordCost(System.nanoTime() - start);
+            }
+            adaptiveOrder.statsOf(plan.ruleIndexAt(position)).record(matched);
+
+            if (matched) {
+                totalScore += rule.getPoints();
+                log.debug("Regra '{}' aplicada: +{} pontos (Total: {})", rule.getName(), rule.getPoints(), totalScore);
+            }
+        }
+
+        int score = Math.max(1, totalScore);
+        log.debug("Score final calculado: {}", score);
+        return new ThresholdScore(score, false);
+    }
+
+    /**
+     * Avalia todas as regras do conjunto, sem logs nem cronometragem, informando cada regra aplicada.
+     * Usada no reprocessamento em massa e na explicação do score; o score é o mesmo da avaliação normal.
+     *
+     * @param calculationData dados para cálculo
+     * @param ruleSet conjunto de regras a ser aplicado
+     * @param onMatch recebe a posição, em {@link CompiledRuleSet#getRules()}, de cada regra aplicada
+     * @return score calculado
+     */
+    public int replayScore(ScoreCalculationData calculationData, CompiledRuleSet ruleSet, IntConsumer onMatch) {
+        List<CompiledRule> rules = ruleSet.getRules();
+        KeyedRuleIndex keyedRuleIndex = ruleSet.getKeyedRuleIndex();
+        int totalScore = keyedRuleIndex.forEachMatch(calculationData, onMatch);
+
+        for (int i = 0; i < keyedRuleIndex.unindexedCount(); i++) {
+            int position = keyedRuleIndex.unindexedPositionAt(i);
+            CompiledRule rule = rules.get(position);
+            if (matches(rule, calculationData)) {
+                totalScore += rule.getPoints();
+                onMatch.accept(position);
+            }
+        }
+
+        return Math.max(1, totalScore);
+    }
+
+    /**
+     * Calcula o score avaliando cada regra do conjunto individualmente, cronometrada, e informando o resultado
+     * ao listener, para a coleta de métricas por regra. O score é o mesmo da avaliação normal.
+     * Todas as regras são avaliadas pela própria condição, inclusive as de faixa de valor e as por chave,
+     * sem a tabela de decisão nem os índices, para que cada uma seja informada em toda amostra, aplicada ou
+     * não. A regra com erro é informada ao listener e não soma pontos, como na avaliação normal.
+     *
+     * @param calculationData dados para cálculo
+     * @param ruleSet conjunto de regras a ser avaliado
+     * @param listener destino dos resultados
+     * @return score calculado
+     */
+    public int evaluateEachRule(ScoreCalculationData calculationData, CompiledRuleSet ruleSet,
+                                RuleEvaluationListener listener) {
+        int totalScore = 0;
+
+        for (CompiledRule rule : ruleSet.getRules()) {
+            long start = System.nanoTime();
             try {
-                if (evaluateRule(rule, calculationData)) {
+                boolean matched = rule.getCondition().matches(calculationData);
+                listener.onEvaluation(rule, matched, System.nanoTime() - start);
+                if (matched) {
                     totalScore += rule.getPoints();
-                    log.info("Regra '{}' aplicada: +{} pontos (Total: {})", 
-                            rule.getName(), rule.getPoints(), totalScore);
-                } else {
-                    log.debug("Regra '{}' não aplicada", rule.getName());
                 }
-            } catch (Exception e) {
+            } catch (RuntimeException e) {
+                listener.onError(rule, System.nanoTime() - start, e);
                 log.error("Erro ao avaliar regra '{}': {}", rule.getName(), e.getMessage());
             }
         }
 
-        // Garantir que o score seja sempre positivo
-        totalScore = Math.max(1, totalScore);
-
-        log.info("Score final calculado: {}", totalScore);
-        return totalScore;
+        return Math.max(1, totalScore);
     }
 
     /**
-     * Avalia se uma regra deve ser aplicada.
-     * 
-     * @param rule regra a ser avaliada
-     * @param calculationData dados para avaliação
-     * @return true se a regra deve ser aplicada, false caso contrário
+     * Avaliação interpretada: faixas de valor pelo índice e demais regras uma a uma.
      */
-    private boolean evaluateRule(Rule rule, ScoreCalculationData calculationData) throws Exception {
-        JsonNode condition = objectMapper.readTree(rule.getCondition());
-        
-        String type = condition.get("type").asText();
-        
-        switch (type) {
-            case "value_range":
-                return evaluateValueRange(condition, calculationData.getTxValue());
-            case "cpf_permissive_list":
-                return calculationData.isCpfInPermissiveList();
-            case "cpf_restrictive_list":
-                return calculationData.isCpfInRestrictiveList();
-            case "ip_restrictive_list":
-                return calculationData.isIpInRestrictiveList();
-            case "device_restrictive_list":
-                return calculationData.isDeviceIdInRestrictiveList();
-            default:
-                log.warn("Tipo de condição desconhecido: {}", type);
-                return false;
+    private int evaluateSequentially(ScoreCalculationData calculationData, ValueRangeIndex valueRangeIndex,
+                                     List<CompiledRule> sequentialRules) {
+        // Todas as faixas de valor em uma única busca binária
+        int totalScore = valueRangeIndex.pointsFor(calculationData.getTxValueCents());
+        log.debug("Faixas de valor aplicadas: +{} pontos", totalScore);
+
+        for (CompiledRule rule : sequentialRules) {
+            if (matches(rule, calculationData)) {
+                totalScore += rule.getPoints();
+                log.debug("Regra '{}' aplicada: +{} pontos (Total: {})", 
+                        rule.getName(), rule.getPoints(), totalScore);
+            } else {
+                log.debug("Regra '{}' não aplicada", rule.getName());
+            }
         }
+
+        return totalScore;
     }
 
     /**
-     * Avalia uma condição de faixa de valor.
-     * 
-     * @param condition condição JSON
-     * @param txValue valor da transação
-     * @return true se o valor está na faixa, false caso contrário
+     * Avalia a condição da regra. Um erro na avaliação é registrado e a regra é tratada como não aplicada,
+     * sem interromper as demais nem o cálculo do score.
      */
-    private boolean evaluateValueRange(JsonNode condition, BigDecimal txValue) {
-        BigDecimal min = new BigDecimal(condition.get("min").asText());
-        BigDecimal max = new BigDecimal(condition.get("max").asText());
-        
-        return txValue.compareTo(min) >= 0 && txValue.compareTo(max) <= 0;
+    private static boolean matches(CompiledRule rule, ScoreCalculationData calculationData) {
+        try {
+            return rule.getCondition().matches(calculationData);
+        } catch (RuntimeException e) {
+            log.error("Erro ao avaliar regra '{}': {}", rule.getName(), e.getMessage());
+            return false;
+        }
     }
 
     /**
@@ -107,7 +369,7 @@ public class RuleEngine {
             throw new IllegalArgumentException("Dados de cálculo não podem ser nulos");
         }
         
-        if (calculationData.getTxValue() == null || calculationData.getTxValue().signum() <= 0) {
+        if (calculationData.getTxValueCents() <= 0) {
             throw new IllegalArgumentException("Valor da transação deve ser positivo");
         }
         
@@ -1,6 +1,7 @@
 package com.acme.decision.domain.service;
 
 import com.acme.decision.domain.model.Rule;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -8,9 +9,12 @@ import org.springframework.stereotype.Service;
  * Serviço de domínio responsável pela lógica de negócio relacionada às regras.
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class RuleService {
 
+    private final ConditionCompiler conditionCompiler;
+
     /**
      * Valida uma regra antes de salvar.
      * 
@@ -34,6 +38,9 @@ public class RuleService {
             throw new IllegalArgumentException("Condição da regra é obrigatória");
         }
         
+        // Rejeitar condições que não compilam (JSON inválido, tipo desconhecido, faixa inválida)
+        conditionCompiler.compile(rule.getCondition());
+        
         if (rule.getPoints() == null) {
             throw new IllegalArgumentException("Pontos da regra são obrigatórios");
         }
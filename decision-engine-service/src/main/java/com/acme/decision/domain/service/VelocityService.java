@@ -0,0 +1,225 @@
+package com.acme.decision.domain.service;
+
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.condition.TextField;
+import com.acme.decision.domain.model.velocity.AmountAccumulators;
+import com.acme.decision.domain.model.velocity.DistinctCounters;
+import com.acme.decision.domain.model.velocity.VelocityCounters;
+import com.acme.decision.domain.model.velocity.VelocityPlan;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serviço de domínio que mantém, em memória, a velocidade de transações e o valor acumulado por CPF,
+ * dispositivo e IP, e a quantidade aproximada de CPFs distintos por dispositivo e IP, consultados pelas
+ * condições {@code velocity}, {@code amount_sum} e {@code distinct_count}.
+ * <p>
+ * Cada transação calculada é registrada antes da avaliação das regras, de forma que a contagem inclui a
+ * transação atual. Só são atualizados os contadores lidos pelas regras ativas e pelo candidato da avaliação
+ * sombra ({@link VelocityPlan}): sem regras desses tipos, o registro não faz nada. Um contador passa a ser
+ * atualizado quando a primeira regra que o lê é publicada, e só a partir daí acumula transações. O estado é
+ * local à instância do serviço.
+ */
+@Service
+@Slf4j
+public class VelocityService {
+
+    @Value("${decision-engine.velocity.enabled:true}")
+    private boolean enabled;
+
+    @Value("${decision-engine.velocity.bucket-seconds:60}")
+    private int bucketSeconds;
+
+    @Value("${decision-engine.velocity.bucket-count:60}")
+    private int bucketCount;
+
+    @Value("${decision-engine.velocity.amount-bucket-seconds:3600}")
+    private int amountBucketSeconds;
+
+    @Value("${decision-engine.velocity.amount-bucket-count:24}")
+    private int amountBucketCount;
+
+    @Value("${decision-engine.velocity.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${decision-engine.velocity.distinct-precision:8}")
+    private int distinctPrecision;
+
+    @Value("${decision-engine.velocity.distinct-bucket-seconds:600}")
+    private int distinctBucketSeconds;
+
+    @Value("${decision-engine.velocity.distinct-bucket-count:6}")
+    private int distinctBucketCount;
+
+    @Value("${decision-engine.velocity.distinct-max-keys:20000}")
+    private int distinctMaxKeys;
+
+    private final Map<TextField, VelocityCounters> counters = new EnumMap<>(TextField.class);
+    private final Map<TextField, AmountAccumulators> accumulators = new EnumMap<>(TextField.class);
+    private final Map<TextField, DistinctCounters> distinctCpfs = new EnumMap<>(TextField.class);
+
+    private VelocityPlan activePlan = VelocityPlan.EMPTY;
+    private VelocityPlan shadowPlan = VelocityPlan.EMPTY;
+    private volatile VelocityPlan plan = VelocityPlan.EMPTY;
+
+    @PostConstruct
+    public void init() {
+        long bucketMillis = TimeUnit.SECONDS.toMillis(bucketSeconds);
+        long amountBucketMillis = TimeUnit.SECONDS.toMillis(amountBucketSeconds);
+        for (TextField field : new TextField[]{TextField.CPF, TextField.DEVICE_ID, TextField.IP}) {
+            counters.put(field, new VelocityCounters(field.getFieldName(), bucketMillis, bucketCount, maxKeys));
+            accumulators.put(field, new AmountAccumulators(
+                    field.getFieldName(), amountBucketMillis, amountBucketCount, maxKeys));
+        }
+        log.info("Contadores de velocidade {}: contagem em baldes de {}s (janela máxima de {}s), "
+                        + "valor acumulado em baldes de {}s (janela máxima de {}s), até {} chaves por campo",
+                enabled ? "habilitados" : "desabilitados",
+                bucketSeconds, (long) bucketSeconds * bucketCount,
+                amountBucketSeconds, (long) amountBucketSeconds * amountBucketCount, maxKeys);
+
+        if (distinctPrecision < 4 || distinctPrecision > 16) {
+            throw new IllegalStateException("decision-engine.velocity.distinct-precision deve estar entre 4 e 16");
+        }
+        long distinctBucketMillis = TimeUnit.SECONDS.toMillis(distinctBucketSeconds);
+        for (TextField field : new TextField[]{TextField.DEVICE_ID, TextField.IP}) {
+            distinctCpfs.put(field, new DistinctCounters(field.getFieldName(), distinctBucketMillis,
+                    distinctBucketCount, distinctPrecision, distinctMaxKeys));
+        }
+        log.info("CPFs distintos por dispositivo e IP: precisão {} (erro padrão de {}%), baldes de {}s "
+                        + "(janela máxima de {}s), até {} chaves por campo",
+                distinctPrecision, String.format("%.2f", 104 / Math.sqrt(1 << distinctPrecision)),
+                distinctBucketSeconds, (long) distinctBucketSeconds * distinctBucketCount, distinctMaxKeys);
+    }
+
+    /**
+     * Registra a transação nos contadores lidos pelas regras ativas e pelo candidato da avaliação sombra.
+     *
+     * @param calculationData dados da transação
+     */
+    public void record(ScoreCalculationData calculationData) {
+        VelocityPlan current = plan;
+        if (!enabled || current.isEmpty()) {
+            return;
+        }
+        current.record(calculationData, System.currentTimeMillis());
+    }
+
+    /**
+     * Passa a registrar os contadores lidos pelas regras ativas publicadas.
+     *
+     * @param activeRules regras ativas
+     */
+    public synchronized void useActiveRules(List<CompiledRule> activeRules) {
+        activePlan = VelocityPlan.of(activeRules);
+        updatePlan();
+    }
+
+    /**
+     * Passa a registrar também os contadores lidos pelo candidato da avaliação sombra.
+     *
+     * @param candidateRules regras do candidato, ou lista vazia com a avaliação sombra desativada
+     */
+    public synchronized void useShadowRules(List<CompiledRule> candidateRules) {
+        shadowPlan = VelocityPlan.of(candidateRules);
+        updatePlan();
+    }
+
+    private void updatePlan() {
+        plan = activePlan.union(shadowPlan);
+        log.debug("Contadores de velocidade registrados: {}", plan);
+    }
+
+    /**
+     * Retorna os contadores do campo.
+     *
+     * @param field campo da chave
+     * @return contadores do campo
+     * @throws IllegalArgumentException se o campo não tiver contadores de velocidade
+     */
+    public VelocityCounters countersFor(TextField field) {
+        VelocityCounters fieldCounters = counters.get(field);
+        if (fieldCounters == null) {
+            throw new IllegalArgumentException("Campo sem contador de velocidade: " + field.getFieldName());
+        }
+        return fieldCounters;
+    }
+
+    /**
+     * Retorna as somas de valor do campo.
+     *
+     * @param field campo da chave
+     * @return somas de valor do campo
+     * @throws IllegalArgumentException se o campo não tiver soma de valor
+     */
+    public AmountAccumulators accumulatorsFor(TextField field) {
+        AmountAccumulators fieldAccumulators = accumulators.get(field);
+        if (fieldAccumulators == null) {
+            throw new IllegalArgumentException("Campo sem soma de valor: " + field.getFieldName());
+        }
+        return fieldAccumulators;
+    }
+
+    /**
+     * Retorna a contagem de CPFs distintos do campo.
+     *
+     * @param field campo da chave
+     * @return contagem de CPFs distintos do campo
+     * @throws IllegalArgumentException se o campo não tiver contagem de CPFs distintos
+     */
+    public DistinctCounters distinctCpfsFor(TextField field) {
+        DistinctCounters fieldCounters = distinctCpfs.get(field);
+        if (fieldCounters == null) {
+            throw new IllegalArgumentException("Campo sem contagem de CPFs distintos: " + field.getFieldName());
+        }
+        return fieldCounters;
+    }
+
+    /**
+     * Converte a duração da janela de uma condição {@code velocity} em baldes, arredondando para cima.
+     *
+     * @param windowSeconds duração da janela em segundos
+     * @return quantidade de baldes
+     * @throws IllegalArgumentException se a janela não for positiva ou exceder o alcance dos contadores
+     */
+    public int windowBuckets(long windowSeconds) {
+        return toBuckets(windowSeconds, bucketSeconds, bucketCount);
+    }
+
+    /**
+     * Converte a duração da janela de uma condição {@code amount_sum} em baldes, arredondando para cima.
+     *
+     * @param windowSeconds duração da janela em segundos
+     * @return quantidade de baldes
+     * @throws IllegalArgumentException se a janela não for positiva ou exceder o alcance das somas
+     */
+    public int amountWindowBuckets(long windowSeconds) {
+        return toBuckets(windowSeconds, amountBucketSeconds, amountBucketCount);
+    }
+
+    /**
+     * Converte a duração da janela de uma condição {@code distinct_count} em baldes, arredondando para cima.
+     *
+     * @param windowSeconds duração da janela em segundos
+     * @return quantidade de baldes
+     * @throws IllegalArgumentException se a janela não for positiva ou exceder o alcance dos sketches
+     */
+    public int distinctWindowBuckets(long windowSeconds) {
+        return toBuckets(windowSeconds, distinctBucketSeconds, distinctBucketCount);
+    }
+
+    private static int toBuckets(long windowSeconds, int bucketSeconds, int bucketCount) {
+        long maxWindowSeconds = (long) bucketSeconds * bucketCount;
+        if (windowSeconds <= 0 || windowSeconds > maxWindowSeconds) {
+            throw new IllegalArgumentException("Janela deve estar entre 1 e " + maxWindowSeconds + " segundos");
+        }
+        return (int) ((windowSeconds + bucketSeconds - 1) / bucketSeconds);
+    }
+}
@@ -0,0 +1,17 @@
+package com.acme.decision.domain.service.compiler;
+
+/**
+ * Modo de avaliação das regras que não são resolvidas pela tabela de decisão.
+ */
+public enum EvaluationMode {
+
+    /**
+     * Avaliação regra a regra pelo motor de regras.
+     */
+    INTERPRETED,
+
+    /**
+     * Avaliação por uma classe gerada em bytecode para cada conjunto de regras.
+     */
+    GENERATED
+}
@@ -0,0 +1,206 @@
+package com.acme.decision.domain.service.compiler;
+
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.ScoreFunction;
+import com.acme.decision.domain.model.condition.Condition;
+import com.acme.decision.domain.model.index.ValueRangeIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+
+/**
+ * Gera, para cada conjunto de regras, uma classe oculta que implementa {@link ScoreFunction}.
+ * <p>
+ * A classe gerada guarda cada condição em um campo final próprio e avalia as regras em
+ * sequência, com os pontos como constantes. Cada chamada a {@link Condition#matches} fica em
+ * um ponto de chamada distinto e monomórfico, o que permite ao JIT fazer inlining da avaliação
+ * inteira em vez de despachar por um laço polimórfico. As regras são divididas em métodos de
+ * tamanho limitado para que continuem elegíveis à compilação pelo JIT.
+ * <p>
+ * Cada chamada fica em um bloco {@code try} próprio: como na avaliação interpretada, a regra cuja condição
+ * lança uma exceção é registrada em log e não soma pontos, sem afetar as demais.
+ */
+@Component
+@Slf4j
+public class ScoreFunctionGenerator {
+
+    // Mantém cada método gerado abaixo do limite de métodos enormes do JIT (8000 bytes): cerca de 30 bytes por regra
+    private static final int RULES_PER_METHOD = 128;
+
+    private static final String CLASS_NAME =
+            Type.getInternalName(ScoreFunctionGenerator.class).replace("ScoreFunctionGenerator", "GeneratedScoreFunction");
+
+    private static final String SCORE_FUNCTION = Type.getInternalName(ScoreFunction.class);
+    private static final String CONDITION = Type.getInternalName(Condition.class);
+    private static final String CONDITION_DESC = Type.getDescriptor(Condition.class);
+    private static final String INDEX = Type.getInternalName(ValueRangeIndex.class);
+    private static final String INDEX_DESC = Type.getDescriptor(ValueRangeIndex.class);
+    private static final String DATA = Type.getInternalName(ScoreCalculationData.class);
+    private static final String DATA_DESC = Type.getDescriptor(ScoreCalculationData.class);
+
+    private static final String CONSTRUCTOR_DESC =
+            "(" + INDEX_DESC + Type.getDescriptor(Condition[].class) + ")V";
+    private static final String SCORE_DESC = "(" + DATA_DESC + ")I";
+    private static final String GENERATOR = Type.getInternalName(ScoreFunctionGenerator.class);
+    private static final String RULE_FAILED_DESC = "(Ljava/lang/RuntimeException;Ljava/lang/String;)V";
+
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    /**
+     * Gera a função de score para um conjunto de regras.
+     *
+     * @param valueRangeIndex índice das regras de faixa de valor
+     * @param sequentialRules demais regras, avaliadas em sequência
+     * @return função de score gerada
+     */
+    public ScoreFunction generate(ValueRangeIndex valueRangeIndex, List<CompiledRule> sequentialRules) {
+        byte[] bytecode = generateBytecode(sequentialRules);
+
+        try {
+            Class<?> generatedClass = lookup.defineHiddenClass(bytecode, true).lookupClass();
+            MethodHandle constructor = lookup.findConstructor(generatedClass,
+                    MethodType.methodType(void.class, ValueRangeIndex.class, Condition[].class));
+
+            Condition[] conditions = sequentialRules.stream()
+                    .map(CompiledRule::getCondition)
+                    .toArray(Condition[]::new);
+
+            return (ScoreFunction) constructor.invoke(valueRangeIndex, conditions);
+
+        } catch (Throwable e) {
+            throw new IllegalStateException("Falha ao gerar função de score", e);
+        }
+    }
+
+    private byte[] generateBytecode(List<CompiledRule> rules) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        cw.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, CLASS_NAME, null,
+                "java/lang/Object", new String[]{SCORE_FUNCTION});
+
+        cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "ranges", INDEX_DESC, null, null).visitEnd();
+        for (int i = 0; i < rules.size(); i++) {
+            cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "c" + i, CONDITION_DESC, null, null).visitEnd();
+        }
+
+        generateConstructor(cw, rules.size());
+
+        int chunks = (rules.size() + RULES_PER_METHOD - 1) / RULES_PER_METHOD;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int from = chunk * RULES_PER_METHOD;
+            int to = Math.min(rules.size(), from + RULES_PER_METHOD);
+            generateChunk(cw, chunk, rules, from, to);
+        }
+
+        generateRawScore(cw, chunks);
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private void generateConstructor(ClassWriter cw, int conditionCount) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", CONSTRUCTOR_DESC, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitFieldInsn(Opcodes.PUTFIELD, CLASS_NAME, "ranges", INDEX_DESC);
+
+        for (int i = 0; i < conditionCount; i++) {
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitVarInsn(Opcodes.ALOAD, 2);
+            mv.visitLdcInsn(i);
+            mv.visitInsn(Opcodes.AALOAD);
+            mv.visitFieldInsn(Opcodes.PUTFIELD, CLASS_NAME, "c" + i, CONDITION_DESC);
+        }
+
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Gera {@code private int chunkN(data)}: soma os pontos das regras [from, to) que se aplicam.
+     */
+    private void generateChunk(ClassWriter cw, int chunk, List<CompiledRule> rules, int from, int to) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PRIVATE, "chunk" + chunk, SCORE_DESC, null, null);
+        mv.visitCode();
+        mv.visitInsn(Opcodes.ICONST_0);
+        mv.visitVarInsn(Opcodes.ISTORE, 2);
+
+        for (int i = from; i < to; i++) {
+            Label start = new Label();
+            Label end = new Label();
+            Label handler = new Label();
+            Label skip = new Label();
+            mv.visitTryCatchBlock(start, end, handler, "java/lang/RuntimeException");
+            mv.visitLabel(start);
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitFieldInsn(Opcodes.GETFIELD, CLASS_NAME, "c" + i, CONDITION_DESC);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, CONDITION, "matches", "(" + DATA_DESC + ")Z", true);
+            mv.visitLabel(end);
+            mv.visitJumpInsn(Opcodes.IFEQ, skip);
+            mv.visitVarInsn(Opcodes.ILOAD, 2);
+            mv.visitLdcInsn(rules.get(i).getPoints());
+            mv.visitInsn(Opcodes.IADD);
+            mv.visitVarInsn(Opcodes.ISTORE, 2);
+            mv.visitJumpInsn(Opcodes.GOTO, skip);
+            // Exceção na pilha: registra com o nome da regra e segue para a próxima
+            mv.visitLabel(handler);
+            mv.visitLdcInsn(String.valueOf(rules.get(i).getName()));
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, GENERATOR, "ruleFailed", RULE_FAILED_DESC, false);
+            mv.visitLabel(skip);
+        }
+
+        mv.visitVarInsn(Opcodes.ILOAD, 2);
+        mv.visitInsn(Opcodes.IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Chamado pelas funções geradas quando a condição de uma regra lança uma exceção.
+     *
+     * @param error exceção da avaliação
+     * @param ruleName nome da regra
+     */
+    public static void ruleFailed(RuntimeException error, String ruleName) {
+        log.error("Erro ao avaliar regra '{}': {}", ruleName, error.getMessage());
+    }
+
+    /**
+     * Gera {@code rawScore(data)}: pontos das faixas de valor somados aos de cada bloco de regras.
+     */
+    private void generateRawScore(ClassWriter cw, int chunks) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "rawScore", SCORE_DESC, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, CLASS_NAME, "ranges", INDEX_DESC);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, DATA, "getTxValueCents", "()J", false);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, INDEX, "pointsFor", "(J)I", false);
+
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitMethodInsn(Opcodes.INVOKESPECIAL, CLASS_NAME, "chunk" + chunk, SCORE_DESC, false);
+            mv.visitInsn(Opcodes.IADD);
+        }
+
+        mv.visitInsn(Opcodes.IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+}
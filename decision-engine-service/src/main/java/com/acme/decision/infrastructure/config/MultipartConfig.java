@@ -0,0 +1,29 @@
+package com.acme.decision.infrastructure.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuração de upload multipart. O único endpoint multipart é o backtest de regras, cujo arquivo de
+ * transações é maior que o limite padrão do Spring; o limite é o de {@code decision-engine.backtest.max-upload-size},
+ * e não ilimitado. O arquivo é gravado em disco pelo container e lido em fluxo pelo backtest, de forma que o
+ * limite não se traduz em memória.
+ */
+@Configuration
+@EnableConfigurationProperties(MultipartProperties.class)
+public class MultipartConfig {
+
+    @Bean
+    public MultipartConfigElement multipartConfigElement(
+            MultipartProperties multipartProperties,
+            @Value("${decision-engine.backtest.max-upload-size:4GB}") DataSize maxUploadSize) {
+        multipartProperties.setMaxFileSize(maxUploadSize);
+        multipartProperties.setMaxRequestSize(maxUploadSize);
+        return multipartProperties.createMultipartConfig();
+    }
+}
@@ -1,14 +1,42 @@
 package com.acme.decision.infrastructure.controller;
 
 import com.acme.decision.application.port.DecisionEnginePort;
+import com.acme.decision.common.dto.FiredRuleResponse;
 import com.acme.decision.common.dto.ScoreCalculationRequest;
 import com.acme.decision.common.dto.ScoreCalculationResponse;
+import com.acme.decision.common.dto.ScoreExplanationResponse;
 import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.ScoreResult;
+import com.acme.decision.domain.model.explain.FiredRule;
+import com.acme.decision.domain.model.explain.ScoreExplanation;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
 /**
  * Adaptador de entrada (Driving Adapter) para cálculo de score via REST.
  * Converte requisições HTTP em chamadas para a porta de entrada DecisionEnginePort.
@@ -21,34 +49,161 @@ import org.springframework.web.bind.annotation.*;
 public class DecisionEngineController {
 
     private final DecisionEnginePort decisionEnginePort;
+    private final ObjectMapper objectMapper;
+
+    @Value("${decision-engine.batch.max-size:10000}")
+    private int batchMaxSize;
 
     @PostMapping("/calculate-score")
     public ResponseEntity<ScoreCalculationResponse> calculateScore(@RequestBody ScoreCalculationRequest request) {
         log.info("Recebida requisição de cálculo de score: {}", request);
         
         try {
-            // Converter DTO para modelo de domínio
-            ScoreCalculationData calculationData = new ScoreCalculationData(
-                    request.getCpf(),
-                    request.getIp(),
-                    request.getDeviceId(),
-                    request.getTxType(),
-                    request.getTxValue(),
-                    request.isCpfInPermissiveList(),
-                    request.isCpfInRestrictiveList(),
-                    request.isIpInRestrictiveList(),
-                    request.isDeviceIdInRestrictiveList()
-            );
+            // Converter DTO para modelo de domínio (valor em centavos, convertido uma única vez)
+            ScoreCalculationData calculationData = ScoreRequestMapper.toCalculationData(request);
 
             // Chamar a porta de entrada
-            int score = decisionEnginePort.calculateScore(calculationData);
+            ScoreResult result = decisionEnginePort.calculateScore(calculationData);
             
-            return ResponseEntity.ok(new ScoreCalculationResponse(score));
+            return ResponseEntity.ok(toResponse(result));
             
+        } catch (IllegalArgumentException e) {
+            log.warn("Requisição de cálculo de score inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ScoreCalculationResponse(ScoreResult.FALLBACK_SCORE, null, false, null)); // Score alto para negar por segurança
         } catch (Exception e) {
             log.error("Erro ao calcular score", e);
             return ResponseEntity.internalServerError()
-                    .body(new ScoreCalculationResponse(500)); // Score alto para negar por segurança
+                    .body(new ScoreCalculationResponse(ScoreResult.FALLBACK_SCORE, null, false, null)); // Score alto para negar por segurança
+        }
+    }
+
+    /**
+     * Lote em array JSON. Os itens são lidos um a um do corpo, e o limite de itens é aplicado durante a
+     * leitura. Um item com campos inválidos recebe o score padrão de erro sem afetar os demais; um corpo
+     * que não é JSON bem formado não permite separar os itens e rejeita o lote inteiro.
+     */
+    @PostMapping(value = "/calculate-score/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public void calculateScoreBatch(InputStream body, HttpServletResponse response) throws IOException {
+        log.info("Recebida requisição de cálculo de score em lote");
+
+        List<ScoreCalculationData> batch = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                log.warn("Lote JSON deve ser um array");
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                return;
+            }
+
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new JsonParseException(parser, "Array do lote incompleto");
+                }
+                if (batch.size() == batchMaxSize) {
+                    log.warn("Lote JSON excede o limite de {} itens", batchMaxSize);
+                    response.setStatus(HttpStatus.BAD_REQUEST.value());
+                    return;
+                }
+                batch.add(parseJsonItem(parser.readValueAsTree()));
+            }
+
+        } catch (JsonProcessingException e) {
+            log.warn("Lote JSON malformado: {}", e.getOriginalMessage());
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+
+        writeResults(batch, response, MediaType.APPLICATION_JSON, false);
+    }
+
+    /**
+     * Lote NDJSON, uma requisição por linha. Linhas inválidas recebem o score padrão de erro.
+     */
+    @PostMapping(value = "/calculate-score/batch",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void calculateScoreBatchNdjson(InputStream body, HttpServletResponse response) throws IOException {
+        log.info("Recebida requisição de cálculo de score em lote (NDJSON)");
+
+        List<ScoreCalculationData> batch = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (batch.size() == batchMaxSize) {
+                log.warn("Lote NDJSON excede o limite de {} itens", batchMaxSize);
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                return;
+            }
+            batch.add(parseNdjsonLine(line));
+        }
+
+        writeResults(batch, response, MediaType.APPLICATION_NDJSON, true);
+    }
+
+    /**
+     * Calcula os scores do lote e escreve as respostas direto na saída, uma a uma, sem montar o corpo
+     * inteiro em memória.
+     */
+    private void writeResults(List<ScoreCalculationData> batch, HttpServletResponse response,
+                              MediaType contentType, boolean ndjson) throws IOException {
+        ScoreResult[] results;
+        try {
+            results = decisionEnginePort.calculateScores(batch);
+        } catch (Exception e) {
+            log.error("Erro ao calcular score em lote", e);
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            return;
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(contentType.toString());
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            if (ndjson) {
+                // Separação apenas pela quebra de linha, sem o espaço padrão entre valores raiz
+                generator.setRootValueSeparator(null);
+                for (ScoreResult result : results) {
+                    generator.writeObject(toResponse(result));
+                    generator.writeRaw('\n');
+                }
+            } else {
+                generator.writeStartArray();
+                for (ScoreResult result : results) {
+                    generator.writeObject(toResponse(result));
+                }
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    /**
+     * Decodifica a máscara de regras aplicadas ({@code firedRules}) retornada por um cálculo com explicação.
+     */
+    @GetMapping("/explain")
+    public ResponseEntity<ScoreExplanationResponse> explain(@RequestParam long ruleSetVersion,
+                                                            @RequestParam String txType,
+                                                            @RequestParam(defaultValue = "") String firedRules) {
+        log.info("Recebida requisição de explicação de score: versão {}, tipo {}", ruleSetVersion, txType);
+
+        try {
+            BitSet fired = BitSet.valueOf(Base64.getUrlDecoder().decode(firedRules));
+            Optional<ScoreExplanation> explanation = decisionEnginePort.explain(ruleSetVersion, txType, fired);
+
+            return explanation.map(this::toExplanationResponse)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Requisição de explicação de score inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Erro ao explicar score", e);
+            return ResponseEntity.internalServerError().build();
         }
     }
 
@@ -56,5 +211,73 @@ public class DecisionEngineController {
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Decision Engine Service is running");
     }
-}
 
+    private ScoreCalculationResponse toResponse(ScoreResult result) {
+        String firedRules = result.getFiredRules() != null
+                ? Base64.getUrlEncoder().withoutPadding().encodeToString(result.getFiredRules().toByteArray())
+                : null;
+        return new ScoreCalculationResponse(result.getScore(), result.getRuleSetVersion(),
+                result.isShortCircuited(), firedRules);
+    }
+
+    private ScoreExplanationResponse toExplanationResponse(ScoreExplanation explanation) {
+        ScoreExplanationResponse response = new ScoreExplanationResponse();
+        response.setRuleSetVersion(explanation.getRuleSetVersion());
+        response.setTxType(explanation.getTxType());
+        response.setRawScore(explanation.getRawScore());
+        response.setScore(explanation.getScore());
+        response.setRules(explanation.getRules().stream()
+                .map(this::toFiredRuleResponse)
+                .collect(Collectors.toList()));
+        return response;
+    }
+
+    private FiredRuleResponse toFiredRuleResponse(FiredRule rule) {
+        FiredRuleResponse response = new FiredRuleResponse();
+        response.setPosition(rule.getPosition());
+        response.setRuleId(rule.getRuleId());
+        response.setRuleName(rule.getRuleName());
+        response.setPoints(rule.getPoints());
+        return response;
+    }
+
+    /**
+     * Converte um item do array JSON em dados de cálculo; itens inválidos resultam em item nulo.
+     */
+    private ScoreCalculationData parseJsonItem(TreeNode item) {
+        try {
+            return toBatchItem(objectMapper.treeToValue(item, ScoreCalculationRequest.class));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Item de lote inválido: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Converte uma linha NDJSON em dados de cálculo; linhas inválidas resultam em item nulo.
+     */
+    private ScoreCalculationData parseNdjsonLine(String line) {
+        try {
+            return toBatchItem(objectMapper.readValue(line, ScoreCalculationRequest.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Linha NDJSON inválida no lote: {}", e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Converte o DTO de um item de lote; itens inválidos resultam em nulo e recebem o score padrão de erro.
+     */
+    private ScoreCalculationData toBatchItem(ScoreCalculationRequest request) {
+        if (request == null) {
+            return null;
+        }
+
+        try {
+            return ScoreRequestMapper.toCalculationData(request);
+        } catch (IllegalArgumentException e) {
+            log.warn("Item de lote inválido: {}", e.getMessage());
+            return null;
+        }
+    }
+}
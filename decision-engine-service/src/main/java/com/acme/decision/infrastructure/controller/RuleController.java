@@ -1,16 +1,46 @@
 package com.acme.decision.infrastructure.controller;
 
 import com.acme.decision.application.port.DecisionEnginePort;
+import com.acme.decision.common.dto.BacktestResponse;
+import com.acme.decision.common.dto.EvaluationMetricsResponse;
+import com.acme.decision.common.dto.ModelInfoResponse;
+import com.acme.decision.common.dto.RuleCacheStatsResponse;
+import com.acme.decision.common.dto.RuleFireCountResponse;
+import com.acme.decision.common.dto.RuleMetricsResponse;
 import com.acme.decision.common.dto.RuleRequest;
 import com.acme.decision.common.dto.RuleResponse;
+import com.acme.decision.common.dto.ScoreBucketResponse;
+import com.acme.decision.common.dto.ScoreCalculationRequest;
+import com.acme.decision.common.dto.ShadowStatsResponse;
+import com.acme.decision.common.dto.TxTypeMetricsResponse;
 import com.acme.decision.domain.model.Rule;
+import com.acme.decision.domain.model.RuleCacheStats;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.backtest.BacktestReport;
+import com.acme.decision.domain.model.backtest.RuleFireCount;
+import com.acme.decision.domain.model.backtest.ScoreBucket;
+import com.acme.decision.domain.model.metrics.EvaluationMetrics;
+import com.acme.decision.domain.model.shadow.ShadowStats;
+import com.acme.decision.domain.model.metrics.LatencySummary;
+import com.acme.decision.domain.model.metrics.RuleMetrics;
+import com.acme.decision.domain.model.metrics.TxTypeMetrics;
+import com.acme.decision.domain.model.scoring.ModelInfo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -27,6 +57,7 @@ import java.util.stream.Collectors;
 public class RuleController {
 
     private final DecisionEnginePort decisionEnginePort;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<RuleResponse> createRule(@Valid @RequestBody RuleRequest request) {
@@ -52,6 +83,9 @@ public class RuleController {
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
+        } catch (IllegalArgumentException e) {
+            log.warn("Regra inválida para criação: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Erro ao criar regra", e);
             return ResponseEntity.internalServerError().build();
@@ -123,6 +157,9 @@ public class RuleController {
                 return ResponseEntity.notFound().build();
             }
             
+        } catch (IllegalArgumentException e) {
+            log.warn("Regra inválida para atualização: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Erro ao atualizar regra", e);
             return ResponseEntity.internalServerError().build();
@@ -148,6 +185,316 @@ public class RuleController {
         }
     }
 
+    @GetMapping("/cache/stats")
+    public ResponseEntity<RuleCacheStatsResponse> getRuleCacheStats() {
+        log.info("Recebida requisição de estatísticas do cache de regras");
+        
+        try {
+            RuleCacheStats stats = decisionEnginePort.getRuleCacheStats();
+            
+            RuleCacheStatsResponse response = new RuleCacheStatsResponse();
+            response.setHits(stats.getHits());
+            response.setMisses(stats.getMisses());
+            response.setPublishes(stats.getPublishes());
+            response.setFullRebuilds(stats.getFullRebuilds());
+            response.setVersion(stats.getVersion());
+            response.setTxTypes(stats.getTxTypes());
+            response.setActiveRules(stats.getActiveRules());
+            response.setLastPublish(stats.getLastPublish());
+            response.setRefreshFailures(stats.getRefreshFailures());
+            response.setLastRefreshFailure(stats.getLastRefreshFailure());
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            log.error("Erro ao obter estatísticas do cache de regras", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<EvaluationMetricsResponse> getEvaluationMetrics() {
+        log.info("Recebida requisição de métricas de avaliação de regras");
+        
+        try {
+            EvaluationMetrics metrics = decisionEnginePort.getEvaluationMetrics();
+            
+            EvaluationMetricsResponse response = new EvaluationMetricsResponse();
+            response.setSince(metrics.getSince());
+            response.setSampleRate(metrics.getSampleRate());
+            response.setTxTypes(metrics.getTxTypes().stream()
+                    .map(this::toResponse)
+                    .collect(Collectors.toList()));
+            response.setRules(metrics.getRules().stream()
+                    .map(this::toResponse)
+                    .collect(Collectors.toList()));
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            log.error("Erro ao obter métricas de avaliação de regras", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @DeleteMapping("/metrics")
+    public ResponseEntity<Void> resetEvaluationMetrics() {
+        log.info("Recebida requisição de reset das métricas de avaliação de regras");
+        
+        try {
+            decisionEnginePort.resetEvaluationMetrics();
+            return ResponseEntity.noContent().build();
+            
+        } catch (Exception e) {
+            log.error("Erro ao zerar métricas de avaliação de regras", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @PostMapping(value = "/backtest", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BacktestResponse> backtest(
+            @RequestPart("candidateRules") List<RuleRequest> candidateRules,
+            @RequestPart("transactions") MultipartFile transactions,
+            @RequestParam(value = "threshold", required = false) Integer threshold) {
+        log.info("Recebida requisição de backtest: {} regras candidatas, arquivo de {} bytes",
+                candidateRules.size(), transactions.getSize());
+        
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(transactions.getInputStream(), StandardCharsets.UTF_8))) {
+            BacktestReport report = decisionEnginePort.backtest(
+                    toCandidateRules(candidateRules), reader.lines().iterator(), this::parseTransaction, threshold);
+            
+            return ResponseEntity.ok(toResponse(report));
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Conjunto candidato inválido para backtest: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Erro ao ler arquivo de transações do backtest", e);
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Erro ao executar backtest", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @PutMapping("/shadow")
+    public ResponseEntity<ShadowStatsResponse> startShadow(@RequestBody List<RuleRequest> candidateRules) {
+        log.info("Recebida requisição de avaliação sombra: {} regras candidatas", candidateRules.size());
+        
+        try {
+            ShadowStats stats = decisionEnginePort.startShadow(toCandidateRules(candidateRules));
+            return ResponseEntity.ok(toResponse(stats));
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Conjunto candidato inválido para avaliação sombra: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Erro ao ativar avaliação sombra", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/shadow")
+    public ResponseEntity<ShadowStatsResponse> getShadowStats() {
+        log.info("Recebida requisição de estatísticas da avaliação sombra");
+        
+        try {
+            return ResponseEntity.ok(toResponse(decisionEnginePort.getShadowStats()));
+            
+        } catch (Exception e) {
+            log.error("Erro ao obter estatísticas da avaliação sombra", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @DeleteMapping("/shadow")
+    public ResponseEntity<Void> stopShadow() {
+        log.info("Recebida requisição de desativação da avaliação sombra");
+        
+        try {
+            decisionEnginePort.stopShadow();
+            return ResponseEntity.noContent().build();
+            
+        } catch (Exception e) {
+            log.error("Erro ao desativar avaliação sombra", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/models")
+    public ResponseEntity<List<ModelInfoResponse>> getModels() {
+        log.info("Recebida requisição de listagem de modelos de score");
+        
+        try {
+            return ResponseEntity.ok(decisionEnginePort.getModels().stream()
+                    .map(this::toResponse)
+                    .collect(Collectors.toList()));
+            
+        } catch (Exception e) {
+            log.error("Erro ao listar modelos de score", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @PostMapping("/models/{name}/reload")
+    public ResponseEntity<ModelInfoResponse> reloadModel(@PathVariable String name) {
+        log.info("Recebida requisição de recarga do modelo de score: {}", name);
+        
+        try {
+            return ResponseEntity.ok(toResponse(decisionEnginePort.reloadModel(name)));
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("Recarga do modelo {} rejeitada: {}", name, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Erro ao recarregar modelo de score", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Converte o conjunto candidato para o modelo de domínio; as regras ainda não têm ID.
+     */
+    private List<Rule> toCandidateRules(List<RuleRequest> candidateRules) {
+        return candidateRules.stream()
+                .map(request -> new Rule(
+                        null,
+                        request.getName(),
+                        request.getDescription(),
+                        request.getTxType(),
+                        request.getCondition(),
+                        request.getPoints(),
+                        request.isActive()))
+                .collect(Collectors.toList());
+    }
+
+    private ShadowStatsResponse toResponse(ShadowStats stats) {
+        ShadowStatsResponse response = new ShadowStatsResponse();
+        response.setActive(stats.isActive());
+        response.setCandidateRules(stats.getCandidateRules());
+        response.setStateReadingRuleIds(stats.getStateReadingRuleIds());
+        response.setSince(stats.getSince());
+        response.setDecisionThreshold(stats.getDecisionThreshold());
+        response.setSubmitted(stats.getSubmitted());
+        response.setDropped(stats.getDropped());
+        response.setEvaluated(stats.getEvaluated());
+        response.setErrors(stats.getErrors());
+        response.setQueueSize(stats.getQueueSize());
+        response.setQueueCapacity(stats.getQueueCapacity());
+        response.setScoreMismatches(stats.getScoreMismatches());
+        response.setApprovedToDenied(stats.getApprovedToDenied());
+        response.setDeniedToApproved(stats.getDeniedToApproved());
+        return response;
+    }
+
+    /**
+     * Converte uma linha NDJSON do backtest; linhas inválidas resultam em nulo e são contadas à parte.
+     */
+    private ScoreCalculationData parseTransaction(String line) {
+        try {
+            return ScoreRequestMapper.toCalculationData(objectMapper.readValue(line, ScoreCalculationRequest.class));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private BacktestResponse toResponse(BacktestReport report) {
+        BacktestResponse response = new BacktestResponse();
+        response.setRows(report.getRows());
+        response.setInvalidRows(report.getInvalidRows());
+        response.setElapsedMillis(report.getElapsedMillis());
+        response.setRowsPerSecond(report.getRowsPerSecond());
+        response.setDecisionThreshold(report.getDecisionThreshold());
+        response.setActiveRuleSetVersion(report.getActiveRuleSetVersion());
+        response.setActiveDenied(report.getActiveDenied());
+        response.setCandidateDenied(report.getCandidateDenied());
+        response.setApprovedToDenied(report.getApprovedToDenied());
+        response.setDeniedToApproved(report.getDeniedToApproved());
+        response.setScoreIncreased(report.getScoreIncreased());
+        response.setScoreDecreased(report.getScoreDecreased());
+        response.setScoreUnchanged(report.getScoreUnchanged());
+        response.setAverageActiveScore(report.getAverageActiveScore());
+        response.setAverageCandidateScore(report.getAverageCandidateScore());
+        response.setScoreDistribution(report.getScoreDistribution().stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList()));
+        response.setActiveRuleFires(report.getActiveRuleFires().stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList()));
+        response.setCandidateRuleFires(report.getCandidateRuleFires().stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList()));
+        return response;
+    }
+
+    private ScoreBucketResponse toResponse(ScoreBucket bucket) {
+        ScoreBucketResponse response = new ScoreBucketResponse();
+        response.setMinScore(bucket.getMinScore());
+        response.setMaxScore(bucket.getMaxScore());
+        response.setActiveCount(bucket.getActiveCount());
+        response.setCandidateCount(bucket.getCandidateCount());
+        return response;
+    }
+
+    private RuleFireCountResponse toResponse(RuleFireCount fireCount) {
+        RuleFireCountResponse response = new RuleFireCountResponse();
+        response.setRuleId(fireCount.getRuleId());
+        response.setRuleName(fireCount.getRuleName());
+        response.setTxType(fireCount.getTxType());
+        response.setFires(fireCount.getFires());
+        response.setReadsState(fireCount.isReadsState());
+        return response;
+    }
+
+    private TxTypeMetricsResponse toResponse(TxTypeMetrics metrics) {
+        LatencySummary latency = metrics.getLatency();
+        
+        TxTypeMetricsResponse response = new TxTypeMetricsResponse();
+        response.setTxType(metrics.getTxType());
+        response.setEvaluations(metrics.getEvaluations());
+        response.setErrors(metrics.getErrors());
+        response.setSampledEvaluations(latency.getCount());
+        response.setTotalNanos(latency.getTotalNanos());
+        response.setP50Nanos(latency.getP50Nanos());
+        response.setP90Nanos(latency.getP90Nanos());
+        response.setP99Nanos(latency.getP99Nanos());
+        response.setMaxNanos(latency.getMaxNanos());
+        return response;
+    }
+
+    private ModelInfoResponse toResponse(ModelInfo model) {
+        ModelInfoResponse response = new ModelInfoResponse();
+        response.setName(model.getName());
+        response.setType(model.getType());
+        response.setFeatureCount(model.getFeatureCount());
+        response.setTreeCount(model.getTreeCount());
+        response.setNodeCount(model.getNodeCount());
+        response.setVersion(model.getVersion());
+        response.setLoadedAt(model.getLoadedAt());
+        return response;
+    }
+
+    private RuleMetricsResponse toResponse(RuleMetrics metrics) {
+        LatencySummary latency = metrics.getLatency();
+        
+        RuleMetricsResponse response = new RuleMetricsResponse();
+        response.setRuleId(metrics.getRuleId());
+        response.setRuleName(metrics.getRuleName());
+        response.setTxType(metrics.getTxType());
+        response.setSampledEvaluations(metrics.getSampledEvaluations());
+        response.setSampledMatches(metrics.getSampledMatches());
+        response.setSampledErrors(metrics.getSampledErrors());
+        response.setEstimatedEvaluations(metrics.getEstimatedEvaluations());
+        response.setEstimatedMatches(metrics.getEstimatedMatches());
+        response.setTotalNanos(latency.getTotalNanos());
+        response.setP50Nanos(latency.getP50Nanos());
+        response.setP90Nanos(latency.getP90Nanos());
+        response.setP99Nanos(latency.getP99Nanos());
+        response.setMaxNanos(latency.getMaxNanos());
+        return response;
+    }
+
     /**
      * Converte modelo de domínio para DTO de resposta.
      */
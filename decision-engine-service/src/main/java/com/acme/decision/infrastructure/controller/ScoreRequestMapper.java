@@ -0,0 +1,35 @@
+package com.acme.decision.infrastructure.controller;
+
+import com.acme.decision.common.dto.ScoreCalculationRequest;
+import com.acme.decision.domain.model.Money;
+import com.acme.decision.domain.model.ScoreCalculationData;
+
+/**
+ * Conversão do DTO de cálculo de score para o modelo de domínio, compartilhada pelos adaptadores REST.
+ */
+final class ScoreRequestMapper {
+
+    private ScoreRequestMapper() {
+    }
+
+    /**
+     * Converte o DTO de requisição para o modelo de domínio (valor em centavos, convertido uma única vez).
+     *
+     * @throws IllegalArgumentException se o valor não for representável em centavos
+     */
+    static ScoreCalculationData toCalculationData(ScoreCalculationRequest request) {
+        return new ScoreCalculationData(
+                request.getCpf(),
+                request.getIp(),
+                request.getDeviceId(),
+                request.getTxType(),
+                Money.toCents(request.getTxValue()),
+                request.isCpfInPermissiveList(),
+                request.isCpfInRestrictiveList(),
+                request.isIpInRestrictiveList(),
+                request.isDeviceIdInRestrictiveList(),
+                request.getThreshold(),
+                request.isExplain()
+        );
+    }
+}
@@ -0,0 +1,26 @@
+package com.acme.decision.infrastructure.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+/**
+ * Responde {@code 413} ao upload acima de {@code decision-engine.backtest.max-upload-size}.
+ * <p>
+ * O corpo multipart é lido antes da escolha do controller, então a exceção não chega ao tratamento do
+ * {@link RuleController}. Tratada aqui, a resposta sai direto do dispatcher, sem o despacho de erro do
+ * container, que exigiria liberar na segurança as requisições de erro.
+ */
+@RestControllerAdvice
+@Slf4j
+public class UploadSizeExceptionHandler {
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Void> handleMaxUploadSize(MaxUploadSizeExceededException e) {
+        log.warn("Upload rejeitado acima de decision-engine.backtest.max-upload-size: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+    }
+}
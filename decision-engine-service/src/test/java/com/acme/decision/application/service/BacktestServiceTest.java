@@ -0,0 +1,180 @@
+package com.acme.decision.application.service;
+
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.CompiledRuleSet;
+import com.acme.decision.domain.model.Rule;
+import com.acme.decision.domain.model.RuleSnapshot;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.backtest.BacktestReport;
+import com.acme.decision.domain.model.backtest.RuleFireCount;
+import com.acme.decision.domain.model.backtest.ScoreBucket;
+import com.acme.decision.domain.service.ConditionCompiler;
+import com.acme.decision.domain.service.RuleEngine;
+import com.acme.decision.domain.service.RuleService;
+import com.acme.decision.domain.service.compiler.EvaluationMode;
+import com.acme.decision.support.SampleRules;
+import com.acme.decision.support.TestServices;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * O backtest em blocos, avaliados em tarefas fork-join com totais combinados ao final, produz o mesmo
+ * relatório que reprocessar as linhas uma a uma, em sequência, com o cálculo normal de score e a
+ * avaliação direta da condição de cada regra.
+ */
+class BacktestServiceTest {
+
+    private static final int THRESHOLD = 699;
+
+    @Test
+    void forkJoinReplayMatchesSequentialReplay() {
+        ConditionCompiler conditionCompiler = TestServices.conditionCompiler(TestServices.velocityService());
+        RuleEngine ruleEngine = TestServices.ruleEngine(conditionCompiler, EvaluationMode.GENERATED, true, false);
+        CandidateSnapshotCompiler compiler = new CandidateSnapshotCompiler(ruleEngine, new RuleService(conditionCompiler));
+        Random random = new Random(3);
+
+        List<Rule> activeRules = new ArrayList<>(SampleRules.seed());
+        activeRules.addAll(withTxType(SampleRules.mixed(30, random), "PIX"));
+        List<Rule> candidateRules = new ArrayList<>(SampleRules.mixed(40, random));
+        candidateRules.addAll(withTxType(SampleRules.mixed(10, random), "TED"));
+
+        RuleSnapshot active = compiler.compile(activeRules);
+        RuleSnapshot candidate = compiler.compile(candidateRules);
+        ActiveRuleCache activeRuleCache = mock(ActiveRuleCache.class);
+        when(activeRuleCache.getSnapshot()).thenReturn(Optional.of(active));
+
+        BacktestService backtestService = new BacktestService(ruleEngine, activeRuleCache, compiler);
+        ReflectionTestUtils.setField(backtestService, "chunkSize", 1_000);
+        ReflectionTestUtils.setField(backtestService, "defaultDecisionThreshold", THRESHOLD);
+
+        // Linhas: índice da transação, "x" para linha inválida ou em branco (ignorada)
+        List<ScoreCalculationData> transactions = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 10_500; i++) {
+            int kind = random.nextInt(100);
+            if (kind == 0) {
+                lines.add("x");
+            } else if (kind == 1) {
+                lines.add(" ");
+            } else {
+                lines.add(String.valueOf(transactions.size()));
+                transactions.add(SampleRules.transaction(random));
+            }
+        }
+        Function<String, ScoreCalculationData> parser =
+                line -> line.equals("x") ? null : transactions.get(Integer.parseInt(line));
+
+        BacktestReport report = backtestService.run(candidateRules, lines.iterator(), parser, null);
+        BacktestReport expected = sequentialReplay(ruleEngine, active, candidate, lines, parser);
+
+        assertThat(report.getRows()).isEqualTo(transactions.size());
+        assertThat(report).usingRecursiveComparison()
+                .ignoringFields("elapsedMillis", "rowsPerSecond")
+                .isEqualTo(expected);
+    }
+
+    private static BacktestReport sequentialReplay(RuleEngine ruleEngine, RuleSnapshot active, RuleSnapshot candidate,
+                                                   List<String> lines, Function<String, ScoreCalculationData> parser) {
+        long rows = 0;
+        long invalidRows = 0;
+        long activeDenied = 0;
+        long candidateDenied = 0;
+        long approvedToDenied = 0;
+        long deniedToApproved = 0;
+        long scoreIncreased = 0;
+        long scoreDecreased = 0;
+        long activeScoreSum = 0;
+        long candidateScoreSum = 0;
+        long[] activeHistogram = new long[BacktestAccumulator.BUCKETS];
+        long[] candidateHistogram = new long[BacktestAccumulator.BUCKETS];
+        long[] activeFires = new long[active.getActiveRules().size()];
+        long[] candidateFires = new long[candidate.getActiveRules().size()];
+
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            ScoreCalculationData data = parser.apply(line);
+            try {
+                if (data != null) {
+                    ruleEngine.validateCalculationData(data);
+                }
+            } catch (IllegalArgumentException e) {
+                data = null;
+            }
+            if (data == null) {
+                invalidRows++;
+                continue;
+            }
+
+            int activeScore = score(ruleEngine, active, data, activeFires);
+            int candidateScore = score(ruleEngine, candidate, data, candidateFires);
+            rows++;
+            activeScoreSum += activeScore;
+            candidateScoreSum += candidateScore;
+            activeHistogram[Math.min(activeScore / BacktestAccumulator.BUCKET_WIDTH, BacktestAccumulator.BUCKETS - 1)]++;
+            candidateHistogram[Math.min(candidateScore / BacktestAccumulator.BUCKET_WIDTH, BacktestAccumulator.BUCKETS - 1)]++;
+            scoreIncreased += candidateScore > activeScore ? 1 : 0;
+            scoreDecreased += candidateScore < activeScore ? 1 : 0;
+            boolean activeDeny = activeScore > THRESHOLD;
+            boolean candidateDeny = candidateScore > THRESHOLD;
+            activeDenied += activeDeny ? 1 : 0;
+            candidateDenied += candidateDeny ? 1 : 0;
+            approvedToDenied += !activeDeny && candidateDeny ? 1 : 0;
+            deniedToApproved += activeDeny && !candidateDeny ? 1 : 0;
+        }
+
+        List<ScoreBucket> distribution = new ArrayList<>();
+        for (int i = 0; i < BacktestAccumulator.BUCKETS; i++) {
+            int minScore = i * BacktestAccumulator.BUCKET_WIDTH;
+            Integer maxScore = i == BacktestAccumulator.BUCKETS - 1 ? null : minScore + BacktestAccumulator.BUCKET_WIDTH - 1;
+            distribution.add(new ScoreBucket(minScore, maxScore, activeHistogram[i], candidateHistogram[i]));
+        }
+
+        return new BacktestReport(rows, invalidRows, 0, 0, THRESHOLD, active.getVersion(),
+                activeDenied, candidateDenied, approvedToDenied, deniedToApproved,
+                scoreIncreased, scoreDecreased, rows - scoreIncreased - scoreDecreased,
+                rows > 0 ? (double) activeScoreSum / rows : 0,
+                rows > 0 ? (double) candidateScoreSum / rows : 0,
+                distribution, fireCounts(active, activeFires), fireCounts(candidate, candidateFires));
+    }
+
+    private static int score(RuleEngine ruleEngine, RuleSnapshot snapshot, ScoreCalculationData data, long[] fires) {
+        CompiledRuleSet ruleSet = snapshot.ruleSetFor(data.getTxType());
+        for (CompiledRule rule : ruleSet.getRules()) {
+            if (rule.getCondition().matches(data)) {
+                fires[snapshot.getActiveRules().indexOf(rule)]++;
+            }
+        }
+        return ruleEngine.calculateScore(data, ruleSet);
+    }
+
+    private static List<RuleFireCount> fireCounts(RuleSnapshot snapshot, long[] fires) {
+        List<RuleFireCount> counts = new ArrayList<>();
+        for (int i = 0; i < fires.length; i++) {
+            CompiledRule rule = snapshot.getActiveRules().get(i);
+            counts.add(new RuleFireCount(rule.getId(), rule.getName(), rule.getTxType(), fires[i],
+                    rule.getCondition().readsState()));
+        }
+        return counts;
+    }
+
+    private static List<Rule> withTxType(List<Rule> rules, String txType) {
+        List<Rule> result = new ArrayList<>(rules.size());
+        for (Rule rule : rules) {
+            result.add(new Rule(rule.getId() + 1_000, rule.getName(), null, txType, rule.getCondition(),
+                    rule.getPoints(), true));
+        }
+        return result;
+    }
+}
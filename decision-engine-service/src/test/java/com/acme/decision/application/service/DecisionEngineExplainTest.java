@@ -0,0 +1,165 @@
+package com.acme.decision.application.service;
+
+import com.acme.decision.application.port.RuleRepositoryPort;
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.Rule;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.ScoreResult;
+import com.acme.decision.domain.model.explain.FiredRule;
+import com.acme.decision.domain.model.explain.ScoreExplanation;
+import com.acme.decision.domain.service.ConditionCompiler;
+import com.acme.decision.domain.service.ModelRegistry;
+import com.acme.decision.domain.service.RuleEngine;
+import com.acme.decision.domain.service.RuleService;
+import com.acme.decision.domain.service.VelocityService;
+import com.acme.decision.domain.service.compiler.EvaluationMode;
+import com.acme.decision.support.SampleRules;
+import com.acme.decision.support.TestServices;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Explicação do score: a máscara retornada por um cálculo com {@code explain} decodifica, na mesma versão,
+ * exatamente as regras cujas condições se aplicam à transação, com a soma dos seus pontos; versões
+ * desconhecidas ou descartadas do histórico não são decodificadas, e máscaras maiores que o conjunto
+ * são rejeitadas.
+ */
+class DecisionEngineExplainTest {
+
+    private static final int HISTORY = 4;
+
+    private ActiveRuleCache activeRuleCache;
+    private DecisionEngineApplicationService service;
+
+    @BeforeEach
+    void setUp() {
+        VelocityService velocityService = TestServices.velocityService();
+        ConditionCompiler conditionCompiler = TestServices.conditionCompiler(velocityService);
+        RuleEngine ruleEngine = TestServices.ruleEngine(conditionCompiler, EvaluationMode.GENERATED, true, false);
+        Random random = new Random(31);
+
+        List<Rule> rules = new ArrayList<>(SampleRules.mixed(40, random));
+        for (Rule rule : SampleRules.mixed(10, random)) {
+            rules.add(new Rule(rule.getId() + 1_000, rule.getName(), null, "PIX", rule.getCondition(),
+                    rule.getPoints(), true));
+        }
+        rules.add(new Rule(2_000L, "Dispositivo bloqueado", null, "DEFAULT",
+                "{\"type\":\"compare\",\"field\":\"deviceId\",\"op\":\"in\",\"value\":[\"device-1\",\"device-2\"]}",
+                350, true));
+        RuleRepositoryPort ruleRepositoryPort = mock(RuleRepositoryPort.class);
+        when(ruleRepositoryPort.findAll()).thenReturn(rules);
+
+        activeRuleCache = new ActiveRuleCache(ruleRepositoryPort, ruleEngine, velocityService);
+        ReflectionTestUtils.setField(activeRuleCache, "snapshotHistory", HISTORY);
+        activeRuleCache.refresh();
+
+        RuleService ruleService = new RuleService(conditionCompiler);
+        service = new DecisionEngineApplicationService(ruleEngine, ruleService, ruleRepositoryPort, activeRuleCache,
+                new RuleMetricsRegistry(), null, new CandidateSnapshotCompiler(ruleEngine, ruleService),
+                mock(ShadowEvaluator.class), velocityService, new ModelRegistry());
+        ReflectionTestUtils.setField(service, "batchParallelThreshold", 256);
+    }
+
+    @Test
+    void explanationListsExactlyTheRulesThatMatched() {
+        Random random = new Random(32);
+
+        for (int i = 0; i < 500; i++) {
+            ScoreCalculationData data = explained(SampleRules.transaction(random), random);
+            ScoreResult result = service.calculateScore(data);
+            assertThat(result.getFiredRules()).isNotNull();
+
+            List<CompiledRule> rules = activeRuleCache.getSnapshot(result.getRuleSetVersion()).orElseThrow()
+                    .ruleSetFor(data.getTxType()).getRules();
+            List<FiredRule> expected = new ArrayList<>();
+            int rawScore = 0;
+            for (int position = 0; position < rules.size(); position++) {
+                CompiledRule rule = rules.get(position);
+                if (rule.getCondition().matches(data)) {
+                    expected.add(new FiredRule(position, rule.getId(), rule.getName(), rule.getPoints()));
+                    rawScore += rule.getPoints();
+                }
+            }
+
+            ScoreExplanation explanation = service.explain(result.getRuleSetVersion(), data.getTxType(),
+                    result.getFiredRules()).orElseThrow();
+            assertThat(explanation.getRules()).as("transação %s", data).isEqualTo(expected);
+            assertThat(explanation.getRawScore()).isEqualTo(rawScore);
+            assertThat(explanation.getScore()).isEqualTo(result.getScore()).isEqualTo(Math.max(1, rawScore));
+        }
+    }
+
+    @Test
+    void emptyMaskExplainsNoRules() {
+        long version = activeRuleCache.getSnapshot().orElseThrow().getVersion();
+
+        ScoreExplanation explanation = service.explain(version, "PIX", new BitSet()).orElseThrow();
+
+        assertThat(explanation.getRules()).isEmpty();
+        assertThat(explanation.getRawScore()).isZero();
+        assertThat(explanation.getScore()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownAndEvictedVersionsAreNotExplained() {
+        Random random = new Random(33);
+        ScoreCalculationData data = explained(SampleRules.transaction(random), random);
+        ScoreResult result = service.calculateScore(data);
+        long version = result.getRuleSetVersion();
+
+        assertThat(service.explain(version + 1, data.getTxType(), result.getFiredRules())).isEmpty();
+        assertThat(service.explain(0, data.getTxType(), result.getFiredRules())).isEmpty();
+
+        // Versões publicadas depois: a do cálculo fica decodificável enquanto estiver no histórico
+        for (int i = 1; i < HISTORY; i++) {
+            activeRuleCache.refresh();
+            assertThat(service.explain(version, data.getTxType(), result.getFiredRules())).isPresent();
+        }
+        activeRuleCache.refresh();
+        assertThat(activeRuleCache.getSnapshot().orElseThrow().getVersion()).isEqualTo(version + HISTORY);
+        assertThat(service.explain(version, data.getTxType(), result.getFiredRules())).isEmpty();
+        assertThat(service.explain(version + 1, data.getTxType(), result.getFiredRules())).isPresent();
+    }
+
+    @Test
+    void maskLongerThanTheRuleSetIsRejected() {
+        long version = activeRuleCache.getSnapshot().orElseThrow().getVersion();
+        int pixRules = activeRuleCache.getSnapshot().orElseThrow().ruleSetFor("PIX").getRules().size();
+
+        BitSet lastRule = new BitSet();
+        lastRule.set(pixRules - 1);
+        assertThat(service.explain(version, "PIX", lastRule)).isPresent();
+
+        BitSet pastLastRule = new BitSet();
+        pastLastRule.set(pixRules);
+        assertThatThrownBy(() -> service.explain(version, "PIX", pastLastRule))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // O conjunto DEFAULT é menor que o do PIX: a mesma máscara não cabe nele
+        BitSet pixOnly = new BitSet();
+        pixOnly.set(pixRules - 1);
+        assertThatThrownBy(() -> service.explain(version, "TED", pixOnly))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ScoreCalculationData explained(ScoreCalculationData data, Random random) {
+        // Parte das transações cai na regra por chave, e parte é PIX, com o conjunto maior
+        String deviceId = random.nextInt(5) == 0 ? "device-" + (1 + random.nextInt(2)) : data.getDeviceId();
+        String txType = random.nextBoolean() ? "PIX" : data.getTxType();
+        return new ScoreCalculationData(data.getCpf(), data.getIp(), deviceId, txType, data.getTxValueCents(),
+                data.isCpfInPermissiveList(), data.isCpfInRestrictiveList(), data.isIpInRestrictiveList(),
+                data.isDeviceIdInRestrictiveList(), null, true);
+    }
+}
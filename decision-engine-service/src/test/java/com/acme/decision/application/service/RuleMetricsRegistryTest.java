@@ -0,0 +1,106 @@
+package com.acme.decision.application.service;
+
+import com.acme.decision.domain.model.CompiledRuleSet;
+import com.acme.decision.domain.model.Rule;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.metrics.EvaluationMetrics;
+import com.acme.decision.domain.model.metrics.RuleMetrics;
+import com.acme.decision.domain.service.RuleEngine;
+import com.acme.decision.domain.service.compiler.EvaluationMode;
+import com.acme.decision.support.SampleRules;
+import com.acme.decision.support.TestServices;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sorteio das amostras e contagens por regra: na amostra por regra toda regra é informada, aplicada ou
+ * não, inclusive as por chave, e as estimativas do total escalam as contagens pela taxa de amostragem.
+ */
+class RuleMetricsRegistryTest {
+
+    @Test
+    void sampleRateOfOneTimesAndEvaluatesEveryRequest() {
+        RuleMetricsRegistry registry = registry(1);
+
+        for (int i = 0; i < 1_000; i++) {
+            RuleMetricsRegistry.Sample sample = registry.sample();
+            assertThat(sample.isTimed()).isTrue();
+            assertThat(sample.isPerRule()).isTrue();
+        }
+    }
+
+    @Test
+    void latencyAndRuleSamplesAreDrawnAtTheConfiguredRate() {
+        RuleMetricsRegistry registry = registry(16);
+        Map<RuleMetricsRegistry.Sample, Integer> counts = new EnumMap<>(RuleMetricsRegistry.Sample.class);
+
+        int draws = 160_000;
+        for (int i = 0; i < draws; i++) {
+            counts.merge(registry.sample(), 1, Integer::sum);
+        }
+
+        assertThat(counts).doesNotContainKey(RuleMetricsRegistry.Sample.ALL);
+        assertThat(counts.get(RuleMetricsRegistry.Sample.LATENCY)).isBetween(9_000, 11_000);
+        assertThat(counts.get(RuleMetricsRegistry.Sample.RULES)).isBetween(9_000, 11_000);
+    }
+
+    @Test
+    void everyRuleIsCountedInTheRuleSampleIncludingUnmatchedKeyedRules() {
+        RuleEngine ruleEngine = TestServices.ruleEngine(
+                TestServices.conditionCompiler(TestServices.velocityService()), EvaluationMode.INTERPRETED, true, false);
+        Random random = new Random(5);
+
+        List<Rule> rules = new ArrayList<>(SampleRules.mixed(20, random));
+        rules.add(new Rule(100L, "CPF bloqueado", null, "DEFAULT",
+                "{\"type\":\"compare\",\"field\":\"cpf\",\"op\":\"in\",\"value\":[\"99999999999\"]}", 300, true));
+        rules.add(new Rule(101L, "Dispositivo bloqueado", null, "DEFAULT",
+                "{\"type\":\"compare\",\"field\":\"deviceId\",\"op\":\"eq\",\"value\":\"device-7\"}", 200, true));
+        CompiledRuleSet ruleSet = ruleEngine.compileRuleSet("DEFAULT", ruleEngine.compileRules(rules));
+
+        int rate = 8;
+        RuleMetricsRegistry registry = registry(rate);
+        int transactions = 500;
+        int deviceMatches = 0;
+        for (int i = 0; i < transactions; i++) {
+            ScoreCalculationData data = SampleRules.transaction(random);
+            if ("device-7".equals(data.getDeviceId())) {
+                deviceMatches++;
+            }
+            assertThat(ruleEngine.evaluateEachRule(data, ruleSet, registry))
+                    .isEqualTo(ruleEngine.calculateScore(data, ruleSet));
+        }
+
+        EvaluationMetrics metrics = registry.getMetrics();
+        assertThat(metrics.getSampleRate()).isEqualTo(rate);
+        assertThat(metrics.getRules()).hasSize(rules.size());
+        for (RuleMetrics rule : metrics.getRules()) {
+            assertThat(rule.getSampledEvaluations()).isEqualTo(transactions);
+            assertThat(rule.getEstimatedEvaluations()).isEqualTo((long) transactions * rate);
+            assertThat(rule.getEstimatedMatches()).isEqualTo(rule.getSampledMatches() * rate);
+        }
+        assertThat(ruleMetrics(metrics, 100L).getSampledMatches()).isZero();
+        assertThat(ruleMetrics(metrics, 101L).getSampledMatches()).isEqualTo(deviceMatches);
+    }
+
+    private static RuleMetrics ruleMetrics(EvaluationMetrics metrics, long ruleId) {
+        return metrics.getRules().stream()
+                .filter(rule -> rule.getRuleId() == ruleId)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static RuleMetricsRegistry registry(int sampleRate) {
+        RuleMetricsRegistry registry = new RuleMetricsRegistry();
+        ReflectionTestUtils.setField(registry, "enabled", true);
+        ReflectionTestUtils.setField(registry, "sampleRate", sampleRate);
+        return registry;
+    }
+}
@@ -0,0 +1,156 @@
+package com.acme.decision.application.service;
+
+import com.acme.decision.domain.model.CompiledRuleSet;
+import com.acme.decision.domain.model.RuleSnapshot;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.shadow.ShadowStats;
+import com.acme.decision.domain.service.ConditionCompiler;
+import com.acme.decision.domain.service.RuleEngine;
+import com.acme.decision.domain.service.RuleService;
+import com.acme.decision.domain.service.VelocityService;
+import com.acme.decision.domain.service.compiler.EvaluationMode;
+import com.acme.decision.support.SampleRules;
+import com.acme.decision.support.TestServices;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Avaliação sombra: as divergências contadas pela thread de fundo são as obtidas avaliando ativo e candidato
+ * diretamente, a fila cheia descarta sem bloquear, e depois da desativação nada mais é avaliado, nem os
+ * itens que ainda estavam na fila.
+ */
+class ShadowEvaluatorTest {
+
+    private static final int THRESHOLD = 699;
+
+    private RuleEngine ruleEngine;
+    private CandidateSnapshotCompiler compiler;
+    private ShadowEvaluator shadowEvaluator;
+
+    @BeforeEach
+    void setUp() {
+        VelocityService velocityService = TestServices.velocityService();
+        ConditionCompiler conditionCompiler = TestServices.conditionCompiler(velocityService);
+        ruleEngine = TestServices.ruleEngine(conditionCompiler, EvaluationMode.INTERPRETED, true, false);
+        compiler = new CandidateSnapshotCompiler(ruleEngine, new RuleService(conditionCompiler));
+
+        shadowEvaluator = new ShadowEvaluator(ruleEngine, velocityService);
+        ReflectionTestUtils.setField(shadowEvaluator, "queueCapacity", 100_000);
+        ReflectionTestUtils.setField(shadowEvaluator, "decisionThreshold", THRESHOLD);
+        ReflectionTestUtils.setField(shadowEvaluator, "logSampleRate", 1_000_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        shadowEvaluator.stop();
+    }
+
+    @Test
+    void countsMismatchesBetweenActiveAndCandidateScores() throws InterruptedException {
+        Random random = new Random(8);
+        RuleSnapshot active = compiler.compile(SampleRules.seed());
+        RuleSnapshot candidate = compiler.compile(SampleRules.mixed(30, random));
+
+        shadowEvaluator.start();
+        shadowEvaluator.activate(candidate);
+
+        int transactions = 5_000;
+        long mismatches = 0;
+        long approvedToDenied = 0;
+        long deniedToApproved = 0;
+        for (int i = 0; i < transactions; i++) {
+            ScoreCalculationData data = SampleRules.transaction(random);
+            int activeScore = score(active, data);
+            int candidateScore = score(candidate, data);
+            if (activeScore != candidateScore) {
+                mismatches++;
+                approvedToDenied += activeScore <= THRESHOLD && candidateScore > THRESHOLD ? 1 : 0;
+                deniedToApproved += activeScore > THRESHOLD && candidateScore <= THRESHOLD ? 1 : 0;
+            }
+            shadowEvaluator.submit(data, activeScore);
+        }
+
+        awaitUntil(() -> shadowEvaluator.getStats().getEvaluated() == transactions);
+        ShadowStats stats = shadowEvaluator.getStats();
+        assertThat(stats.isActive()).isTrue();
+        assertThat(stats.getCandidateRules()).isEqualTo(30);
+        assertThat(stats.getSubmitted()).isEqualTo(transactions);
+        assertThat(stats.getDropped()).isZero();
+        assertThat(stats.getErrors()).isZero();
+        assertThat(stats.getQueueSize()).isZero();
+        assertThat(mismatches).isPositive();
+        assertThat(stats.getScoreMismatches()).isEqualTo(mismatches);
+        assertThat(stats.getApprovedToDenied()).isEqualTo(approvedToDenied);
+        assertThat(stats.getDeniedToApproved()).isEqualTo(deniedToApproved);
+
+        // Reativar zera os contadores; o mesmo conjunto como candidato não diverge
+        shadowEvaluator.activate(active);
+        for (int i = 0; i < 1_000; i++) {
+            ScoreCalculationData data = SampleRules.transaction(random);
+            shadowEvaluator.submit(data, score(active, data));
+        }
+        awaitUntil(() -> shadowEvaluator.getStats().getEvaluated() == 1_000);
+        assertThat(shadowEvaluator.getStats().getSubmitted()).isEqualTo(1_000);
+        assertThat(shadowEvaluator.getStats().getScoreMismatches()).isZero();
+    }
+
+    @Test
+    void deactivationStopsEvaluationIncludingQueuedItems() throws InterruptedException {
+        Random random = new Random(9);
+        RuleSnapshot candidate = compiler.compile(SampleRules.mixed(30, random));
+
+        // Sem a thread de fundo, os itens ficam na fila até a desativação
+        shadowEvaluator.activate(candidate);
+        for (int i = 0; i < 500; i++) {
+            shadowEvaluator.submit(SampleRules.transaction(random), 1);
+        }
+        assertThat(shadowEvaluator.getStats().getQueueSize()).isEqualTo(500);
+
+        shadowEvaluator.deactivate();
+        shadowEvaluator.submit(SampleRules.transaction(random), 1);
+        shadowEvaluator.start();
+
+        awaitUntil(() -> shadowEvaluator.getStats().getQueueSize() == 0);
+        ShadowStats stats = shadowEvaluator.getStats();
+        assertThat(stats.isActive()).isFalse();
+        assertThat(stats.getSubmitted()).isEqualTo(500);
+        assertThat(stats.getEvaluated()).isZero();
+        assertThat(stats.getScoreMismatches()).isZero();
+    }
+
+    @Test
+    void fullQueueDropsWithoutBlocking() {
+        ReflectionTestUtils.setField(shadowEvaluator, "queueCapacity", 10);
+        Random random = new Random(10);
+        shadowEvaluator.activate(compiler.compile(SampleRules.mixed(5, random)));
+
+        for (int i = 0; i < 15; i++) {
+            shadowEvaluator.submit(SampleRules.transaction(random), 1);
+        }
+
+        ShadowStats stats = shadowEvaluator.getStats();
+        assertThat(stats.getSubmitted()).isEqualTo(10);
+        assertThat(stats.getDropped()).isEqualTo(5);
+        assertThat(stats.getQueueSize()).isEqualTo(10);
+    }
+
+    private int score(RuleSnapshot snapshot, ScoreCalculationData data) {
+        CompiledRuleSet ruleSet = snapshot.ruleSetFor(data.getTxType());
+        return ruleEngine.calculateScore(data, ruleSet);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tempo de espera esgotado").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.acme.decision.benchmark;
+
+import com.acme.decision.application.port.RuleRepositoryPort;
+import com.acme.decision.application.service.ActiveRuleCache;
+import com.acme.decision.application.service.BacktestService;
+import com.acme.decision.application.service.CandidateSnapshotCompiler;
+import com.acme.decision.application.service.DecisionEngineApplicationService;
+import com.acme.decision.application.service.RuleMetricsRegistry;
+import com.acme.decision.application.service.ShadowEvaluator;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.service.ModelRegistry;
+import com.acme.decision.domain.service.RuleEngine;
+import com.acme.decision.domain.service.RuleService;
+import com.acme.decision.domain.service.VelocityService;
+import com.acme.decision.domain.service.compiler.EvaluationMode;
+import com.acme.decision.support.SampleRules;
+import com.acme.decision.support.TestServices;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo das métricas de avaliação no cálculo de score completo, com as regras iniciais: o mesmo
+ * {@link DecisionEngineApplicationService#calculateScore} com as métricas desabilitadas e habilitadas
+ * (taxa de amostragem padrão). O objetivo é uma diferença abaixo de 2%.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MetricsOverheadBenchmark {
+
+    private static final int TRANSACTIONS = 1024;
+
+    @Param({"false", "true"})
+    private boolean metricsEnabled;
+
+    private DecisionEngineApplicationService service;
+    private ScoreCalculationData[] transactions;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        VelocityService velocityService = TestServices.velocityService();
+        RuleEngine ruleEngine = TestServices.ruleEngine(
+                TestServices.conditionCompiler(velocityService), EvaluationMode.INTERPRETED, true, false);
+
+        RuleRepositoryPort ruleRepositoryPort = Mockito.mock(RuleRepositoryPort.class);
+        Mockito.when(ruleRepositoryPort.findAll()).thenReturn(SampleRules.seed());
+        ActiveRuleCache activeRuleCache = new ActiveRuleCache(ruleRepositoryPort, ruleEngine, velocityService);
+        ReflectionTestUtils.setField(activeRuleCache, "snapshotHistory", 32);
+        activeRuleCache.refresh();
+
+        RuleMetricsRegistry ruleMetricsRegistry = new RuleMetricsRegistry();
+        ReflectionTestUtils.setField(ruleMetricsRegistry, "enabled", metricsEnabled);
+        ReflectionTestUtils.setField(ruleMetricsRegistry, "sampleRate", 256);
+
+        service = new DecisionEngineApplicationService(ruleEngine, Mockito.mock(RuleService.class),
+                ruleRepositoryPort, activeRuleCache, ruleMetricsRegistry, Mockito.mock(BacktestService.class),
+                Mockito.mock(CandidateSnapshotCompiler.class), new ShadowEvaluator(ruleEngine, velocityService),
+                velocityService, Mockito.mock(ModelRegistry.class));
+
+        Random random = new Random(42);
+        transactions = new ScoreCalculationData[TRANSACTIONS];
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            transactions[i] = SampleRules.transaction(random);
+        }
+    }
+
+    @Benchmark
+    public int calculateScore() {
+        next = (next + 1) & (TRANSACTIONS - 1);
+        return service.calculateScore(transactions[next]).getScore();
+    }
+}
@@ -0,0 +1,68 @@
+package com.acme.decision.benchmark;
+
+import com.acme.decision.domain.model.CompiledRuleSet;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.ScoreFunction;
+import com.acme.decision.domain.service.RuleEngine;
+import com.acme.decision.domain.service.compiler.EvaluationMode;
+import com.acme.decision.support.SampleRules;
+import com.acme.decision.support.TestServices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Função de score interpretada contra a gerada em bytecode, para o mesmo conjunto de regras sem chave.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ScoreFunctionBenchmark {
+
+    private static final int TRANSACTIONS = 1024;
+
+    @Param({"16", "64", "256"})
+    private int ruleCount;
+
+    @Param({"INTERPRETED", "GENERATED"})
+    private EvaluationMode mode;
+
+    private ScoreFunction scoreFunction;
+    private ScoreCalculationData[] transactions;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        RuleEngine ruleEngine = TestServices.ruleEngine(
+                TestServices.conditionCompiler(TestServices.velocityService()), mode, false, false);
+        Random random = new Random(42);
+        CompiledRuleSet ruleSet = ruleEngine.compileRuleSet("DEFAULT",
+                ruleEngine.compileRules(SampleRules.mixed(ruleCount, random)));
+        scoreFunction = ruleSet.getScoreFunction();
+
+        transactions = new ScoreCalculationData[TRANSACTIONS];
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            transactions[i] = SampleRules.transaction(random);
+        }
+    }
+
+    @Benchmark
+    public int rawScore() {
+        next = (next + 1) & (TRANSACTIONS - 1);
+        return scoreFunction.rawScore(transactions[next]);
+    }
+}
@@ -0,0 +1,93 @@
+package com.acme.decision.benchmark;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.scoring.ModelFeature;
+import com.acme.decision.domain.model.scoring.ScoringModel;
+import com.acme.decision.domain.model.scoring.ScoringModelParser;
+import com.acme.decision.support.SampleRules;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Avaliação de um modelo {@code tree_ensemble} com árvores completas de profundidade 6, como as de um
+ * gradient boosting típico, para 100 e 500 árvores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TreeEnsembleBenchmark {
+
+    private static final int TRANSACTIONS = 1024;
+    private static final int DEPTH = 6;
+
+    @Param({"100", "500"})
+    private int treeCount;
+
+    private ScoringModel model;
+    private ScoreCalculationData[] transactions;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        ObjectNode node = new ObjectMapper().createObjectNode();
+        node.put("type", "tree_ensemble");
+        node.put("output", "logistic");
+        ArrayNode features = node.putArray("features");
+        for (ModelFeature feature : ModelFeature.values()) {
+            features.add(feature.getFeatureName());
+        }
+
+        // Árvores completas com os nós em largura: os filhos de n ficam em 2n + 1 e 2n + 2
+        int nodes = (1 << (DEPTH + 1)) - 1;
+        int splits = (1 << DEPTH) - 1;
+        ArrayNode trees = node.putArray("trees");
+        for (int t = 0; t < treeCount; t++) {
+            ObjectNode tree = trees.addObject();
+            ArrayNode left = tree.putArray("left");
+            ArrayNode right = tree.putArray("right");
+            ArrayNode feature = tree.putArray("feature");
+            ArrayNode threshold = tree.putArray("threshold");
+            ArrayNode value = tree.putArray("value");
+            for (int n = 0; n < nodes; n++) {
+                boolean split = n < splits;
+                int f = split ? random.nextInt(ModelFeature.values().length) : 0;
+                left.add(split ? 2 * n + 1 : -1);
+                right.add(split ? 2 * n + 2 : -1);
+                feature.add(f);
+                threshold.add(f == 0 ? random.nextInt(20_000) + 0.5f : 0.5f);
+                value.add(split ? 0f : (float) random.nextGaussian() / 10);
+            }
+        }
+        model = ScoringModelParser.parse(node);
+
+        transactions = new ScoreCalculationData[TRANSACTIONS];
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            transactions[i] = SampleRules.transaction(random);
+        }
+    }
+
+    @Benchmark
+    public double predict() {
+        next = (next + 1) & (TRANSACTIONS - 1);
+        return model.predict(transactions[next]);
+    }
+}
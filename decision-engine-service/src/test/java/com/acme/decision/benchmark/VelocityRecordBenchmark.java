@@ -0,0 +1,93 @@
+package com.acme.decision.benchmark;
+
+import com.acme.decision.domain.model.Rule;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.service.RuleEngine;
+import com.acme.decision.domain.service.VelocityService;
+import com.acme.decision.domain.service.compiler.EvaluationMode;
+import com.acme.decision.support.SampleRules;
+import com.acme.decision.support.TestServices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro de uma transação nos contadores de velocidade, conforme as regras ativas: nenhuma condição com
+ * estado (regras iniciais), apenas {@code velocity} por CPF, ou todos os campos e tipos. O objetivo é ficar
+ * abaixo de 1 µs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class VelocityRecordBenchmark {
+
+    private static final int TRANSACTIONS = 1024;
+
+    @Param({"NONE", "CPF_VELOCITY", "ALL"})
+    private String rules;
+
+    private VelocityService velocityService;
+    private ScoreCalculationData[] transactions;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        velocityService = TestServices.velocityService();
+        RuleEngine ruleEngine = TestServices.ruleEngine(
+                TestServices.conditionCompiler(velocityService), EvaluationMode.INTERPRETED, true, false);
+        velocityService.useActiveRules(ruleEngine.compileRules(rules()));
+
+        Random random = new Random(42);
+        transactions = new ScoreCalculationData[TRANSACTIONS];
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            transactions[i] = SampleRules.transaction(random);
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        next = (next + 1) & (TRANSACTIONS - 1);
+        velocityService.record(transactions[next]);
+    }
+
+    private List<Rule> rules() {
+        List<Rule> ruleList = new ArrayList<>(SampleRules.seed());
+        if ("NONE".equals(rules)) {
+            return ruleList;
+        }
+
+        ruleList.add(stateRule(100L, "velocity", "cpf"));
+        if ("ALL".equals(rules)) {
+            ruleList.add(stateRule(101L, "velocity", "deviceId"));
+            ruleList.add(stateRule(102L, "velocity", "ip"));
+            ruleList.add(stateRule(103L, "amount_sum", "cpf"));
+            ruleList.add(stateRule(104L, "amount_sum", "deviceId"));
+            ruleList.add(stateRule(105L, "amount_sum", "ip"));
+            ruleList.add(stateRule(106L, "distinct_count", "deviceId"));
+            ruleList.add(stateRule(107L, "distinct_count", "ip"));
+        }
+        return ruleList;
+    }
+
+    private static Rule stateRule(long id, String type, String field) {
+        String condition = "{\"type\":\"" + type + "\",\"field\":\"" + field
+                + "\",\"windowSeconds\":600,\"op\":\"gt\",\"value\":3}";
+        return new Rule(id, type + " " + field, null, "DEFAULT", condition, 100, true);
+    }
+}
@@ -0,0 +1,146 @@
+package com.acme.decision.domain.model.index;
+
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.condition.ListCondition;
+import com.acme.decision.domain.model.condition.ValueRangeCondition;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Equivalência entre a {@link DecisionTable} e a avaliação regra a regra.
+ */
+class DecisionTableTest {
+
+    @Test
+    void matchesInterpretedScoreOnOverlappingRangesAndListRules() {
+        List<CompiledRule> rules = List.of(
+                range(1, 0, 100_000, 10),
+                range(2, 100_000, 500_000, 25),
+                range(3, 50_000, 200_000, -5),
+                range(4, 100_000, 100_000, 7),
+                range(5, 1_000_000, Long.MAX_VALUE, 300),
+                list(6, ListCondition.CPF_PERMISSIVE_LIST, -100),
+                list(7, ListCondition.CPF_RESTRICTIVE_LIST, 400),
+                list(8, ListCondition.IP_RESTRICTIVE_LIST, 150),
+                list(9, ListCondition.DEVICE_RESTRICTIVE_LIST, 200),
+                list(10, ListCondition.IP_RESTRICTIVE_LIST, 30)
+        );
+
+        assertEquivalent(rules);
+    }
+
+    @Test
+    void matchesInterpretedScoreWithoutRangeRules() {
+        assertEquivalent(List.of(
+                list(1, ListCondition.CPF_RESTRICTIVE_LIST, 400),
+                list(2, ListCondition.DEVICE_RESTRICTIVE_LIST, 200)
+        ));
+    }
+
+    @Test
+    void matchesInterpretedScoreOnExtremeBoundaries() {
+        assertEquivalent(List.of(
+                range(1, Long.MIN_VALUE, 0, 50),
+                range(2, 1, 1, 20),
+                range(3, 2, Long.MAX_VALUE, 5),
+                list(4, ListCondition.CPF_PERMISSIVE_LIST, -10)
+        ));
+    }
+
+    @Test
+    void matchesInterpretedScoreOnRandomRuleSets() {
+        Random random = new Random(42);
+        ListCondition[] lists = ListCondition.values();
+
+        for (int round = 0; round < 200; round++) {
+            List<CompiledRule> rules = new ArrayList<>();
+            int ruleCount = 1 + random.nextInt(20);
+            for (long id = 1; id <= ruleCount; id++) {
+                int points = random.nextInt(801) - 200;
+                if (random.nextInt(3) == 0) {
+                    rules.add(list(id, lists[random.nextInt(lists.length)], points));
+                } else {
+                    long min = random.nextInt(20) * 5_000L;
+                    long max = min + random.nextInt(4) * 5_000L;
+                    rules.add(range(id, min, max, points));
+                }
+            }
+
+            assertEquivalent(rules);
+        }
+    }
+
+    /**
+     * Compara o score da tabela com a soma regra a regra em cada fronteira, nos vizinhos de cada fronteira,
+     * em um valor de cada segmento e em todas as máscaras de flags de lista.
+     */
+    private static void assertEquivalent(List<CompiledRule> rules) {
+        List<CompiledRule> rangeRules = new ArrayList<>();
+        List<CompiledRule> listRules = new ArrayList<>();
+        for (CompiledRule rule : rules) {
+            (rule.getCondition() instanceof ValueRangeCondition ? rangeRules : listRules).add(rule);
+        }
+
+        ValueRangeIndex valueRangeIndex = ValueRangeIndex.build(rangeRules);
+        DecisionTable decisionTable = DecisionTable.build(valueRangeIndex, listRules);
+
+        List<Long> values = new ArrayList<>();
+        for (int segment = 0; segment < valueRangeIndex.segmentCount(); segment++) {
+            if (!valueRangeIndex.isEmptySegment(segment)) {
+                values.add(valueRangeIndex.representativeOf(segment));
+            }
+        }
+        for (CompiledRule rule : rangeRules) {
+            ValueRangeCondition range = (ValueRangeCondition) rule.getCondition();
+            for (long boundary : new long[]{range.getMinCents(), range.getMaxCents()}) {
+                values.add(boundary);
+                if (boundary > Long.MIN_VALUE) {
+                    values.add(boundary - 1);
+                }
+                if (boundary < Long.MAX_VALUE) {
+                    values.add(boundary + 1);
+                }
+            }
+        }
+
+        for (long value : values) {
+            for (int mask = 0; mask < ListCondition.MASK_COUNT; mask++) {
+                ScoreCalculationData data = data(value, mask);
+
+                int interpreted = 0;
+                for (CompiledRule rule : rules) {
+                    if (rule.getCondition().matches(data)) {
+                        interpreted += rule.getPoints();
+                    }
+                }
+
+                assertThat(decisionTable.rawScore(data))
+                        .as("valor %d, máscara %d, regras %s", value, mask, rules)
+                        .isEqualTo(interpreted);
+            }
+        }
+    }
+
+    private static ScoreCalculationData data(long valueCents, int mask) {
+        return new ScoreCalculationData(null, null, null, "PIX", valueCents,
+                (mask & ListCondition.CPF_PERMISSIVE_LIST.bit()) != 0,
+                (mask & ListCondition.CPF_RESTRICTIVE_LIST.bit()) != 0,
+                (mask & ListCondition.IP_RESTRICTIVE_LIST.bit()) != 0,
+                (mask & ListCondition.DEVICE_RESTRICTIVE_LIST.bit()) != 0,
+                null, false);
+    }
+
+    private static CompiledRule range(long id, long minCents, long maxCents, int points) {
+        return new CompiledRule(id, "faixa " + id, "DEFAULT", points, new ValueRangeCondition(minCents, maxCents));
+    }
+
+    private static CompiledRule list(long id, ListCondition condition, int points) {
+        return new CompiledRule(id, condition.getType() + " " + id, "DEFAULT", points, condition);
+    }
+}
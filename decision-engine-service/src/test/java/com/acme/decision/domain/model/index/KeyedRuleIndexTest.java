@@ -0,0 +1,294 @@
+package com.acme.decision.domain.model.index;
+
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.CompiledRuleSet;
+import com.acme.decision.domain.model.Rule;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.condition.FieldInCondition;
+import com.acme.decision.domain.model.condition.ListCondition;
+import com.acme.decision.domain.model.condition.TextField;
+import com.acme.decision.domain.model.condition.ValueRangeCondition;
+import com.acme.decision.domain.service.RuleEngine;
+import com.acme.decision.domain.service.compiler.EvaluationMode;
+import com.acme.decision.support.SampleRules;
+import com.acme.decision.support.TestServices;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Equivalência entre o {@link KeyedRuleIndex} e a avaliação regra a regra.
+ */
+class KeyedRuleIndexTest {
+
+    @Test
+    void sumsEveryRuleOnTheSameKey() {
+        List<CompiledRule> rules = List.of(
+                keyed(1, TextField.CPF, 100, "11111111111"),
+                keyed(2, TextField.CPF, 250, "11111111111", "22222222222"),
+                keyed(3, TextField.CPF, -40, "11111111111"),
+                keyed(4, TextField.DEVICE_ID, 300, "device-1"),
+                keyed(5, TextField.IP, 80, "10.0.0.1", "10.0.0.2"),
+                keyed(6, TextField.IP, 20, "10.0.0.2")
+        );
+        KeyedRuleIndex index = KeyedRuleIndex.build(rules);
+
+        assertThat(index.ruleCount()).isEqualTo(6);
+        assertThat(index.unindexedCount()).isZero();
+        assertThat(index.pointsFor(data("11111111111", "10.0.0.2", "device-1"))).isEqualTo(100 + 250 - 40 + 300 + 80 + 20);
+        assertThat(matches(index, data("11111111111", "10.0.0.2", "device-1"))).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(matches(index, data("22222222222", "10.0.0.1", null))).containsExactly(1, 4);
+
+        assertEquivalent(rules, candidates(rules));
+    }
+
+    @Test
+    void keysInNoRuleScoreZero() {
+        List<CompiledRule> rules = List.of(
+                keyed(1, TextField.CPF, 100, "11111111111"),
+                keyed(2, TextField.DEVICE_ID, 300, "device-1")
+        );
+        KeyedRuleIndex index = KeyedRuleIndex.build(rules);
+
+        ScoreCalculationData data = data("33333333333", "10.0.0.1", "device-2");
+        assertThat(index.pointsFor(data)).isZero();
+        assertThat(matches(index, data)).isEmpty();
+        // O valor de um campo não casa com regras de outro campo
+        assertThat(index.pointsFor(data("device-1", "11111111111", null))).isZero();
+    }
+
+    @Test
+    void nullFieldsMatchNothing() {
+        List<CompiledRule> rules = List.of(
+                keyed(1, TextField.CPF, 100, "11111111111"),
+                keyed(2, TextField.IP, 50, "10.0.0.1"),
+                keyed(3, TextField.DEVICE_ID, 300, "device-1")
+        );
+        KeyedRuleIndex index = KeyedRuleIndex.build(rules);
+
+        assertThat(index.pointsFor(data(null, null, null))).isZero();
+        assertThat(matches(index, data(null, null, null))).isEmpty();
+        assertThat(index.pointsFor(data(null, "10.0.0.1", null))).isEqualTo(50);
+
+        assertEquivalent(rules, candidates(rules));
+    }
+
+    @Test
+    void leavesRulesThatAreNotKeyedOutOfTheIndex() {
+        List<CompiledRule> rules = List.of(
+                new CompiledRule(1L, "faixa", "DEFAULT", 10, new ValueRangeCondition(0, 100_000)),
+                keyed(2, TextField.CPF, 100, "11111111111"),
+                keyed(3, TextField.TX_TYPE, 70, "PIX"),
+                new CompiledRule(4L, "lista", "DEFAULT", 400, ListCondition.CPF_RESTRICTIVE_LIST),
+                keyed(5, TextField.DEVICE_ID, 300, "device-1")
+        );
+        KeyedRuleIndex index = KeyedRuleIndex.build(rules);
+
+        assertThat(index.ruleCount()).isEqualTo(2);
+        assertThat(index.unindexedCount()).isEqualTo(3);
+        assertThat(List.of(index.unindexedPositionAt(0), index.unindexedPositionAt(1), index.unindexedPositionAt(2)))
+                .containsExactly(0, 2, 3);
+
+        assertEquivalent(rules, candidates(rules));
+    }
+
+    @Test
+    void emptyIndexScoresZero() {
+        KeyedRuleIndex index = KeyedRuleIndex.build(List.of(
+                new CompiledRule(1L, "faixa", "DEFAULT", 10, new ValueRangeCondition(0, 100_000))));
+
+        assertThat(index.isEmpty()).isTrue();
+        assertThat(index.ruleCount()).isZero();
+        assertThat(index.pointsFor(data("11111111111", "10.0.0.1", "device-1"))).isZero();
+    }
+
+    @Test
+    void matchesInterpretedScoreOnRandomRuleSets() {
+        Random random = new Random(17);
+        TextField[] fields = TextField.values();
+
+        for (int round = 0; round < 200; round++) {
+            List<CompiledRule> rules = new ArrayList<>();
+            int ruleCount = 1 + random.nextInt(30);
+            for (long id = 1; id <= ruleCount; id++) {
+                int points = random.nextInt(801) - 200;
+                if (random.nextInt(5) == 0) {
+                    rules.add(new CompiledRule(id, "faixa " + id, "DEFAULT", points,
+                            new ValueRangeCondition(0, random.nextInt(200_000))));
+                    continue;
+                }
+                TextField field = fields[random.nextInt(fields.length)];
+                // Poucos valores por campo para que várias regras caiam na mesma chave
+                String[] values = new String[1 + random.nextInt(3)];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = value(field, random.nextInt(8));
+                }
+                rules.add(keyed(id, field, points, values));
+            }
+
+            List<ScoreCalculationData> candidates = candidates(rules);
+            for (int i = 0; i < 20; i++) {
+                candidates.add(data(
+                        random.nextInt(4) == 0 ? null : value(TextField.CPF, random.nextInt(10)),
+                        random.nextInt(4) == 0 ? null : value(TextField.IP, random.nextInt(10)),
+                        random.nextInt(4) == 0 ? null : value(TextField.DEVICE_ID, random.nextInt(10))));
+            }
+            assertEquivalent(rules, candidates);
+        }
+    }
+
+    @Test
+    void ruleEngineScoreWithKeyedRulesMatchesInterpretedScoreInEveryMode() {
+        Random random = new Random(23);
+        List<Rule> rules = new ArrayList<>(SampleRules.mixed(20, random));
+        rules.add(new Rule(100L, "CPF bloqueado", null, "DEFAULT",
+                "{\"type\":\"compare\",\"field\":\"cpf\",\"op\":\"in\",\"value\":[\"00000000001\",\"00000000002\"]}", 300, true));
+        rules.add(new Rule(101L, "CPF suspeito", null, "DEFAULT",
+                "{\"type\":\"compare\",\"field\":\"cpf\",\"op\":\"eq\",\"value\":\"00000000002\"}", 150, true));
+        rules.add(new Rule(102L, "Dispositivo bloqueado", null, "DEFAULT",
+                "{\"type\":\"compare\",\"field\":\"deviceId\",\"op\":\"in\",\"value\":[\"device-7\",\"device-8\"]}", 200, true));
+        rules.add(new Rule(103L, "IP bloqueado", null, "DEFAULT",
+                "{\"type\":\"compare\",\"field\":\"ip\",\"op\":\"eq\",\"value\":\"10.0.0.1\"}", 120, true));
+
+        List<ScoreCalculationData> transactions = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            ScoreCalculationData sample = SampleRules.transaction(random);
+            // Força casamentos com as regras por chave em parte das transações
+            String cpf = random.nextInt(10) == 0 ? "0000000000" + (1 + random.nextInt(3)) : sample.getCpf();
+            String ip = random.nextInt(10) == 0 ? "10.0.0.1" : sample.getIp();
+            transactions.add(new ScoreCalculationData(cpf, ip, sample.getDeviceId(), sample.getTxType(),
+                    sample.getTxValueCents(), sample.isCpfInPermissiveList(), sample.isCpfInRestrictiveList(),
+                    sample.isIpInRestrictiveList(), sample.isDeviceIdInRestrictiveList(), null, false));
+        }
+
+        for (EvaluationMode mode : EvaluationMode.values()) {
+            for (boolean decisionTable : new boolean[]{false, true}) {
+                RuleEngine ruleEngine = TestServices.ruleEngine(
+                        TestServices.conditionCompiler(TestServices.velocityService()), mode, decisionTable, false);
+                CompiledRuleSet ruleSet = ruleEngine.compileRuleSet("DEFAULT", ruleEngine.compileRules(rules));
+
+                for (ScoreCalculationData data : transactions) {
+                    int interpreted = 0;
+                    for (CompiledRule rule : ruleSet.getRules()) {
+                        if (rule.getCondition().matches(data)) {
+                            interpreted += rule.getPoints();
+                        }
+                    }
+
+                    assertThat(ruleEngine.calculateScore(data, ruleSet))
+                            .as("modo %s, tabela %s, transação %s", mode, decisionTable, data)
+                            .isEqualTo(Math.max(1, interpreted));
+                }
+            }
+        }
+    }
+
+    /**
+     * Compara os pontos e as posições informadas pelo índice com a avaliação regra a regra das regras por
+     * chave, e verifica que as demais regras são exatamente as posições fora do índice.
+     */
+    private static void assertEquivalent(List<CompiledRule> rules, List<ScoreCalculationData> candidates) {
+        KeyedRuleIndex index = KeyedRuleIndex.build(rules);
+
+        Set<Integer> unindexed = new HashSet<>();
+        for (int i = 0; i < index.unindexedCount(); i++) {
+            unindexed.add(index.unindexedPositionAt(i));
+        }
+        for (int position = 0; position < rules.size(); position++) {
+            assertThat(unindexed.contains(position)).isNotEqualTo(KeyedRuleIndex.isKeyed(rules.get(position)));
+        }
+
+        for (ScoreCalculationData data : candidates) {
+            int interpreted = 0;
+            Set<Integer> expected = new TreeSet<>();
+            for (int position = 0; position < rules.size(); position++) {
+                CompiledRule rule = rules.get(position);
+                if (KeyedRuleIndex.isKeyed(rule) && rule.getCondition().matches(data)) {
+                    interpreted += rule.getPoints();
+                    expected.add(position);
+                }
+            }
+
+            List<Integer> positions = new ArrayList<>();
+            assertThat(index.forEachMatch(data, positions::add))
+                    .as("transação %s, regras %s", data, rules)
+                    .isEqualTo(interpreted);
+            assertThat(index.pointsFor(data)).isEqualTo(interpreted);
+            assertThat(positions).doesNotHaveDuplicates();
+            assertThat(new TreeSet<>(positions)).isEqualTo(expected);
+        }
+    }
+
+    /**
+     * Todas as combinações dos valores citados nas regras, de um valor que nenhuma regra cita e de null.
+     */
+    private static List<ScoreCalculationData> candidates(List<CompiledRule> rules) {
+        Set<String> cpfs = new HashSet<>();
+        Set<String> ips = new HashSet<>();
+        Set<String> devices = new HashSet<>();
+        for (CompiledRule rule : rules) {
+            if (rule.getCondition() instanceof FieldInCondition condition) {
+                switch (condition.getField()) {
+                    case CPF -> cpfs.addAll(condition.getValues());
+                    case IP -> ips.addAll(condition.getValues());
+                    case DEVICE_ID -> devices.addAll(condition.getValues());
+                    default -> {
+                    }
+                }
+            }
+        }
+        List<String> cpfValues = withAbsentAndNull(cpfs, "99999999999");
+        List<String> ipValues = withAbsentAndNull(ips, "192.0.2.1");
+        List<String> deviceValues = withAbsentAndNull(devices, "device-none");
+
+        List<ScoreCalculationData> candidates = new ArrayList<>();
+        for (String cpf : cpfValues) {
+            for (String ip : ipValues) {
+                for (String device : deviceValues) {
+                    candidates.add(data(cpf, ip, device));
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static List<String> withAbsentAndNull(Set<String> values, String absent) {
+        List<String> result = new ArrayList<>(values);
+        result.add(absent);
+        result.add(null);
+        return result;
+    }
+
+    private static String value(TextField field, int i) {
+        return switch (field) {
+            case CPF -> String.format("%011d", i);
+            case IP -> "10.0.0." + i;
+            case DEVICE_ID -> "device-" + i;
+            case TX_TYPE -> i % 2 == 0 ? "PIX" : "TED";
+        };
+    }
+
+    private static List<Integer> matches(KeyedRuleIndex index, ScoreCalculationData data) {
+        List<Integer> positions = new ArrayList<>();
+        index.forEachMatch(data, positions::add);
+        positions.sort(null);
+        return positions;
+    }
+
+    private static ScoreCalculationData data(String cpf, String ip, String deviceId) {
+        return new ScoreCalculationData(cpf, ip, deviceId, "PIX", 50_000, false, false, false, false, null, false);
+    }
+
+    private static CompiledRule keyed(long id, TextField field, int points, String... values) {
+        return new CompiledRule(id, field.getFieldName() + " " + id, "DEFAULT", points,
+                new FieldInCondition(field, Set.copyOf(Arrays.asList(values))));
+    }
+}
@@ -0,0 +1,49 @@
+package com.acme.decision.domain.model.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Blocos e intervalos escritos como endereços IPv6 mapeados de IPv4 valem para as duas grafias do endereço.
+ */
+class CidrBlocksTest {
+
+    @Test
+    void mappedAddressAndBlockMatchBothForms() {
+        CidrBlocks blocks = CidrBlocks.parse(List.of("::ffff:192.0.2.1", "::ffff:10.0.0.0/104"));
+
+        assertThat(blocks.contains("192.0.2.1")).isTrue();
+        assertThat(blocks.contains("::ffff:192.0.2.1")).isTrue();
+        assertThat(blocks.contains("192.0.2.2")).isFalse();
+        assertThat(blocks.contains("10.255.0.1")).isTrue();
+        assertThat(blocks.contains("::ffff:10.1.2.3")).isTrue();
+        assertThat(blocks.contains("11.0.0.0")).isFalse();
+    }
+
+    @Test
+    void mappedRangeMatchesBothForms() {
+        CidrBlocks blocks = CidrBlocks.parse(List.of("::ffff:10.0.0.5-::ffff:10.0.0.20"));
+
+        assertThat(blocks.contains("10.0.0.5")).isTrue();
+        assertThat(blocks.contains("10.0.0.20")).isTrue();
+        assertThat(blocks.contains("::ffff:10.0.0.12")).isTrue();
+        assertThat(blocks.contains("10.0.0.4")).isFalse();
+        assertThat(blocks.contains("10.0.0.21")).isFalse();
+    }
+
+    @Test
+    void ipv6BlockAndRangeCoveringMappedSpaceIncludeIpv4() {
+        assertThat(CidrBlocks.parse(List.of("::/64")).contains("203.0.113.9")).isTrue();
+        assertThat(CidrBlocks.parse(List.of("::/64")).contains("::1")).isTrue();
+        assertThat(CidrBlocks.parse(List.of("2001:db8::/32")).contains("203.0.113.9")).isFalse();
+
+        CidrBlocks range = CidrBlocks.parse(List.of("::1-::ffff:10.0.0.0"));
+        assertThat(range.contains("9.255.255.255")).isTrue();
+        assertThat(range.contains("10.0.0.0")).isTrue();
+        assertThat(range.contains("10.0.0.1")).isFalse();
+        assertThat(range.contains("::2")).isTrue();
+    }
+}
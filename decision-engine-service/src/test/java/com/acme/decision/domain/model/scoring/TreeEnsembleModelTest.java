@@ -0,0 +1,160 @@
+package com.acme.decision.domain.model.scoring;
+
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.support.SampleRules;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Leitura de modelos {@code tree_ensemble} no formato do scikit-learn e avaliação contra um modelo de
+ * referência: a descida direta nos arrays de origem, nó a nó.
+ */
+class TreeEnsembleModelTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final ModelFeature[] FEATURES = ModelFeature.values();
+
+    @Test
+    void predictsKnownModel() throws Exception {
+        // Árvore 0 em pré-ordem: txValue <= 100 ? (cpfInRestrictiveList <= 0.5 ? -1 : 2) : 3; árvore 1 só folha
+        String json = "{\"type\":\"tree_ensemble\",\"features\":[\"txValue\",\"cpfInRestrictiveList\"],"
+                + "\"baseScore\":0.1,\"trees\":["
+                + "{\"left\":[1,2,-1,-1,-1],\"right\":[4,3,-1,-1,-1],\"feature\":[0,1,0,0,0],"
+                + "\"threshold\":[100,0.5,0,0,0],\"value\":[0,0,-1,2,3]},"
+                + "{\"left\":[-1],\"right\":[-1],\"feature\":[0],\"threshold\":[0],\"value\":[0.25]}]}";
+        ScoringModel model = ScoringModelParser.parse(MAPPER.readTree(json));
+
+        assertThat(model.getTreeCount()).isEqualTo(2);
+        assertThat(model.getNodeCount()).isEqualTo(6);
+        assertThat(model.predict(transaction(5_000, false))).isCloseTo(-0.65, within(1e-6));
+        assertThat(model.predict(transaction(5_000, true))).isCloseTo(2.35, within(1e-6));
+        assertThat(model.predict(transaction(10_000, false))).isCloseTo(-0.65, within(1e-6));
+        assertThat(model.predict(transaction(10_001, true))).isCloseTo(3.35, within(1e-6));
+
+        ObjectNode logisticJson = (ObjectNode) MAPPER.readTree(json);
+        logisticJson.put("output", "logistic");
+        assertThat(ScoringModelParser.parse(logisticJson).predict(transaction(10_001, true)))
+                .isCloseTo(1 / (1 + Math.exp(-3.35)), within(1e-6));
+    }
+
+    @Test
+    void matchesReferenceOnRandomEnsemble() {
+        Random random = new Random(42);
+        // 11 árvores: dois grupos intercalados de quatro e três descidas avulsas
+        List<ReferenceTree> trees = new ArrayList<>();
+        for (int t = 0; t < 11; t++) {
+            trees.add(ReferenceTree.random(random, 1 + random.nextInt(7)));
+        }
+        ScoringModel model = ScoringModelParser.parse(json(trees, 0.5f));
+
+        for (int i = 0; i < 2_000; i++) {
+            ScoreCalculationData data = SampleRules.transaction(random);
+            float[] x = new float[FEATURES.length];
+            for (int f = 0; f < x.length; f++) {
+                x[f] = FEATURES[f].valueOf(data);
+            }
+            double expected = 0.5f;
+            for (ReferenceTree tree : trees) {
+                expected += tree.predict(x);
+            }
+            assertThat(model.predict(data)).isCloseTo(expected, within(1e-3));
+        }
+    }
+
+    @Test
+    void rejectsInvalidTrees() throws Exception {
+        String childBeforeParent = "{\"type\":\"tree_ensemble\",\"features\":[\"txValue\"],\"trees\":["
+                + "{\"left\":[-1,0,-1],\"right\":[-1,2,-1],\"feature\":[0,0,0],\"threshold\":[0,1,0],\"value\":[1,0,2]}]}";
+        String sizeMismatch = "{\"type\":\"tree_ensemble\",\"features\":[\"txValue\"],\"trees\":["
+                + "{\"left\":[1,-1,-1],\"right\":[2,-1,-1],\"feature\":[0,0],\"threshold\":[0,0,0],\"value\":[0,1,2]}]}";
+        String unknownFeature = "{\"type\":\"tree_ensemble\",\"features\":[\"cpf\"],\"trees\":["
+                + "{\"left\":[-1],\"right\":[-1],\"feature\":[0],\"threshold\":[0],\"value\":[1]}]}";
+
+        assertThatThrownBy(() -> ScoringModelParser.parse(MAPPER.readTree(childBeforeParent)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ScoringModelParser.parse(MAPPER.readTree(sizeMismatch)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ScoringModelParser.parse(MAPPER.readTree(unknownFeature)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ScoreCalculationData transaction(long txValueCents, boolean cpfInRestrictiveList) {
+        return new ScoreCalculationData("12345678901", "10.0.0.1", "device-1", "PIX", txValueCents,
+                false, cpfInRestrictiveList, false, false, null, false);
+    }
+
+    private static JsonNode json(List<ReferenceTree> trees, float baseScore) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("type", TreeEnsembleModel.TYPE);
+        ArrayNode features = node.putArray("features");
+        for (ModelFeature feature : FEATURES) {
+            features.add(feature.getFeatureName());
+        }
+        node.put("baseScore", baseScore);
+        ArrayNode treesNode = node.putArray("trees");
+        for (ReferenceTree tree : trees) {
+            ObjectNode treeNode = treesNode.addObject();
+            tree.left.forEach(treeNode.putArray("left")::add);
+            tree.right.forEach(treeNode.putArray("right")::add);
+            tree.feature.forEach(treeNode.putArray("feature")::add);
+            tree.threshold.forEach(treeNode.putArray("threshold")::add);
+            tree.value.forEach(treeNode.putArray("value")::add);
+        }
+        return node;
+    }
+
+    /**
+     * Árvore nos arrays do scikit-learn, com os nós em pré-ordem, descida nó a nó.
+     */
+    private static final class ReferenceTree {
+
+        private final List<Integer> left = new ArrayList<>();
+        private final List<Integer> right = new ArrayList<>();
+        private final List<Integer> feature = new ArrayList<>();
+        private final List<Float> threshold = new ArrayList<>();
+        private final List<Float> value = new ArrayList<>();
+
+        static ReferenceTree random(Random random, int maxDepth) {
+            ReferenceTree tree = new ReferenceTree();
+            tree.grow(random, maxDepth);
+            return tree;
+        }
+
+        private int grow(Random random, int depth) {
+            int n = left.size();
+            left.add(-1);
+            right.add(-1);
+            feature.add(0);
+            threshold.add(0f);
+            value.add((float) random.nextGaussian());
+            if (depth > 0 && random.nextInt(4) > 0) {
+                int f = random.nextInt(FEATURES.length);
+                feature.set(n, f);
+                threshold.set(n, f == 0 ? random.nextInt(20_000) + 0.5f : 0.5f);
+                left.set(n, grow(random, depth - 1));
+                right.set(n, grow(random, depth - 1));
+            }
+            return n;
+        }
+
+        double predict(float[] x) {
+            int n = 0;
+            while (left.get(n) >= 0) {
+                n = x[feature.get(n)] <= threshold.get(n) ? left.get(n) : right.get(n);
+            }
+            return value.get(n);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.acme.decision.domain.model.velocity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Estimativa de cardinalidade do {@link DistinctWindow}: erro dentro de três erros padrão
+ * ({@code 1.04 / sqrt(2^precision)}) para cardinalidades conhecidas, contagem linear para poucos valores,
+ * união dos baldes da janela e expiração dos baldes antigos.
+ */
+class DistinctWindowTest {
+
+    private static final int BUCKET_COUNT = 4;
+    private static final long BUCKET = 1_000_000;
+
+    @Test
+    void estimatesKnownCardinalitiesWithinThreeStandardErrors() {
+        for (int precision : new int[]{8, 10, 12}) {
+            double tolerance = 3 * 1.04 / Math.sqrt(1 << precision);
+            for (int cardinality : new int[]{10, 1_000, 100_000}) {
+                // Conjuntos de valores diferentes para não depender de um único conjunto de hashes
+                for (int set = 0; set < 5; set++) {
+                    DistinctWindow window = new DistinctWindow(BUCKET_COUNT, precision, BUCKET);
+                    for (int i = 0; i < cardinality; i++) {
+                        window.add(BUCKET, DistinctWindow.hash("cpf-" + set + "-" + i));
+                    }
+
+                    assertThat((double) window.estimate(BUCKET, BUCKET_COUNT))
+                            .as("precisão %d, %d valores, conjunto %d", precision, cardinality, set)
+                            .isCloseTo(cardinality, within(cardinality * tolerance));
+                }
+            }
+        }
+    }
+
+    @Test
+    void usesLinearCountingForFewValues() {
+        int precision = 8;
+        for (int cardinality = 1; cardinality <= 40; cardinality++) {
+            DistinctWindow window = new DistinctWindow(BUCKET_COUNT, precision, BUCKET);
+            for (int i = 0; i < cardinality; i++) {
+                window.add(BUCKET, DistinctWindow.hash("device-" + i));
+            }
+
+            // A estimativa bruta do HyperLogLog fica perto de 0,7 * 2^p com poucos valores; a contagem linear
+            // erra no máximo por colisões de registrador
+            assertThat(window.estimate(BUCKET, BUCKET_COUNT)).isBetween(cardinality - 2L, cardinality + 2L);
+        }
+
+        // Abaixo de 2,5 * 2^p o erro da contagem linear fica bem abaixo do do HyperLogLog
+        DistinctWindow window = new DistinctWindow(BUCKET_COUNT, precision, BUCKET);
+        for (int i = 0; i < 500; i++) {
+            window.add(BUCKET, DistinctWindow.hash("device-" + i));
+        }
+        assertThat((double) window.estimate(BUCKET, BUCKET_COUNT)).isCloseTo(500, within(500 * 3 * 1.04 / 16));
+    }
+
+    @Test
+    void emptyWindowEstimatesZero() {
+        DistinctWindow window = new DistinctWindow(BUCKET_COUNT, 8, BUCKET);
+
+        assertThat(window.estimate(BUCKET, BUCKET_COUNT)).isZero();
+    }
+
+    @Test
+    void unitesBucketsWithoutCountingRepeatedValuesTwice() {
+        DistinctWindow window = new DistinctWindow(BUCKET_COUNT, 10, BUCKET);
+        for (int b = 0; b < 3; b++) {
+            for (int i = 0; i < 1_000; i++) {
+                window.add(BUCKET + b, DistinctWindow.hash("ip-" + i));
+            }
+        }
+        for (int i = 1_000; i < 2_000; i++) {
+            window.add(BUCKET + 3, DistinctWindow.hash("ip-" + i));
+        }
+
+        double tolerance = 3 * 1.04 / 32;
+        assertThat((double) window.estimate(BUCKET + 2, 3)).isCloseTo(1_000, within(1_000 * tolerance));
+        assertThat((double) window.estimate(BUCKET + 3, BUCKET_COUNT)).isCloseTo(2_000, within(2_000 * tolerance));
+    }
+
+    @Test
+    void dropsBucketsOutsideTheWindow() {
+        DistinctWindow window = new DistinctWindow(BUCKET_COUNT, 8, BUCKET);
+        for (int i = 0; i < 1_000; i++) {
+            window.add(BUCKET, DistinctWindow.hash("old-" + i));
+        }
+        for (int i = 0; i < 10; i++) {
+            window.add(BUCKET + 3, DistinctWindow.hash("new-" + i));
+        }
+
+        double tolerance = 3 * 1.04 / 16;
+        assertThat((double) window.estimate(BUCKET + 3, BUCKET_COUNT)).isCloseTo(1_010, within(1_010 * tolerance));
+        // Janela menor que o anel: só o balde mais recente
+        assertThat(window.estimate(BUCKET + 3, 1)).isBetween(8L, 12L);
+        // Um balde depois, o primeiro sai da janela mesmo sem ter sido sobrescrito
+        assertThat(window.estimate(BUCKET + 4, BUCKET_COUNT)).isBetween(8L, 12L);
+
+        // O balde reaproveitado pelo mesmo slot começa vazio
+        window.add(BUCKET + 4, DistinctWindow.hash("newer-0"));
+        assertThat(window.estimate(BUCKET + 4, 1)).isEqualTo(1);
+        // Registro tardio em um balde já reaproveitado é descartado
+        window.add(BUCKET, DistinctWindow.hash("late"));
+        assertThat(window.estimate(BUCKET + 4, 1)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,140 @@
+package com.acme.decision.domain.model.velocity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teto de chaves e remoção de chaves ociosas do {@link WindowStore}, inclusive com registros concorrentes
+ * à varredura.
+ */
+class WindowStoreTest {
+
+    private static final int BUCKET_COUNT = 4;
+
+    @Test
+    void newWindowIsNotIdleBeforeFirstRecord() {
+        WindowStore<CountWindow> store = new WindowStore<>("teste", 1_000, BUCKET_COUNT, 2, CountWindow::new);
+        long bucket = 1_000_000;
+
+        assertThat(store.windowForRecord("a", bucket)).isNotNull();
+        assertThat(store.windowForRecord("b", bucket)).isNotNull();
+
+        // Teto atingido: a varredura não pode remover as janelas recém-criadas, mesmo sem incremento
+        assertThat(store.windowForRecord("c", bucket + 1)).isNull();
+        assertThat(store.find("a")).isNotNull();
+        assertThat(store.find("b")).isNotNull();
+        assertThat(store.getRejectedKeys()).isEqualTo(1);
+    }
+
+    @Test
+    void sweepsAtMostOncePerBucketWhenFull() {
+        WindowStore<CountWindow> store = new WindowStore<>("teste", 1_000, BUCKET_COUNT, 2, CountWindow::new);
+        long bucket = 1_000_000;
+        store.windowForRecord("a", bucket).increment(bucket);
+        store.windowForRecord("b", bucket + 2).increment(bucket + 2);
+
+        // "a" ainda está na janela: a varredura deste balde não libera espaço
+        assertThat(store.windowForRecord("c", bucket + 3)).isNull();
+
+        // No balde seguinte "a" fica ociosa e a nova varredura a remove
+        assertThat(store.windowForRecord("c", bucket + BUCKET_COUNT)).isNotNull();
+        assertThat(store.find("a")).isNull();
+        assertThat(store.getKeyCount()).isEqualTo(2);
+
+        // Teto atingido de novo no mesmo balde: recusada sem nova varredura, embora "b" não seja removível
+        assertThat(store.windowForRecord("d", bucket + BUCKET_COUNT)).isNull();
+        assertThat(store.getRejectedKeys()).isEqualTo(2);
+    }
+
+    @Test
+    void windowFetchedForRecordIsNotSweptBeforeIncrement() {
+        WindowStore<CountWindow> store = new WindowStore<>("teste", 1_000, BUCKET_COUNT, 2, CountWindow::new);
+        long bucket = 1_000_000;
+        store.windowForRecord("a", bucket).increment(bucket);
+        store.windowForRecord("b", bucket).increment(bucket);
+
+        // "a" estava ociosa, mas foi entregue para registro: a varredura disparada por "c" remove só "b"
+        long now = bucket + BUCKET_COUNT;
+        CountWindow a = store.windowForRecord("a", now);
+        assertThat(store.windowForRecord("c", now)).isNotNull();
+        a.increment(now);
+
+        assertThat(store.find("a")).isSameAs(a);
+        assertThat(store.find("a").count(now, 1)).isEqualTo(1);
+        assertThat(store.find("b")).isNull();
+    }
+
+    @Test
+    void retiredWindowIsReplacedOnNextRecord() {
+        WindowStore<CountWindow> store = new WindowStore<>("teste", 1_000, BUCKET_COUNT, 10, CountWindow::new);
+        long bucket = 1_000_000;
+        CountWindow retired = store.windowForRecord("a", bucket);
+        retired.increment(bucket);
+
+        // Retirada pela varredura, com a remoção do mapa ainda pendente
+        assertThat(retired.retireIfIdle(bucket + BUCKET_COUNT - 1, BUCKET_COUNT)).isFalse();
+        assertThat(retired.retireIfIdle(bucket + BUCKET_COUNT, BUCKET_COUNT)).isTrue();
+        assertThat(store.find("a")).isSameAs(retired);
+
+        CountWindow replacement = store.windowForRecord("a", bucket + BUCKET_COUNT);
+        assertThat(replacement).isNotNull().isNotSameAs(retired);
+        assertThat(store.find("a")).isSameAs(replacement);
+        assertThat(store.getKeyCount()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentRecordsAreNotLostToTheSweep() throws Exception {
+        int bucketCount = 2;
+        int keyCount = 48;
+        WindowStore<CountWindow> store = new WindowStore<>("teste", 1_000, bucketCount, 32, CountWindow::new);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            for (long bucket = 1; bucket <= 1_500; bucket++) {
+                long now = bucket;
+                // Um subconjunto das chaves por balde, para que chaves voltem depois de ociosas
+                int first = ThreadLocalRandom.current().nextInt(keyCount);
+                Map<String, LongAdder> recorded = new ConcurrentHashMap<>();
+                List<Callable<Void>> tasks = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    tasks.add(() -> {
+                        for (int i = 0; i < 25; i++) {
+                            String key = "k" + (first + ThreadLocalRandom.current().nextInt(keyCount / 2)) % keyCount;
+                            CountWindow window = store.windowForRecord(key, now);
+                            if (window != null) {
+                                window.increment(now);
+                                recorded.computeIfAbsent(key, k -> new LongAdder()).increment();
+                            }
+                        }
+                        return null;
+                    });
+                }
+                for (var future : executor.invokeAll(tasks)) {
+                    future.get();
+                }
+
+                // Toda janela registrada neste balde continua no mapa, com todos os incrementos
+                for (Map.Entry<String, LongAdder> entry : recorded.entrySet()) {
+                    CountWindow window = store.find(entry.getKey());
+                    assertThat(window).as(entry.getKey()).isNotNull();
+                    assertThat(window.count(now, 1)).as(entry.getKey()).isEqualTo(entry.getValue().sum());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(store.getKeyCount()).isLessThanOrEqualTo(32);
+    }
+}
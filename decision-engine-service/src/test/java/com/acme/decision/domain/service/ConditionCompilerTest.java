@@ -0,0 +1,423 @@
+package com.acme.decision.domain.service;
+
+import com.acme.decision.domain.model.Money;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.condition.AndCondition;
+import com.acme.decision.domain.model.condition.Condition;
+import com.acme.decision.domain.model.condition.ConstantCondition;
+import com.acme.decision.domain.model.condition.FieldInCondition;
+import com.acme.decision.domain.model.condition.IpCidrCondition;
+import com.acme.decision.domain.model.condition.ListCondition;
+import com.acme.decision.domain.model.condition.NotCondition;
+import com.acme.decision.domain.model.condition.OrCondition;
+import com.acme.decision.domain.model.condition.TextField;
+import com.acme.decision.domain.model.condition.ValueRangeCondition;
+import com.acme.decision.support.TestServices;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Compilação e otimização de condições: a condição otimizada avalia igual à árvore do JSON interpretada
+ * diretamente, e cada reescrita do {@link ConditionOptimizer} produz a forma esperada.
+ */
+class ConditionCompilerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String[] TX_TYPES = {"PIX", "TED", "DOC", "BOLETO"};
+    private static final String[] CPFS = {"11111111111", "22222222222", "33333333333"};
+    private static final String[] DEVICES = {"device-1", "device-2", "device-3", "device-4"};
+    private static final String[] IPS = {"10.0.0.1", "10.0.0.2", "200.1.1.7"};
+    private static final String[] LISTS = {"cpf_permissive_list", "cpf_restrictive_list", "ip_restrictive_list",
+            "device_restrictive_list"};
+    private static final String[] FLAGS = {"cpfInPermissiveList", "cpfInRestrictiveList", "ipInRestrictiveList",
+            "deviceIdInRestrictiveList"};
+    private static final String[] TX_VALUE_OPS = {"eq", "ne", "gt", "gte", "lt", "lte"};
+
+    private final ConditionCompiler compiler = TestServices.conditionCompiler(TestServices.velocityService());
+
+    @Test
+    void optimizedConditionMatchesDirectInterpretationOfTheJson() throws Exception {
+        Random random = new Random(13);
+
+        for (int c = 0; c < 2_000; c++) {
+            String json = randomCondition(random, 1 + random.nextInt(5));
+            Condition condition = compiler.compile(json);
+            JsonNode node = MAPPER.readTree(json);
+
+            for (int i = 0; i < 100; i++) {
+                ScoreCalculationData data = transaction(random);
+                assertThat(condition.matches(data)).as(json).isEqualTo(reference(node, data));
+            }
+        }
+    }
+
+    @Test
+    void mergedRangesMatchEveryValueLikeTheOriginalRanges() throws Exception {
+        Random random = new Random(17);
+
+        for (int c = 0; c < 500; c++) {
+            String[] ranges = new String[1 + random.nextInt(5)];
+            for (int i = 0; i < ranges.length; i++) {
+                int min = random.nextInt(2_000);
+                ranges[i] = range(Money.fromCents(min).toPlainString(),
+                        Money.fromCents(min + random.nextInt(300)).toPlainString());
+            }
+            String json = random.nextBoolean() ? or(ranges) : and(ranges);
+            Condition condition = compiler.compile(json);
+            JsonNode node = MAPPER.readTree(json);
+
+            // Todos os valores, para cobrir cada limite e cada intervalo entre faixas
+            for (int cents = 0; cents <= 2_400; cents++) {
+                ScoreCalculationData data = new ScoreCalculationData(CPFS[0], IPS[0], DEVICES[0], TX_TYPES[0], cents,
+                        false, false, false, false, null, false);
+                assertThat(condition.matches(data)).as(json + " em " + cents).isEqualTo(reference(node, data));
+            }
+        }
+    }
+
+    @Test
+    void foldsConstantsAndDoubleNegation() {
+        assertThat(compiler.compile(and(constant(true), "{\"type\":\"cpf_restrictive_list\"}")))
+                .isSameAs(ListCondition.CPF_RESTRICTIVE_LIST);
+        assertThat(compiler.compile(and(constant(false), "{\"type\":\"cpf_restrictive_list\"}")))
+                .isSameAs(ConstantCondition.FALSE);
+        assertThat(compiler.compile(or(constant(true), "{\"type\":\"cpf_restrictive_list\"}")))
+                .isSameAs(ConstantCondition.TRUE);
+        assertThat(compiler.compile(or(constant(false), constant(false)))).isSameAs(ConstantCondition.FALSE);
+        assertThat(compiler.compile(not(not("{\"type\":\"ip_restrictive_list\"}"))))
+                .isSameAs(ListCondition.IP_RESTRICTIVE_LIST);
+        assertThat(compiler.compile(not(constant(true)))).isSameAs(ConstantCondition.FALSE);
+    }
+
+    @Test
+    void flattensNestedJunctionsOfTheSameType() {
+        Condition condition = compiler.compile(and(
+                and("{\"type\":\"cpf_restrictive_list\"}", "{\"type\":\"ip_restrictive_list\"}"),
+                or("{\"type\":\"device_restrictive_list\"}", or("{\"type\":\"cpf_permissive_list\"}",
+                        compareText("txType", "eq", "PIX")))));
+
+        assertThat(condition).isInstanceOf(AndCondition.class);
+        Condition[] operands = ((AndCondition) condition).getConditions();
+        assertThat(operands).hasSize(3).doesNotHaveAnyElementsOfTypes(AndCondition.class);
+        OrCondition or = (OrCondition) operands[2];
+        assertThat(or.getConditions()).hasSize(3).doesNotHaveAnyElementsOfTypes(OrCondition.class);
+    }
+
+    @Test
+    void detectsContradictionsAndTautologies() {
+        String restrictive = "{\"type\":\"cpf_restrictive_list\"}";
+        String notPix = compareText("txType", "ne", "PIX");
+
+        assertThat(compiler.compile(and(restrictive, not(restrictive)))).isSameAs(ConstantCondition.FALSE);
+        assertThat(compiler.compile(or(not(restrictive), restrictive))).isSameAs(ConstantCondition.TRUE);
+        assertThat(compiler.compile(and(compareText("txType", "eq", "PIX"), notPix))).isSameAs(ConstantCondition.FALSE);
+        // A contradição aparece só depois de achatar a conjunção interna
+        assertThat(compiler.compile(and(and(restrictive, notPix), not(restrictive)))).isSameAs(ConstantCondition.FALSE);
+    }
+
+    @Test
+    void mergesValueRanges() {
+        assertThat(compiler.compile(and(range("10.00", "100.00"), range("50.00", "200.00"))))
+                .isEqualTo(new ValueRangeCondition(5_000, 10_000));
+        assertThat(compiler.compile(and(range("10.00", "20.00"), range("30.00", "40.00"))))
+                .isSameAs(ConstantCondition.FALSE);
+        // Faixas adjacentes (20,00 e 20,01) viram uma só; a separada continua à parte
+        Condition union = compiler.compile(or(range("10.00", "20.00"), range("20.01", "30.00"), range("50.00", "60.00")));
+        assertThat(union).isInstanceOf(OrCondition.class);
+        assertThat(((OrCondition) union).getConditions()).containsExactlyInAnyOrder(
+                new ValueRangeCondition(1_000, 3_000), new ValueRangeCondition(5_000, 6_000));
+        assertThat(compiler.compile(or(compareTxValue("lte", "100.00"), compareTxValue("gt", "100.00"))))
+                .isSameAs(ConstantCondition.TRUE);
+    }
+
+    @Test
+    void mergesFieldSets() {
+        assertThat(compiler.compile(and(compareTexts("txType", "in", "PIX", "TED"), compareTexts("txType", "in", "TED", "DOC"))))
+                .isEqualTo(new FieldInCondition(TextField.TX_TYPE, Set.of("TED")));
+        assertThat(compiler.compile(and(compareText("txType", "eq", "PIX"), compareText("txType", "eq", "TED"))))
+                .isSameAs(ConstantCondition.FALSE);
+        assertThat(compiler.compile(or(compareText("deviceId", "eq", "device-1"), compareText("deviceId", "eq", "device-2"))))
+                .isEqualTo(new FieldInCondition(TextField.DEVICE_ID, Set.of("device-1", "device-2")));
+        // Campos diferentes não se combinam
+        Condition mixed = compiler.compile(or(compareText("cpf", "eq", CPFS[0]), compareText("deviceId", "eq", DEVICES[0])));
+        assertThat(mixed).isInstanceOf(OrCondition.class);
+        assertThat(((OrCondition) mixed).getConditions()).hasSize(2);
+    }
+
+    @Test
+    void internsEqualSubexpressionsAndDropsRepeatedOperands() {
+        ConditionOptimizer optimizer = new ConditionOptimizer();
+        Condition notPix1 = new NotCondition(new FieldInCondition(TextField.TX_TYPE, Set.of("PIX")));
+        Condition notPix2 = new NotCondition(new FieldInCondition(TextField.TX_TYPE, Set.of("PIX")));
+        assertThat(notPix1).isNotSameAs(notPix2);
+
+        Condition optimized = optimizer.optimize(new OrCondition(new Condition[]{
+                new AndCondition(new Condition[]{ListCondition.CPF_RESTRICTIVE_LIST, notPix1}),
+                new AndCondition(new Condition[]{ListCondition.IP_RESTRICTIVE_LIST, notPix2})}));
+
+        Condition[] branches = ((OrCondition) optimized).getConditions();
+        Condition first = findNot(((AndCondition) branches[0]).getConditions());
+        Condition second = findNot(((AndCondition) branches[1]).getConditions());
+        assertThat(first).isSameAs(second);
+
+        assertThat(compiler.compile(and(compareText("cpf", "ne", CPFS[0]), compareText("cpf", "ne", CPFS[0]))))
+                .isInstanceOf(NotCondition.class);
+    }
+
+    @Test
+    void ordersOperandsByCost() {
+        Condition condition = compiler.compile(and(
+                "{\"type\":\"ip_cidr\",\"cidrs\":[\"10.0.0.0/8\"]}",
+                compareText("deviceId", "eq", DEVICES[0]),
+                "{\"type\":\"cpf_restrictive_list\"}"));
+
+        Condition[] operands = ((AndCondition) condition).getConditions();
+        assertThat(operands[0]).isSameAs(ListCondition.CPF_RESTRICTIVE_LIST);
+        assertThat(operands[1]).isInstanceOf(FieldInCondition.class);
+        assertThat(operands[2]).isInstanceOf(IpCidrCondition.class);
+        assertThat(condition.cost()).isEqualTo(1 + 4 + 8);
+    }
+
+    @Test
+    void rejectsConditionsDeeperThanTheLimit() {
+        String leaf = "{\"type\":\"cpf_restrictive_list\"}";
+        String nested = leaf;
+        for (int i = 1; i < 32; i++) {
+            nested = not(nested);
+        }
+        String atLimit = nested;
+
+        // 31 negações e a folha no 32º nível: a dupla negação reduz a uma única
+        assertThat(compiler.compile(atLimit)).isEqualTo(new NotCondition(ListCondition.CPF_RESTRICTIVE_LIST));
+        assertThatThrownBy(() -> compiler.compile(not(atLimit)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("profundidade");
+    }
+
+    @Test
+    void compareOnTxValueCompilesToValueRanges() {
+        assertThat(compiler.compile(compareTxValue("eq", "100.00"))).isEqualTo(new ValueRangeCondition(10_000, 10_000));
+        assertThat(compiler.compile(compareTxValue("gt", "100.00"))).isEqualTo(new ValueRangeCondition(10_001, Long.MAX_VALUE));
+        assertThat(compiler.compile(compareTxValue("gte", "100.00"))).isEqualTo(new ValueRangeCondition(10_000, Long.MAX_VALUE));
+        assertThat(compiler.compile(compareTxValue("lt", "100.00"))).isEqualTo(new ValueRangeCondition(Long.MIN_VALUE, 9_999));
+        assertThat(compiler.compile(compareTxValue("lte", "100.00"))).isEqualTo(new ValueRangeCondition(Long.MIN_VALUE, 10_000));
+        assertThat(compiler.compile(compareTxValue("ne", "100.00")))
+                .isEqualTo(new NotCondition(new ValueRangeCondition(10_000, 10_000)));
+        assertThatThrownBy(() -> compiler.compile(compareTxValue("in", "100.00")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Condition findNot(Condition[] operands) {
+        for (Condition operand : operands) {
+            if (operand instanceof NotCondition) {
+                return operand;
+            }
+        }
+        throw new AssertionError("Negação não encontrada");
+    }
+
+    // Condições aleatórias sobre domínios pequenos, para que faixas e conjuntos se sobreponham
+
+    private static String randomCondition(Random random, int depth) {
+        if (depth > 1 && random.nextInt(3) > 0) {
+            switch (random.nextInt(3)) {
+                case 0:
+                    return not(randomCondition(random, depth - 1));
+                default:
+                    String[] operands = new String[1 + random.nextInt(4)];
+                    for (int i = 0; i < operands.length; i++) {
+                        operands[i] = randomCondition(random, depth - 1);
+                    }
+                    return random.nextBoolean() ? and(operands) : or(operands);
+            }
+        }
+
+        switch (random.nextInt(8)) {
+            case 0:
+                int min = random.nextInt(10_000);
+                return range(Money.fromCents(min).toPlainString(),
+                        Money.fromCents(min + random.nextInt(4_000)).toPlainString());
+            case 1:
+                return compareTxValue(TX_VALUE_OPS[random.nextInt(TX_VALUE_OPS.length)],
+                        Money.fromCents(random.nextInt(10_000)).toPlainString());
+            case 2:
+                return "{\"type\":\"" + LISTS[random.nextInt(LISTS.length)] + "\"}";
+            case 3:
+                return "{\"type\":\"compare\",\"field\":\"" + FLAGS[random.nextInt(FLAGS.length)] + "\",\"op\":\""
+                        + (random.nextBoolean() ? "eq" : "ne") + "\",\"value\":" + random.nextBoolean() + "}";
+            case 4:
+                return constant(random.nextInt(4) == 0);
+            default:
+                String field;
+                String[] domain;
+                switch (random.nextInt(4)) {
+                    case 0:
+                        field = "cpf";
+                        domain = CPFS;
+                        break;
+                    case 1:
+                        field = "deviceId";
+                        domain = DEVICES;
+                        break;
+                    case 2:
+                        field = "ip";
+                        domain = IPS;
+                        break;
+                    default:
+                        field = "txType";
+                        domain = TX_TYPES;
+                }
+                String op = new String[]{"eq", "ne", "in", "not_in"}[random.nextInt(4)];
+                if (op.equals("eq") || op.equals("ne")) {
+                    return compareText(field, op, domain[random.nextInt(domain.length)]);
+                }
+                return compareTexts(field, op, domain[random.nextInt(domain.length)], domain[random.nextInt(domain.length)]);
+        }
+    }
+
+    private static ScoreCalculationData transaction(Random random) {
+        return new ScoreCalculationData(
+                CPFS[random.nextInt(CPFS.length)],
+                IPS[random.nextInt(IPS.length)],
+                DEVICES[random.nextInt(DEVICES.length)],
+                TX_TYPES[random.nextInt(TX_TYPES.length)],
+                random.nextInt(14_000),
+                random.nextBoolean(),
+                random.nextBoolean(),
+                random.nextBoolean(),
+                random.nextBoolean(),
+                null,
+                false);
+    }
+
+    /**
+     * Interpreta o JSON da condição diretamente, nó a nó, sem compilação nem otimização.
+     */
+    private static boolean reference(JsonNode node, ScoreCalculationData data) {
+        String type = node.get("type").asText();
+        switch (type) {
+            case "and":
+                for (JsonNode operand : node.get("conditions")) {
+                    if (!reference(operand, data)) {
+                        return false;
+                    }
+                }
+                return true;
+            case "or":
+                for (JsonNode operand : node.get("conditions")) {
+                    if (reference(operand, data)) {
+                        return true;
+                    }
+                }
+                return false;
+            case "not":
+                return !reference(node.get("condition"), data);
+            case "constant":
+                return node.get("value").booleanValue();
+            case "value_range":
+                return data.getTxValueCents() >= Money.toCents(node.get("min").asText())
+                        && data.getTxValueCents() <= Money.toCents(node.get("max").asText());
+            case "cpf_permissive_list":
+                return data.isCpfInPermissiveList();
+            case "cpf_restrictive_list":
+                return data.isCpfInRestrictiveList();
+            case "ip_restrictive_list":
+                return data.isIpInRestrictiveList();
+            case "device_restrictive_list":
+                return data.isDeviceIdInRestrictiveList();
+            case "compare":
+                return referenceCompare(node, data);
+            default:
+                throw new IllegalArgumentException(type);
+        }
+    }
+
+    private static boolean referenceCompare(JsonNode node, ScoreCalculationData data) {
+        String field = node.get("field").asText();
+        String op = node.get("op").asText();
+        JsonNode value = node.get("value");
+
+        switch (field) {
+            case "txValue":
+                long cents = Money.toCents(value.asText());
+                long tx = data.getTxValueCents();
+                switch (op) {
+                    case "eq":
+                        return tx == cents;
+                    case "ne":
+                        return tx != cents;
+                    case "gt":
+                        return tx > cents;
+                    case "gte":
+                        return tx >= cents;
+                    case "lt":
+                        return tx < cents;
+                    default:
+                        return tx <= cents;
+                }
+            case "cpfInPermissiveList":
+                return (data.isCpfInPermissiveList() == value.booleanValue()) == op.equals("eq");
+            case "cpfInRestrictiveList":
+                return (data.isCpfInRestrictiveList() == value.booleanValue()) == op.equals("eq");
+            case "ipInRestrictiveList":
+                return (data.isIpInRestrictiveList() == value.booleanValue()) == op.equals("eq");
+            case "deviceIdInRestrictiveList":
+                return (data.isDeviceIdInRestrictiveList() == value.booleanValue()) == op.equals("eq");
+            default:
+                String actual = field.equals("cpf") ? data.getCpf()
+                        : field.equals("ip") ? data.getIp()
+                        : field.equals("deviceId") ? data.getDeviceId()
+                        : data.getTxType();
+                boolean found = false;
+                if (value.isArray()) {
+                    for (JsonNode element : value) {
+                        found |= element.asText().equals(actual);
+                    }
+                } else {
+                    found = value.asText().equals(actual);
+                }
+                return op.equals("eq") || op.equals("in") ? found : !found;
+        }
+    }
+
+    private static String and(String... operands) {
+        return "{\"type\":\"and\",\"conditions\":[" + String.join(",", operands) + "]}";
+    }
+
+    private static String or(String... operands) {
+        return "{\"type\":\"or\",\"conditions\":[" + String.join(",", operands) + "]}";
+    }
+
+    private static String not(String operand) {
+        return "{\"type\":\"not\",\"condition\":" + operand + "}";
+    }
+
+    private static String constant(boolean value) {
+        return "{\"type\":\"constant\",\"value\":" + value + "}";
+    }
+
+    private static String range(String min, String max) {
+        return "{\"type\":\"value_range\",\"min\":\"" + min + "\",\"max\":\"" + max + "\"}";
+    }
+
+    private static String compareTxValue(String op, String value) {
+        return "{\"type\":\"compare\",\"field\":\"txValue\",\"op\":\"" + op + "\",\"value\":" + value + "}";
+    }
+
+    private static String compareText(String field, String op, String value) {
+        return "{\"type\":\"compare\",\"field\":\"" + field + "\",\"op\":\"" + op + "\",\"value\":\"" + value + "\"}";
+    }
+
+    private static String compareTexts(String field, String op, String... values) {
+        return "{\"type\":\"compare\",\"field\":\"" + field + "\",\"op\":\"" + op + "\",\"value\":[\""
+                + String.join("\",\"", values) + "\"]}";
+    }
+}
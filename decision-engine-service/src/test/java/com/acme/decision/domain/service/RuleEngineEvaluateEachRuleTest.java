@@ -0,0 +1,54 @@
+package com.acme.decision.domain.service;
+
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.CompiledRuleSet;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.metrics.RuleEvaluationListener;
+import com.acme.decision.domain.service.compiler.EvaluationMode;
+import com.acme.decision.support.SampleRules;
+import com.acme.decision.support.TestServices;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A avaliação individual das regras, usada na amostra de métricas por regra, retorna o mesmo score da
+ * avaliação normal e informa cada regra uma única vez.
+ */
+class RuleEngineEvaluateEachRuleTest {
+
+    @Test
+    void sameScoreAsNormalEvaluation() {
+        RuleEngine ruleEngine = TestServices.ruleEngine(
+                TestServices.conditionCompiler(TestServices.velocityService()), EvaluationMode.INTERPRETED, true, false);
+        Random random = new Random(7);
+
+        for (int size : new int[]{1, 10, 80}) {
+            CompiledRuleSet ruleSet = ruleEngine.compileRuleSet("DEFAULT",
+                    ruleEngine.compileRules(SampleRules.mixed(size, random)));
+
+            for (int i = 0; i < 500; i++) {
+                ScoreCalculationData data = SampleRules.transaction(random);
+                Map<Long, Integer> reported = new HashMap<>();
+                int score = ruleEngine.evaluateEachRule(data, ruleSet, new RuleEvaluationListener() {
+                    @Override
+                    public void onEvaluation(CompiledRule rule, boolean matched, long nanos) {
+                        reported.merge(rule.getId(), 1, Integer::sum);
+                    }
+
+                    @Override
+                    public void onError(CompiledRule rule, long nanos, RuntimeException error) {
+                        reported.merge(rule.getId(), 1, Integer::sum);
+                    }
+                });
+
+                assertThat(score).isEqualTo(ruleEngine.calculateScore(data, ruleSet));
+                assertThat(reported.values()).allMatch(count -> count == 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.acme.decision.domain.service;
+
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.CompiledRuleSet;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.ThresholdScore;
+import com.acme.decision.domain.model.metrics.RuleEvaluationListener;
+import com.acme.decision.domain.service.compiler.EvaluationMode;
+import com.acme.decision.support.SampleRules;
+import com.acme.decision.support.TestServices;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Uma regra cuja condição lança exceção é tratada como não aplicada, sem afetar as demais, em todos os
+ * caminhos de avaliação: interpretado, gerado em bytecode, adaptativo, reprocessamento e amostra por regra.
+ */
+class RuleEngineRuleErrorTest {
+
+    private static final int FAILING_POINTS = 500;
+
+    @Test
+    void failingRuleIsSkippedInEveryEvaluationPath() {
+        for (EvaluationMode mode : EvaluationMode.values()) {
+            for (boolean adaptive : new boolean[]{false, true}) {
+                RuleEngine ruleEngine = TestServices.ruleEngine(
+                        TestServices.conditionCompiler(TestServices.velocityService()), mode, true, adaptive);
+                Random random = new Random(11);
+
+                List<CompiledRule> healthy = ruleEngine.compileRules(SampleRules.mixed(40, random));
+                List<CompiledRule> withFailing = new ArrayList<>(healthy);
+                withFailing.add(20, new CompiledRule(9_999L, "falha", "DEFAULT", FAILING_POINTS, data -> {
+                    throw new IllegalStateException("condição com falha");
+                }));
+
+                CompiledRuleSet expected = ruleEngine.compileRuleSet("DEFAULT", healthy);
+                CompiledRuleSet actual = ruleEngine.compileRuleSet("DEFAULT", withFailing);
+
+                for (int i = 0; i < 300; i++) {
+                    ScoreCalculationData data = SampleRules.transaction(random);
+                    int score = ruleEngine.calculateScore(data, expected);
+
+                    assertThat(ruleEngine.calculateScore(data, actual)).isEqualTo(score);
+                    assertThat(ruleEngine.replayScore(data, actual, position -> { })).isEqualTo(score);
+
+                    int[] errors = new int[1];
+                    int eachRuleScore = ruleEngine.evaluateEachRule(data, actual, new RuleEvaluationListener() {
+                        @Override
+                        public void onEvaluation(CompiledRule rule, boolean matched, long nanos) {
+                        }
+
+                        @Override
+                        public void onError(CompiledRule rule, long nanos, RuntimeException error) {
+                            errors[0]++;
+                        }
+                    });
+                    assertThat(eachRuleScore).isEqualTo(score);
+                    assertThat(errors[0]).isEqualTo(1);
+
+                    int threshold = random.nextInt(1_500);
+                    ThresholdScore thresholdScore = ruleEngine.calculateScore(data, actual, threshold);
+                    assertThat(thresholdScore.getScore() > threshold).isEqualTo(score > threshold);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.acme.decision.domain.service;
+
+import com.acme.decision.domain.model.CompiledRuleSet;
+import com.acme.decision.domain.model.Rule;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.ThresholdScore;
+import com.acme.decision.domain.service.compiler.EvaluationMode;
+import com.acme.decision.support.SampleRules;
+import com.acme.decision.support.TestServices;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Limites da avaliação adaptativa com limiar de decisão.
+ */
+class RuleEngineThresholdTest {
+
+    private final RuleEngine ruleEngine = TestServices.ruleEngine(
+            TestServices.conditionCompiler(TestServices.velocityService()), EvaluationMode.INTERPRETED, true, true);
+
+    @Test
+    void shortCircuitedScoreStaysOnTheSideOfTheFullScore() {
+        Random random = new Random(3);
+        CompiledRuleSet ruleSet = ruleEngine.compileRuleSet("DEFAULT",
+                ruleEngine.compileRules(SampleRules.mixed(60, random)));
+        assertThat(ruleSet.hasAdaptiveOrder()).isTrue();
+
+        int shortCircuited = 0;
+        for (int i = 0; i < 20_000; i++) {
+            ScoreCalculationData data = SampleRules.transaction(random);
+            int threshold = random.nextInt(1_500);
+
+            int fullScore = ruleEngine.calculateScore(data, ruleSet);
+            ThresholdScore thresholdScore = ruleEngine.calculateScore(data, ruleSet, threshold);
+
+            if (!thresholdScore.isShortCircuited()) {
+                assertThat(thresholdScore.getScore()).isEqualTo(fullScore);
+            } else if (thresholdScore.getScore() > threshold) {
+                // Limite inferior do intervalo possível, já acima do limiar
+                assertThat(fullScore).isGreaterThanOrEqualTo(thresholdScore.getScore());
+                shortCircuited++;
+            } else {
+                // Limite superior do intervalo possível, já dentro do limiar
+                assertThat(fullScore).isLessThanOrEqualTo(thresholdScore.getScore());
+                shortCircuited++;
+            }
+        }
+
+        assertThat(shortCircuited).isPositive();
+    }
+
+    @Test
+    void thresholdOutsideEveryPossibleScoreShortCircuitsBeforeAnyRule() {
+        CompiledRuleSet ruleSet = ruleEngine.compileRuleSet("DEFAULT", ruleEngine.compileRules(List.of(
+                rule(1, "{\"type\":\"compare\",\"field\":\"txType\",\"op\":\"eq\",\"value\":\"PIX\"}", 100),
+                rule(2, "{\"type\":\"not\",\"condition\":{\"type\":\"cpf_permissive_list\"}}", -30)
+        )));
+        ScoreCalculationData data = SampleRules.transaction(new Random(1));
+
+        // Scores possíveis entre 1 (-30 com piso) e 100
+        ThresholdScore denied = ruleEngine.calculateScore(data, ruleSet, 0);
+        assertThat(denied.isShortCircuited()).isTrue();
+        assertThat(denied.getScore()).isEqualTo(1);
+
+        ThresholdScore approved = ruleEngine.calculateScore(data, ruleSet, 100);
+        assertThat(approved.isShortCircuited()).isTrue();
+        assertThat(approved.getScore()).isEqualTo(100);
+
+        ThresholdScore undecided = ruleEngine.calculateScore(data, ruleSet, 50);
+        assertThat(undecided.getScore()).isEqualTo(ruleEngine.calculateScore(data, ruleSet));
+    }
+
+    @Test
+    void decisionTableSetsHaveNoAdaptiveOrder() {
+        CompiledRuleSet ruleSet = ruleEngine.compileRuleSet("DEFAULT", ruleEngine.compileRules(List.of(
+                rule(1, "{\"type\":\"value_range\",\"min\":\"0\",\"max\":\"1000\"}", 100),
+                rule(2, "{\"type\":\"cpf_restrictive_list\"}", 400)
+        )));
+
+        assertThat(ruleSet.hasDecisionTable()).isTrue();
+        assertThat(ruleSet.hasAdaptiveOrder()).isFalse();
+    }
+
+    private static Rule rule(long id, String condition, int points) {
+        return new Rule(id, "regra " + id, null, "DEFAULT", condition, points, true);
+    }
+}
@@ -0,0 +1,77 @@
+package com.acme.decision.domain.service;
+
+import com.acme.decision.domain.model.Rule;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.condition.TextField;
+import com.acme.decision.domain.service.compiler.EvaluationMode;
+import com.acme.decision.support.SampleRules;
+import com.acme.decision.support.TestServices;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * O registro de transações atualiza apenas os contadores lidos pelas regras ativas e pelo candidato sombra.
+ */
+class VelocityServiceTest {
+
+    private final VelocityService velocityService = TestServices.velocityService();
+    private final RuleEngine ruleEngine = TestServices.ruleEngine(
+            TestServices.conditionCompiler(velocityService), EvaluationMode.INTERPRETED, true, false);
+    private final ScoreCalculationData transaction = SampleRules.transaction(new Random(1));
+
+    @Test
+    void recordsNothingWithoutStateRules() {
+        velocityService.useActiveRules(ruleEngine.compileRules(SampleRules.seed()));
+        velocityService.record(transaction);
+
+        assertThat(keyCounts()).containsOnly(0);
+    }
+
+    @Test
+    void recordsOnlyReferencedFieldsAndKinds() {
+        velocityService.useActiveRules(ruleEngine.compileRules(List.of(
+                stateRule(1L, "velocity", "cpf"), stateRule(2L, "distinct_count", "ip"))));
+        velocityService.record(transaction);
+
+        assertThat(velocityService.countersFor(TextField.CPF).getStore().getKeyCount()).isEqualTo(1);
+        assertThat(velocityService.distinctCpfsFor(TextField.IP).getStore().getKeyCount()).isEqualTo(1);
+        assertThat(velocityService.countersFor(TextField.IP).getStore().getKeyCount()).isZero();
+        assertThat(velocityService.accumulatorsFor(TextField.CPF).getStore().getKeyCount()).isZero();
+        assertThat(velocityService.distinctCpfsFor(TextField.DEVICE_ID).getStore().getKeyCount()).isZero();
+    }
+
+    @Test
+    void includesShadowCandidateUntilDeactivated() {
+        velocityService.useActiveRules(List.of());
+        velocityService.useShadowRules(ruleEngine.compileRules(List.of(stateRule(1L, "amount_sum", "deviceId"))));
+        velocityService.record(transaction);
+        assertThat(velocityService.accumulatorsFor(TextField.DEVICE_ID).getStore().getKeyCount()).isEqualTo(1);
+
+        velocityService.useShadowRules(List.of());
+        velocityService.record(SampleRules.transaction(new Random(2)));
+        assertThat(velocityService.accumulatorsFor(TextField.DEVICE_ID).getStore().getKeyCount()).isEqualTo(1);
+    }
+
+    private int[] keyCounts() {
+        return new int[]{
+                velocityService.countersFor(TextField.CPF).getStore().getKeyCount(),
+                velocityService.countersFor(TextField.DEVICE_ID).getStore().getKeyCount(),
+                velocityService.countersFor(TextField.IP).getStore().getKeyCount(),
+                velocityService.accumulatorsFor(TextField.CPF).getStore().getKeyCount(),
+                velocityService.accumulatorsFor(TextField.DEVICE_ID).getStore().getKeyCount(),
+                velocityService.accumulatorsFor(TextField.IP).getStore().getKeyCount(),
+                velocityService.distinctCpfsFor(TextField.DEVICE_ID).getStore().getKeyCount(),
+                velocityService.distinctCpfsFor(TextField.IP).getStore().getKeyCount()
+        };
+    }
+
+    private static Rule stateRule(long id, String type, String field) {
+        String condition = "{\"type\":\"" + type + "\",\"field\":\"" + field
+                + "\",\"windowSeconds\":600,\"op\":\"gt\",\"value\":3}";
+        return new Rule(id, type + " " + field, null, "DEFAULT", condition, 100, true);
+    }
+}
@@ -0,0 +1,72 @@
+package com.acme.decision.domain.service.compiler;
+
+import com.acme.decision.domain.model.CompiledRule;
+import com.acme.decision.domain.model.ScoreCalculationData;
+import com.acme.decision.domain.model.ScoreFunction;
+import com.acme.decision.domain.model.condition.ValueRangeCondition;
+import com.acme.decision.domain.model.index.ValueRangeIndex;
+import com.acme.decision.domain.service.RuleEngine;
+import com.acme.decision.support.SampleRules;
+import com.acme.decision.support.TestServices;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Equivalência entre a função de score gerada em bytecode e a soma regra a regra.
+ */
+class ScoreFunctionGeneratorTest {
+
+    private final RuleEngine ruleEngine = TestServices.ruleEngine(
+            TestServices.conditionCompiler(TestServices.velocityService()), EvaluationMode.INTERPRETED, false, false);
+    private final ScoreFunctionGenerator generator = new ScoreFunctionGenerator();
+
+    @Test
+    void generatedFunctionMatchesInterpretedScore() {
+        Random random = new Random(7);
+        for (int ruleCount : new int[]{1, 5, 40, 255, 256, 257, 700}) {
+            assertEquivalent(ruleEngine.compileRules(SampleRules.mixed(ruleCount, random)), random);
+        }
+    }
+
+    @Test
+    void generatedFunctionWithoutSequentialRulesReturnsRangePoints() {
+        Random random = new Random(11);
+        List<CompiledRule> rules = new ArrayList<>();
+        for (CompiledRule rule : ruleEngine.compileRules(SampleRules.mixed(50, random))) {
+            if (rule.getCondition() instanceof ValueRangeCondition) {
+                rules.add(rule);
+            }
+        }
+
+        assertEquivalent(rules, random);
+    }
+
+    private void assertEquivalent(List<CompiledRule> rules, Random random) {
+        List<CompiledRule> rangeRules = new ArrayList<>();
+        List<CompiledRule> sequentialRules = new ArrayList<>();
+        for (CompiledRule rule : rules) {
+            (rule.getCondition() instanceof ValueRangeCondition ? rangeRules : sequentialRules).add(rule);
+        }
+        ValueRangeIndex valueRangeIndex = ValueRangeIndex.build(rangeRules);
+        ScoreFunction generated = generator.generate(valueRangeIndex, sequentialRules);
+
+        for (int i = 0; i < 2_000; i++) {
+            ScoreCalculationData data = SampleRules.transaction(random);
+
+            int interpreted = 0;
+            for (CompiledRule rule : rules) {
+                if (rule.getCondition().matches(data)) {
+                    interpreted += rule.getPoints();
+                }
+            }
+
+            assertThat(generated.rawScore(data)).as("%d regras, transação %s", rules.size(), data)
+                    .isEqualTo(interpreted);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.acme.decision.infrastructure.controller;
+
+import com.acme.decision.application.port.DecisionEnginePort;
+import com.acme.decision.domain.model.ScoreResult;
+import com.acme.decision.domain.model.explain.FiredRule;
+import com.acme.decision.domain.model.explain.ScoreExplanation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Máscara de regras aplicadas na API: o {@code firedRules} retornado pelo cálculo, em Base64 URL sem
+ * preenchimento, volta ao {@code /explain} como o mesmo {@link BitSet}; versão indisponível responde 404 e
+ * máscara inválida ou incompatível com o conjunto, 400.
+ */
+class DecisionEngineControllerExplainTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private DecisionEnginePort decisionEnginePort;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        decisionEnginePort = mock(DecisionEnginePort.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new DecisionEngineController(decisionEnginePort, objectMapper))
+                .build();
+    }
+
+    @Test
+    void firedRulesRoundTripThroughExplain() throws Exception {
+        Random random = new Random(34);
+        List<BitSet> masks = new ArrayList<>(List.of(
+                new BitSet(),
+                BitSet.valueOf(new long[]{1L}),
+                BitSet.valueOf(new long[]{1L << 63}),
+                // Bytes 0xFB 0xFF: sextetos 62 e 63, codificados como '-' e '_' no alfabeto URL
+                BitSet.valueOf(new byte[]{(byte) 0xFB, (byte) 0xFF, (byte) 0xBF})));
+        for (int i = 0; i < 100; i++) {
+            BitSet mask = new BitSet();
+            int size = 1 + random.nextInt(600);
+            for (int bit = 0; bit < size; bit++) {
+                if (random.nextInt(4) == 0) {
+                    mask.set(bit);
+                }
+            }
+            masks.add(mask);
+        }
+
+        boolean urlAlphabetSeen = false;
+        for (BitSet mask : masks) {
+            reset(decisionEnginePort);
+            when(decisionEnginePort.calculateScore(any())).thenReturn(new ScoreResult(700, 7L, false, mask));
+            when(decisionEnginePort.explain(anyLong(), anyString(), any()))
+                    .thenReturn(Optional.of(new ScoreExplanation(7L, "PIX", List.of(), 0, 1)));
+
+            String body = mockMvc.perform(post("/decision-engine/calculate-score")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"cpf\":\"12345678901\",\"txType\":\"PIX\",\"txValue\":10.5,\"explain\":true}"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode response = objectMapper.readTree(body);
+            String firedRules = response.get("firedRules").asText();
+            assertThat(firedRules).matches("[A-Za-z0-9_-]*");
+            urlAlphabetSeen |= firedRules.contains("-") || firedRules.contains("_");
+
+            mockMvc.perform(get("/decision-engine/explain")
+                            .param("ruleSetVersion", response.get("ruleSetVersion").asText())
+                            .param("txType", "PIX")
+                            .param("firedRules", firedRules))
+                    .andExpect(status().isOk());
+
+            ArgumentCaptor<BitSet> decoded = ArgumentCaptor.forClass(BitSet.class);
+            verify(decisionEnginePort).explain(eq(7L), eq("PIX"), decoded.capture());
+            assertThat(decoded.getValue()).isEqualTo(mask);
+        }
+        assertThat(urlAlphabetSeen).isTrue();
+    }
+
+    @Test
+    void firedRulesIsOmittedWithoutExplain() throws Exception {
+        when(decisionEnginePort.calculateScore(any())).thenReturn(new ScoreResult(200, 3L, false, null));
+
+        mockMvc.perform(post("/decision-engine/calculate-score")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cpf\":\"12345678901\",\"txType\":\"PIX\",\"txValue\":10.5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firedRules").doesNotExist());
+    }
+
+    @Test
+    void explainReturnsTheDecodedRules() throws Exception {
+        when(decisionEnginePort.explain(eq(3L), eq("PIX"), any())).thenReturn(Optional.of(new ScoreExplanation(
+                3L, "PIX", List.of(new FiredRule(0, 10L, "Valor alto", 300), new FiredRule(9, 12L, "Lista", -50)),
+                250, 250)));
+
+        mockMvc.perform(get("/decision-engine/explain")
+                        .param("ruleSetVersion", "3")
+                        .param("txType", "PIX")
+                        .param("firedRules", "AQI"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ruleSetVersion").value(3))
+                .andExpect(jsonPath("$.rawScore").value(250))
+                .andExpect(jsonPath("$.rules[1].position").value(9))
+                .andExpect(jsonPath("$.rules[1].ruleId").value(12));
+    }
+
+    @Test
+    void unknownOrEvictedVersionIsNotFound() throws Exception {
+        when(decisionEnginePort.explain(anyLong(), anyString(), any())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/decision-engine/explain")
+                        .param("ruleSetVersion", "1")
+                        .param("txType", "PIX")
+                        .param("firedRules", "AQ"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void maskLongerThanTheRuleSetIsBadRequest() throws Exception {
+        when(decisionEnginePort.explain(anyLong(), anyString(), any()))
+                .thenThrow(new IllegalArgumentException("Máscara de regras incompatível"));
+
+        mockMvc.perform(get("/decision-engine/explain")
+                        .param("ruleSetVersion", "1")
+                        .param("txType", "PIX")
+                        .param("firedRules", "____"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void malformedMaskIsBadRequest() throws Exception {
+        for (String firedRules : new String[]{"A", "AQ+/", "a.b"}) {
+            mockMvc.perform(get("/decision-engine/explain")
+                            .param("ruleSetVersion", "1")
+                            .param("txType", "PIX")
+                            .param("firedRules", firedRules))
+                    .andExpect(status().isBadRequest());
+        }
+        verifyNoInteractions(decisionEnginePort);
+    }
+}
@@ -0,0 +1,105 @@
+package com.acme.decision.support;
+
+import com.acme.decision.domain.model.Rule;
+import com.acme.decision.domain.model.ScoreCalculationData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Regras e transações sintéticas, com os tipos de condição sem estado, para testes e benchmarks.
+ */
+public final class SampleRules {
+
+    private static final String[] TX_TYPES = {"PIX", "TED", "DOC", "BOLETO"};
+
+    private SampleRules() {
+    }
+
+    /**
+     * Regras sem chave (nem CPF, dispositivo ou IP exatos), misturando faixas de valor, listas,
+     * condições compostas e blocos de IP.
+     *
+     * @param count quantidade de regras
+     * @param random fonte de aleatoriedade
+     * @return regras ativas do tipo DEFAULT, com IDs sequenciais
+     */
+    public static List<Rule> mixed(int count, Random random) {
+        List<Rule> rules = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            rules.add(new Rule(id, "regra " + id, null, "DEFAULT", condition(random), random.nextInt(301) - 50, true));
+        }
+        return rules;
+    }
+
+    /**
+     * As regras iniciais de {@code data.sql}: faixas de valor e listas para DEFAULT e CARTAO.
+     *
+     * @return regras ativas, com IDs sequenciais
+     */
+    public static List<Rule> seed() {
+        return List.of(
+                new Rule(1L, "Valor 0.01-300", null, "DEFAULT", valueRange("0.01", "300.00"), 200, true),
+                new Rule(2L, "Valor 301-5000", null, "DEFAULT", valueRange("301.00", "5000.00"), 300, true),
+                new Rule(3L, "Valor 5001-20000", null, "DEFAULT", valueRange("5001.00", "20000.00"), 400, true),
+                new Rule(4L, "Valor acima 20000", null, "DEFAULT", valueRange("20000.01", "999999999.99"), 500, true),
+                new Rule(5L, "CPF Lista Permissiva", null, "DEFAULT", "{\"type\":\"cpf_permissive_list\"}", -200, true),
+                new Rule(6L, "CPF Lista Restritiva", null, "DEFAULT", "{\"type\":\"cpf_restrictive_list\"}", 400, true),
+                new Rule(7L, "IP Lista Restritiva", null, "DEFAULT", "{\"type\":\"ip_restrictive_list\"}", 400, true),
+                new Rule(8L, "Device Lista Restritiva", null, "DEFAULT", "{\"type\":\"device_restrictive_list\"}", 400, true),
+                new Rule(9L, "Cartão Valor 0.01-300", null, "CARTAO", valueRange("0.01", "300.00"), 300, true),
+                new Rule(10L, "Cartão CPF Lista Permissiva", null, "CARTAO", "{\"type\":\"cpf_permissive_list\"}", -300, true)
+        );
+    }
+
+    /**
+     * Transação com valor, tipo, IP e flags de lista aleatórios.
+     *
+     * @param random fonte de aleatoriedade
+     * @return dados de cálculo
+     */
+    public static ScoreCalculationData transaction(Random random) {
+        return new ScoreCalculationData(
+                String.format("%011d", random.nextInt(1_000_000)),
+                random.nextBoolean() ? "10." + random.nextInt(256) + ".0.1" : "200.1." + random.nextInt(256) + ".7",
+                "device-" + random.nextInt(1_000),
+                TX_TYPES[random.nextInt(TX_TYPES.length)],
+                1 + random.nextInt(2_000_000),
+                random.nextInt(10) == 0,
+                random.nextInt(10) == 0,
+                random.nextInt(10) == 0,
+                random.nextInt(10) == 0,
+                null,
+                false
+        );
+    }
+
+    private static String valueRange(String min, String max) {
+        return "{\"type\":\"value_range\",\"min\":\"" + min + "\",\"max\":\"" + max + "\"}";
+    }
+
+    private static String condition(Random random) {
+        long value = random.nextInt(20_000);
+        switch (random.nextInt(7)) {
+            case 0:
+                return "{\"type\":\"value_range\",\"min\":\"" + value + "\",\"max\":\"" + (value + random.nextInt(5_000)) + "\"}";
+            case 1:
+                return "{\"type\":\"and\",\"conditions\":[{\"type\":\"compare\",\"field\":\"txValue\",\"op\":\"gt\",\"value\":"
+                        + value + "},{\"type\":\"cpf_restrictive_list\"}]}";
+            case 2:
+                return "{\"type\":\"or\",\"conditions\":[{\"type\":\"ip_restrictive_list\"},"
+                        + "{\"type\":\"compare\",\"field\":\"txType\",\"op\":\"in\",\"value\":[\""
+                        + TX_TYPES[random.nextInt(TX_TYPES.length)] + "\",\"" + TX_TYPES[random.nextInt(TX_TYPES.length)] + "\"]}]}";
+            case 3:
+                return "{\"type\":\"not\",\"condition\":{\"type\":\"cpf_permissive_list\"}}";
+            case 4:
+                return "{\"type\":\"device_restrictive_list\"}";
+            case 5:
+                return "{\"type\":\"ip_cidr\",\"cidrs\":[\"10." + random.nextInt(256) + ".0.0/16\",\"200.1.0.0/24\"]}";
+            default:
+                return "{\"type\":\"and\",\"conditions\":[{\"type\":\"compare\",\"field\":\"txValue\",\"op\":\"lte\",\"value\":"
+                        + value + "},{\"type\":\"not\",\"condition\":{\"type\":\"compare\",\"field\":\"txType\",\"op\":\"eq\",\"value\":\"PIX\"}}]}";
+        }
+    }
+}
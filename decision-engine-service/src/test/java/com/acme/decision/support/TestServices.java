@@ -0,0 +1,48 @@
+package com.acme.decision.support;
+
+import com.acme.decision.domain.service.ConditionCompiler;
+import com.acme.decision.domain.service.ModelRegistry;
+import com.acme.decision.domain.service.RuleEngine;
+import com.acme.decision.domain.service.VelocityService;
+import com.acme.decision.domain.service.compiler.EvaluationMode;
+import com.acme.decision.domain.service.compiler.ScoreFunctionGenerator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Monta os serviços de domínio fora do contexto Spring, com os valores padrão das propriedades
+ * {@code decision-engine.*}, para testes e benchmarks.
+ */
+public final class TestServices {
+
+    private TestServices() {
+    }
+
+    public static VelocityService velocityService() {
+        VelocityService velocityService = new VelocityService();
+        ReflectionTestUtils.setField(velocityService, "enabled", true);
+        ReflectionTestUtils.setField(velocityService, "bucketSeconds", 60);
+        ReflectionTestUtils.setField(velocityService, "bucketCount", 60);
+        ReflectionTestUtils.setField(velocityService, "amountBucketSeconds", 3600);
+        ReflectionTestUtils.setField(velocityService, "amountBucketCount", 24);
+        ReflectionTestUtils.setField(velocityService, "maxKeys", 100_000);
+        ReflectionTestUtils.setField(velocityService, "distinctPrecision", 8);
+        ReflectionTestUtils.setField(velocityService, "distinctBucketSeconds", 600);
+        ReflectionTestUtils.setField(velocityService, "distinctBucketCount", 6);
+        ReflectionTestUtils.setField(velocityService, "distinctMaxKeys", 20_000);
+        velocityService.init();
+        return velocityService;
+    }
+
+    public static ConditionCompiler conditionCompiler(VelocityService velocityService) {
+        return new ConditionCompiler(velocityService, new ModelRegistry());
+    }
+
+    public static RuleEngine ruleEngine(ConditionCompiler conditionCompiler, EvaluationMode evaluationMode,
+                                        boolean decisionTableEnabled, boolean adaptiveEvaluationEnabled) {
+        RuleEngine ruleEngine = new RuleEngine(conditionCompiler, new ScoreFunctionGenerator());
+        ReflectionTestUtils.setField(ruleEngine, "evaluationMode", evaluationMode);
+        ReflectionTestUtils.setField(ruleEngine, "decisionTableEnabled", decisionTableEnabled);
+        ReflectionTestUtils.setField(ruleEngine, "adaptiveEvaluationEnabled", adaptiveEvaluationEnabled);
+        return ruleEngine;
+    }
+}
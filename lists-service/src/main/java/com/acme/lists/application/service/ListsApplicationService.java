@@ -2,12 +2,14 @@ package com.acme.lists.application.service;
 
 import com.acme.lists.application.port.ListsPort;
 import com.acme.lists.application.port.ListsRepositoryPort;
+import com.acme.lists.domain.model.BloomFilter;
 import com.acme.lists.domain.model.Lists;
 import com.acme.lists.domain.model.ListsCheckData;
 import com.acme.lists.domain.model.ListsCheckResult;
 import com.acme.lists.domain.service.ListsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
@@ -23,6 +25,12 @@ public class ListsApplicationService implements ListsPort {
 
     private final ListsService listsService;
     private final ListsRepositoryPort listsRepositoryPort;
+
+    @Value("${lists.bloom-filter.enabled:true}")
+    private boolean bloomFilterEnabled;
+
+    @Value("${lists.bloom-filter.false-positive-rate:0.01}")
+    private double bloomFilterFalsePositiveRate;
     
     private Lists currentLists;
 
@@ -62,7 +70,13 @@ public class ListsApplicationService implements ListsPort {
         log.info("Recarregando listas...");
         
         try {
-            currentLists = listsRepositoryPort.loadLists();
+            Lists lists = listsRepositoryPort.loadLists();
+            if (bloomFilterEnabled) {
+                buildFilters(lists);
+            } else {
+                disableFilters(lists);
+            }
+            currentLists = lists;
             
             log.info("Listas recarregadas com sucesso: {} CPFs permissivos, {} CPFs restritivos, {} IPs restritivos, {} devices restritivos",
                     currentLists.getCpfPermissiveList().size(),
@@ -75,5 +89,39 @@ public class ListsApplicationService implements ListsPort {
             throw new RuntimeException("Falha ao recarregar listas", e);
         }
     }
+
+    /**
+     * Monta os filtros de Bloom das listas exatas que ainda não têm filtro: os de um snapshot vêm prontos do
+     * arquivo, na taxa usada na compilação, e não são remontados. A lista de IPs não tem filtro: um endereço
+     * consta nela por pertencer a um bloco, e não por igualdade com uma entrada.
+     */
+    private void buildFilters(Lists lists) {
+        if (!lists.getCpfPermissiveFilter().isEnabled()) {
+            lists.setCpfPermissiveFilter(lists.getCpfPermissiveList().bloomFilter(bloomFilterFalsePositiveRate));
+        }
+        if (!lists.getCpfRestrictiveFilter().isEnabled()) {
+            lists.setCpfRestrictiveFilter(lists.getCpfRestrictiveList().bloomFilter(bloomFilterFalsePositiveRate));
+        }
+        if (!lists.getDeviceRestrictiveFilter().isEnabled()) {
+            lists.setDeviceRestrictiveFilter(lists.getDeviceRestrictiveList().bloomFilter(bloomFilterFalsePositiveRate));
+        }
+
+        logFilter("CPFs permissivos", lists.getCpfPermissiveFilter());
+        logFilter("CPFs restritivos", lists.getCpfRestrictiveFilter());
+        logFilter("devices restritivos", lists.getDeviceRestrictiveFilter());
+    }
+
+    private void disableFilters(Lists lists) {
+        lists.setCpfPermissiveFilter(BloomFilter.disabled());
+        lists.setCpfRestrictiveFilter(BloomFilter.disabled());
+        lists.setDeviceRestrictiveFilter(BloomFilter.disabled());
+    }
+
+    private void logFilter(String name, BloomFilter filter) {
+        log.info("Filtro de Bloom de {}: {} entradas, {} bytes, taxa de falsos positivos {} (meta {})",
+                name, filter.entries(), filter.sizeInBytes(),
+                String.format("%.4f%%", filter.falsePositiveRate() * 100),
+                String.format("%.4f%%", bloomFilterFalsePositiveRate * 100));
+    }
 }
 
@@ -0,0 +1,218 @@
+package com.acme.lists.domain.model;
+
+import java.nio.LongBuffer;
+import java.util.function.LongConsumer;
+
+/**
+ * Filtro de Bloom em blocos divididos (split-block), usado à frente das listas para responder negativas
+ * definitivas sem tocar no conjunto principal.
+ * <p>
+ * Cada chave escolhe um bloco de 256 bits (oito palavras de 32 bits) e liga um bit em cada palavra, então uma
+ * consulta lê uma única linha de cache. O filtro tem cerca de 10 bits por entrada para 1% de falsos
+ * positivos, pequeno o bastante para ficar no cache do processador mesmo quando a lista não fica.
+ * <p>
+ * As palavras ficam aos pares em um {@link LongBuffer} (a palavra par nos 32 bits baixos), e a consulta
+ * confere duas palavras por leitura. O buffer é um array do heap, quando o filtro é montado na carga, ou a
+ * seção de um snapshot mapeado em memória, gravada pelo compilador com os mesmos valores.
+ */
+public final class BloomFilter {
+
+    private static final int WORDS_PER_BLOCK = 8;
+    public static final int LONGS_PER_BLOCK = WORDS_PER_BLOCK / 2;
+    private static final int BITS_PER_BLOCK = WORDS_PER_BLOCK * Integer.SIZE;
+    // Constantes ímpares do formato de filtro em blocos do Parquet, uma por palavra do bloco
+    private static final int[] SALT = {
+            0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d,
+            0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31};
+
+    private static final BloomFilter DISABLED = new BloomFilter(null, 0, 1.0);
+
+    private final LongBuffer words;
+    private final int blockCount;
+    private final int entries;
+    private final double falsePositiveRate;
+
+    private BloomFilter(LongBuffer words, int entries, double falsePositiveRate) {
+        this.words = words;
+        this.blockCount = words == null ? 0 : words.limit() / LONGS_PER_BLOCK;
+        this.entries = entries;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Filtro que nunca descarta uma chave, usado quando o filtro está desligado.
+     */
+    public static BloomFilter disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Filtro sobre palavras já montadas, usadas sem cópia, como as de um snapshot.
+     *
+     * @param words palavras do filtro, na ordem de {@link #forEachLong}
+     * @param entries quantidade de entradas do filtro
+     * @param falsePositiveRate taxa de falsos positivos calculada na montagem
+     * @throws IllegalArgumentException se as palavras não formarem blocos inteiros
+     */
+    public static BloomFilter wrap(LongBuffer words, int entries, double falsePositiveRate) {
+        if (words.limit() == 0 || words.limit() % LONGS_PER_BLOCK != 0) {
+            throw new IllegalArgumentException("Filtro de Bloom deve ter blocos inteiros de " + LONGS_PER_BLOCK + " longs");
+        }
+        return new BloomFilter(words, entries, falsePositiveRate);
+    }
+
+    public boolean isEnabled() {
+        return words != null;
+    }
+
+    /**
+     * @param key chave de 64 bits, com os bits altos e baixos bem distribuídos
+     * @return false se a chave certamente não está na lista
+     */
+    public boolean mightContain(long key) {
+        if (words == null) {
+            return true;
+        }
+
+        long hash = mix(key);
+        int base = blockOf(hash, blockCount) * LONGS_PER_BLOCK;
+        int low = (int) hash;
+        for (int i = 0; i < LONGS_PER_BLOCK; i++) {
+            long mask = pairMask(low, i);
+            if ((words.get(base + i) & mask) != mask) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int entries() {
+        return entries;
+    }
+
+    public long sizeInBytes() {
+        return words == null ? 0 : (long) words.limit() * Long.BYTES;
+    }
+
+    /**
+     * Percorre as palavras do filtro em ordem, aos pares, para gravá-las.
+     */
+    public void forEachLong(LongConsumer action) {
+        if (words == null) {
+            return;
+        }
+        for (int i = 0; i < words.limit(); i++) {
+            action.accept(words.get(i));
+        }
+    }
+
+    /**
+     * Taxa de falsos positivos do filtro montado para uma chave ausente qualquer, calculada a partir dos bits
+     * efetivamente ligados (e não da estimativa usada no dimensionamento).
+     */
+    public double falsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * Bits que a chave liga no par de palavras {@code pair} do bloco: um na palavra par, nos 32 bits baixos,
+     * e um na ímpar, nos altos.
+     */
+    private static long pairMask(int low, int pair) {
+        return (1L << ((low * SALT[pair * 2]) >>> 27)) | (1L << (Integer.SIZE + ((low * SALT[pair * 2 + 1]) >>> 27)));
+    }
+
+    private static int blockOf(long hash, int blockCount) {
+        return (int) (((hash >>> 32) * blockCount) >>> 32);
+    }
+
+    private static long mix(long key) {
+        // fmix64 do MurmurHash3: CPFs e hashes de texto não têm os bits distribuídos de forma uniforme
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * Maior ocupação média dos blocos (entradas por bloco) que mantém a taxa de falsos positivos na meta.
+     * A ocupação de cada bloco segue uma distribuição de Poisson; a fórmula clássica de filtros de Bloom,
+     * que supõe bits independentes, subestima a taxa do arranjo em blocos em cerca de 50% a 1%.
+     */
+    private static double entriesPerBlock(double falsePositiveRate) {
+        double low = 0;
+        double high = BITS_PER_BLOCK;
+        for (int i = 0; i < 50; i++) {
+            double middle = (low + high) / 2;
+            if (expectedFalsePositiveRate(middle) <= falsePositiveRate) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return Math.max(low, Double.MIN_NORMAL);
+    }
+
+    private static double expectedFalsePositiveRate(double entriesPerBlock) {
+        double sum = 0;
+        double poisson = Math.exp(-entriesPerBlock); // P(k entradas no bloco), começando em k = 0
+        int limit = (int) (entriesPerBlock + 10 * Math.sqrt(entriesPerBlock) + 10);
+        for (int k = 0; k <= limit; k++) {
+            // Com k entradas, cada bit da palavra está ligado com probabilidade 1 - (31/32)^k
+            sum += poisson * Math.pow(1 - Math.pow(1 - 1.0 / Integer.SIZE, k), WORDS_PER_BLOCK);
+            poisson *= entriesPerBlock / (k + 1);
+        }
+        return sum;
+    }
+
+    /**
+     * Monta o filtro dimensionado para a quantidade de entradas e a taxa de falsos positivos desejada.
+     */
+    public static final class Builder {
+
+        private final long[] words;
+        private final int blockCount;
+        private int entries;
+
+        public Builder(int expectedEntries, double falsePositiveRate) {
+            if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+                throw new IllegalArgumentException("Taxa de falsos positivos deve estar entre 0 e 1: " + falsePositiveRate);
+            }
+
+            long blocks = (long) Math.ceil(Math.max(1, expectedEntries) / entriesPerBlock(falsePositiveRate));
+            if (blocks > Integer.MAX_VALUE / LONGS_PER_BLOCK) {
+                throw new IllegalArgumentException("Filtro grande demais para " + expectedEntries + " entradas");
+            }
+            this.blockCount = (int) blocks;
+            this.words = new long[blockCount * LONGS_PER_BLOCK];
+        }
+
+        public Builder add(long key) {
+            long hash = mix(key);
+            int base = blockOf(hash, blockCount) * LONGS_PER_BLOCK;
+            int low = (int) hash;
+            for (int i = 0; i < LONGS_PER_BLOCK; i++) {
+                words[base + i] |= pairMask(low, i);
+            }
+            entries++;
+            return this;
+        }
+
+        public BloomFilter build() {
+            // Uma chave ausente é falso positivo se encontrar ligados os oito bits que escolher no seu bloco
+            double sum = 0;
+            for (int block = 0; block < blockCount; block++) {
+                double probability = 1;
+                for (int i = 0; i < LONGS_PER_BLOCK; i++) {
+                    long pair = words[block * LONGS_PER_BLOCK + i];
+                    probability *= Integer.bitCount((int) pair) / (double) Integer.SIZE
+                            * Integer.bitCount((int) (pair >>> Integer.SIZE)) / (double) Integer.SIZE;
+                }
+                sum += probability;
+            }
+            return new BloomFilter(LongBuffer.wrap(words), entries, sum / blockCount);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.acme.lists.domain.model;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Lista de CPFs normalizados por {@link CpfSet#parse}, mantida em memória ({@link CpfSet}) ou lida de
+ * outra representação pelo adaptador de persistência.
+ */
+public interface CpfList {
+
+    /**
+     * @param cpf CPF normalizado por {@link CpfSet#parse}
+     * @return true se o CPF está na lista
+     */
+    boolean contains(long cpf);
+
+    int size();
+
+    /**
+     * Percorre os CPFs em ordem crescente, sem repetições.
+     */
+    void forEach(LongConsumer action);
+
+    /**
+     * Monta um filtro de Bloom com os CPFs da lista; a chave de cada CPF é o próprio valor normalizado.
+     *
+     * @param falsePositiveRate taxa de falsos positivos desejada
+     * @return filtro para {@link BloomFilter#mightContain(long)}
+     */
+    default BloomFilter bloomFilter(double falsePositiveRate) {
+        BloomFilter.Builder builder = new BloomFilter.Builder(size(), falsePositiveRate);
+        forEach(builder::add);
+        return builder.build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.acme.lists.domain.model;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Conjunto imutável de CPFs normalizados para {@code long}, em um array ordenado sem repetições
+ * (8 bytes por CPF, sem objetos por entrada).
+ * <p>
+ * Com dezenas de milhões de CPFs o array não cabe em cache e cada leitura de uma busca binária é uma
+ * falta de cache. Como os CPFs são distribuídos de forma praticamente uniforme no intervalo de 11 dígitos,
+ * um diretório indexado pelos bits mais altos do CPF guarda o início de cada balde (cerca de
+ * {@link #ENTRIES_PER_BUCKET} CPFs), e a busca lê uma posição do diretório e um ou dois blocos do array.
+ */
+public final class CpfSet implements CpfList {
+
+    /**
+     * Resultado de {@link #parse} para CPFs inválidos.
+     */
+    public static final long INVALID = -1;
+
+    private static final int CPF_DIGITS = 11;
+    private static final int ENTRIES_PER_BUCKET = 8;
+    // Todo CPF é menor que 10^11 < 2^37
+    private static final int KEY_BITS = 37;
+    private static final CpfSet EMPTY = new CpfSet(new long[0]);
+
+    private final long[] cpfs;
+    private final int[] bucketStarts; // bucketStarts[b] = primeira posição com CPF >>> shift >= b
+    private final int shift;
+
+    private CpfSet(long[] cpfs) {
+        this.cpfs = cpfs;
+
+        int bucketBits = 0;
+        while (bucketBits < KEY_BITS - 1 && (cpfs.length >> bucketBits) > ENTRIES_PER_BUCKET) {
+            bucketBits++;
+        }
+        this.shift = KEY_BITS - bucketBits;
+        this.bucketStarts = new int[(1 << bucketBits) + 1];
+
+        int position = 0;
+        for (int b = 0; b < bucketStarts.length; b++) {
+            while (position < cpfs.length && (cpfs[position] >>> shift) < b) {
+                position++;
+            }
+            bucketStarts[b] = position;
+        }
+    }
+
+    public static CpfSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Cria o conjunto a partir dos primeiros {@code count} CPFs do array, que não é alterado.
+     *
+     * @param cpfs CPFs normalizados por {@link #parse}, em qualquer ordem e com possíveis repetições
+     * @param count quantidade de posições válidas
+     * @return conjunto de CPFs
+     */
+    public static CpfSet of(long[] cpfs, int count) {
+        long[] sorted = Arrays.copyOf(cpfs, count);
+        Arrays.sort(sorted);
+
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return new CpfSet(unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique));
+    }
+
+    @Override
+    public int size() {
+        return cpfs.length;
+    }
+
+    @Override
+    public void forEach(LongConsumer action) {
+        for (long cpf : cpfs) {
+            action.accept(cpf);
+        }
+    }
+
+    /**
+     * @param cpf CPF com 11 dígitos, com ou sem pontuação
+     * @return true se o CPF é válido e está no conjunto
+     */
+    public boolean contains(CharSequence cpf) {
+        long value = parse(cpf);
+        return value != INVALID && contains(value);
+    }
+
+    /**
+     * @param cpf CPF normalizado por {@link #parse}
+     * @return true se o CPF está no conjunto
+     */
+    @Override
+    public boolean contains(long cpf) {
+        if (cpf < 0 || (cpf >>> KEY_BITS) != 0) {
+            return false;
+        }
+
+        int bucket = (int) (cpf >>> shift);
+        int from = bucketStarts[bucket];
+        int to = bucketStarts[bucket + 1];
+        for (int i = from; i < to; i++) {
+            long value = cpfs[i];
+            if (value >= cpf) {
+                return value == cpf;
+            }
+            if (to - i > ENTRIES_PER_BUCKET * 2) {
+                // Balde concentrado (distribuição fora do padrão): busca binária no restante
+                return Arrays.binarySearch(cpfs, i, to, cpf) >= 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Normaliza um CPF para {@code long}, sem alocação. Aceita exatamente 11 dígitos, com ou sem
+     * a pontuação usual ({@code 123.456.789-01}).
+     *
+     * @param cpf CPF em texto
+     * @return CPF normalizado, ou {@link #INVALID}
+     */
+    public static long parse(CharSequence cpf) {
+        if (cpf == null) {
+            return INVALID;
+        }
+
+        long value = 0;
+        int digits = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > CPF_DIGITS) {
+                    return INVALID;
+                }
+                value = value * 10 + (c - '0');
+            } else if (c != '.' && c != '-') {
+                return INVALID;
+            }
+        }
+        return digits == CPF_DIGITS ? value : INVALID;
+    }
+
+    /**
+     * Igual a {@link #parse(CharSequence)}, sobre um trecho de array de caracteres.
+     *
+     * @param chars caracteres
+     * @param offset início do CPF
+     * @param length tamanho do CPF
+     * @return CPF normalizado, ou {@link #INVALID}
+     */
+    public static long parse(char[] chars, int offset, int length) {
+        long value = 0;
+        int digits = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                if (++digits > CPF_DIGITS) {
+                    return INVALID;
+                }
+                value = value * 10 + (c - '0');
+            } else if (c != '.' && c != '-') {
+                return INVALID;
+            }
+        }
+        return digits == CPF_DIGITS ? value : INVALID;
+    }
+}
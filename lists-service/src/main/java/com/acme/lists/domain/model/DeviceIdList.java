@@ -0,0 +1,65 @@
+package com.acme.lists.domain.model;
+
+import java.util.function.Consumer;
+
+/**
+ * Lista de identificadores de dispositivo, mantida em memória ({@link DeviceIdSet}) ou lida de outra
+ * representação pelo adaptador de persistência. UUIDs são comparados pelo valor de 128 bits, em qualquer
+ * grafia aceita por {@link Uuids}; os demais identificadores, pelo texto exato.
+ */
+public interface DeviceIdList {
+
+    /**
+     * @param deviceId identificador do dispositivo
+     * @return true se o identificador está na lista
+     */
+    boolean contains(String deviceId);
+
+    int size();
+
+    /**
+     * Percorre os UUIDs da lista, sem repetições e em qualquer ordem.
+     */
+    void forEachUuid(UuidConsumer action);
+
+    /**
+     * Percorre os identificadores que não são UUIDs.
+     */
+    void forEachOtherId(Consumer<String> action);
+
+    /**
+     * Monta um filtro de Bloom com os identificadores da lista, pelas chaves de {@link #filterKey}.
+     *
+     * @param falsePositiveRate taxa de falsos positivos desejada
+     * @return filtro para {@link BloomFilter#mightContain(long)}
+     */
+    default BloomFilter bloomFilter(double falsePositiveRate) {
+        BloomFilter.Builder builder = new BloomFilter.Builder(size(), falsePositiveRate);
+        forEachUuid((hi, lo) -> builder.add(Uuids.mix(hi, lo)));
+        forEachOtherId(id -> builder.add(id.hashCode()));
+        return builder.build();
+    }
+
+    /**
+     * Chave do identificador no filtro de Bloom: grafias diferentes do mesmo UUID têm a mesma chave.
+     *
+     * @param deviceId identificador do dispositivo, não nulo
+     * @return chave de 64 bits
+     */
+    static long filterKey(String deviceId) {
+        int start = Uuids.start(deviceId);
+        if (start < 0) {
+            return deviceId.hashCode();
+        }
+        return Uuids.mix(Uuids.high(deviceId, start), Uuids.low(deviceId, start));
+    }
+
+    /**
+     * Recebe um UUID como 64 bits altos e baixos.
+     */
+    @FunctionalInterface
+    interface UuidConsumer {
+
+        void accept(long hi, long lo);
+    }
+}
@@ -0,0 +1,172 @@
+package com.acme.lists.domain.model;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Conjunto imutável de identificadores de dispositivo.
+ * <p>
+ * Identificadores no formato UUID são guardados como dois {@code long} em uma tabela de endereçamento
+ * aberto (sondagem linear, ocupação de até 75%), com as duas metades lado a lado no mesmo array: cerca de
+ * 21 a 43 bytes por UUID, contra mais de 100 em um {@code HashSet<String>}. A conversão é a de
+ * {@link Uuids}, então grafias diferentes do mesmo UUID são equivalentes. Os demais identificadores ficam
+ * em um conjunto de texto, comparados exatamente.
+ */
+public final class DeviceIdSet implements DeviceIdList {
+
+    private static final DeviceIdSet EMPTY = new Builder().build();
+
+    private final long[] table; // pares (alto, baixo); o par (0, 0) marca posição livre
+    private final int mask;
+    private final boolean containsNilUuid;
+    private final int uuidCount;
+    private final Set<String> otherIds;
+
+    private DeviceIdSet(long[] table, boolean containsNilUuid, int uuidCount, Set<String> otherIds) {
+        this.table = table;
+        this.mask = table.length / 2 - 1;
+        this.containsNilUuid = containsNilUuid;
+        this.uuidCount = uuidCount;
+        this.otherIds = otherIds;
+    }
+
+    public static DeviceIdSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Verifica o identificador sem alocação quando ele é um UUID.
+     *
+     * @param deviceId identificador do dispositivo
+     * @return true se o identificador está no conjunto
+     */
+    @Override
+    public boolean contains(String deviceId) {
+        if (deviceId == null) {
+            return false;
+        }
+
+        int start = Uuids.start(deviceId);
+        if (start < 0) {
+            return otherIds.contains(deviceId);
+        }
+        return containsUuid(Uuids.high(deviceId, start), Uuids.low(deviceId, start));
+    }
+
+    @Override
+    public int size() {
+        return uuidCount + otherIds.size();
+    }
+
+    public int uuidCount() {
+        return uuidCount;
+    }
+
+    public int otherCount() {
+        return otherIds.size();
+    }
+
+    @Override
+    public void forEachUuid(UuidConsumer action) {
+        for (int slot = 0; slot <= mask; slot++) {
+            long hi = table[slot * 2];
+            long lo = table[slot * 2 + 1];
+            if (hi != 0 || lo != 0) {
+                action.accept(hi, lo);
+            }
+        }
+        if (containsNilUuid) {
+            action.accept(0, 0);
+        }
+    }
+
+    @Override
+    public void forEachOtherId(Consumer<String> action) {
+        otherIds.forEach(action);
+    }
+
+    private boolean containsUuid(long hi, long lo) {
+        if (hi == 0 && lo == 0) {
+            return containsNilUuid;
+        }
+
+        for (int slot = hash(hi, lo) & mask; ; slot = (slot + 1) & mask) {
+            long slotHi = table[slot * 2];
+            long slotLo = table[slot * 2 + 1];
+            if (slotHi == hi && slotLo == lo) {
+                return true;
+            }
+            if (slotHi == 0 && slotLo == 0) {
+                return false;
+            }
+        }
+    }
+
+    private static int hash(long hi, long lo) {
+        return (int) Uuids.mix(hi, lo);
+    }
+
+    /**
+     * Monta o conjunto entrada a entrada; a tabela é dimensionada uma única vez em {@link #build()}.
+     */
+    public static final class Builder {
+
+        private long[] uuids = new long[256];
+        private int uuidHalves;
+        private final Set<String> otherIds = new HashSet<>();
+
+        public Builder add(String deviceId) {
+            int start = Uuids.start(deviceId);
+            if (start < 0) {
+                otherIds.add(deviceId);
+                return this;
+            }
+
+            if (uuidHalves == uuids.length) {
+                uuids = Arrays.copyOf(uuids, uuidHalves * 2);
+            }
+            uuids[uuidHalves++] = Uuids.high(deviceId, start);
+            uuids[uuidHalves++] = Uuids.low(deviceId, start);
+            return this;
+        }
+
+        public DeviceIdSet build() {
+            int count = uuidHalves / 2;
+            int capacity = 2;
+            while (capacity * 3L < count * 4L) {
+                capacity <<= 1;
+            }
+
+            long[] table = new long[capacity * 2];
+            int mask = capacity - 1;
+            boolean containsNilUuid = false;
+            int unique = 0;
+            for (int i = 0; i < uuidHalves; i += 2) {
+                long hi = uuids[i];
+                long lo = uuids[i + 1];
+                if (hi == 0 && lo == 0) {
+                    unique += containsNilUuid ? 0 : 1;
+                    containsNilUuid = true;
+                    continue;
+                }
+
+                int slot = hash(hi, lo) & mask;
+                while (table[slot * 2] != 0 || table[slot * 2 + 1] != 0) {
+                    if (table[slot * 2] == hi && table[slot * 2 + 1] == lo) {
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                if (table[slot * 2] == 0 && table[slot * 2 + 1] == 0) {
+                    table[slot * 2] = hi;
+                    table[slot * 2 + 1] = lo;
+                    unique++;
+                }
+            }
+
+            return new DeviceIdSet(table, containsNilUuid, unique, Set.copyOf(otherIds));
+        }
+    }
+}
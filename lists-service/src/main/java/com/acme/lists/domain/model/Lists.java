@@ -1,15 +1,18 @@
 package com.acme.lists.domain.model;
 
+import com.acme.lists.domain.model.network.IpList;
 import lombok.Data;
 
-import java.util.Set;
-
 @Data
 public class Lists {
     
-    private Set<String> cpfPermissiveList;
-    private Set<String> cpfRestrictiveList;
-    private Set<String> ipRestrictiveList;
-    private Set<String> deviceRestrictiveList;
-}
+    private CpfList cpfPermissiveList;
+    private CpfList cpfRestrictiveList;
+    private IpList ipRestrictiveList;
+    private DeviceIdList deviceRestrictiveList;
 
+    // Filtros de Bloom à frente das listas; desligados até serem montados na carga
+    private BloomFilter cpfPermissiveFilter = BloomFilter.disabled();
+    private BloomFilter cpfRestrictiveFilter = BloomFilter.disabled();
+    private BloomFilter deviceRestrictiveFilter = BloomFilter.disabled();
+}
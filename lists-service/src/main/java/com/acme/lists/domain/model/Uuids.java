@@ -0,0 +1,131 @@
+package com.acme.lists.domain.model;
+
+import java.util.Arrays;
+
+/**
+ * Conversão de UUIDs textuais para dois {@code long} (64 bits altos e baixos), sem alocação.
+ * <p>
+ * A conversão ignora maiúsculas e aceita o UUID com ou sem hífens e entre chaves, então grafias diferentes
+ * do mesmo UUID têm o mesmo valor.
+ */
+public final class Uuids {
+
+    private static final int CANONICAL_LENGTH = 36;
+    private static final int COMPACT_LENGTH = 32;
+    private static final int HEX_DIGITS_PER_HALF = 16;
+    private static final byte[] HEX_VALUES = hexValues();
+    private static final byte[] COMPACT_POSITIONS = {
+            0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15,
+            16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31};
+    // na forma canônica (8-4-4-4-12) os hífens ocupam as posições 8, 13, 18 e 23
+    private static final byte[] CANONICAL_POSITIONS = {
+            0, 1, 2, 3, 4, 5, 6, 7, 9, 10, 11, 12, 14, 15, 16, 17,
+            19, 20, 21, 22, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34, 35};
+
+    private Uuids() {
+    }
+
+    /**
+     * Identifica o formato do UUID e valida todos os dígitos.
+     *
+     * @param id texto, não nulo
+     * @return posição do primeiro dígito hexadecimal, ou -1 se o texto não for um UUID
+     */
+    public static int start(String id) {
+        int length = id.length();
+        int start = 0;
+        if (length == CANONICAL_LENGTH + 2 || length == COMPACT_LENGTH + 2) {
+            if (id.charAt(0) != '{' || id.charAt(length - 1) != '}') {
+                return -1;
+            }
+            start = 1;
+        }
+
+        byte[] positions = digitPositions(length - 2 * start);
+        if (positions == null) {
+            return -1;
+        }
+        if (positions == CANONICAL_POSITIONS && (id.charAt(start + 8) != '-' || id.charAt(start + 13) != '-'
+                || id.charAt(start + 18) != '-' || id.charAt(start + 23) != '-')) {
+            return -1;
+        }
+
+        int invalid = 0;
+        for (byte position : positions) {
+            invalid |= hexValue(id.charAt(start + position));
+        }
+        return invalid < 0 ? -1 : start;
+    }
+
+    /**
+     * @param id UUID validado por {@link #start}
+     * @param start retorno de {@link #start}
+     * @return 64 bits altos do UUID
+     */
+    public static long high(String id, int start) {
+        return halfOf(id, start, 0);
+    }
+
+    /**
+     * @param id UUID validado por {@link #start}
+     * @param start retorno de {@link #start}
+     * @return 64 bits baixos do UUID
+     */
+    public static long low(String id, int start) {
+        return halfOf(id, start, HEX_DIGITS_PER_HALF);
+    }
+
+    /**
+     * Espalha os 128 bits do UUID em 64; usado nas tabelas de hash e nos filtros de Bloom.
+     */
+    public static long mix(long hi, long lo) {
+        // fmix64 do MurmurHash3: UUIDs de versão 1 não têm os bits distribuídos de forma uniforme
+        long h = hi ^ Long.rotateLeft(lo, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Posição de cada um dos 32 dígitos no texto, conforme o comprimento sem as chaves.
+     */
+    private static byte[] digitPositions(int length) {
+        if (length == CANONICAL_LENGTH) {
+            return CANONICAL_POSITIONS;
+        }
+        return length == COMPACT_LENGTH ? COMPACT_POSITIONS : null;
+    }
+
+    /**
+     * Lê 16 dígitos hexadecimais a partir do dígito {@code firstDigit}. O texto já foi validado por
+     * {@link #start}.
+     */
+    private static long halfOf(String id, int start, int firstDigit) {
+        byte[] positions = digitPositions(id.length() - 2 * start);
+        long value = 0;
+        for (int digit = firstDigit; digit < firstDigit + HEX_DIGITS_PER_HALF; digit++) {
+            value = (value << 4) | hexValue(id.charAt(start + positions[digit]));
+        }
+        return value;
+    }
+
+    private static int hexValue(char c) {
+        return c < HEX_VALUES.length ? HEX_VALUES[c] : -1;
+    }
+
+    private static byte[] hexValues() {
+        byte[] values = new byte['f' + 1];
+        Arrays.fill(values, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            values['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            values['a' + i] = (byte) (10 + i);
+            values['A' + i] = (byte) (10 + i);
+        }
+        return values;
+    }
+}
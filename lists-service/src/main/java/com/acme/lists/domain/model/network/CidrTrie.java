@@ -0,0 +1,219 @@
+package com.acme.lists.domain.model.network;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trie binária compactada (Patricia) de blocos CIDR, sobre endereços de até 128 bits.
+ * <p>
+ * Cada nó guarda o prefixo completo desde a raiz, de forma que cadeias de nós com um único filho são
+ * comprimidas em um só. Um bloco contido em outro já presente é descartado, e um bloco novo que contém
+ * outros substitui a subárvore deles, então a busca termina no primeiro nó terminal do caminho. Depois de
+ * construída, a trie é achatada em arrays paralelos; a busca percorre no máximo um nó por bit do endereço
+ * e não depende da quantidade de blocos. Endereços IPv4 usam os 32 bits mais altos.
+ * <p>
+ * Cópia da trie do {@code decision-engine-service}, com {@link #forEachBlock} a mais para gravar o snapshot.
+ */
+public final class CidrTrie {
+
+    private final int maxBits;
+    private final long[] prefixHi;
+    private final long[] prefixLo;
+    private final int[] prefixLength;
+    private final boolean[] terminal;
+    private final int[] zeroChild;
+    private final int[] oneChild;
+
+    private CidrTrie(int maxBits, List<Node> nodes) {
+        this.maxBits = maxBits;
+        int size = nodes.size();
+        this.prefixHi = new long[size];
+        this.prefixLo = new long[size];
+        this.prefixLength = new int[size];
+        this.terminal = new boolean[size];
+        this.zeroChild = new int[size];
+        this.oneChild = new int[size];
+        for (int i = 0; i < size; i++) {
+            Node node = nodes.get(i);
+            prefixHi[i] = node.hi;
+            prefixLo[i] = node.lo;
+            prefixLength[i] = node.length;
+            terminal[i] = node.terminal;
+            zeroChild[i] = node.zero == null ? -1 : node.zero.index;
+            oneChild[i] = node.one == null ? -1 : node.one.index;
+        }
+    }
+
+    /**
+     * Verifica se o endereço pertence a algum bloco.
+     *
+     * @param hi 64 bits altos do endereço
+     * @param lo 64 bits baixos do endereço
+     * @return true se algum bloco contém o endereço
+     */
+    public boolean contains(long hi, long lo) {
+        int node = prefixHi.length == 0 ? -1 : 0;
+        while (node >= 0) {
+            int length = prefixLength[node];
+            if (commonPrefixLength(hi, lo, prefixHi[node], prefixLo[node]) < length) {
+                return false;
+            }
+            if (terminal[node]) {
+                return true;
+            }
+            if (length == maxBits) {
+                return false;
+            }
+            node = bitAt(hi, lo, length) == 0 ? zeroChild[node] : oneChild[node];
+        }
+        return false;
+    }
+
+    public int nodeCount() {
+        return prefixHi.length;
+    }
+
+    /**
+     * Percorre os blocos em ordem crescente de endereço. Como blocos contidos em outros são descartados na
+     * construção, os blocos não se sobrepõem.
+     */
+    public void forEachBlock(BlockConsumer action) {
+        for (int node = 0; node < prefixHi.length; node++) {
+            if (terminal[node]) {
+                action.accept(prefixHi[node], prefixLo[node], prefixLength[node]);
+            }
+        }
+    }
+
+    static int commonPrefixLength(long hi1, long lo1, long hi2, long lo2) {
+        long hiDiff = hi1 ^ hi2;
+        if (hiDiff != 0) {
+            return Long.numberOfLeadingZeros(hiDiff);
+        }
+        return 64 + Long.numberOfLeadingZeros(lo1 ^ lo2);
+    }
+
+    static int bitAt(long hi, long lo, int index) {
+        return index < 64 ? (int) (hi >>> (63 - index)) & 1 : (int) (lo >>> (127 - index)) & 1;
+    }
+
+    static long maskHi(long hi, int length) {
+        return length >= 64 ? hi : length == 0 ? 0 : hi & (-1L << (64 - length));
+    }
+
+    static long maskLo(long lo, int length) {
+        return length <= 64 ? 0 : length == 128 ? lo : lo & (-1L << (128 - length));
+    }
+
+    /**
+     * Recebe um bloco como endereço base e tamanho do prefixo.
+     */
+    @FunctionalInterface
+    public interface BlockConsumer {
+
+        void accept(long hi, long lo, int length);
+    }
+
+    /**
+     * Construtor incremental da trie.
+     */
+    public static final class Builder {
+
+        private final int maxBits;
+        private Node root;
+
+        public Builder(int maxBits) {
+            this.maxBits = maxBits;
+        }
+
+        /**
+         * Adiciona um bloco.
+         *
+         * @param hi 64 bits altos do endereço base
+         * @param lo 64 bits baixos do endereço base
+         * @param length tamanho do prefixo, entre 0 e {@code maxBits}
+         * @return o próprio construtor
+         */
+        public Builder add(long hi, long lo, int length) {
+            Node leaf = new Node(maskHi(hi, length), maskLo(lo, length), length);
+            leaf.terminal = true;
+            root = insert(root, leaf);
+            return this;
+        }
+
+        private Node insert(Node node, Node leaf) {
+            if (node == null) {
+                return leaf;
+            }
+
+            int common = Math.min(Math.min(node.length, leaf.length),
+                    commonPrefixLength(node.hi, node.lo, leaf.hi, leaf.lo));
+
+            if (common < node.length) {
+                if (common == leaf.length) {
+                    return leaf; // o bloco novo contém toda a subárvore
+                }
+                Node branch = new Node(maskHi(leaf.hi, common), maskLo(leaf.lo, common), common);
+                branch.setChild(bitAt(node.hi, node.lo, common), node);
+                branch.setChild(bitAt(leaf.hi, leaf.lo, common), leaf);
+                return branch;
+            }
+
+            if (node.terminal) {
+                return node; // bloco já coberto
+            }
+            if (leaf.length == node.length) {
+                return leaf; // o bloco novo cobre os descendentes
+            }
+
+            int bit = bitAt(leaf.hi, leaf.lo, node.length);
+            node.setChild(bit, insert(node.child(bit), leaf));
+            return node;
+        }
+
+        public CidrTrie build() {
+            List<Node> nodes = new ArrayList<>();
+            collect(root, nodes);
+            return new CidrTrie(maxBits, nodes);
+        }
+
+        private void collect(Node node, List<Node> nodes) {
+            if (node == null) {
+                return;
+            }
+            node.index = nodes.size();
+            nodes.add(node);
+            collect(node.zero, nodes);
+            collect(node.one, nodes);
+        }
+    }
+
+    private static final class Node {
+
+        final long hi;
+        final long lo;
+        final int length;
+        boolean terminal;
+        Node zero;
+        Node one;
+        int index;
+
+        Node(long hi, long lo, int length) {
+            this.hi = hi;
+            this.lo = lo;
+            this.length = length;
+        }
+
+        Node child(int bit) {
+            return bit == 0 ? zero : one;
+        }
+
+        void setChild(int bit, Node child) {
+            if (bit == 0) {
+                zero = child;
+            } else {
+                one = child;
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.acme.lists.domain.model.network;
+
+/**
+ * Lista de endereços IPv4 e IPv6 em forma numérica, com uma {@link CidrTrie} por família.
+ * <p>
+ * Aceita endereços isolados, blocos CIDR ({@code 10.0.0.0/8}, {@code 2001:db8::/32}) e intervalos
+ * ({@code 10.0.0.5-10.0.0.20}), decompostos na menor quantidade de blocos CIDR equivalente. A comparação
+ * é numérica, então grafias diferentes do mesmo endereço ({@code 192.168.001.100}) são equivalentes, e
+ * endereços IPv6 mapeados de IPv4 ({@code ::ffff:a.b.c.d}) são buscados entre os blocos IPv4, onde também
+ * ficam as entradas escritas nessa forma ({@code ::ffff:10.0.0.0/104}). A busca
+ * não aloca e percorre no máximo um nó por bit do endereço, independentemente do tamanho da lista.
+ */
+public final class IpBlockList implements IpList {
+
+    private static final int IPV4_BITS = 32;
+    private static final int IPV6_BITS = 128;
+
+    // Endereços IPv6 mapeados de IPv4: ::ffff:0:0/96, com o endereço IPv4 nos 32 bits baixos
+    private static final long MAPPED_LO = 0xffffL << 32;
+    private static final int MAPPED_PREFIX_BITS = 96;
+
+    private static final ThreadLocal<long[]> IPV6_SCRATCH = ThreadLocal.withInitial(() -> new long[2]);
+
+    private static final IpBlockList EMPTY = new Builder().build();
+
+    private final CidrTrie ipv4;
+    private final CidrTrie ipv6;
+    private final int size;
+
+    private IpBlockList(CidrTrie ipv4, CidrTrie ipv6, int size) {
+        this.ipv4 = ipv4;
+        this.ipv6 = ipv6;
+        this.size = size;
+    }
+
+    public static IpBlockList empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Verifica se o endereço pertence a algum bloco. Endereços inválidos não pertencem a nenhum.
+     *
+     * @param ip endereço textual
+     * @return true se algum bloco contém o endereço
+     */
+    @Override
+    public boolean contains(String ip) {
+        if (ip == null) {
+            return false;
+        }
+
+        long address = IpAddresses.parseIpv4(ip);
+        if (address >= 0) {
+            return ipv4.contains(address << 32, 0);
+        }
+
+        long[] ipv6Address = IPV6_SCRATCH.get();
+        if (!IpAddresses.parseIpv6(ip, ipv6Address)) {
+            return false;
+        }
+        if (ipv6Address[0] == 0 && (ipv6Address[1] >>> 32) == 0xffffL) {
+            return ipv4.contains(ipv6Address[1] << 32, 0);
+        }
+        return ipv6.contains(ipv6Address[0], ipv6Address[1]);
+    }
+
+    /**
+     * @return quantidade de entradas (endereços, blocos e intervalos) aceitas na carga
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEachIpv4Range(RangeConsumer action) {
+        ipv4.forEachBlock((hi, lo, length) -> {
+            long first = hi >>> 32;
+            long last = first | (0xffffffffL >>> length);
+            action.accept(0, first, 0, last);
+        });
+    }
+
+    @Override
+    public void forEachIpv6Range(RangeConsumer action) {
+        ipv6.forEachBlock((hi, lo, length) -> action.accept(hi, lo,
+                hi | hostMask(length), lo | hostMask(Math.max(length - 64, 0))));
+    }
+
+    /**
+     * Bits de host de uma metade de 64 bits do endereço, para um prefixo de {@code length} bits nessa metade.
+     */
+    private static long hostMask(int length) {
+        return length >= 64 ? 0 : -1L >>> length;
+    }
+
+    public int nodeCount() {
+        return ipv4.nodeCount() + ipv6.nodeCount();
+    }
+
+    /**
+     * Monta a lista entrada a entrada, sem guardar o texto das entradas.
+     */
+    public static final class Builder {
+
+        private final CidrTrie.Builder ipv4 = new CidrTrie.Builder(IPV4_BITS);
+        private final CidrTrie.Builder ipv6 = new CidrTrie.Builder(IPV6_BITS);
+        private int size;
+
+        /**
+         * @param entry endereço, bloco CIDR ou intervalo
+         * @return false se a entrada for inválida (e foi ignorada)
+         */
+        public boolean add(String entry) {
+            try {
+                addEntry(entry.trim());
+                size++;
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        public IpBlockList build() {
+            return new IpBlockList(ipv4.build(), ipv6.build(), size);
+        }
+
+        private void addEntry(String entry) {
+            int dash = entry.indexOf('-');
+            if (dash >= 0) {
+                addRange(entry, entry.substring(0, dash).trim(), entry.substring(dash + 1).trim());
+                return;
+            }
+
+            int slash = entry.indexOf('/');
+            String address = slash >= 0 ? entry.substring(0, slash) : entry;
+            long ipv4Address = IpAddresses.parseIpv4(address);
+            long[] ipv6Address = new long[2];
+            int maxBits;
+            if (ipv4Address >= 0) {
+                maxBits = IPV4_BITS;
+            } else if (IpAddresses.parseIpv6(address, ipv6Address)) {
+                maxBits = IPV6_BITS;
+            } else {
+                throw new IllegalArgumentException("Endereço IP inválido: " + entry);
+            }
+
+            int length = maxBits;
+            if (slash >= 0) {
+                try {
+                    length = Integer.parseInt(entry.substring(slash + 1));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Prefixo CIDR inválido: " + entry);
+                }
+                if (length < 0 || length > maxBits) {
+                    throw new IllegalArgumentException("Prefixo CIDR fora do intervalo 0-" + maxBits + ": " + entry);
+                }
+            }
+
+            if (maxBits == IPV4_BITS) {
+                ipv4.add(ipv4Address << 32, 0, length);
+            } else if (length >= MAPPED_PREFIX_BITS && isMapped(ipv6Address[0], ipv6Address[1])) {
+                // Bloco de endereços mapeados: guardado entre os blocos IPv4, onde esses endereços são buscados
+                ipv4.add(ipv6Address[1] << 32, 0, length - MAPPED_PREFIX_BITS);
+            } else {
+                ipv6.add(ipv6Address[0], ipv6Address[1], length);
+                if (coversMapped(ipv6Address[0], ipv6Address[1], length)) {
+                    ipv4.add(0, 0, 0);
+                }
+            }
+        }
+
+        private void addRange(String entry, String first, String last) {
+            long ipv4First = IpAddresses.parseIpv4(first);
+            long ipv4Last = IpAddresses.parseIpv4(last);
+            if (ipv4First >= 0 && ipv4Last >= 0) {
+                if (ipv4First > ipv4Last) {
+                    throw new IllegalArgumentException("Intervalo de IPs invertido: " + entry);
+                }
+                // Expressos nos 64 bits altos, o intervalo usa a mesma decomposição do IPv6
+                addRange(ipv4, ipv4First << 32, 0, ipv4Last << 32 | 0xffffffffL, -1L);
+                return;
+            }
+
+            long[] firstAddress = new long[2];
+            long[] lastAddress = new long[2];
+            if (!IpAddresses.parseIpv6(first, firstAddress) || !IpAddresses.parseIpv6(last, lastAddress)) {
+                throw new IllegalArgumentException("Intervalo de IPs inválido: " + entry);
+            }
+            if (compare(firstAddress[0], firstAddress[1], lastAddress[0], lastAddress[1]) > 0) {
+                throw new IllegalArgumentException("Intervalo de IPs invertido: " + entry);
+            }
+
+            // A parte do intervalo entre os endereços mapeados vai para os blocos IPv4, onde esses endereços são buscados
+            boolean startsMapped = isMapped(firstAddress[0], firstAddress[1]);
+            boolean endsMapped = isMapped(lastAddress[0], lastAddress[1]);
+            long mappedFirst = startsMapped ? firstAddress[1] << 32 : 0;
+            long mappedLast = endsMapped ? lastAddress[1] << 32 : 0xffffffffL << 32;
+            if (startsMapped || endsMapped || (compare(firstAddress[0], firstAddress[1], 0, MAPPED_LO) < 0
+                    && compare(lastAddress[0], lastAddress[1], 0, MAPPED_LO | 0xffffffffL) > 0)) {
+                addRange(ipv4, mappedFirst, 0, mappedLast | 0xffffffffL, -1L);
+            }
+            if (!startsMapped || !endsMapped) {
+                addRange(ipv6, firstAddress[0], firstAddress[1], lastAddress[0], lastAddress[1]);
+            }
+        }
+
+        /**
+         * Decompõe o intervalo de 128 bits {@code [first, last]} nos maiores blocos alinhados possíveis.
+         */
+        private static void addRange(CidrTrie.Builder builder, long firstHi, long firstLo, long lastHi, long lastLo) {
+            long hi = firstHi;
+            long lo = firstLo;
+            while (true) {
+                int alignment = lo != 0 ? Long.numberOfTrailingZeros(lo)
+                        : hi != 0 ? 64 + Long.numberOfTrailingZeros(hi) : 128;
+
+                // span = last - atual + 1; zero indica o espaço inteiro de 128 bits
+                long spanLo = lastLo - lo;
+                long spanHi = lastHi - hi - (Long.compareUnsigned(lastLo, lo) < 0 ? 1 : 0);
+                spanLo++;
+                if (spanLo == 0) {
+                    spanHi++;
+                }
+                int spanBits = spanHi != 0 ? 127 - Long.numberOfLeadingZeros(spanHi)
+                        : spanLo != 0 ? 63 - Long.numberOfLeadingZeros(spanLo) : 128;
+
+                int size = Math.min(alignment, spanBits);
+                builder.add(hi, lo, 128 - size);
+
+                if (size >= 128) {
+                    return;
+                }
+                long nextLo = size < 64 ? lo + (1L << size) : lo;
+                long nextHi = size < 64 ? hi + (Long.compareUnsigned(nextLo, lo) < 0 ? 1 : 0) : hi + (1L << (size - 64));
+                if (compare(nextHi, nextLo, hi, lo) <= 0 || compare(nextHi, nextLo, lastHi, lastLo) > 0) {
+                    return;
+                }
+                hi = nextHi;
+                lo = nextLo;
+            }
+        }
+
+        private static boolean isMapped(long hi, long lo) {
+            return hi == 0 && (lo >>> 32) == 0xffffL;
+        }
+
+        /**
+         * Verifica se um bloco IPv6 mais curto que /96 contém todos os endereços mapeados de IPv4.
+         */
+        private static boolean coversMapped(long hi, long lo, int length) {
+            if (length >= MAPPED_PREFIX_BITS) {
+                return false;
+            }
+            long hiMask = length >= 64 ? -1L : length == 0 ? 0 : -1L << (64 - length);
+            long loMask = length <= 64 ? 0 : -1L << (128 - length);
+            return (hi & hiMask) == 0 && ((lo ^ MAPPED_LO) & loMask) == 0;
+        }
+
+        private static int compare(long hi1, long lo1, long hi2, long lo2) {
+            int hiComparison = Long.compareUnsigned(hi1, hi2);
+            return hiComparison != 0 ? hiComparison : Long.compareUnsigned(lo1, lo2);
+        }
+    }
+}
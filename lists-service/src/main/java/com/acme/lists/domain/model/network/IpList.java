@@ -0,0 +1,39 @@
+package com.acme.lists.domain.model.network;
+
+/**
+ * Lista de endereços IP, mantida em memória ({@link IpBlockList}) ou lida de outra representação pelo
+ * adaptador de persistência. Endereços IPv6 mapeados de IPv4 são verificados contra os intervalos IPv4.
+ */
+public interface IpList {
+
+    /**
+     * @param ip endereço textual
+     * @return true se algum intervalo da lista contém o endereço
+     */
+    boolean contains(String ip);
+
+    /**
+     * @return quantidade de entradas (endereços, blocos e intervalos) da lista de origem
+     */
+    int size();
+
+    /**
+     * Percorre os intervalos IPv4 em ordem crescente e sem sobreposição, com os 32 bits dos endereços em
+     * {@code firstLo} e {@code lastLo} ({@code firstHi} e {@code lastHi} são zero).
+     */
+    void forEachIpv4Range(RangeConsumer action);
+
+    /**
+     * Percorre os intervalos IPv6 em ordem crescente e sem sobreposição.
+     */
+    void forEachIpv6Range(RangeConsumer action);
+
+    /**
+     * Recebe um intervalo fechado {@code [first, last]} de endereços de 128 bits.
+     */
+    @FunctionalInterface
+    interface RangeConsumer {
+
+        void accept(long firstHi, long firstLo, long lastHi, long lastLo);
+    }
+}
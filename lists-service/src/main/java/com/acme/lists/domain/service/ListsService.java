@@ -1,5 +1,8 @@
 package com.acme.lists.domain.service;
 
+import com.acme.lists.domain.model.BloomFilter;
+import com.acme.lists.domain.model.CpfSet;
+import com.acme.lists.domain.model.DeviceIdList;
 import com.acme.lists.domain.model.Lists;
 import com.acme.lists.domain.model.ListsCheckData;
 import com.acme.lists.domain.model.ListsCheckResult;
@@ -27,10 +30,16 @@ public class ListsService {
 
         ListsCheckResult result = new ListsCheckResult();
 
-        // Verificar CPF
+        // Verificar CPF (normalizado uma única vez; CPF inválido não consta em nenhuma lista).
+        // O filtro de Bloom descarta a maior parte das consultas antes de tocar no conjunto.
+        long cpf = CpfSet.parse(checkData.getCpf());
         ListsCheckResult.CpfListStatus cpfStatus = new ListsCheckResult.CpfListStatus();
-        cpfStatus.setInPermissiveList(lists.getCpfPermissiveList().contains(checkData.getCpf()));
-        cpfStatus.setInRestrictiveList(lists.getCpfRestrictiveList().contains(checkData.getCpf()));
+        cpfStatus.setInPermissiveList(cpf != CpfSet.INVALID
+                && lists.getCpfPermissiveFilter().mightContain(cpf)
+                && lists.getCpfPermissiveList().contains(cpf));
+        cpfStatus.setInRestrictiveList(cpf != CpfSet.INVALID
+                && lists.getCpfRestrictiveFilter().mightContain(cpf)
+                && lists.getCpfRestrictiveList().contains(cpf));
         result.setCpf(cpfStatus);
 
         // Verificar IP
@@ -39,8 +48,12 @@ public class ListsService {
         result.setIp(ipStatus);
 
         // Verificar Device ID
+        String deviceId = checkData.getDeviceId();
+        BloomFilter deviceFilter = lists.getDeviceRestrictiveFilter();
         ListsCheckResult.DeviceListStatus deviceStatus = new ListsCheckResult.DeviceListStatus();
-        deviceStatus.setInRestrictiveList(lists.getDeviceRestrictiveList().contains(checkData.getDeviceId()));
+        deviceStatus.setInRestrictiveList(deviceId != null
+                && (!deviceFilter.isEnabled() || deviceFilter.mightContain(DeviceIdList.filterKey(deviceId)))
+                && lists.getDeviceRestrictiveList().contains(deviceId));
         result.setDeviceId(deviceStatus);
 
         log.info("Resultado da verificação: CPF permissivo={}, CPF restritivo={}, IP restritivo={}, Device restritivo={}",
@@ -1,35 +1,50 @@
 package com.acme.lists.infrastructure.adapter.persistence;
 
 import com.acme.lists.application.port.ListsRepositoryPort;
+import com.acme.lists.domain.model.CpfSet;
+import com.acme.lists.domain.model.DeviceIdSet;
 import com.acme.lists.domain.model.Lists;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.acme.lists.domain.model.network.IpBlockList;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.HashSet;
+import java.io.InputStream;
+import java.util.Arrays;
 
 /**
  * Adaptador de saída (Driven Adapter) para carregar listas de um arquivo JSON.
  * Implementa a porta ListsRepositoryPort.
+ * <p>
+ * O arquivo é lido em streaming: os CPFs são normalizados para {@code long} direto do buffer do parser,
+ * sem criar uma String por entrada; IPs e UUIDs de dispositivos são convertidos para a forma numérica à
+ * medida que são lidos.
  */
 @Component
+@ConditionalOnProperty(name = "lists.repository", havingValue = "json", matchIfMissing = true)
 @Slf4j
 public class JsonFileListsAdapter implements ListsRepositoryPort {
 
     @Value("classpath:lists.json")
     private Resource listsResource;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonFactory jsonFactory = new JsonFactory();
 
     @Override
     public Lists loadLists() {
         try {
             log.info("Carregando listas do arquivo JSON");
             
-            Lists lists = objectMapper.readValue(listsResource.getInputStream(), Lists.class);
+            Lists lists;
+            try (InputStream input = listsResource.getInputStream()) {
+                lists = parse(input);
+            }
             
             log.info("Listas carregadas com sucesso do arquivo JSON");
             return lists;
@@ -39,14 +54,120 @@ public class JsonFileListsAdapter implements ListsRepositoryPort {
             
             // Retorna listas vazias em caso de erro
             Lists emptyLists = new Lists();
-            emptyLists.setCpfPermissiveList(new HashSet<>());
-            emptyLists.setCpfRestrictiveList(new HashSet<>());
-            emptyLists.setIpRestrictiveList(new HashSet<>());
-            emptyLists.setDeviceRestrictiveList(new HashSet<>());
+            emptyLists.setCpfPermissiveList(CpfSet.empty());
+            emptyLists.setCpfRestrictiveList(CpfSet.empty());
+            emptyLists.setIpRestrictiveList(IpBlockList.empty());
+            emptyLists.setDeviceRestrictiveList(DeviceIdSet.empty());
             
             log.warn("Retornando listas vazias devido ao erro");
             return emptyLists;
         }
     }
-}
 
+    /**
+     * Lê as listas de um JSON no formato de {@code lists.json}; usado também pelo compilador de snapshots.
+     *
+     * @param input conteúdo do arquivo
+     * @return listas em memória
+     * @throws IOException se o JSON for inválido ou não puder ser lido
+     */
+    public Lists parse(InputStream input) throws IOException {
+        Lists lists = new Lists();
+        lists.setCpfPermissiveList(CpfSet.empty());
+        lists.setCpfRestrictiveList(CpfSet.empty());
+        lists.setIpRestrictiveList(IpBlockList.empty());
+        lists.setDeviceRestrictiveList(DeviceIdSet.empty());
+
+        try (JsonParser parser = jsonFactory.createParser(input)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case "cpfPermissiveList":
+                        lists.setCpfPermissiveList(readCpfs(parser, field));
+                        break;
+                    case "cpfRestrictiveList":
+                        lists.setCpfRestrictiveList(readCpfs(parser, field));
+                        break;
+                    case "ipRestrictiveList":
+                        lists.setIpRestrictiveList(readIpBlocks(parser, field));
+                        break;
+                    case "deviceRestrictiveList":
+                        lists.setDeviceRestrictiveList(readDeviceIds(parser));
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+
+        return lists;
+    }
+
+    private CpfSet readCpfs(JsonParser parser, String field) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_ARRAY);
+
+        long[] cpfs = new long[1024];
+        int count = 0;
+        int invalid = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            expect(token, JsonToken.VALUE_STRING);
+
+            long cpf = CpfSet.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            if (cpf == CpfSet.INVALID) {
+                invalid++;
+                continue;
+            }
+            if (count == cpfs.length) {
+                cpfs = Arrays.copyOf(cpfs, count * 2);
+            }
+            cpfs[count++] = cpf;
+        }
+
+        if (invalid > 0) {
+            log.warn("{} CPFs inválidos ignorados em {}", invalid, field);
+        }
+        return CpfSet.of(cpfs, count);
+    }
+
+    private IpBlockList readIpBlocks(JsonParser parser, String field) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_ARRAY);
+
+        IpBlockList.Builder builder = new IpBlockList.Builder();
+        int invalid = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            expect(token, JsonToken.VALUE_STRING);
+            if (!builder.add(parser.getText())) {
+                invalid++;
+            }
+        }
+
+        if (invalid > 0) {
+            log.warn("{} IPs ou blocos inválidos ignorados em {}", invalid, field);
+        }
+        return builder.build();
+    }
+
+    private DeviceIdSet readDeviceIds(JsonParser parser) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_ARRAY);
+
+        DeviceIdSet.Builder builder = new DeviceIdSet.Builder();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            expect(token, JsonToken.VALUE_STRING);
+            builder.add(parser.getText());
+        }
+        return builder.build();
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Arquivo de listas inválido: esperado " + expected + ", encontrado " + actual);
+        }
+    }
+}
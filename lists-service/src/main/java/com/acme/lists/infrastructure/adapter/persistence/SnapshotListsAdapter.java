@@ -0,0 +1,61 @@
+package com.acme.lists.infrastructure.adapter.persistence;
+
+import com.acme.lists.application.port.ListsRepositoryPort;
+import com.acme.lists.domain.model.CpfSet;
+import com.acme.lists.domain.model.DeviceIdSet;
+import com.acme.lists.domain.model.Lists;
+import com.acme.lists.domain.model.network.IpBlockList;
+import com.acme.lists.infrastructure.adapter.persistence.snapshot.ListsSnapshotReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Adaptador de saída (Driven Adapter) para carregar listas de um snapshot binário gerado por
+ * {@link com.acme.lists.infrastructure.adapter.persistence.snapshot.ListsSnapshotCompiler}.
+ * Implementa a porta ListsRepositoryPort.
+ * <p>
+ * O arquivo é mapeado em memória e as buscas leem direto dele, fora do heap, inclusive os filtros de Bloom
+ * gravados pelo compilador; a carga lê o cabeçalho e os diretórios de baldes dos CPFs, sem montar nada no heap.
+ */
+@Component
+@ConditionalOnProperty(name = "lists.repository", havingValue = "snapshot")
+@Slf4j
+public class SnapshotListsAdapter implements ListsRepositoryPort {
+
+    @Value("${lists.snapshot.path:lists.snapshot}")
+    private String snapshotPath;
+
+    @Value("${lists.snapshot.verify-checksums:false}")
+    private boolean verifyChecksums;
+
+    @Override
+    public Lists loadLists() {
+        try {
+            log.info("Mapeando snapshot de listas {}", snapshotPath);
+
+            long start = System.nanoTime();
+            Lists lists = ListsSnapshotReader.read(Path.of(snapshotPath), verifyChecksums);
+
+            log.info("Snapshot de listas mapeado em {} ms", (System.nanoTime() - start) / 1_000_000);
+            return lists;
+
+        } catch (IOException e) {
+            log.error("Erro ao carregar listas do snapshot {}", snapshotPath, e);
+
+            // Retorna listas vazias em caso de erro
+            Lists emptyLists = new Lists();
+            emptyLists.setCpfPermissiveList(CpfSet.empty());
+            emptyLists.setCpfRestrictiveList(CpfSet.empty());
+            emptyLists.setIpRestrictiveList(IpBlockList.empty());
+            emptyLists.setDeviceRestrictiveList(DeviceIdSet.empty());
+
+            log.warn("Retornando listas vazias devido ao erro");
+            return emptyLists;
+        }
+    }
+}
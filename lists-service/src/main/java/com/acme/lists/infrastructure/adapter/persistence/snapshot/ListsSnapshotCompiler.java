@@ -0,0 +1,65 @@
+package com.acme.lists.infrastructure.adapter.persistence.snapshot;
+
+import com.acme.lists.domain.model.Lists;
+import com.acme.lists.infrastructure.adapter.persistence.JsonFileListsAdapter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Ferramenta de linha de comando que compila um arquivo no formato de {@code lists.json} para um snapshot
+ * binário, com as mesmas regras de normalização e descarte de entradas inválidas do adaptador JSON, e com os
+ * filtros de Bloom das listas na taxa de falsos positivos informada (1% se omitida).
+ * <p>
+ * Uso: {@code ListsSnapshotCompiler <lists.json> <lists.snapshot> [taxa de falsos positivos]}
+ */
+@Slf4j
+public final class ListsSnapshotCompiler {
+
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    private ListsSnapshotCompiler() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2 && args.length != 3) {
+            log.error("Uso: ListsSnapshotCompiler <lists.json> <lists.snapshot> [taxa de falsos positivos]");
+            System.exit(2);
+        }
+
+        Path source = Path.of(args[0]);
+        Path target = Path.of(args[1]);
+        double falsePositiveRate = DEFAULT_FALSE_POSITIVE_RATE;
+        try {
+            if (args.length == 3) {
+                falsePositiveRate = Double.parseDouble(args[2]);
+            }
+        } catch (NumberFormatException e) {
+            log.error("Taxa de falsos positivos inválida: {}", args[2]);
+            System.exit(2);
+        }
+        try {
+            long start = System.nanoTime();
+            Lists lists;
+            try (InputStream input = Files.newInputStream(source)) {
+                lists = new JsonFileListsAdapter().parse(input);
+            }
+            ListsSnapshotWriter.write(lists, target, falsePositiveRate);
+
+            // Relê o arquivo gerado conferindo os CRCs das seções
+            ListsSnapshotReader.read(target, true);
+
+            log.info("Snapshot {} gerado em {} ms ({} bytes): {} CPFs permissivos, {} CPFs restritivos, "
+                            + "{} IPs restritivos, {} devices restritivos",
+                    target, (System.nanoTime() - start) / 1_000_000, Files.size(target),
+                    lists.getCpfPermissiveList().size(), lists.getCpfRestrictiveList().size(),
+                    lists.getIpRestrictiveList().size(), lists.getDeviceRestrictiveList().size());
+        } catch (IOException | RuntimeException e) {
+            log.error("Erro ao compilar o snapshot de listas a partir de {}", source, e);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.acme.lists.infrastructure.adapter.persistence.snapshot;
+
+import java.nio.ByteOrder;
+
+/**
+ * Formato binário do snapshot de listas, mapeado em memória pelo adaptador de persistência.
+ * <p>
+ * Todos os números são little-endian. O arquivo começa com um cabeçalho fixo:
+ * <pre>
+ *  0  long  assinatura ("ACMELIST")
+ *  8  int   versão do formato
+ * 12  int   flags ({@link #FLAG_NIL_UUID})
+ * 16  int   quantidade de entradas da lista de IPs na origem
+ * 20  int   quantidade de seções
+ * 24  long  data de geração (epoch em milissegundos)
+ * </pre>
+ * seguido da tabela de seções, com {@value #SECTION_ENTRY_SIZE} bytes por seção (id, CRC32C do conteúdo,
+ * quantidade de registros, posição e tamanho em bytes), e do CRC32C de tudo o que vem antes dele. Cada seção
+ * começa em uma posição múltipla de {@value #SECTION_ALIGNMENT} e guarda registros de largura fixa:
+ * <ul>
+ *   <li>CPFs: {@code long} em ordem crescente, sem repetições;</li>
+ *   <li>baldes de CPFs: o deslocamento do diretório seguido da primeira posição de cada balde, o mesmo
+ *       diretório de {@link com.acme.lists.domain.model.CpfSet};</li>
+ *   <li>intervalos IPv4: um {@code long} por intervalo, com o primeiro endereço nos 32 bits altos e o último nos
+ *       32 bits baixos, em ordem crescente e sem sobreposição;</li>
+ *   <li>intervalos IPv6: quatro {@code long} por intervalo (primeiro e último endereço), na mesma ordem;</li>
+ *   <li>UUIDs: a tabela de endereçamento aberto de {@link com.acme.lists.domain.model.DeviceIdSet}, com pares
+ *       (alto, baixo) e o par (0, 0) como posição livre; o UUID nulo é indicado por {@link #FLAG_NIL_UUID};</li>
+ *   <li>demais identificadores de dispositivo: tamanho ({@code int}) e bytes UTF-8 de cada um;</li>
+ *   <li>filtros de Bloom das listas de CPFs e de dispositivos: a taxa de falsos positivos ({@code double}) em
+ *       um prefixo de {@value #BLOOM_FILTER_HEADER_SIZE} bytes, seguida das palavras de
+ *       {@link com.acme.lists.domain.model.BloomFilter} ({@code long}); a quantidade de registros da seção é
+ *       a de entradas do filtro.</li>
+ * </ul>
+ * Uma seção vazia ocupa zero bytes na sua posição alinhada; o arquivo é completado até ela.
+ */
+final class ListsSnapshotFormat {
+
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final long MAGIC = 0x5453494c454d4341L; // "ACMELIST" em little-endian
+    static final int VERSION = 2;
+
+    static final int HEADER_SIZE = 32;
+    static final int SECTION_ENTRY_SIZE = 32;
+    static final int SECTION_ALIGNMENT = 64;
+    static final int MAX_SECTIONS = 64;
+
+    static final int FLAG_NIL_UUID = 1;
+
+    static final int CPF_PERMISSIVE = 1;
+    static final int CPF_PERMISSIVE_BUCKETS = 2;
+    static final int CPF_RESTRICTIVE = 3;
+    static final int CPF_RESTRICTIVE_BUCKETS = 4;
+    static final int IPV4_RANGES = 5;
+    static final int IPV6_RANGES = 6;
+    static final int DEVICE_UUIDS = 7;
+    static final int DEVICE_OTHER_IDS = 8;
+    static final int CPF_PERMISSIVE_FILTER = 9;
+    static final int CPF_RESTRICTIVE_FILTER = 10;
+    static final int DEVICE_FILTER = 11;
+    static final int SECTION_COUNT = 11;
+
+    // Diretório de baldes dos CPFs, com os mesmos parâmetros de CpfSet: todo CPF é menor que 2^37
+    static final int CPF_KEY_BITS = 37;
+    static final int CPF_ENTRIES_PER_BUCKET = 8;
+
+    static final int IPV6_RANGE_LONGS = 4;
+
+    // Prefixo de 32 bytes: os blocos de 32 bytes do filtro não atravessam linhas de cache
+    static final int BLOOM_FILTER_HEADER_SIZE = 32;
+
+    private ListsSnapshotFormat() {
+    }
+
+    static int sectionEntryOffset(int index) {
+        return HEADER_SIZE + index * SECTION_ENTRY_SIZE;
+    }
+
+    static int headerLength(int sectionCount) {
+        return HEADER_SIZE + sectionCount * SECTION_ENTRY_SIZE + Integer.BYTES;
+    }
+
+    static long align(long position) {
+        return (position + SECTION_ALIGNMENT - 1) / SECTION_ALIGNMENT * SECTION_ALIGNMENT;
+    }
+
+    /**
+     * Quantidade de bits do diretório de baldes para {@code size} CPFs.
+     */
+    static int cpfBucketBits(int size) {
+        int bucketBits = 0;
+        while (bucketBits < CPF_KEY_BITS - 1 && (size >> bucketBits) > CPF_ENTRIES_PER_BUCKET) {
+            bucketBits++;
+        }
+        return bucketBits;
+    }
+}
@@ -0,0 +1,213 @@
+package com.acme.lists.infrastructure.adapter.persistence.snapshot;
+
+import com.acme.lists.domain.model.BloomFilter;
+import com.acme.lists.domain.model.CpfList;
+import com.acme.lists.domain.model.Lists;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+/**
+ * Abre um snapshot no formato de {@link ListsSnapshotFormat} e monta listas que leem direto do arquivo
+ * mapeado em memória.
+ * <p>
+ * A abertura lê o cabeçalho, a tabela de seções e os diretórios de baldes dos CPFs (cerca de meio byte por
+ * CPF); o restante é carregado pelo sistema operacional sob demanda, à medida que as buscas tocam as páginas,
+ * e não ocupa o heap. Os filtros de Bloom também são lidos do arquivo, sem serem remontados.
+ * <p>
+ * A conferência dos CRCs das seções lê o arquivo inteiro e é opcional. Sem ela, a abertura ainda confere os
+ * tamanhos das seções e os diretórios de baldes, que limitam as posições lidas pelas buscas: um arquivo
+ * corrompido é recusado com {@link IOException}, e não com um erro de índice na consulta.
+ */
+public final class ListsSnapshotReader {
+
+    private ListsSnapshotReader() {
+    }
+
+    /**
+     * @param path arquivo do snapshot
+     * @param verifyChecksums se true, confere o CRC32C de cada seção
+     * @return listas mapeadas
+     * @throws IOException se o arquivo não puder ser lido ou não for um snapshot válido
+     */
+    public static Lists read(Path path, boolean verifyChecksums) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer fixed = readFully(channel, 0, ListsSnapshotFormat.HEADER_SIZE);
+            if (fixed.getLong(0) != ListsSnapshotFormat.MAGIC) {
+                throw new IOException("Arquivo não é um snapshot de listas: " + path);
+            }
+            if (fixed.getInt(8) != ListsSnapshotFormat.VERSION) {
+                throw new IOException("Versão de snapshot não suportada: " + fixed.getInt(8));
+            }
+            int flags = fixed.getInt(12);
+            int ipEntries = fixed.getInt(16);
+            int sectionCount = fixed.getInt(20);
+            if (sectionCount < 0 || sectionCount > ListsSnapshotFormat.MAX_SECTIONS) {
+                throw new IOException("Quantidade de seções inválida no snapshot: " + sectionCount);
+            }
+
+            int headerLength = ListsSnapshotFormat.headerLength(sectionCount);
+            ByteBuffer header = readFully(channel, 0, headerLength);
+            CRC32C headerCrc = new CRC32C();
+            headerCrc.update(header.array(), 0, headerLength - Integer.BYTES);
+            if ((int) headerCrc.getValue() != header.getInt(headerLength - Integer.BYTES)) {
+                throw new IOException("Cabeçalho do snapshot corrompido: " + path);
+            }
+
+            ByteBuffer[] sections = new ByteBuffer[ListsSnapshotFormat.SECTION_COUNT + 1];
+            long[] counts = new long[sections.length];
+            for (int i = 0; i < sectionCount; i++) {
+                int entry = ListsSnapshotFormat.sectionEntryOffset(i);
+                int id = header.getInt(entry);
+                long offset = header.getLong(entry + 16);
+                long length = header.getLong(entry + 24);
+                if (id < 1 || id > ListsSnapshotFormat.SECTION_COUNT || sections[id] != null) {
+                    throw new IOException("Seção inválida ou repetida no snapshot: " + id);
+                }
+                if (offset < headerLength || length < 0 || length > Integer.MAX_VALUE
+                        || offset + length > channel.size()) {
+                    throw new IOException("Seção " + id + " fora dos limites do snapshot");
+                }
+
+                MappedByteBuffer section = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                if (verifyChecksums) {
+                    CRC32C crc = new CRC32C();
+                    crc.update(section.duplicate());
+                    if ((int) crc.getValue() != header.getInt(entry + 4)) {
+                        throw new IOException("CRC inválido na seção " + id + " do snapshot");
+                    }
+                }
+                sections[id] = section.order(ListsSnapshotFormat.BYTE_ORDER);
+                counts[id] = header.getLong(entry + 8);
+            }
+            for (int id = 1; id <= ListsSnapshotFormat.SECTION_COUNT; id++) {
+                if (sections[id] == null) {
+                    throw new IOException("Seção " + id + " ausente no snapshot");
+                }
+            }
+
+            Lists lists = new Lists();
+            lists.setCpfPermissiveList(cpfList(sections, counts,
+                    ListsSnapshotFormat.CPF_PERMISSIVE, ListsSnapshotFormat.CPF_PERMISSIVE_BUCKETS));
+            lists.setCpfRestrictiveList(cpfList(sections, counts,
+                    ListsSnapshotFormat.CPF_RESTRICTIVE, ListsSnapshotFormat.CPF_RESTRICTIVE_BUCKETS));
+            lists.setIpRestrictiveList(new MappedIpList(
+                    records(sections, counts, ListsSnapshotFormat.IPV4_RANGES, Long.BYTES).asLongBuffer(),
+                    records(sections, counts, ListsSnapshotFormat.IPV6_RANGES,
+                            ListsSnapshotFormat.IPV6_RANGE_LONGS * Long.BYTES).asLongBuffer(),
+                    ipEntries));
+            lists.setDeviceRestrictiveList(new MappedDeviceIdList(
+                    uuidTable(sections[ListsSnapshotFormat.DEVICE_UUIDS], counts[ListsSnapshotFormat.DEVICE_UUIDS]),
+                    (flags & ListsSnapshotFormat.FLAG_NIL_UUID) != 0,
+                    (int) counts[ListsSnapshotFormat.DEVICE_UUIDS],
+                    otherIds(sections[ListsSnapshotFormat.DEVICE_OTHER_IDS],
+                            counts[ListsSnapshotFormat.DEVICE_OTHER_IDS])));
+            lists.setCpfPermissiveFilter(bloomFilter(sections, counts, ListsSnapshotFormat.CPF_PERMISSIVE_FILTER));
+            lists.setCpfRestrictiveFilter(bloomFilter(sections, counts, ListsSnapshotFormat.CPF_RESTRICTIVE_FILTER));
+            lists.setDeviceRestrictiveFilter(bloomFilter(sections, counts, ListsSnapshotFormat.DEVICE_FILTER));
+            return lists;
+        }
+    }
+
+    private static CpfList cpfList(ByteBuffer[] sections, long[] counts, int dataSection, int bucketSection)
+            throws IOException {
+        ByteBuffer data = sections[dataSection];
+        ByteBuffer buckets = sections[bucketSection];
+        int shift = buckets.getInt(0);
+        int bucketBits = ListsSnapshotFormat.CPF_KEY_BITS - shift;
+        if (data.capacity() != counts[dataSection] * Long.BYTES || bucketBits < 0 || bucketBits >= Integer.SIZE - 1
+                || buckets.capacity() != ((1L << bucketBits) + 2) * Integer.BYTES) {
+            throw new IOException("Seções de CPFs inconsistentes no snapshot: " + dataSection);
+        }
+        IntBuffer bucketStarts = buckets.slice(Integer.BYTES, buckets.capacity() - Integer.BYTES)
+                .order(ListsSnapshotFormat.BYTE_ORDER).asIntBuffer();
+
+        // As posições do diretório limitam as leituras do array de CPFs: crescentes, de 0 até a quantidade
+        int previous = 0;
+        for (int bucket = 0; bucket < bucketStarts.limit(); bucket++) {
+            int start = bucketStarts.get(bucket);
+            if (start < previous || start > counts[dataSection]) {
+                throw new IOException("Diretório de baldes de CPFs corrompido no snapshot: " + bucketSection);
+            }
+            previous = start;
+        }
+        if (bucketStarts.get(0) != 0 || previous != counts[dataSection]) {
+            throw new IOException("Diretório de baldes de CPFs corrompido no snapshot: " + bucketSection);
+        }
+        return new MappedCpfList(data.asLongBuffer(), bucketStarts, shift);
+    }
+
+    private static ByteBuffer records(ByteBuffer[] sections, long[] counts, int id, int recordSize)
+            throws IOException {
+        if (sections[id].capacity() != counts[id] * recordSize) {
+            throw new IOException("Tamanho da seção " + id + " não confere com a quantidade de registros");
+        }
+        return sections[id];
+    }
+
+    /**
+     * A busca na tabela termina na primeira posição livre, então a tabela precisa ter tamanho potência de
+     * dois e posições livres.
+     */
+    private static LongBuffer uuidTable(ByteBuffer section, long count) throws IOException {
+        long capacity = section.capacity() / (2L * Long.BYTES);
+        if (section.capacity() % (2L * Long.BYTES) != 0 || capacity < 2 || Long.bitCount(capacity) != 1
+                || count * 4 > capacity * 3) {
+            throw new IOException("Tabela de UUIDs inválida no snapshot");
+        }
+        return section.asLongBuffer();
+    }
+
+    /**
+     * Filtro gravado pelo compilador, lido direto do arquivo: blocos inteiros após o prefixo com a taxa de
+     * falsos positivos.
+     */
+    private static BloomFilter bloomFilter(ByteBuffer[] sections, long[] counts, int id) throws IOException {
+        ByteBuffer section = sections[id];
+        int wordBytes = section.capacity() - ListsSnapshotFormat.BLOOM_FILTER_HEADER_SIZE;
+        double falsePositiveRate = wordBytes > 0 ? section.getDouble(0) : Double.NaN;
+        if (wordBytes <= 0 || wordBytes % (BloomFilter.LONGS_PER_BLOCK * Long.BYTES) != 0
+                || counts[id] < 0 || counts[id] > Integer.MAX_VALUE
+                || !(falsePositiveRate >= 0 && falsePositiveRate <= 1)) {
+            throw new IOException("Filtro de Bloom inválido na seção " + id + " do snapshot");
+        }
+        LongBuffer words = section.slice(ListsSnapshotFormat.BLOOM_FILTER_HEADER_SIZE, wordBytes)
+                .order(ListsSnapshotFormat.BYTE_ORDER).asLongBuffer();
+        return BloomFilter.wrap(words, (int) counts[id], falsePositiveRate);
+    }
+
+    private static Set<String> otherIds(ByteBuffer section, long count) throws IOException {
+        Set<String> ids = new HashSet<>();
+        ByteBuffer buffer = section.duplicate().order(ListsSnapshotFormat.BYTE_ORDER);
+        for (long i = 0; i < count; i++) {
+            int length = buffer.remaining() >= Integer.BYTES ? buffer.getInt() : -1;
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("Identificadores de dispositivo corrompidos no snapshot");
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            ids.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return Set.copyOf(ids);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ListsSnapshotFormat.BYTE_ORDER);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Snapshot de listas truncado");
+            }
+        }
+        return buffer;
+    }
+}
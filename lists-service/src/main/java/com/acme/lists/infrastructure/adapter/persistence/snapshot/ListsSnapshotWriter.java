@@ -0,0 +1,291 @@
+package com.acme.lists.infrastructure.adapter.persistence.snapshot;
+
+import com.acme.lists.domain.model.BloomFilter;
+import com.acme.lists.domain.model.CpfList;
+import com.acme.lists.domain.model.DeviceIdList;
+import com.acme.lists.domain.model.Lists;
+import com.acme.lists.domain.model.Uuids;
+import com.acme.lists.domain.model.network.IpList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Grava as listas no formato de {@link ListsSnapshotFormat}.
+ * <p>
+ * O arquivo é escrito ao lado do destino e movido atomicamente no final, então um serviço que já mapeou o
+ * snapshot anterior continua lendo o arquivo antigo até recarregar. Os filtros de Bloom das listas de CPFs e
+ * de dispositivos são montados aqui e gravados junto, para o serviço mapeá-los em vez de remontá-los na carga.
+ */
+public final class ListsSnapshotWriter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ListsSnapshotFormat.BYTE_ORDER);
+    private final ByteBuffer header = ByteBuffer.allocate(
+            ListsSnapshotFormat.headerLength(ListsSnapshotFormat.SECTION_COUNT)).order(ListsSnapshotFormat.BYTE_ORDER);
+    private final CRC32C crc = new CRC32C();
+    private int sections;
+    private long sectionStart;
+    private long position;
+
+    private ListsSnapshotWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * @param lists listas a gravar
+     * @param target arquivo de destino, substituído se existir
+     * @param falsePositiveRate taxa de falsos positivos dos filtros de Bloom
+     * @throws IOException se o arquivo não puder ser gravado
+     */
+    public static void write(Lists lists, Path target, double falsePositiveRate) throws IOException {
+        Path absolute = target.toAbsolutePath();
+        Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                new ListsSnapshotWriter(channel).writeLists(lists, falsePositiveRate);
+                channel.force(true);
+            }
+            Files.move(temporary, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void writeLists(Lists lists, double falsePositiveRate) throws IOException {
+        position = ListsSnapshotFormat.align(ListsSnapshotFormat.headerLength(ListsSnapshotFormat.SECTION_COUNT));
+
+        writeCpfs(lists.getCpfPermissiveList(),
+                ListsSnapshotFormat.CPF_PERMISSIVE, ListsSnapshotFormat.CPF_PERMISSIVE_BUCKETS);
+        writeCpfs(lists.getCpfRestrictiveList(),
+                ListsSnapshotFormat.CPF_RESTRICTIVE, ListsSnapshotFormat.CPF_RESTRICTIVE_BUCKETS);
+        writeIpRanges(lists.getIpRestrictiveList());
+        boolean nilUuid = writeDeviceUuids(lists.getDeviceRestrictiveList());
+        writeOtherDeviceIds(lists.getDeviceRestrictiveList());
+        writeFilter(lists.getCpfPermissiveList().bloomFilter(falsePositiveRate),
+                ListsSnapshotFormat.CPF_PERMISSIVE_FILTER);
+        writeFilter(lists.getCpfRestrictiveList().bloomFilter(falsePositiveRate),
+                ListsSnapshotFormat.CPF_RESTRICTIVE_FILTER);
+        writeFilter(lists.getDeviceRestrictiveList().bloomFilter(falsePositiveRate),
+                ListsSnapshotFormat.DEVICE_FILTER);
+
+        header.putLong(0, ListsSnapshotFormat.MAGIC);
+        header.putInt(8, ListsSnapshotFormat.VERSION);
+        header.putInt(12, nilUuid ? ListsSnapshotFormat.FLAG_NIL_UUID : 0);
+        header.putInt(16, lists.getIpRestrictiveList().size());
+        header.putInt(20, sections);
+        header.putLong(24, System.currentTimeMillis());
+
+        CRC32C headerCrc = new CRC32C();
+        headerCrc.update(header.array(), 0, header.capacity() - Integer.BYTES);
+        header.putInt(header.capacity() - Integer.BYTES, (int) headerCrc.getValue());
+
+        header.clear();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    private void writeCpfs(CpfList list, int dataSection, int bucketSection) throws IOException {
+        long[] cpfs = new long[Math.max(list.size(), 1)];
+        int[] count = new int[1];
+        list.forEach(cpf -> {
+            if (count[0] > 0 && cpf <= cpfs[count[0] - 1]) {
+                throw new IllegalArgumentException("CPFs fora de ordem na lista de origem");
+            }
+            cpfs[count[0]++] = cpf;
+        });
+
+        beginSection();
+        for (int i = 0; i < count[0]; i++) {
+            putLong(cpfs[i]);
+        }
+        endSection(dataSection, count[0]);
+
+        int bucketBits = ListsSnapshotFormat.cpfBucketBits(count[0]);
+        int shift = ListsSnapshotFormat.CPF_KEY_BITS - bucketBits;
+        int buckets = (1 << bucketBits) + 1;
+        beginSection();
+        putInt(shift);
+        int next = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            while (next < count[0] && (cpfs[next] >>> shift) < bucket) {
+                next++;
+            }
+            putInt(next);
+        }
+        endSection(bucketSection, buckets);
+    }
+
+    private void writeIpRanges(IpList list) throws IOException {
+        List<long[]> ipv4 = new ArrayList<>();
+        list.forEachIpv4Range((firstHi, firstLo, lastHi, lastLo) -> addRange(ipv4, firstHi, firstLo, lastHi, lastLo));
+        beginSection();
+        for (long[] range : ipv4) {
+            putLong(range[1] << 32 | range[3]);
+        }
+        endSection(ListsSnapshotFormat.IPV4_RANGES, ipv4.size());
+
+        List<long[]> ipv6 = new ArrayList<>();
+        list.forEachIpv6Range((firstHi, firstLo, lastHi, lastLo) -> addRange(ipv6, firstHi, firstLo, lastHi, lastLo));
+        beginSection();
+        for (long[] range : ipv6) {
+            for (long value : range) {
+                putLong(value);
+            }
+        }
+        endSection(ListsSnapshotFormat.IPV6_RANGES, ipv6.size());
+    }
+
+    /**
+     * Acrescenta o intervalo, unindo-o ao anterior quando adjacente (um intervalo da origem decomposto em
+     * vários blocos CIDR volta a ser um só).
+     */
+    private static void addRange(List<long[]> ranges, long firstHi, long firstLo, long lastHi, long lastLo) {
+        long[] previous = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+        if (previous != null && !(previous[2] == -1 && previous[3] == -1)) {
+            long nextLo = previous[3] + 1;
+            long nextHi = nextLo == 0 ? previous[2] + 1 : previous[2];
+            if (nextHi == firstHi && nextLo == firstLo) {
+                previous[2] = lastHi;
+                previous[3] = lastLo;
+                return;
+            }
+        }
+        ranges.add(new long[]{firstHi, firstLo, lastHi, lastLo});
+    }
+
+    private boolean writeDeviceUuids(DeviceIdList list) throws IOException {
+        long[] uuids = new long[Math.max(list.size(), 1) * 2];
+        int[] count = new int[1];
+        boolean[] nilUuid = new boolean[1];
+        list.forEachUuid((hi, lo) -> {
+            if (hi == 0 && lo == 0) {
+                nilUuid[0] = true;
+                return;
+            }
+            uuids[count[0] * 2] = hi;
+            uuids[count[0] * 2 + 1] = lo;
+            count[0]++;
+        });
+
+        // Mesma tabela de DeviceIdSet: ocupação de até 75%, sondagem linear a partir do hash do UUID
+        int capacity = 2;
+        while (capacity * 3L < count[0] * 4L) {
+            capacity <<= 1;
+        }
+        long[] table = new long[capacity * 2];
+        int mask = capacity - 1;
+        for (int i = 0; i < count[0]; i++) {
+            long hi = uuids[i * 2];
+            long lo = uuids[i * 2 + 1];
+            int slot = (int) Uuids.mix(hi, lo) & mask;
+            while (table[slot * 2] != 0 || table[slot * 2 + 1] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot * 2] = hi;
+            table[slot * 2 + 1] = lo;
+        }
+
+        beginSection();
+        for (long value : table) {
+            putLong(value);
+        }
+        endSection(ListsSnapshotFormat.DEVICE_UUIDS, count[0]);
+        return nilUuid[0];
+    }
+
+    private void writeOtherDeviceIds(DeviceIdList list) throws IOException {
+        List<String> ids = new ArrayList<>();
+        list.forEachOtherId(ids::add);
+
+        beginSection();
+        for (String id : ids) {
+            byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            for (byte b : bytes) {
+                ensure(1);
+                buffer.put(b);
+            }
+        }
+        endSection(ListsSnapshotFormat.DEVICE_OTHER_IDS, ids.size());
+    }
+
+    private void writeFilter(BloomFilter filter, int id) throws IOException {
+        long[] words = new long[(int) (filter.sizeInBytes() / Long.BYTES)];
+        int[] count = new int[1];
+        filter.forEachLong(value -> words[count[0]++] = value);
+
+        beginSection();
+        putLong(Double.doubleToLongBits(filter.falsePositiveRate()));
+        for (int i = Long.BYTES; i < ListsSnapshotFormat.BLOOM_FILTER_HEADER_SIZE; i += Long.BYTES) {
+            putLong(0);
+        }
+        for (long word : words) {
+            putLong(word);
+        }
+        endSection(id, filter.entries());
+    }
+
+    /**
+     * Começa a seção na próxima posição alinhada, completando o arquivo com zeros até ela: assim até uma
+     * seção vazia no fim do arquivo fica dentro dos seus limites.
+     */
+    private void beginSection() throws IOException {
+        long aligned = ListsSnapshotFormat.align(position);
+        ByteBuffer padding = ByteBuffer.allocate((int) (aligned - position));
+        while (padding.hasRemaining()) {
+            position += channel.write(padding, position);
+        }
+        sectionStart = position;
+        crc.reset();
+    }
+
+    private void endSection(int id, long count) throws IOException {
+        flush();
+        int entry = ListsSnapshotFormat.sectionEntryOffset(sections);
+        header.putInt(entry, id);
+        header.putInt(entry + 4, (int) crc.getValue());
+        header.putLong(entry + 8, count);
+        header.putLong(entry + 16, sectionStart);
+        header.putLong(entry + 24, position - sectionStart);
+        sections++;
+    }
+
+    private void putLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    private void putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,75 @@
+package com.acme.lists.infrastructure.adapter.persistence.snapshot;
+
+import com.acme.lists.domain.model.CpfList;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.function.LongConsumer;
+
+/**
+ * Lista de CPFs lida direto do snapshot mapeado, com a mesma busca por baldes de
+ * {@link com.acme.lists.domain.model.CpfSet}: uma posição do diretório e um ou dois blocos do array.
+ */
+final class MappedCpfList implements CpfList {
+
+    private final LongBuffer cpfs;
+    private final IntBuffer bucketStarts;
+    private final int shift;
+
+    MappedCpfList(LongBuffer cpfs, IntBuffer bucketStarts, int shift) {
+        this.cpfs = cpfs;
+        this.bucketStarts = bucketStarts;
+        this.shift = shift;
+    }
+
+    @Override
+    public boolean contains(long cpf) {
+        if (cpf < 0 || (cpf >>> ListsSnapshotFormat.CPF_KEY_BITS) != 0) {
+            return false;
+        }
+
+        int bucket = (int) (cpf >>> shift);
+        int from = bucketStarts.get(bucket);
+        int to = bucketStarts.get(bucket + 1);
+        for (int i = from; i < to; i++) {
+            long value = cpfs.get(i);
+            if (value >= cpf) {
+                return value == cpf;
+            }
+            if (to - i > ListsSnapshotFormat.CPF_ENTRIES_PER_BUCKET * 2) {
+                // Balde concentrado (distribuição fora do padrão): busca binária no restante
+                return binarySearch(i + 1, to, cpf);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return cpfs.limit();
+    }
+
+    @Override
+    public void forEach(LongConsumer action) {
+        for (int i = 0; i < cpfs.limit(); i++) {
+            action.accept(cpfs.get(i));
+        }
+    }
+
+    private boolean binarySearch(int from, int to, long cpf) {
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long value = cpfs.get(middle);
+            if (value < cpf) {
+                low = middle + 1;
+            } else if (value > cpf) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+package com.acme.lists.infrastructure.adapter.persistence.snapshot;
+
+import com.acme.lists.domain.model.DeviceIdList;
+import com.acme.lists.domain.model.Uuids;
+
+import java.nio.LongBuffer;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Lista de dispositivos lida direto do snapshot mapeado: a tabela de UUIDs tem o mesmo arranjo de
+ * {@link com.acme.lists.domain.model.DeviceIdSet}. Os identificadores que não são UUIDs, em geral poucos,
+ * ficam em memória.
+ */
+final class MappedDeviceIdList implements DeviceIdList {
+
+    private final LongBuffer table; // pares (alto, baixo); o par (0, 0) marca posição livre
+    private final int mask;
+    private final boolean containsNilUuid;
+    private final int uuidCount;
+    private final Set<String> otherIds;
+
+    MappedDeviceIdList(LongBuffer table, boolean containsNilUuid, int uuidCount, Set<String> otherIds) {
+        this.table = table;
+        this.mask = table.limit() / 2 - 1;
+        this.containsNilUuid = containsNilUuid;
+        this.uuidCount = uuidCount;
+        this.otherIds = otherIds;
+    }
+
+    @Override
+    public boolean contains(String deviceId) {
+        if (deviceId == null) {
+            return false;
+        }
+
+        int start = Uuids.start(deviceId);
+        if (start < 0) {
+            return otherIds.contains(deviceId);
+        }
+
+        long hi = Uuids.high(deviceId, start);
+        long lo = Uuids.low(deviceId, start);
+        if (hi == 0 && lo == 0) {
+            return containsNilUuid;
+        }
+
+        // A sondagem para na primeira posição livre ou após a tabela inteira, se um arquivo corrompido não tiver
+        // nenhuma: conferir as posições livres na abertura exigiria ler a tabela toda
+        int slot = (int) Uuids.mix(hi, lo) & mask;
+        for (int probes = 0; probes <= mask; probes++, slot = (slot + 1) & mask) {
+            long slotHi = table.get(slot * 2);
+            long slotLo = table.get(slot * 2 + 1);
+            if (slotHi == hi && slotLo == lo) {
+                return true;
+            }
+            if (slotHi == 0 && slotLo == 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return uuidCount + (containsNilUuid ? 1 : 0) + otherIds.size();
+    }
+
+    @Override
+    public void forEachUuid(UuidConsumer action) {
+        for (int slot = 0; slot <= mask; slot++) {
+            long hi = table.get(slot * 2);
+            long lo = table.get(slot * 2 + 1);
+            if (hi != 0 || lo != 0) {
+                action.accept(hi, lo);
+            }
+        }
+        if (containsNilUuid) {
+            action.accept(0, 0);
+        }
+    }
+
+    @Override
+    public void forEachOtherId(Consumer<String> action) {
+        otherIds.forEach(action);
+    }
+}
@@ -0,0 +1,114 @@
+package com.acme.lists.infrastructure.adapter.persistence.snapshot;
+
+import com.acme.lists.domain.model.network.IpAddresses;
+import com.acme.lists.domain.model.network.IpList;
+
+import java.nio.LongBuffer;
+
+/**
+ * Lista de IPs lida direto do snapshot mapeado, como intervalos ordenados e sem sobreposição: a busca
+ * binária encontra o último intervalo que começa antes do endereço e confere o seu fim.
+ */
+final class MappedIpList implements IpList {
+
+    private static final ThreadLocal<long[]> IPV6_SCRATCH = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final LongBuffer ipv4Ranges;
+    private final LongBuffer ipv6Ranges;
+    private final int ipv6RangeCount;
+    private final int size;
+
+    MappedIpList(LongBuffer ipv4Ranges, LongBuffer ipv6Ranges, int size) {
+        this.ipv4Ranges = ipv4Ranges;
+        this.ipv6Ranges = ipv6Ranges;
+        this.ipv6RangeCount = ipv6Ranges.limit() / ListsSnapshotFormat.IPV6_RANGE_LONGS;
+        this.size = size;
+    }
+
+    @Override
+    public boolean contains(String ip) {
+        if (ip == null) {
+            return false;
+        }
+
+        long address = IpAddresses.parseIpv4(ip);
+        if (address >= 0) {
+            return containsIpv4(address);
+        }
+
+        long[] ipv6Address = IPV6_SCRATCH.get();
+        if (!IpAddresses.parseIpv6(ip, ipv6Address)) {
+            return false;
+        }
+        if (ipv6Address[0] == 0 && (ipv6Address[1] >>> 32) == 0xffffL) {
+            return containsIpv4(ipv6Address[1] & 0xffffffffL);
+        }
+        return containsIpv6(ipv6Address[0], ipv6Address[1]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEachIpv4Range(RangeConsumer action) {
+        for (int i = 0; i < ipv4Ranges.limit(); i++) {
+            long range = ipv4Ranges.get(i);
+            action.accept(0, range >>> 32, 0, range & 0xffffffffL);
+        }
+    }
+
+    @Override
+    public void forEachIpv6Range(RangeConsumer action) {
+        for (int i = 0; i < ipv6RangeCount; i++) {
+            int base = i * ListsSnapshotFormat.IPV6_RANGE_LONGS;
+            action.accept(ipv6Ranges.get(base), ipv6Ranges.get(base + 1),
+                    ipv6Ranges.get(base + 2), ipv6Ranges.get(base + 3));
+        }
+    }
+
+    private boolean containsIpv4(long address) {
+        // Registros (primeiro << 32 | último) ordenados pelo primeiro endereço; comparados sem sinal
+        long key = address << 32 | 0xffffffffL;
+        int low = 0;
+        int high = ipv4Ranges.limit() - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(ipv4Ranges.get(middle), key) <= 0) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found >= 0 && (ipv4Ranges.get(found) & 0xffffffffL) >= address;
+    }
+
+    private boolean containsIpv6(long hi, long lo) {
+        int low = 0;
+        int high = ipv6RangeCount - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int base = middle * ListsSnapshotFormat.IPV6_RANGE_LONGS;
+            if (compare(ipv6Ranges.get(base), ipv6Ranges.get(base + 1), hi, lo) <= 0) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        if (found < 0) {
+            return false;
+        }
+        int base = found * ListsSnapshotFormat.IPV6_RANGE_LONGS;
+        return compare(hi, lo, ipv6Ranges.get(base + 2), ipv6Ranges.get(base + 3)) <= 0;
+    }
+
+    private static int compare(long hi1, long lo1, long hi2, long lo2) {
+        int hiComparison = Long.compareUnsigned(hi1, hi2);
+        return hiComparison != 0 ? hiComparison : Long.compareUnsigned(lo1, lo2);
+    }
+}
@@ -0,0 +1,90 @@
+package com.acme.lists.benchmark;
+
+import com.acme.lists.domain.model.BloomFilter;
+import com.acme.lists.domain.model.CpfSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta a uma lista de CPFs com dezenas de milhões de entradas, com e sem o filtro de Bloom à frente,
+ * em uma carga de consultas em que 99% dos CPFs não estão na lista (meta de 1% de falsos positivos). O filtro
+ * é consultado no heap, como o montado na carga, e fora dele, como o lido de um snapshot mapeado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class BloomFilterBenchmark {
+
+    private static final int QUERIES = 1 << 20;
+    private static final int HIT_PERCENT = 1;
+    private static final long CPF_RANGE = 100_000_000_000L;
+
+    @Param({"10000000", "30000000"})
+    private int entries;
+
+    private CpfSet cpfs;
+    private BloomFilter filter;
+    private BloomFilter offHeapFilter;
+    private long[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] values = new long[entries];
+        for (int i = 0; i < entries; i++) {
+            values[i] = random.nextLong(CPF_RANGE);
+        }
+        cpfs = CpfSet.of(values, entries);
+        filter = cpfs.bloomFilter(0.01);
+        LongBuffer words = ByteBuffer.allocateDirect((int) filter.sizeInBytes())
+                .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        filter.forEachLong(words::put);
+        offHeapFilter = BloomFilter.wrap(words.flip(), filter.entries(), filter.falsePositiveRate());
+
+        queries = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = random.nextInt(100) < HIT_PERCENT
+                    ? values[random.nextInt(entries)]
+                    : random.nextLong(CPF_RANGE);
+        }
+    }
+
+    @Benchmark
+    public boolean setOnly() {
+        next = (next + 1) & (QUERIES - 1);
+        return cpfs.contains(queries[next]);
+    }
+
+    @Benchmark
+    public boolean filterThenSet() {
+        next = (next + 1) & (QUERIES - 1);
+        long cpf = queries[next];
+        return filter.mightContain(cpf) && cpfs.contains(cpf);
+    }
+
+    @Benchmark
+    public boolean offHeapFilterThenSet() {
+        next = (next + 1) & (QUERIES - 1);
+        long cpf = queries[next];
+        return offHeapFilter.mightContain(cpf) && cpfs.contains(cpf);
+    }
+}
@@ -0,0 +1,155 @@
+package com.acme.lists.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Filtro de Bloom: nenhuma chave inserida é descartada, a taxa de falsos positivos medida com chaves ausentes
+ * fica na meta configurada e perto da calculada na montagem, e o filtro lido das palavras gravadas responde
+ * como o montado.
+ */
+class BloomFilterTest {
+
+    private static final long CPF_RANGE = 100_000_000_000L;
+    private static final int PROBES = 1_000_000;
+
+    @Test
+    void hasNoFalseNegatives() {
+        Random random = new Random(241);
+
+        for (double rate : new double[]{0.1, 0.01, 0.001}) {
+            for (int entries : new int[]{1, 10, 1_000, 200_000}) {
+                long[] keys = new long[entries];
+                for (int i = 0; i < entries; i++) {
+                    // Metade aleatória, metade em sequência, como CPFs próximos
+                    keys[i] = i % 2 == 0 ? random.nextLong() : 12_345_678_900L + i;
+                }
+                BloomFilter filter = build(keys, rate);
+
+                assertThat(filter.entries()).isEqualTo(entries);
+                for (long key : keys) {
+                    assertThat(filter.mightContain(key)).as("chave %d, %d entradas, taxa %s", key, entries, rate)
+                            .isTrue();
+                }
+            }
+        }
+    }
+
+    @Test
+    void falsePositiveRateMeetsTheConfiguredTarget() {
+        Random random = new Random(242);
+
+        for (double rate : new double[]{0.1, 0.01, 0.001}) {
+            int entries = 200_000;
+            Set<Long> keys = new HashSet<>();
+            while (keys.size() < entries) {
+                keys.add(Math.floorMod(random.nextLong(), CPF_RANGE));
+            }
+            BloomFilter filter = build(keys.stream().mapToLong(Long::longValue).toArray(), rate);
+
+            int falsePositives = 0;
+            int probes = 0;
+            while (probes < PROBES) {
+                long key = Math.floorMod(random.nextLong(), CPF_RANGE);
+                if (keys.contains(key)) {
+                    continue;
+                }
+                probes++;
+                falsePositives += filter.mightContain(key) ? 1 : 0;
+            }
+            double measured = (double) falsePositives / probes;
+            // Quatro desvios padrão da contagem binomial em torno da taxa calculada
+            double tolerance = 4 * Math.sqrt(rate * (1 - rate) / probes);
+
+            assertThat(measured).as("taxa medida para meta %s", rate).isLessThanOrEqualTo(rate + tolerance);
+            // O dimensionamento não sobra muito: a taxa fica perto da meta, e não muito abaixo
+            assertThat(measured).as("taxa medida para meta %s", rate).isGreaterThan(rate * 0.7);
+            assertThat(filter.falsePositiveRate()).isLessThanOrEqualTo(rate * 1.02);
+            assertThat(measured).isCloseTo(filter.falsePositiveRate(), within(tolerance));
+        }
+    }
+
+    @Test
+    void usesAboutTenBitsPerEntryForOnePercent() {
+        int entries = 1_000_000;
+        BloomFilter.Builder builder = new BloomFilter.Builder(entries, 0.01);
+
+        double bitsPerEntry = builder.build().sizeInBytes() * 8.0 / entries;
+        assertThat(bitsPerEntry).isBetween(9.0, 12.5);
+    }
+
+    @Test
+    void wrappedWordsAnswerLikeTheBuiltFilter() {
+        Random random = new Random(243);
+        long[] keys = new long[10_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        BloomFilter built = build(keys, 0.01);
+
+        // Mesma disposição de um snapshot: longs em little-endian fora do heap
+        LongBuffer words = ByteBuffer.allocateDirect((int) built.sizeInBytes()).order(ByteOrder.LITTLE_ENDIAN)
+                .asLongBuffer();
+        built.forEachLong(words::put);
+        words.flip();
+        BloomFilter wrapped = BloomFilter.wrap(words, built.entries(), built.falsePositiveRate());
+
+        assertThat(wrapped.sizeInBytes()).isEqualTo(built.sizeInBytes());
+        for (long key : keys) {
+            assertThat(wrapped.mightContain(key)).isTrue();
+        }
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextLong();
+            assertThat(wrapped.mightContain(key)).isEqualTo(built.mightContain(key));
+        }
+    }
+
+    @Test
+    void disabledFilterNeverRejects() {
+        BloomFilter filter = BloomFilter.disabled();
+
+        assertThat(filter.isEnabled()).isFalse();
+        assertThat(filter.sizeInBytes()).isZero();
+        assertThat(filter.mightContain(0)).isTrue();
+        assertThat(filter.mightContain(42)).isTrue();
+    }
+
+    @Test
+    void emptyFilterRejectsEveryKey() {
+        BloomFilter filter = new BloomFilter.Builder(0, 0.01).build();
+
+        assertThat(filter.isEnabled()).isTrue();
+        assertThat(filter.falsePositiveRate()).isZero();
+        assertThat(filter.mightContain(0)).isFalse();
+        assertThat(filter.mightContain(42)).isFalse();
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        for (double rate : new double[]{0, 1, -0.5, 1.5, Double.NaN}) {
+            assertThatThrownBy(() -> new BloomFilter.Builder(10, rate)).isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThatThrownBy(() -> BloomFilter.wrap(LongBuffer.allocate(0), 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.wrap(LongBuffer.allocate(BloomFilter.LONGS_PER_BLOCK + 1), 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static BloomFilter build(long[] keys, double rate) {
+        BloomFilter.Builder builder = new BloomFilter.Builder(keys.length, rate);
+        for (long key : keys) {
+            builder.add(key);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,228 @@
+package com.acme.lists.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Equivalência entre o {@link CpfSet} e um {@code HashSet<Long>} com os mesmos CPFs: tamanhos em torno dos
+ * baldes do diretório, CPFs nas fronteiras dos baldes, primeiro e último elementos, repetições, baldes
+ * concentrados e normalização do texto do CPF.
+ */
+class CpfSetTest {
+
+    private static final long CPF_RANGE = 100_000_000_000L;
+
+    @Test
+    void matchesHashSetOnRandomCpfs() {
+        Random random = new Random(21);
+
+        for (int size : new int[]{1, 2, 7, 8, 9, 15, 16, 17, 100, 1_000, 100_000}) {
+            long[] cpfs = new long[size];
+            for (int i = 0; i < size; i++) {
+                cpfs[i] = Math.floorMod(random.nextLong(), CPF_RANGE);
+            }
+
+            assertEquivalent(cpfs, cpfs.length, random);
+        }
+    }
+
+    @Test
+    void matchesHashSetOnDirectoryBucketBoundaries() {
+        Random random = new Random(22);
+
+        // Múltiplos de todas as potências de 2 até 2^36, e os vizinhos: para qualquer quantidade de baldes,
+        // há CPFs no primeiro e no último valor de cada balde
+        List<Long> values = new ArrayList<>();
+        for (int bits = 0; bits < 37; bits++) {
+            for (long k = 1; k <= 3; k++) {
+                long boundary = k << bits;
+                for (long cpf = boundary - 1; cpf <= boundary + 1; cpf++) {
+                    if (cpf >= 0 && cpf < CPF_RANGE) {
+                        values.add(cpf);
+                    }
+                }
+            }
+        }
+        values.add(0L);
+        values.add(CPF_RANGE - 1);
+
+        long[] cpfs = values.stream().mapToLong(Long::longValue).toArray();
+        assertEquivalent(cpfs, cpfs.length, random);
+
+        // Subconjuntos de vários tamanhos mudam a quantidade de bits do diretório
+        for (int size = 1; size < cpfs.length; size += 7) {
+            assertEquivalent(cpfs, size, random);
+        }
+    }
+
+    @Test
+    void matchesHashSetOnConcentratedBuckets() {
+        Random random = new Random(23);
+
+        // CPFs consecutivos: poucos baldes com milhares de entradas, consultados por busca binária
+        long[] cpfs = new long[20_000];
+        for (int i = 0; i < 10_000; i++) {
+            cpfs[i] = 12_345_678_900L + i;
+            cpfs[10_000 + i] = Math.floorMod(random.nextLong(), CPF_RANGE);
+        }
+
+        assertEquivalent(cpfs, cpfs.length, random);
+    }
+
+    @Test
+    void firstAndLastElementsAreFound() {
+        CpfSet set = CpfSet.of(new long[]{0, 5, 99_999_999_999L}, 3);
+
+        assertThat(set.contains(0)).isTrue();
+        assertThat(set.contains(99_999_999_999L)).isTrue();
+        assertThat(set.contains(1)).isFalse();
+        assertThat(set.contains(99_999_999_998L)).isFalse();
+        assertThat(set.contains(100_000_000_000L)).isFalse();
+        assertThat(set.contains(-1)).isFalse();
+        assertThat(set.contains(Long.MIN_VALUE)).isFalse();
+        assertThat(set.contains(Long.MAX_VALUE)).isFalse();
+        assertThat(set.contains(1L << 37)).isFalse();
+    }
+
+    @Test
+    void repeatedCpfsAreStoredOnce() {
+        long[] cpfs = {42, 7, 42, 7, 7, 99_999_999_999L, 42, 0, 0};
+        CpfSet set = CpfSet.of(cpfs, cpfs.length);
+
+        assertThat(set.size()).isEqualTo(4);
+        assertThat(values(set)).containsExactly(0L, 7L, 42L, 99_999_999_999L);
+        // O array de entrada não é alterado
+        assertThat(cpfs).containsExactly(42, 7, 42, 7, 7, 99_999_999_999L, 42, 0, 0);
+    }
+
+    @Test
+    void onlyTheFirstCountPositionsAreUsed() {
+        CpfSet set = CpfSet.of(new long[]{3, 1, 2, 4, 5}, 3);
+
+        assertThat(values(set)).containsExactly(1L, 2L, 3L);
+        assertThat(set.contains(4)).isFalse();
+        assertThat(set.contains(5)).isFalse();
+    }
+
+    @Test
+    void emptySetContainsNothing() {
+        Random random = new Random(24);
+
+        for (CpfSet set : new CpfSet[]{CpfSet.empty(), CpfSet.of(new long[0], 0), CpfSet.of(new long[]{1, 2}, 0)}) {
+            assertThat(set.size()).isZero();
+            assertThat(values(set)).isEmpty();
+            assertThat(set.contains(0)).isFalse();
+            assertThat(set.contains(CPF_RANGE - 1)).isFalse();
+            assertThat(set.contains("000.000.000-00")).isFalse();
+            for (int i = 0; i < 1_000; i++) {
+                assertThat(set.contains(Math.floorMod(random.nextLong(), CPF_RANGE))).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void parsesCpfsWithLeadingZerosAndPunctuation() {
+        assertThat(CpfSet.parse("00000000001")).isEqualTo(1);
+        assertThat(CpfSet.parse("000.000.000-01")).isEqualTo(1);
+        assertThat(CpfSet.parse("00000000000")).isZero();
+        assertThat(CpfSet.parse("123.456.789-01")).isEqualTo(12_345_678_901L);
+        assertThat(CpfSet.parse("12345678901")).isEqualTo(12_345_678_901L);
+        assertThat(CpfSet.parse("999.999.999-99")).isEqualTo(99_999_999_999L);
+        // Pontuação fora das posições usuais também é ignorada
+        assertThat(CpfSet.parse("1.2.3.4.5.6.7.8.9.0-1")).isEqualTo(12_345_678_901L);
+        assertThat(CpfSet.parse("-12345678901.")).isEqualTo(12_345_678_901L);
+
+        CpfSet set = CpfSet.of(new long[]{1, 12_345_678_901L}, 2);
+        assertThat(set.contains("000.000.000-01")).isTrue();
+        assertThat(set.contains("00000000001")).isTrue();
+        assertThat(set.contains("123.456.789-01")).isTrue();
+        assertThat(set.contains("1")).isFalse();
+        assertThat(set.contains("123.456.789-02")).isFalse();
+    }
+
+    @Test
+    void rejectsMalformedCpfs() {
+        String[] malformed = {
+                null, "", ".", "-", "1234567890", "123456789012", "000000000001", "123.456.789-0",
+                "123 456 789 01", "123/456/789-01", "1234567890a", "a12345678901", "١٢٣٤٥٦٧٨٩٠١", "+12345678901"
+        };
+        CpfSet set = CpfSet.of(new long[]{12_345_678_901L, 1_234_567_890L, 1}, 3);
+
+        for (String cpf : malformed) {
+            assertThat(CpfSet.parse(cpf)).as("CPF %s", cpf).isEqualTo(CpfSet.INVALID);
+            assertThat(set.contains(cpf)).as("CPF %s", cpf).isFalse();
+            if (cpf != null) {
+                assertThat(CpfSet.parse(cpf.toCharArray(), 0, cpf.length())).as("CPF %s", cpf).isEqualTo(CpfSet.INVALID);
+            }
+        }
+    }
+
+    @Test
+    void parsesCharArraySlicesLikeStrings() {
+        Random random = new Random(25);
+        char[] line = "x;000.000.000-01;12345678901;1234567890;".toCharArray();
+
+        assertThat(CpfSet.parse(line, 2, 14)).isEqualTo(1);
+        assertThat(CpfSet.parse(line, 17, 11)).isEqualTo(12_345_678_901L);
+        assertThat(CpfSet.parse(line, 29, 10)).isEqualTo(CpfSet.INVALID);
+        assertThat(CpfSet.parse(line, 0, 16)).isEqualTo(CpfSet.INVALID);
+
+        for (int i = 0; i < 10_000; i++) {
+            String cpf = String.format("%011d", Math.floorMod(random.nextLong(), CPF_RANGE));
+            String formatted = cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9)
+                    + "-" + cpf.substring(9);
+            char[] chars = ("  " + formatted + "  ").toCharArray();
+
+            assertThat(CpfSet.parse(chars, 2, formatted.length())).isEqualTo(Long.parseLong(cpf));
+            assertThat(CpfSet.parse(formatted)).isEqualTo(Long.parseLong(cpf));
+        }
+    }
+
+    /**
+     * Compara o conjunto com o oráculo nos CPFs presentes, nos vizinhos de cada um, em CPFs aleatórios e
+     * nos limites do intervalo, e confere a iteração em ordem crescente sem repetições.
+     */
+    private static void assertEquivalent(long[] cpfs, int count, Random random) {
+        CpfSet set = CpfSet.of(cpfs, count);
+        Set<Long> oracle = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            oracle.add(cpfs[i]);
+        }
+
+        assertThat(set.size()).isEqualTo(oracle.size());
+        assertThat(values(set)).containsExactlyElementsOf(new TreeSet<>(oracle));
+
+        List<Long> probes = new ArrayList<>();
+        for (long cpf : oracle) {
+            probes.add(cpf);
+            probes.add(cpf - 1);
+            probes.add(cpf + 1);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            probes.add(Math.floorMod(random.nextLong(), CPF_RANGE));
+        }
+        probes.add(0L);
+        probes.add(CPF_RANGE - 1);
+
+        for (long cpf : probes) {
+            assertThat(set.contains(cpf)).as("CPF %d em %d CPFs", cpf, count).isEqualTo(oracle.contains(cpf));
+            if (cpf >= 0 && cpf < CPF_RANGE) {
+                assertThat(set.contains(String.format("%011d", cpf))).isEqualTo(oracle.contains(cpf));
+            }
+        }
+    }
+
+    private static List<Long> values(CpfSet set) {
+        List<Long> values = new ArrayList<>();
+        set.forEach(values::add);
+        return values;
+    }
+}
@@ -0,0 +1,207 @@
+package com.acme.lists.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Equivalência entre o {@link DeviceIdSet} e conjuntos de {@link UUID} e de texto com os mesmos
+ * identificadores: grafias do UUID (maiúsculas, chaves, sem hífens), identificadores que não são UUIDs,
+ * sondagem além das colisões, volta ao início da tabela e redimensionamento.
+ */
+class DeviceIdSetTest {
+
+    private static final UUID NIL = new UUID(0, 0);
+
+    @Test
+    void uuidSpellingsHaveTheSameValue() {
+        Random random = new Random(231);
+
+        for (int i = 0; i < 10_000; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            for (String spelling : spellings(uuid, random)) {
+                int start = Uuids.start(spelling);
+                assertThat(start).as("UUID %s", spelling).isGreaterThanOrEqualTo(0);
+                assertThat(Uuids.high(spelling, start)).as("UUID %s", spelling).isEqualTo(uuid.getMostSignificantBits());
+                assertThat(Uuids.low(spelling, start)).as("UUID %s", spelling).isEqualTo(uuid.getLeastSignificantBits());
+                assertThat(DeviceIdList.filterKey(spelling)).isEqualTo(DeviceIdList.filterKey(uuid.toString()));
+            }
+        }
+    }
+
+    @Test
+    void rejectsMalformedUuids() {
+        String canonical = "123e4567-e89b-12d3-a456-426614174000";
+        String[] malformed = {
+                "", "device-1", canonical.substring(1), canonical + "0", "{" + canonical, canonical + "}",
+                "(" + canonical + ")", "{" + canonical + ")", "[" + canonical.replace("-", "") + "]",
+                canonical.replace('e', 'g'), canonical.replace("-", "_"), "123e4567e-89b-12d3-a456-426614174000",
+                "123e4567-e89b-12d3-a456-42661417400-", " " + canonical.substring(1),
+                // Dígitos fora do ASCII, como os de largura total, não são hexadecimais
+                canonical.replace('1', '１'), canonical.replace("-", "").substring(1) + "٠",
+                "+23e4567e89b12d3a456426614174000", "-23e4567-e89b-12d3-a456-426614174000"
+        };
+        for (String id : malformed) {
+            assertThat(Uuids.start(id)).as("identificador %s", id).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void matchesOracleOnRandomDeviceIds() {
+        Random random = new Random(232);
+
+        for (int size : new int[]{0, 1, 2, 3, 10, 100, 127, 128, 129, 1_000, 50_000}) {
+            DeviceIdSet.Builder builder = new DeviceIdSet.Builder();
+            Set<UUID> uuids = new HashSet<>();
+            Set<String> others = new HashSet<>();
+            List<UUID> added = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                if (random.nextInt(5) == 0) {
+                    String other = "device-" + random.nextInt(size * 2);
+                    builder.add(other);
+                    others.add(other);
+                    continue;
+                }
+                // Parte repetida, em outra grafia
+                UUID uuid = !added.isEmpty() && random.nextInt(10) == 0
+                        ? added.get(random.nextInt(added.size()))
+                        : new UUID(random.nextLong(), random.nextLong());
+                List<String> spellings = spellings(uuid, random);
+                builder.add(spellings.get(random.nextInt(spellings.size())));
+                uuids.add(uuid);
+                added.add(uuid);
+            }
+            DeviceIdSet set = builder.build();
+
+            assertThat(set.uuidCount()).as("%d identificadores", size).isEqualTo(uuids.size());
+            assertThat(set.otherCount()).isEqualTo(others.size());
+            assertThat(set.size()).isEqualTo(uuids.size() + others.size());
+            assertThat(listedUuids(set)).containsExactlyInAnyOrderElementsOf(uuids);
+
+            for (UUID uuid : uuids) {
+                for (String spelling : spellings(uuid, random)) {
+                    assertThat(set.contains(spelling)).as("UUID %s", spelling).isTrue();
+                }
+            }
+            for (String other : others) {
+                assertThat(set.contains(other)).isTrue();
+                assertThat(set.contains(other.toUpperCase())).isFalse();
+            }
+            for (int i = 0; i < 10_000; i++) {
+                UUID uuid = new UUID(random.nextLong(), random.nextLong());
+                assertThat(set.contains(uuid.toString())).isEqualTo(uuids.contains(uuid));
+                String other = "device-" + random.nextInt(size * 4 + 1);
+                assertThat(set.contains(other)).isEqualTo(others.contains(other));
+            }
+            assertThat(set.contains(NIL.toString())).isFalse();
+            assertThat(set.contains(null)).isFalse();
+        }
+    }
+
+    @Test
+    void probesPastCollidingUuids() {
+        Random random = new Random(233);
+        // 12 UUIDs ocupam uma tabela de 16 posições; todos no mesmo slot inicial, o último, para que a
+        // sequência de sondagem volte ao início da tabela
+        int capacity = 16;
+        int slot = capacity - 1;
+        List<UUID> colliding = new ArrayList<>();
+        while (colliding.size() < 14) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            if (((int) Uuids.mix(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) & (capacity - 1)) == slot) {
+                colliding.add(uuid);
+            }
+        }
+        List<UUID> present = colliding.subList(0, 12);
+        List<UUID> absent = colliding.subList(12, 14);
+
+        DeviceIdSet.Builder builder = new DeviceIdSet.Builder();
+        present.forEach(uuid -> builder.add(uuid.toString()));
+        DeviceIdSet set = builder.build();
+
+        assertThat(set.uuidCount()).isEqualTo(12);
+        for (UUID uuid : present) {
+            assertThat(set.contains(uuid.toString().toUpperCase())).as("UUID %s", uuid).isTrue();
+        }
+        for (UUID uuid : absent) {
+            assertThat(set.contains(uuid.toString())).as("UUID %s", uuid).isFalse();
+        }
+        assertThat(listedUuids(set)).containsExactlyInAnyOrderElementsOf(present);
+    }
+
+    @Test
+    void nilUuidIsStoredApartFromTheFreeSlotMarker() {
+        DeviceIdSet withoutNil = new DeviceIdSet.Builder().add(UUID.randomUUID().toString()).build();
+        assertThat(withoutNil.contains(NIL.toString())).isFalse();
+        assertThat(listedUuids(withoutNil)).doesNotContain(NIL);
+
+        DeviceIdSet withNil = new DeviceIdSet.Builder()
+                .add("00000000-0000-0000-0000-000000000000")
+                .add("{00000000000000000000000000000000}")
+                .add("device-1")
+                .build();
+        assertThat(withNil.uuidCount()).isEqualTo(1);
+        assertThat(withNil.size()).isEqualTo(2);
+        assertThat(withNil.contains("00000000000000000000000000000000")).isTrue();
+        assertThat(listedUuids(withNil)).containsExactly(NIL);
+    }
+
+    @Test
+    void otherIdsAreComparedExactly() {
+        DeviceIdSet set = new DeviceIdSet.Builder()
+                .add("android-abc123")
+                .add("123e4567-e89b-12d3-a456-42661417400")
+                .add("")
+                .build();
+
+        assertThat(set.uuidCount()).isZero();
+        assertThat(set.otherCount()).isEqualTo(3);
+        assertThat(set.contains("android-abc123")).isTrue();
+        assertThat(set.contains("ANDROID-ABC123")).isFalse();
+        assertThat(set.contains(" android-abc123")).isFalse();
+        assertThat(set.contains("123e4567-e89b-12d3-a456-42661417400")).isTrue();
+        assertThat(set.contains("123E4567-E89B-12D3-A456-42661417400")).isFalse();
+        assertThat(set.contains("")).isTrue();
+    }
+
+    @Test
+    void emptySetContainsNothing() {
+        DeviceIdSet set = DeviceIdSet.empty();
+
+        assertThat(set.size()).isZero();
+        assertThat(set.contains(UUID.randomUUID().toString())).isFalse();
+        assertThat(set.contains(NIL.toString())).isFalse();
+        assertThat(set.contains("device-1")).isFalse();
+        assertThat(listedUuids(set)).isEmpty();
+    }
+
+    /**
+     * Grafias aceitas do UUID: canônica, maiúscula, com maiúsculas e minúsculas misturadas, sem hífens e
+     * entre chaves.
+     */
+    private static List<String> spellings(UUID uuid, Random random) {
+        String canonical = uuid.toString();
+        StringBuilder mixed = new StringBuilder(canonical);
+        for (int i = 0; i < mixed.length(); i++) {
+            if (random.nextBoolean()) {
+                mixed.setCharAt(i, Character.toUpperCase(mixed.charAt(i)));
+            }
+        }
+        String compact = canonical.replace("-", "");
+        return List.of(canonical, canonical.toUpperCase(), mixed.toString(), compact, compact.toUpperCase(),
+                "{" + canonical + "}", "{" + compact + "}", "{" + mixed + "}");
+    }
+
+    private static List<UUID> listedUuids(DeviceIdSet set) {
+        List<UUID> uuids = new ArrayList<>();
+        set.forEachUuid((hi, lo) -> uuids.add(new UUID(hi, lo)));
+        return uuids;
+    }
+}
@@ -0,0 +1,149 @@
+package com.acme.lists.domain.model.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Equivalência entre a {@link CidrTrie} e a verificação bloco a bloco, com blocos aninhados inseridos em
+ * qualquer ordem, os extremos /0 e /32 (ou /128) e blocos percorridos em ordem, sem sobreposição.
+ */
+class CidrTrieTest {
+
+    @Test
+    void matchesBlockByBlockCheckOnRandomIpv4Blocks() {
+        Random random = new Random(221);
+
+        for (int round = 0; round < 200; round++) {
+            List<long[]> blocks = new ArrayList<>();
+            CidrTrie.Builder builder = new CidrTrie.Builder(32);
+            int blockCount = random.nextInt(40);
+            for (int i = 0; i < blockCount; i++) {
+                // Endereços concentrados em 10.0.0.0/16 para que os blocos se aninhem e se toquem
+                long address = 0x0a000000L | random.nextInt(1 << 16);
+                int length = 8 + random.nextInt(25);
+                blocks.add(new long[]{address, length});
+                builder.add(address << 32, 0, length);
+            }
+            CidrTrie trie = builder.build();
+
+            List<Long> probes = new ArrayList<>();
+            for (long[] block : blocks) {
+                long first = block[0] & prefixMask(block[1]);
+                long last = first | (~prefixMask(block[1]) & 0xffffffffL);
+                probes.add(first - 1);
+                probes.add(first);
+                probes.add(last);
+                probes.add(last + 1);
+            }
+            for (int i = 0; i < 2_000; i++) {
+                probes.add(0x0a000000L | random.nextInt(1 << 16));
+            }
+
+            for (long address : probes) {
+                address &= 0xffffffffL;
+                boolean expected = false;
+                for (long[] block : blocks) {
+                    expected |= (address & prefixMask(block[1])) == (block[0] & prefixMask(block[1]));
+                }
+                assertThat(trie.contains(address << 32, 0)).as("endereço %x, blocos %s", address, blocks.size())
+                        .isEqualTo(expected);
+                assertThat(inAnyBlock(trie, address << 32, 0)).isEqualTo(expected);
+            }
+            assertBlocksAscendingWithoutOverlap(trie);
+        }
+    }
+
+    @Test
+    void nestedBlocksMatchInAnyInsertionOrder() {
+        CidrTrie innerFirst = new CidrTrie.Builder(32).add(ipv4("10.1.2.0"), 0, 24).add(ipv4("10.0.0.0"), 0, 8).build();
+        CidrTrie outerFirst = new CidrTrie.Builder(32).add(ipv4("10.0.0.0"), 0, 8).add(ipv4("10.1.2.0"), 0, 24).build();
+
+        for (CidrTrie trie : new CidrTrie[]{innerFirst, outerFirst}) {
+            assertThat(trie.contains(ipv4("10.200.0.1"), 0)).isTrue();
+            assertThat(trie.contains(ipv4("10.1.2.3"), 0)).isTrue();
+            assertThat(trie.contains(ipv4("11.0.0.0"), 0)).isFalse();
+            assertThat(trie.nodeCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void zeroLengthBlockContainsEveryAddress() {
+        CidrTrie ipv4 = new CidrTrie.Builder(32).add(ipv4("10.1.2.3"), 0, 24).add(ipv4("192.0.2.1"), 0, 0).build();
+        CidrTrie ipv6 = new CidrTrie.Builder(128).add(0x20010db8L << 32, 0, 32).add(-1L, -1L, 0).build();
+
+        assertThat(ipv4.contains(0, 0)).isTrue();
+        assertThat(ipv4.contains(ipv4("255.255.255.255"), 0)).isTrue();
+        assertThat(ipv4.nodeCount()).isEqualTo(1);
+        assertThat(ipv6.contains(0, 0)).isTrue();
+        assertThat(ipv6.contains(-1L, -1L)).isTrue();
+        assertThat(ipv6.nodeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fullLengthBlocksContainOnlyTheirAddress() {
+        CidrTrie ipv4 = new CidrTrie.Builder(32)
+                .add(ipv4("10.0.0.1"), 0, 32).add(ipv4("10.0.0.2"), 0, 32).add(ipv4("255.255.255.255"), 0, 32)
+                .build();
+
+        assertThat(ipv4.contains(ipv4("10.0.0.1"), 0)).isTrue();
+        assertThat(ipv4.contains(ipv4("10.0.0.2"), 0)).isTrue();
+        assertThat(ipv4.contains(ipv4("10.0.0.0"), 0)).isFalse();
+        assertThat(ipv4.contains(ipv4("10.0.0.3"), 0)).isFalse();
+        assertThat(ipv4.contains(ipv4("255.255.255.255"), 0)).isTrue();
+        assertThat(ipv4.contains(ipv4("255.255.255.254"), 0)).isFalse();
+
+        CidrTrie ipv6 = new CidrTrie.Builder(128).add(0, 1, 128).add(-1L, -1L, 128).add(1, 0, 128).build();
+        assertThat(ipv6.contains(0, 1)).isTrue();
+        assertThat(ipv6.contains(0, 0)).isFalse();
+        assertThat(ipv6.contains(0, 2)).isFalse();
+        assertThat(ipv6.contains(-1L, -1L)).isTrue();
+        assertThat(ipv6.contains(-1L, -2L)).isFalse();
+        assertThat(ipv6.contains(1, 0)).isTrue();
+        assertThat(ipv6.contains(0, -1L)).isFalse();
+        assertBlocksAscendingWithoutOverlap(ipv6);
+    }
+
+    @Test
+    void emptyTrieContainsNothing() {
+        CidrTrie trie = new CidrTrie.Builder(128).build();
+
+        assertThat(trie.nodeCount()).isZero();
+        assertThat(trie.contains(0, 0)).isFalse();
+        assertThat(trie.contains(-1L, -1L)).isFalse();
+    }
+
+    private static void assertBlocksAscendingWithoutOverlap(CidrTrie trie) {
+        List<long[]> blocks = new ArrayList<>();
+        trie.forEachBlock((hi, lo, length) -> blocks.add(new long[]{hi, lo, length}));
+        for (int i = 1; i < blocks.size(); i++) {
+            long[] previous = blocks.get(i - 1);
+            long[] current = blocks.get(i);
+            long lastHi = previous[0] | (previous[2] >= 64 ? 0 : -1L >>> previous[2]);
+            long lastLo = previous[1] | (previous[2] >= 128 ? 0 : -1L >>> Math.max(previous[2] - 64, 0));
+            int comparison = Long.compareUnsigned(lastHi, current[0]);
+            assertThat(comparison < 0 || comparison == 0 && Long.compareUnsigned(lastLo, current[1]) < 0)
+                    .as("bloco %d depois do fim do anterior", i)
+                    .isTrue();
+        }
+    }
+
+    private static boolean inAnyBlock(CidrTrie trie, long hi, long lo) {
+        boolean[] found = new boolean[1];
+        trie.forEachBlock((blockHi, blockLo, length) ->
+                found[0] |= CidrTrie.commonPrefixLength(hi, lo, blockHi, blockLo) >= length);
+        return found[0];
+    }
+
+    private static long prefixMask(long length) {
+        return length == 0 ? 0 : (0xffffffffL << (32 - length)) & 0xffffffffL;
+    }
+
+    private static long ipv4(String ip) {
+        return IpAddresses.parseIpv4(ip) << 32;
+    }
+}
@@ -0,0 +1,131 @@
+package com.acme.lists.domain.model.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Conversão de endereços textuais: IPv4 com zeros à esquerda, IPv6 completo, comprimido com {@code ::} em
+ * qualquer posição e com IPv4 embutido, comparado com o {@link InetAddress} para endereços aleatórios, e
+ * rejeição de textos inválidos.
+ */
+class IpAddressesTest {
+
+    @Test
+    void parsesIpv4() {
+        assertThat(IpAddresses.parseIpv4("0.0.0.0")).isZero();
+        assertThat(IpAddresses.parseIpv4("255.255.255.255")).isEqualTo(0xffffffffL);
+        assertThat(IpAddresses.parseIpv4("10.0.0.1")).isEqualTo(0x0a000001L);
+        assertThat(IpAddresses.parseIpv4("192.168.001.100")).isEqualTo(IpAddresses.parseIpv4("192.168.1.100"));
+    }
+
+    @Test
+    void rejectsMalformedIpv4() {
+        String[] malformed = {
+                "", ".", "1.2.3", "1.2.3.4.5", "1..2.3", "1.2.3.4.", ".1.2.3.4", "256.0.0.1", "1.2.3.256",
+                "1.2.3.-4", "1.2.3.a", " 1.2.3.4", "1.2.3.4 ", "1.2.3.4/32", "::1", "0x1.2.3.4"
+        };
+        for (String ip : malformed) {
+            assertThat(IpAddresses.parseIpv4(ip)).as("IP %s", ip).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void parsesIpv6Forms() {
+        assertThat(ipv6("::")).isEqualTo(BigInteger.ZERO);
+        assertThat(ipv6("::1")).isEqualTo(BigInteger.ONE);
+        assertThat(ipv6("1::")).isEqualTo(BigInteger.ONE.shiftLeft(112));
+        assertThat(ipv6("ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff"))
+                .isEqualTo(BigInteger.ONE.shiftLeft(128).subtract(BigInteger.ONE));
+        assertThat(ipv6("2001:DB8::8:800:200C:417A")).isEqualTo(ipv6("2001:db8:0:0:8:800:200c:417a"));
+        assertThat(ipv6("2001:db8::1:0:0:1")).isEqualTo(ipv6("2001:0db8:0000:0000:0001:0000:0000:0001"));
+        assertThat(ipv6("::ffff:192.0.2.1")).isEqualTo(BigInteger.valueOf(0xffffL << 32 | 0xc0000201L));
+        assertThat(ipv6("::192.0.2.1")).isEqualTo(BigInteger.valueOf(0xc0000201L));
+        assertThat(ipv6("1:2:3:4:5:6:10.0.0.1")).isEqualTo(ipv6("1:2:3:4:5:6:a00:1"));
+        assertThat(ipv6("1:2:3:4:5:6:7::")).isEqualTo(ipv6("1:2:3:4:5:6:7:0"));
+        assertThat(ipv6("::2:3:4:5:6:7:8")).isEqualTo(ipv6("0:2:3:4:5:6:7:8"));
+    }
+
+    @Test
+    void matchesInetAddressOnRandomIpv6() throws Exception {
+        Random random = new Random(22);
+
+        for (int i = 0; i < 20_000; i++) {
+            // Grupos zerados frequentes, para exercitar a compressão em todas as posições
+            int[] groups = new int[8];
+            for (int g = 0; g < 8; g++) {
+                groups[g] = random.nextInt(3) == 0 ? 0 : random.nextInt(0x10000);
+            }
+            String text = format(groups, random);
+
+            byte[] expected = InetAddress.getByName(text).getAddress();
+            if (expected.length == 4) {
+                continue; // o InetAddress converte endereços mapeados para IPv4
+            }
+            assertThat(ipv6(text)).as("IP %s", text).isEqualTo(new BigInteger(1, expected));
+        }
+    }
+
+    @Test
+    void rejectsMalformedIpv6() {
+        String[] malformed = {
+                "", ":", ":::", "1:2:3:4:5:6:7", "1:2:3:4:5:6:7:8:9", "1::2::3", ":1::2", "1::2:", "1:2:3:4:5:6:7:8::",
+                "12345::", "g::1", "1:2:3:4:5:6:7:1.2.3.4", "::1.2.3", "::256.0.0.1", "::1.2.3.4:5", "1.2.3.4",
+                "::ffff:1.2.3.4/96", " ::1", "::1 "
+        };
+        for (String ip : malformed) {
+            assertThat(IpAddresses.parseIpv6(ip, new long[2])).as("IP %s", ip).isFalse();
+        }
+    }
+
+    private static BigInteger ipv6(String ip) {
+        long[] out = new long[2];
+        assertThat(IpAddresses.parseIpv6(ip, out)).as("IP %s", ip).isTrue();
+        return BigInteger.valueOf(out[0] >>> 32).shiftLeft(96)
+                .or(BigInteger.valueOf(out[0] & 0xffffffffL).shiftLeft(64))
+                .or(BigInteger.valueOf(out[1] >>> 32).shiftLeft(32))
+                .or(BigInteger.valueOf(out[1] & 0xffffffffL));
+    }
+
+    /**
+     * Grafia aleatória: completa, com zeros à esquerda, maiúscula ou com {@code ::} na primeira sequência
+     * de grupos zerados.
+     */
+    private static String format(int[] groups, Random random) {
+        boolean compress = random.nextBoolean();
+        boolean padded = random.nextInt(4) == 0;
+        boolean upper = random.nextInt(4) == 0;
+
+        int zeroStart = -1;
+        int zeroEnd = -1;
+        if (compress) {
+            for (int g = 0; g < 8 && zeroStart < 0; g++) {
+                if (groups[g] == 0) {
+                    zeroStart = g;
+                    zeroEnd = g;
+                    while (zeroEnd + 1 < 8 && groups[zeroEnd + 1] == 0) {
+                        zeroEnd++;
+                    }
+                }
+            }
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (int g = 0; g < 8; g++) {
+            if (g == zeroStart) {
+                text.append("::");
+                g = zeroEnd;
+                continue;
+            }
+            if (text.length() > 0 && text.charAt(text.length() - 1) != ':') {
+                text.append(':');
+            }
+            text.append(padded ? String.format("%04x", groups[g]) : Integer.toHexString(groups[g]));
+        }
+        return upper ? text.toString().toUpperCase() : text.toString();
+    }
+}
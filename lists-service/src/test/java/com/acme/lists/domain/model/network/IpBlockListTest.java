@@ -0,0 +1,309 @@
+package com.acme.lists.domain.model.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Equivalência entre a {@link IpBlockList} e a verificação entrada a entrada sobre intervalos de 128 bits,
+ * em que um IPv4 {@code a.b.c.d} é o endereço mapeado {@code ::ffff:a.b.c.d}: blocos /0, /32 e /128,
+ * intervalos que não se alinham a um prefixo, as duas grafias dos endereços mapeados, intervalos que
+ * atravessam o espaço mapeado e entradas inválidas.
+ */
+class IpBlockListTest {
+
+    private static final BigInteger MAPPED = BigInteger.valueOf(0xffffL << 32);
+    private static final BigInteger IPV4_HOSTS = BigInteger.ONE.shiftLeft(32).subtract(BigInteger.ONE);
+    private static final BigInteger ALL = BigInteger.ONE.shiftLeft(128).subtract(BigInteger.ONE);
+    private static final BigInteger DOC_PREFIX = new BigInteger("20010db8", 16).shiftLeft(96);
+
+    @Test
+    void matchesEntryByEntryCheckOnRandomLists() {
+        Random random = new Random(222);
+
+        for (int round = 0; round < 100; round++) {
+            IpBlockList.Builder builder = new IpBlockList.Builder();
+            List<BigInteger[]> ranges = new ArrayList<>();
+            int entries = random.nextInt(30);
+            for (int i = 0; i < entries; i++) {
+                BigInteger[] range = new BigInteger[2];
+                String entry = randomEntry(random, range);
+                assertThat(builder.add(entry)).as("entrada %s", entry).isTrue();
+                ranges.add(range);
+            }
+            IpBlockList list = builder.build();
+            assertThat(list.size()).isEqualTo(entries);
+
+            List<BigInteger> probes = new ArrayList<>();
+            for (BigInteger[] range : ranges) {
+                probes.add(range[0].subtract(BigInteger.ONE));
+                probes.add(range[0]);
+                probes.add(range[1]);
+                probes.add(range[1].add(BigInteger.ONE));
+            }
+            for (int i = 0; i < 500; i++) {
+                probes.add(randomAddress(random));
+            }
+
+            for (BigInteger address : probes) {
+                if (address.signum() < 0 || address.compareTo(ALL) > 0) {
+                    continue;
+                }
+                boolean expected = inAny(ranges, address);
+                for (String text : texts(address)) {
+                    assertThat(list.contains(text)).as("endereço %s", text).isEqualTo(expected);
+                }
+                assertThat(inListedRanges(list, address)).as("endereço %s", address.toString(16)).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void zeroLengthBlocks() {
+        IpBlockList ipv4 = list("0.0.0.0/0");
+        assertThat(ipv4.contains("0.0.0.0")).isTrue();
+        assertThat(ipv4.contains("255.255.255.255")).isTrue();
+        assertThat(ipv4.contains("::ffff:203.0.113.9")).isTrue();
+        assertThat(ipv4.contains("::1")).isFalse();
+        assertThat(ipv4.contains("2001:db8::1")).isFalse();
+
+        IpBlockList ipv6 = list("::/0");
+        assertThat(ipv6.contains("::")).isTrue();
+        assertThat(ipv6.contains("ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff")).isTrue();
+        assertThat(ipv6.contains("203.0.113.9")).isTrue();
+        assertThat(ipv6.contains("::ffff:203.0.113.9")).isTrue();
+
+        IpBlockList mapped = list("::ffff:0.0.0.0/96");
+        assertThat(mapped.contains("0.0.0.0")).isTrue();
+        assertThat(mapped.contains("255.255.255.255")).isTrue();
+        assertThat(mapped.contains("::fffe:ffff:ffff")).isFalse();
+        assertThat(mapped.contains("::1:0:0:0")).isFalse();
+    }
+
+    @Test
+    void fullLengthBlocksContainOnlyTheirAddress() {
+        IpBlockList list = list("192.0.2.1/32", "2001:db8::1/128", "::ffff:198.51.100.7/128");
+
+        assertThat(list.contains("192.0.2.1")).isTrue();
+        assertThat(list.contains("::ffff:192.0.2.1")).isTrue();
+        assertThat(list.contains("192.0.2.0")).isFalse();
+        assertThat(list.contains("192.0.2.2")).isFalse();
+        assertThat(list.contains("2001:db8::1")).isTrue();
+        assertThat(list.contains("2001:db8:0:0:0:0:0:1")).isTrue();
+        assertThat(list.contains("2001:db8::")).isFalse();
+        assertThat(list.contains("2001:db8::2")).isFalse();
+        assertThat(list.contains("198.51.100.7")).isTrue();
+        assertThat(list.contains("::ffff:c633:6407")).isTrue();
+        assertThat(list.contains("198.51.100.8")).isFalse();
+    }
+
+    @Test
+    void rangesThatDoNotAlignToAPrefix() {
+        IpBlockList list = list("10.0.0.5-10.0.0.20", "2001:db8::ffff-2001:db8::1:1", "10.0.1.255-10.0.2.0");
+
+        assertThat(list.contains("10.0.0.4")).isFalse();
+        assertThat(list.contains("10.0.0.5")).isTrue();
+        assertThat(list.contains("10.0.0.16")).isTrue();
+        assertThat(list.contains("10.0.0.20")).isTrue();
+        assertThat(list.contains("10.0.0.21")).isFalse();
+        assertThat(list.contains("10.0.1.254")).isFalse();
+        assertThat(list.contains("10.0.1.255")).isTrue();
+        assertThat(list.contains("10.0.2.0")).isTrue();
+        assertThat(list.contains("10.0.2.1")).isFalse();
+        assertThat(list.contains("2001:db8::fffe")).isFalse();
+        assertThat(list.contains("2001:db8::ffff")).isTrue();
+        assertThat(list.contains("2001:db8::1:0")).isTrue();
+        assertThat(list.contains("2001:db8::1:1")).isTrue();
+        assertThat(list.contains("2001:db8::1:2")).isFalse();
+
+        // Intervalo de um único endereço e intervalo de todo o espaço IPv4
+        assertThat(list("10.0.0.7-10.0.0.7").contains("10.0.0.7")).isTrue();
+        assertThat(list("10.0.0.7-10.0.0.7").contains("10.0.0.8")).isFalse();
+        assertThat(list("0.0.0.0-255.255.255.255").contains("::ffff:1.2.3.4")).isTrue();
+        assertThat(list("::-ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff").contains("1.2.3.4")).isTrue();
+    }
+
+    @Test
+    void mappedAndPlainIpv4FormsAreEquivalent() {
+        for (String entry : new String[]{"10.1.0.0/16", "::ffff:10.1.0.0/112", "::ffff:a01:0/112",
+                "10.1.0.0-10.1.255.255", "::ffff:10.1.0.0-::ffff:10.1.255.255"}) {
+            IpBlockList list = list(entry);
+
+            assertThat(list.contains("10.1.2.3")).as("entrada %s", entry).isTrue();
+            assertThat(list.contains("::ffff:10.1.2.3")).as("entrada %s", entry).isTrue();
+            assertThat(list.contains("::FFFF:a01:203")).as("entrada %s", entry).isTrue();
+            assertThat(list.contains("010.001.002.003")).as("entrada %s", entry).isTrue();
+            assertThat(list.contains("10.2.0.0")).as("entrada %s", entry).isFalse();
+            assertThat(list.contains("::ffff:10.2.0.0")).as("entrada %s", entry).isFalse();
+            // IPv4 embutido sem o prefixo mapeado é outro endereço IPv6
+            assertThat(list.contains("::10.1.2.3")).as("entrada %s", entry).isFalse();
+        }
+    }
+
+    @Test
+    void rejectsMalformedEntries() {
+        String[] malformed = {
+                "", "abc", "1.2.3", "256.0.0.1", "10.0.0.0/33", "10.0.0.0/-1", "10.0.0.0/", "10.0.0.0/8/8",
+                "10.0.0.0/a", "::/129", "1::2::3", "10.0.0.9-10.0.0.1", "2001:db8::2-2001:db8::1", "10.0.0.1-::1",
+                "10.0.0.1-", "-10.0.0.1", "10.0.0.1-10.0.0.2-10.0.0.3"
+        };
+        IpBlockList.Builder builder = new IpBlockList.Builder();
+        for (String entry : malformed) {
+            assertThat(builder.add(entry)).as("entrada %s", entry).isFalse();
+        }
+        assertThat(builder.add(" 10.0.0.1 ")).isTrue();
+        IpBlockList list = builder.build();
+
+        assertThat(list.size()).isEqualTo(1);
+        assertThat(list.contains("10.0.0.1")).isTrue();
+        assertThat(list.contains(null)).isFalse();
+        for (String ip : new String[]{"", "10.0.0.1/32", " 10.0.0.1", "10.0.0.1 ", "abc", "10.0.0.1.1", "::g"}) {
+            assertThat(list.contains(ip)).as("IP %s", ip).isFalse();
+        }
+    }
+
+    @Test
+    void emptyListContainsNothing() {
+        IpBlockList list = IpBlockList.empty();
+
+        assertThat(list.size()).isZero();
+        assertThat(list.nodeCount()).isZero();
+        assertThat(list.contains("10.0.0.1")).isFalse();
+        assertThat(list.contains("::1")).isFalse();
+    }
+
+    /**
+     * Entrada aleatória, com o intervalo equivalente no espaço de 128 bits. Os endereços ficam concentrados
+     * em 10.0.0.0/20, no início do espaço IPv6 e em 2001:db8::/112, para que as entradas se sobreponham.
+     */
+    private static String randomEntry(Random random, BigInteger[] range) {
+        int kind = random.nextInt(7);
+        if (kind <= 2) {
+            long address = 0x0a000000L | random.nextInt(1 << 12);
+            if (kind == 0) {
+                int length = 18 + random.nextInt(15);
+                BigInteger first = MAPPED.add(BigInteger.valueOf(address & ipv4Mask(length)));
+                range[0] = first;
+                range[1] = first.add(BigInteger.valueOf(~ipv4Mask(length) & 0xffffffffL));
+                // Metade dos blocos na forma mapeada, guardados na trie IPv4
+                return random.nextBoolean()
+                        ? ipv4Text(address) + "/" + length
+                        : "::ffff:" + ipv4Text(address) + "/" + (96 + length);
+            }
+            long last = Math.min(address + random.nextInt(600), 0x0a000fffL);
+            range[0] = MAPPED.add(BigInteger.valueOf(address));
+            range[1] = MAPPED.add(BigInteger.valueOf(last));
+            if (kind == 1) {
+                return random.nextBoolean()
+                        ? ipv4Text(address) + "-" + ipv4Text(last)
+                        : "::ffff:" + ipv4Text(address) + "-::ffff:" + ipv4Text(last);
+            }
+            range[1] = range[0];
+            return random.nextBoolean() ? ipv4Text(address) : "::ffff:" + ipv4Text(address);
+        }
+        if (kind == 3) {
+            // Intervalo que atravessa o início do espaço mapeado
+            BigInteger first = MAPPED.subtract(BigInteger.valueOf(random.nextInt(1 << 12)));
+            BigInteger last = MAPPED.add(BigInteger.valueOf(0x0a000000L | random.nextInt(1 << 12)));
+            range[0] = first;
+            range[1] = last;
+            return ipv6Text(first) + "-" + ipv6Text(last);
+        }
+
+        BigInteger base = kind == 4 ? BigInteger.valueOf(random.nextInt(1 << 12))
+                : DOC_PREFIX.add(BigInteger.valueOf(random.nextInt(1 << 16)));
+        if (kind == 6) {
+            BigInteger last = base.add(BigInteger.valueOf(random.nextInt(3_000)));
+            range[0] = base;
+            range[1] = last;
+            return ipv6Text(base) + "-" + ipv6Text(last);
+        }
+        int length = 112 + random.nextInt(17);
+        BigInteger hostMask = BigInteger.ONE.shiftLeft(128 - length).subtract(BigInteger.ONE);
+        range[0] = base.andNot(hostMask);
+        range[1] = range[0].or(hostMask);
+        return ipv6Text(base) + "/" + length;
+    }
+
+    private static BigInteger randomAddress(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> MAPPED.add(BigInteger.valueOf(0x0a000000L | random.nextInt(1 << 12)));
+            case 1 -> MAPPED.subtract(BigInteger.valueOf(random.nextInt(1 << 12)));
+            case 2 -> BigInteger.valueOf(random.nextInt(1 << 12));
+            default -> DOC_PREFIX.add(BigInteger.valueOf(random.nextInt(1 << 16)));
+        };
+    }
+
+    /**
+     * Grafias do endereço: para endereços mapeados, IPv4, {@code ::ffff:a.b.c.d} e hexadecimal; para os
+     * demais, IPv6 hexadecimal completo.
+     */
+    private static List<String> texts(BigInteger address) {
+        List<String> texts = new ArrayList<>();
+        texts.add(ipv6Text(address));
+        if (address.subtract(MAPPED).signum() >= 0 && address.subtract(MAPPED).compareTo(IPV4_HOSTS) <= 0) {
+            long ipv4 = address.subtract(MAPPED).longValue();
+            texts.add(ipv4Text(ipv4));
+            texts.add("::ffff:" + ipv4Text(ipv4));
+        }
+        return texts;
+    }
+
+    private static boolean inAny(List<BigInteger[]> ranges, BigInteger address) {
+        for (BigInteger[] range : ranges) {
+            if (range[0].compareTo(address) <= 0 && address.compareTo(range[1]) <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Verifica o endereço contra os intervalos percorridos por {@code forEachIpv4Range} e
+     * {@code forEachIpv6Range}, como o snapshot os grava.
+     */
+    private static boolean inListedRanges(IpBlockList list, BigInteger address) {
+        List<BigInteger[]> ranges = new ArrayList<>();
+        list.forEachIpv4Range((firstHi, firstLo, lastHi, lastLo) ->
+                ranges.add(new BigInteger[]{MAPPED.add(BigInteger.valueOf(firstLo)), MAPPED.add(BigInteger.valueOf(lastLo))}));
+        list.forEachIpv6Range((firstHi, firstLo, lastHi, lastLo) ->
+                ranges.add(new BigInteger[]{unsigned(firstHi, firstLo), unsigned(lastHi, lastLo)}));
+        return inAny(ranges, address);
+    }
+
+    private static BigInteger unsigned(long hi, long lo) {
+        return new BigInteger(Long.toUnsignedString(hi)).shiftLeft(64).or(new BigInteger(Long.toUnsignedString(lo)));
+    }
+
+    private static long ipv4Mask(int length) {
+        return length == 0 ? 0 : (0xffffffffL << (32 - length)) & 0xffffffffL;
+    }
+
+    private static String ipv4Text(long address) {
+        return (address >>> 24 & 0xff) + "." + (address >>> 16 & 0xff) + "." + (address >>> 8 & 0xff) + "." + (address & 0xff);
+    }
+
+    private static String ipv6Text(BigInteger address) {
+        StringBuilder text = new StringBuilder();
+        for (int group = 7; group >= 0; group--) {
+            text.append(Integer.toHexString(address.shiftRight(group * 16).intValue() & 0xffff));
+            if (group > 0) {
+                text.append(':');
+            }
+        }
+        return text.toString();
+    }
+
+    private static IpBlockList list(String... entries) {
+        IpBlockList.Builder builder = new IpBlockList.Builder();
+        for (String entry : entries) {
+            assertThat(builder.add(entry)).as("entrada %s", entry).isTrue();
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,476 @@
+package com.acme.lists.infrastructure.adapter.persistence.snapshot;
+
+import com.acme.lists.domain.model.BloomFilter;
+import com.acme.lists.domain.model.CpfList;
+import com.acme.lists.domain.model.CpfSet;
+import com.acme.lists.domain.model.DeviceIdList;
+import com.acme.lists.domain.model.DeviceIdSet;
+import com.acme.lists.domain.model.Lists;
+import com.acme.lists.domain.model.network.IpBlockList;
+import com.acme.lists.domain.model.network.IpList;
+import com.acme.lists.infrastructure.adapter.persistence.JsonFileListsAdapter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Ida e volta do snapshot binário: as listas gravadas pelo {@link ListsSnapshotWriter} e abertas pelo
+ * {@link ListsSnapshotReader} respondem como as listas em heap ({@link CpfSet}, {@link DeviceIdSet} e
+ * {@link IpBlockList}) para chaves presentes, ausentes e seções vazias, os filtros de Bloom mapeados
+ * respondem como os montados, e arquivos truncados ou corrompidos são recusados na abertura.
+ */
+class ListsSnapshotTest {
+
+    private static final long CPF_RANGE = 100_000_000_000L;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mappedListsAnswerLikeHeapListsOnRandomContents() throws IOException {
+        Random random = new Random(251);
+
+        for (int size : new int[]{1, 2, 9, 100, 1_000, 50_000}) {
+            Lists heap = randomLists(random, size);
+            Path file = directory.resolve("lists-" + size + ".snapshot");
+            ListsSnapshotWriter.write(heap, file, FALSE_POSITIVE_RATE);
+
+            for (boolean verifyChecksums : new boolean[]{true, false}) {
+                assertEquivalent(heap, ListsSnapshotReader.read(file, verifyChecksums), random);
+            }
+        }
+    }
+
+    @Test
+    void emptySectionsContainNothing() throws IOException {
+        Lists heap = lists(CpfSet.empty(), CpfSet.empty(), IpBlockList.empty(), DeviceIdSet.empty());
+        Path file = directory.resolve("empty.snapshot");
+        ListsSnapshotWriter.write(heap, file, FALSE_POSITIVE_RATE);
+
+        Lists mapped = ListsSnapshotReader.read(file, true);
+        assertThat(mapped.getCpfPermissiveList().size()).isZero();
+        assertThat(mapped.getCpfRestrictiveList().size()).isZero();
+        assertThat(mapped.getIpRestrictiveList().size()).isZero();
+        assertThat(mapped.getDeviceRestrictiveList().size()).isZero();
+        assertEquivalent(heap, mapped, new Random(252));
+        assertThat(mapped.getCpfRestrictiveFilter().mightContain(12_345_678_901L)).isFalse();
+    }
+
+    @Test
+    void emptySectionsBesideFilledOnes() throws IOException {
+        Random random = new Random(253);
+        Lists full = randomLists(random, 1_000);
+
+        // Cada lista vazia por vez, e seções vazias dentro de listas preenchidas: UUIDs sem outros
+        // identificadores e vice-versa, IPs só IPv6 ou só IPv4
+        List<Lists> variants = List.of(
+                lists(CpfSet.empty(), full.getCpfRestrictiveList(), full.getIpRestrictiveList(),
+                        full.getDeviceRestrictiveList()),
+                lists(full.getCpfPermissiveList(), CpfSet.empty(), full.getIpRestrictiveList(),
+                        full.getDeviceRestrictiveList()),
+                lists(full.getCpfPermissiveList(), full.getCpfRestrictiveList(), IpBlockList.empty(),
+                        full.getDeviceRestrictiveList()),
+                lists(full.getCpfPermissiveList(), full.getCpfRestrictiveList(), full.getIpRestrictiveList(),
+                        DeviceIdSet.empty()),
+                lists(full.getCpfPermissiveList(), full.getCpfRestrictiveList(), full.getIpRestrictiveList(),
+                        new DeviceIdSet.Builder().add(UUID.randomUUID().toString()).build()),
+                lists(full.getCpfPermissiveList(), full.getCpfRestrictiveList(), full.getIpRestrictiveList(),
+                        new DeviceIdSet.Builder().add("device-1").add("00000000-0000-0000-0000-000000000000").build()),
+                lists(full.getCpfPermissiveList(), full.getCpfRestrictiveList(), ipList("2001:db8::/32"),
+                        full.getDeviceRestrictiveList()),
+                lists(full.getCpfPermissiveList(), full.getCpfRestrictiveList(), ipList("10.0.0.0/8"),
+                        full.getDeviceRestrictiveList()));
+
+        for (int i = 0; i < variants.size(); i++) {
+            Path file = directory.resolve("variant-" + i + ".snapshot");
+            ListsSnapshotWriter.write(variants.get(i), file, FALSE_POSITIVE_RATE);
+            assertEquivalent(variants.get(i), ListsSnapshotReader.read(file, true), random);
+        }
+    }
+
+    @Test
+    void compiledJsonAnswersLikeTheJsonAdapter() throws IOException {
+        String json = """
+                {
+                  "cpfPermissiveList": ["123.456.789-01", "98765432100", "invalido"],
+                  "cpfRestrictiveList": ["99999999999", "00000000191", "12345678901"],
+                  "ipRestrictiveList": ["192.168.1.100", "10.0.0.0/8", "2001:db8::/32", "::ffff:172.16.0.0/108",
+                                        "172.31.0.1-172.31.0.9", "999.0.0.1"],
+                  "deviceRestrictiveList": ["550E8400-E29B-41D4-A716-446655440000", "android-abc123",
+                                            "{6ba7b8109dad11d180b400c04fd430c8}"]
+                }
+                """;
+        // Mesmo caminho do ListsSnapshotCompiler: leitura pelo adaptador JSON e gravação do snapshot
+        Lists heap = new JsonFileListsAdapter().parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        Path file = directory.resolve("compiled.snapshot");
+        ListsSnapshotWriter.write(heap, file, FALSE_POSITIVE_RATE);
+        Lists mapped = ListsSnapshotReader.read(file, true);
+
+        assertEquivalent(heap, mapped, new Random(254));
+        assertThat(mapped.getCpfPermissiveList().contains(12_345_678_901L)).isTrue();
+        assertThat(mapped.getCpfRestrictiveList().contains(191L)).isTrue();
+        assertThat(mapped.getIpRestrictiveList().contains("10.255.0.1")).isTrue();
+        assertThat(mapped.getIpRestrictiveList().contains("::ffff:172.16.1.1")).isTrue();
+        assertThat(mapped.getIpRestrictiveList().contains("172.32.0.1")).isFalse();
+        assertThat(mapped.getDeviceRestrictiveList().contains("550e8400-e29b-41d4-a716-446655440000")).isTrue();
+        assertThat(mapped.getDeviceRestrictiveList().contains("6ba7b810-9dad-11d1-80b4-00c04fd430c8")).isTrue();
+        assertThat(mapped.getDeviceRestrictiveList().contains("ANDROID-ABC123")).isFalse();
+    }
+
+    @Test
+    void rejectsTruncatedFiles() throws IOException {
+        Path file = directory.resolve("lists.snapshot");
+        ListsSnapshotWriter.write(randomLists(new Random(255), 1_000), file, FALSE_POSITIVE_RATE);
+        byte[] bytes = Files.readAllBytes(file);
+
+        // O arquivo termina na última seção, então qualquer corte fica fora dos limites de alguma seção
+        Random random = new Random(256);
+        List<Integer> lengths = new ArrayList<>(List.of(0, 1, 8, ListsSnapshotFormat.HEADER_SIZE - 1,
+                ListsSnapshotFormat.HEADER_SIZE, ListsSnapshotFormat.headerLength(ListsSnapshotFormat.SECTION_COUNT) - 1,
+                bytes.length - 1));
+        for (int i = 0; i < 20; i++) {
+            lengths.add(random.nextInt(bytes.length));
+        }
+        for (int length : lengths) {
+            Path truncated = directory.resolve("truncated.snapshot");
+            Files.write(truncated, Arrays.copyOf(bytes, length));
+            for (boolean verifyChecksums : new boolean[]{true, false}) {
+                assertThatThrownBy(() -> ListsSnapshotReader.read(truncated, verifyChecksums))
+                        .as("arquivo truncado em %d de %d bytes", length, bytes.length)
+                        .isInstanceOf(IOException.class);
+            }
+        }
+    }
+
+    @Test
+    void rejectsCorruptHeader() throws IOException {
+        Path file = directory.resolve("lists.snapshot");
+        ListsSnapshotWriter.write(randomLists(new Random(257), 1_000), file, FALSE_POSITIVE_RATE);
+        byte[] bytes = Files.readAllBytes(file);
+        int headerLength = ListsSnapshotFormat.headerLength(ListsSnapshotFormat.SECTION_COUNT);
+
+        // Assinatura, versão e qualquer byte do cabeçalho, inclusive o próprio CRC
+        for (int offset = 0; offset < headerLength; offset++) {
+            byte[] corrupt = bytes.clone();
+            corrupt[offset] ^= 0x10;
+            assertRejected(corrupt, false, "byte %d do cabeçalho alterado", offset);
+        }
+
+        // Com o CRC do cabeçalho refeito, a assinatura, a versão e a tabela de seções ainda são conferidas
+        assertRejected(withHeaderCrc(withLong(bytes, 0, 0x4c4953544c495354L)), false, "assinatura");
+        assertRejected(withHeaderCrc(withInt(bytes, 8, ListsSnapshotFormat.VERSION + 1)), false, "versão");
+        // Uma seção a menos: o CRC passa para o lugar da última entrada da tabela
+        assertRejected(withHeaderCrc(withInt(bytes, 20, ListsSnapshotFormat.SECTION_COUNT - 1),
+                ListsSnapshotFormat.SECTION_COUNT - 1), false, "seção ausente");
+        int lastEntry = ListsSnapshotFormat.sectionEntryOffset(ListsSnapshotFormat.SECTION_COUNT - 1);
+        assertRejected(withHeaderCrc(withInt(bytes, lastEntry, ListsSnapshotFormat.CPF_PERMISSIVE)), false,
+                "seção repetida");
+        assertRejected(withHeaderCrc(withLong(bytes, lastEntry + 24, bytes.length)), false,
+                "seção além do fim do arquivo");
+    }
+
+    @Test
+    void rejectsCorruptSectionsWhenVerifyingChecksums() throws IOException {
+        Path file = directory.resolve("lists.snapshot");
+        ListsSnapshotWriter.write(randomLists(new Random(258), 1_000), file, FALSE_POSITIVE_RATE);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer header = ByteBuffer.wrap(bytes).order(ListsSnapshotFormat.BYTE_ORDER);
+
+        Random random = new Random(259);
+        for (int i = 0; i < ListsSnapshotFormat.SECTION_COUNT; i++) {
+            int entry = ListsSnapshotFormat.sectionEntryOffset(i);
+            int id = header.getInt(entry);
+            long offset = header.getLong(entry + 16);
+            long length = header.getLong(entry + 24);
+            assertThat(length).as("seção %d", id).isPositive();
+
+            for (int flip = 0; flip < 5; flip++) {
+                int position = (int) (offset + random.nextInt((int) length));
+                byte[] corrupt = bytes.clone();
+                corrupt[position] ^= (byte) (1 << random.nextInt(8));
+                assertRejected(corrupt, true, "byte %d da seção %d alterado", position, id);
+            }
+        }
+    }
+
+    @Test
+    void rejectsInconsistentSectionsWithoutChecksums() throws IOException {
+        Path file = directory.resolve("lists.snapshot");
+        ListsSnapshotWriter.write(randomLists(new Random(260), 1_000), file, FALSE_POSITIVE_RATE);
+        byte[] bytes = Files.readAllBytes(file);
+
+        // Diretório de baldes fora de ordem e além da quantidade de CPFs: limitam as leituras das buscas
+        long buckets = sectionOffset(bytes, ListsSnapshotFormat.CPF_RESTRICTIVE_BUCKETS);
+        assertRejected(withInt(bytes, (int) buckets + Integer.BYTES * 3, Integer.MAX_VALUE), false,
+                "posição de balde além dos CPFs");
+        assertRejected(withInt(bytes, (int) buckets + Integer.BYTES, 1), false, "primeiro balde fora do início");
+        assertRejected(withInt(bytes, (int) buckets, 0), false, "deslocamento do diretório");
+
+        // Tamanho de um identificador de dispositivo além do fim da seção
+        long otherIds = sectionOffset(bytes, ListsSnapshotFormat.DEVICE_OTHER_IDS);
+        assertRejected(withInt(bytes, (int) otherIds, Integer.MAX_VALUE), false, "identificador de dispositivo");
+
+        // Taxa de falsos positivos do filtro fora de [0, 1]
+        long filter = sectionOffset(bytes, ListsSnapshotFormat.DEVICE_FILTER);
+        assertRejected(withLong(bytes, (int) filter, Double.doubleToLongBits(Double.NaN)), false, "filtro de Bloom");
+
+        // Quantidade de registros que não confere com o tamanho da seção
+        int entry = sectionEntry(bytes, ListsSnapshotFormat.IPV6_RANGES);
+        ByteBuffer header = ByteBuffer.wrap(bytes).order(ListsSnapshotFormat.BYTE_ORDER);
+        assertRejected(withHeaderCrc(withLong(bytes, entry + 8, header.getLong(entry + 8) + 1)), false,
+                "quantidade de intervalos IPv6");
+        entry = sectionEntry(bytes, ListsSnapshotFormat.DEVICE_UUIDS);
+        assertRejected(withHeaderCrc(withLong(bytes, entry + 8, header.getLong(entry + 24))), false,
+                "tabela de UUIDs cheia");
+    }
+
+    private static void assertEquivalent(Lists heap, Lists mapped, Random random) {
+        assertCpfsEquivalent(heap.getCpfPermissiveList(), mapped.getCpfPermissiveList(), random);
+        assertCpfsEquivalent(heap.getCpfRestrictiveList(), mapped.getCpfRestrictiveList(), random);
+        assertDevicesEquivalent(heap.getDeviceRestrictiveList(), mapped.getDeviceRestrictiveList(), random);
+        assertIpsEquivalent(heap.getIpRestrictiveList(), mapped.getIpRestrictiveList(), random);
+
+        assertFilterEquivalent(heap.getCpfPermissiveList().bloomFilter(FALSE_POSITIVE_RATE),
+                mapped.getCpfPermissiveFilter(), random);
+        assertFilterEquivalent(heap.getCpfRestrictiveList().bloomFilter(FALSE_POSITIVE_RATE),
+                mapped.getCpfRestrictiveFilter(), random);
+        assertFilterEquivalent(heap.getDeviceRestrictiveList().bloomFilter(FALSE_POSITIVE_RATE),
+                mapped.getDeviceRestrictiveFilter(), random);
+    }
+
+    private static void assertCpfsEquivalent(CpfList heap, CpfList mapped, Random random) {
+        assertThat(mapped.size()).isEqualTo(heap.size());
+        List<Long> probes = new ArrayList<>();
+        heap.forEach(cpf -> {
+            probes.add(cpf);
+            probes.add(cpf - 1);
+            probes.add(cpf + 1);
+        });
+        for (int i = 0; i < 10_000; i++) {
+            probes.add(Math.floorMod(random.nextLong(), CPF_RANGE));
+        }
+        probes.addAll(List.of(0L, CPF_RANGE - 1, -1L, CPF_RANGE));
+
+        for (long cpf : probes) {
+            assertThat(mapped.contains(cpf)).as("CPF %d", cpf).isEqualTo(heap.contains(cpf));
+        }
+        List<Long> listed = new ArrayList<>();
+        mapped.forEach(listed::add);
+        List<Long> expected = new ArrayList<>();
+        heap.forEach(expected::add);
+        assertThat(listed).isEqualTo(expected);
+    }
+
+    private static void assertDevicesEquivalent(DeviceIdList heap, DeviceIdList mapped, Random random) {
+        assertThat(mapped.size()).isEqualTo(heap.size());
+        List<String> probes = new ArrayList<>();
+        heap.forEachUuid((hi, lo) -> {
+            String uuid = new UUID(hi, lo).toString();
+            probes.add(uuid);
+            probes.add("{" + uuid.toUpperCase().replace("-", "") + "}");
+            probes.add(new UUID(hi, lo + 1).toString());
+        });
+        heap.forEachOtherId(id -> {
+            probes.add(id);
+            probes.add(id.toUpperCase());
+            probes.add(id + "x");
+        });
+        for (int i = 0; i < 10_000; i++) {
+            probes.add(new UUID(random.nextLong(), random.nextLong()).toString());
+            probes.add("device-" + random.nextInt(100_000));
+        }
+        probes.addAll(List.of("00000000-0000-0000-0000-000000000000", ""));
+
+        for (String id : probes) {
+            assertThat(mapped.contains(id)).as("dispositivo %s", id).isEqualTo(heap.contains(id));
+        }
+        assertThat(mapped.contains(null)).isFalse();
+    }
+
+    private static void assertIpsEquivalent(IpList heap, IpList mapped, Random random) {
+        assertThat(mapped.size()).isEqualTo(heap.size());
+        List<String> probes = new ArrayList<>();
+        heap.forEachIpv4Range((firstHi, firstLo, lastHi, lastLo) -> {
+            for (long address : new long[]{firstLo - 1, firstLo, lastLo, lastLo + 1}) {
+                if (address >= 0 && address <= 0xffffffffL) {
+                    probes.add(ipv4Text(address));
+                    probes.add("::ffff:" + ipv4Text(address));
+                }
+            }
+        });
+        heap.forEachIpv6Range((firstHi, firstLo, lastHi, lastLo) -> {
+            probes.add(ipv6Text(firstLo == 0 ? firstHi - 1 : firstHi, firstLo - 1));
+            probes.add(ipv6Text(firstHi, firstLo));
+            probes.add(ipv6Text(lastHi, lastLo));
+            probes.add(ipv6Text(lastLo == -1 ? lastHi + 1 : lastHi, lastLo + 1));
+        });
+        for (int i = 0; i < 5_000; i++) {
+            probes.add(ipv4Text(0x0a000000L | random.nextInt(1 << 20)));
+            probes.add(ipv6Text(0x20010db800000000L | random.nextInt(1 << 16), random.nextLong()));
+        }
+        probes.addAll(List.of("0.0.0.0", "255.255.255.255", "::", "::1", "not-an-ip", "10.0.0.256"));
+
+        for (String ip : probes) {
+            assertThat(mapped.contains(ip)).as("IP %s", ip).isEqualTo(heap.contains(ip));
+        }
+    }
+
+    private static void assertFilterEquivalent(BloomFilter heap, BloomFilter mapped, Random random) {
+        assertThat(mapped.entries()).isEqualTo(heap.entries());
+        assertThat(mapped.sizeInBytes()).isEqualTo(heap.sizeInBytes());
+        assertThat(mapped.falsePositiveRate()).isEqualTo(heap.falsePositiveRate());
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextLong();
+            assertThat(mapped.mightContain(key)).isEqualTo(heap.mightContain(key));
+        }
+    }
+
+    /**
+     * Listas com CPFs, dispositivos (UUIDs em várias grafias e outros identificadores) e IPs (endereços,
+     * blocos e intervalos IPv4, IPv6 e mapeados, alguns adjacentes) aleatórios.
+     */
+    private static Lists randomLists(Random random, int size) {
+        long[] permissive = new long[size];
+        long[] restrictive = new long[size];
+        for (int i = 0; i < size; i++) {
+            permissive[i] = Math.floorMod(random.nextLong(), CPF_RANGE);
+            // Parte concentrada, para baldes com muitos CPFs
+            restrictive[i] = i % 3 == 0 ? 12_345_000_000L + random.nextInt(10_000) : Math.floorMod(random.nextLong(), CPF_RANGE);
+        }
+
+        DeviceIdSet.Builder devices = new DeviceIdSet.Builder();
+        for (int i = 0; i < size; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            switch (random.nextInt(4)) {
+                case 0 -> devices.add(uuid.toString().toUpperCase());
+                case 1 -> devices.add("{" + uuid.toString().replace("-", "") + "}");
+                case 2 -> devices.add("device-" + random.nextInt(100_000));
+                default -> devices.add(uuid.toString());
+            }
+        }
+
+        IpBlockList.Builder ips = new IpBlockList.Builder();
+        int ipEntries = Math.min(size, 2_000);
+        for (int i = 0; i < ipEntries; i++) {
+            long ipv4 = 0x0a000000L | random.nextInt(1 << 20);
+            long ipv6 = 0x20010db800000000L | random.nextInt(1 << 16);
+            String entry = switch (random.nextInt(7)) {
+                case 0 -> ipv4Text(ipv4);
+                case 1 -> ipv4Text(ipv4) + "/" + (12 + random.nextInt(21));
+                case 2 -> ipv4Text(ipv4) + "-" + ipv4Text(ipv4 + random.nextInt(1_000));
+                case 3 -> "::ffff:" + ipv4Text(ipv4) + "/" + (108 + random.nextInt(21));
+                case 4 -> ipv6Text(ipv6, random.nextLong()) + "/" + (32 + random.nextInt(97));
+                case 5 -> ipv6Text(ipv6, 0) + "-" + ipv6Text(ipv6, random.nextInt(1_000));
+                // Metades adjacentes de um /24, que o gravador une em um só intervalo
+                default -> ipv4Text(ipv4 & ~0xffL) + "/25,"
+                        + ipv4Text((ipv4 & ~0xffL) | 0x80) + "/25";
+            };
+            for (String part : entry.split(",")) {
+                assertThat(ips.add(part)).as("entrada %s", part).isTrue();
+            }
+        }
+
+        return lists(CpfSet.of(permissive, size), CpfSet.of(restrictive, size), ips.build(), devices.build());
+    }
+
+    private static IpBlockList ipList(String... entries) {
+        IpBlockList.Builder builder = new IpBlockList.Builder();
+        for (String entry : entries) {
+            assertThat(builder.add(entry)).as("entrada %s", entry).isTrue();
+        }
+        return builder.build();
+    }
+
+    private static Lists lists(CpfList permissive, CpfList restrictive, IpList ips, DeviceIdList devices) {
+        Lists lists = new Lists();
+        lists.setCpfPermissiveList(permissive);
+        lists.setCpfRestrictiveList(restrictive);
+        lists.setIpRestrictiveList(ips);
+        lists.setDeviceRestrictiveList(devices);
+        return lists;
+    }
+
+    private void assertRejected(byte[] bytes, boolean verifyChecksums, String description, Object... args)
+            throws IOException {
+        Path corrupt = directory.resolve("corrupt.snapshot");
+        Files.write(corrupt, bytes);
+        assertThatThrownBy(() -> ListsSnapshotReader.read(corrupt, verifyChecksums))
+                .as(description, args)
+                .isInstanceOf(IOException.class);
+    }
+
+    private static int sectionEntry(byte[] bytes, int id) {
+        ByteBuffer header = ByteBuffer.wrap(bytes).order(ListsSnapshotFormat.BYTE_ORDER);
+        for (int i = 0; i < ListsSnapshotFormat.SECTION_COUNT; i++) {
+            int entry = ListsSnapshotFormat.sectionEntryOffset(i);
+            if (header.getInt(entry) == id) {
+                return entry;
+            }
+        }
+        throw new AssertionError("Seção " + id + " ausente");
+    }
+
+    private static long sectionOffset(byte[] bytes, int id) {
+        return ByteBuffer.wrap(bytes).order(ListsSnapshotFormat.BYTE_ORDER).getLong(sectionEntry(bytes, id) + 16);
+    }
+
+    private static byte[] withInt(byte[] bytes, int offset, int value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).order(ListsSnapshotFormat.BYTE_ORDER).putInt(offset, value);
+        return copy;
+    }
+
+    private static byte[] withLong(byte[] bytes, int offset, long value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).order(ListsSnapshotFormat.BYTE_ORDER).putLong(offset, value);
+        return copy;
+    }
+
+    /**
+     * Refaz o CRC do cabeçalho, para que a alteração chegue às conferências seguintes.
+     */
+    private static byte[] withHeaderCrc(byte[] bytes) {
+        return withHeaderCrc(bytes, ListsSnapshotFormat.SECTION_COUNT);
+    }
+
+    private static byte[] withHeaderCrc(byte[] bytes, int sectionCount) {
+        int headerLength = ListsSnapshotFormat.headerLength(sectionCount);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, headerLength - Integer.BYTES);
+        return withInt(bytes, headerLength - Integer.BYTES, (int) crc.getValue());
+    }
+
+    private static String ipv4Text(long address) {
+        return (address >>> 24 & 0xff) + "." + (address >>> 16 & 0xff) + "." + (address >>> 8 & 0xff) + "."
+                + (address & 0xff);
+    }
+
+    private static String ipv6Text(long hi, long lo) {
+        StringBuilder text = new StringBuilder();
+        for (long half : new long[]{hi, lo}) {
+            for (int shift = 48; shift >= 0; shift -= 16) {
+                if (text.length() > 0) {
+                    text.append(':');
+                }
+                text.append(Long.toHexString(half >>> shift & 0xffff));
+            }
+        }
+        return text.toString();
+    }
+}